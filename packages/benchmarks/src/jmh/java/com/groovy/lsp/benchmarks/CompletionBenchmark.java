@@ -1,17 +1,31 @@
 package com.groovy.lsp.benchmarks;
 
-import com.groovy.lsp.groovy.core.api.CompilerConfigurationService;
+import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.groovy.core.api.GroovyCoreFactory;
-import com.groovy.lsp.groovy.core.api.IncrementalCompilationService;
-import java.nio.file.Files;
+import com.groovy.lsp.groovy.core.api.TypeInferenceService;
+import com.groovy.lsp.protocol.api.LineIndex;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutors;
+import com.groovy.lsp.protocol.internal.completion.CompletionEngine;
+import com.groovy.lsp.protocol.internal.completion.CompletionResponses;
+import com.groovy.lsp.protocol.internal.completion.TypeNameIndex;
+import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
+import com.groovy.lsp.shared.workspace.api.dto.SymbolInfo;
+import com.groovy.lsp.shared.workspace.api.dto.SymbolKind;
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.eclipse.lsp4j.CompletionList;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
 /**
  * Benchmark for code completion performance.
- * Measures the time to generate completion suggestions.
+ * Measures the time to generate completion suggestions, against an index of
+ * {@value #INDEXED_TYPES} type names.
  */
 @BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
@@ -23,23 +37,38 @@ import org.openjdk.jmh.infra.Blackhole;
 @Measurement(iterations = 10, time = 1)
 public class CompletionBenchmark {
 
-    private IncrementalCompilationService compilationService;
-    private CompilerConfigurationService configService;
-    private Path workspaceRoot;
+    /** Number of type names in the index, about the size of a typical classpath. */
+    private static final int INDEXED_TYPES = 50_000;
+
+    private static final String URI = "file:///benchmark/Test.groovy";
+
+    private ASTService astService;
+    private TypeInferenceService typeInferenceService;
+    private WorkspaceIndexService indexService;
+    private CompletionEngine engine;
 
     // Test scenarios
     private String simpleCompletion;
     private String methodCompletion;
     private String importCompletion;
     private String chainedCompletion;
+    private String typeCompletion;
 
     @Setup
     public void setup() throws Exception {
-        workspaceRoot = Files.createTempDirectory("groovy-completion-benchmark");
+        astService = GroovyCoreFactory.getInstance().createASTService();
+        typeInferenceService =
+                GroovyCoreFactory.getInstance().createTypeInferenceService(astService);
+        indexService = new SyntheticIndex();
 
-        var factory = GroovyCoreFactory.getInstance();
-        compilationService = factory.createIncrementalCompilationService();
-        configService = factory.createCompilerConfigurationService();
+        // Build the type names up front, as the server does in the background
+        TypeNameIndex typeNameIndex = new TypeNameIndex();
+        typeNameIndex.rebuild(indexService);
+        engine =
+                new CompletionEngine(
+                        typeNameIndex,
+                        new CompletionResponses(),
+                        RequestExecutors.defaults().get(RequestCategory.BULK));
 
         // Initialize test scenarios
         simpleCompletion =
@@ -83,6 +112,15 @@ public class CompletionBenchmark {
                     }
                 }
                 """;
+
+        typeCompletion =
+                """
+                class Test {
+                    void test() {
+                        def value = new Type12|  // cursor position
+                    }
+                }
+                """;
     }
 
     @Benchmark
@@ -109,6 +147,12 @@ public class CompletionBenchmark {
         bh.consume(completions);
     }
 
+    @Benchmark
+    public void completeTypeName(Blackhole bh) throws Exception {
+        var completions = performCompletion(typeCompletion);
+        bh.consume(completions);
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.SingleShotTime)
     @OutputTimeUnit(TimeUnit.MICROSECONDS)
@@ -118,7 +162,7 @@ public class CompletionBenchmark {
         bh.consume(completions);
     }
 
-    private Object performCompletion(String content) throws Exception {
+    private CompletionList performCompletion(String content) throws Exception {
         // Find cursor position
         int cursorPos = content.indexOf('|');
         if (cursorPos == -1) {
@@ -128,16 +172,15 @@ public class CompletionBenchmark {
         // Remove cursor marker
         String code = content.substring(0, cursorPos) + content.substring(cursorPos + 1);
 
-        // Compile and get completion suggestions
-        var result = compilationService.compile(code, configService.getConfiguration()).get();
-
-        // TODO: Implement actual completion service call
-        // In a real implementation, we would:
-        // 1. Extract the AST node at the cursor position
-        // 2. Call the completion service with the AST context
-        // 3. Generate and return completion suggestions
-        // For benchmarking purposes, we currently only compile the code
-        return result;
+        return engine.complete(
+                code,
+                cursorPos,
+                LineIndex.of(code).positionAt(cursorPos),
+                URI,
+                astService,
+                typeInferenceService,
+                indexService,
+                CancellationToken.NONE);
     }
 
     private String generateLargeFile() {
@@ -183,8 +226,52 @@ public class CompletionBenchmark {
         return sb.toString();
     }
 
-    @TearDown
-    public void tearDown() throws Exception {
-        Files.deleteIfExists(workspaceRoot);
+    /** Index of generated workspace and dependency types. */
+    private static final class SyntheticIndex implements WorkspaceIndexService {
+
+        @Override
+        public CompletableFuture<Void> initialize() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> updateFile(Path file) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Stream<SymbolInfo>> searchSymbols(String query) {
+            Stream<SymbolInfo> symbols =
+                    IntStream.range(0, INDEXED_TYPES)
+                            .mapToObj(
+                                    i ->
+                                            i % 2 == 0
+                                                    ? new SymbolInfo(
+                                                            "com.benchmark.pkg"
+                                                                    + (i % 100)
+                                                                    + ".Type"
+                                                                    + i,
+                                                            SymbolKind.CLASS,
+                                                            Path.of(
+                                                                    "/benchmark/Type"
+                                                                            + i
+                                                                            + ".groovy"),
+                                                            1,
+                                                            1)
+                                                    : new SymbolInfo(
+                                                            "Type" + i,
+                                                            SymbolKind.INTERFACE,
+                                                            Path.of(
+                                                                    "/lib/dependency.jar!/org/dep/Type"
+                                                                            + i
+                                                                            + ".class"),
+                                                            1,
+                                                            1))
+                            .filter(symbol -> symbol.name().startsWith(query));
+            return CompletableFuture.completedFuture(symbols);
+        }
+
+        @Override
+        public void shutdown() {}
     }
 }
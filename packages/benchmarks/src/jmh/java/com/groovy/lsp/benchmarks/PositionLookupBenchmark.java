@@ -0,0 +1,74 @@
+package com.groovy.lsp.benchmarks;
+
+import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.GroovyCoreFactory;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 5000行規模のファイルに対する位置検索（ホバー・定義ジャンプ相当）のパフォーマンスを測定
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(
+        value = 2,
+        jvmArgs = {"-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class PositionLookupBenchmark {
+
+    private static final int LINES_PER_CLASS = 52;
+
+    private ASTService astService;
+    private ModuleNode moduleNode;
+    private int lineCount;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        astService = GroovyCoreFactory.getInstance().createASTService();
+        String source = generateGroovyCode(5000);
+        lineCount = (int) source.lines().count();
+        moduleNode = Objects.requireNonNull(astService.parseSource(source, "Large.groovy"));
+        // Build the position index outside of the measurement
+        astService.findNodeAtPosition(moduleNode, 1, 1);
+    }
+
+    @Benchmark
+    public void findNodeAtPosition(Blackhole bh) {
+        bh.consume(astService.findNodeAtPosition(moduleNode, nextLine(), 17));
+    }
+
+    @Benchmark
+    public void findEnclosingScope(Blackhole bh) {
+        bh.consume(astService.findEnclosingScope(moduleNode, nextLine(), 17));
+    }
+
+    private int nextLine() {
+        cursor = (cursor + LINES_PER_CLASS + 7) % lineCount;
+        return cursor + 1;
+    }
+
+    private String generateGroovyCode(int lines) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package com.benchmark\n\n");
+
+        int classCount = lines / LINES_PER_CLASS;
+        for (int i = 0; i < classCount; i++) {
+            sb.append("class GeneratedClass").append(i).append(" {\n");
+            for (int j = 0; j < 10; j++) {
+                sb.append("    def method").append(j).append("(param) {\n");
+                sb.append("        def result = param * ").append(j).append("\n");
+                sb.append("        [result].each { println it }\n");
+                sb.append("        return result\n");
+                sb.append("    }\n");
+            }
+            sb.append("}\n");
+        }
+        return sb.toString();
+    }
+}
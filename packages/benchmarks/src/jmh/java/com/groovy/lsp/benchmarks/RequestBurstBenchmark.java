@@ -0,0 +1,174 @@
+package com.groovy.lsp.benchmarks;
+
+import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CompilationPermits;
+import com.groovy.lsp.groovy.core.api.GroovyCoreFactory;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+/**
+ * 200件の同時リクエストを処理する時間を、プラットフォームスレッドと仮想スレッドで比較する。
+ *
+ * 各リクエストはインデックス検索相当のブロッキング待ちの後に、リクエストごとに異なる
+ * Groovyソースを解析する。バーストごとにASTServiceを作り直すため、ASTキャッシュは効かない。
+ * プラットフォームスレッドは従来のJSON-RPCディスパッチと同じキャッシュ型のプール、
+ * 仮想スレッドは多数の同時実行とプロセッサ数のコンパイル許可数の組み合わせで実行する。
+ * スコアはバースト全体の処理時間。計測終了時に、バースト中のプラットフォームスレッド数と
+ * ヒープ使用量の最大値、リクエスト単位のレイテンシ分布を出力する。
+ * 割り当て量は {@code -prof gc} で比較する。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(
+        value = 2,
+        jvmArgs = {"-Xms2G", "-Xmx2G"})
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+public class RequestBurstBenchmark {
+
+    private static final int BURST_SIZE = 200;
+
+    /** Time a request blocks, standing in for an index lookup. */
+    private static final long BLOCKING_MILLIS = 5;
+
+    private static final int VIRTUAL_CONCURRENCY = 256;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    private CompilationPermits permits;
+    private Executor executor;
+    private Runnable shutdown;
+    private String[] sources;
+    private ASTService astService;
+
+    // Collected during measurement iterations only
+    private final List<long[]> latencies = new ArrayList<>();
+    private long peakPlatformThreads;
+    private long peakHeapUsed;
+    private boolean measuring;
+
+    @Setup
+    public void setup() {
+        if ("virtual".equals(threads)) {
+            permits = new CompilationPermits(Runtime.getRuntime().availableProcessors());
+            // The queue holds the whole burst so that no request is rejected
+            RequestExecutor requests =
+                    new RequestExecutor(
+                            RequestCategory.INTERACTIVE, VIRTUAL_CONCURRENCY, BURST_SIZE, true);
+            executor = requests;
+            shutdown = requests::shutdown;
+        } else {
+            permits = CompilationPermits.UNLIMITED;
+            ExecutorService requests = Executors.newCachedThreadPool();
+            executor = requests;
+            shutdown = requests::shutdown;
+        }
+        sources = new String[BURST_SIZE];
+        for (int i = 0; i < BURST_SIZE; i++) {
+            sources[i] = generateGroovyCode(i, 20);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void startBurst() {
+        // A fresh service has an empty AST cache, so every request parses its source
+        astService = GroovyCoreFactory.getInstance().createASTService(permits);
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration(IterationParams params) {
+        measuring = params.getType() == IterationType.MEASUREMENT;
+    }
+
+    @TearDown
+    public void tearDown() {
+        shutdown.run();
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        if (all.length > 0) {
+            System.out.printf(
+                    "%n%s threads: peak %d platform threads, peak heap %d MB,"
+                            + " request latency p50 %d us, p99 %d us, p99.9 %d us%n",
+                    threads,
+                    peakPlatformThreads,
+                    peakHeapUsed >> 20,
+                    percentileMicros(all, 0.50),
+                    percentileMicros(all, 0.99),
+                    percentileMicros(all, 0.999));
+        }
+    }
+
+    @Benchmark
+    public void burstOf200Requests(Blackhole bh) throws Exception {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        long[] latencies = new long[BURST_SIZE];
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[BURST_SIZE];
+        for (int i = 0; i < BURST_SIZE; i++) {
+            int request = i;
+            long submitted = System.nanoTime();
+            requests[i] =
+                    CompletableFuture.supplyAsync(
+                            () -> {
+                                try {
+                                    Thread.sleep(BLOCKING_MILLIS);
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                                Object ast =
+                                        astService.parseSource(
+                                                sources[request], "Burst" + request + ".groovy");
+                                latencies[request] = System.nanoTime() - submitted;
+                                return ast;
+                            },
+                            executor);
+        }
+        // Every request is running or queued at this point
+        long platformThreads = threadBean.getThreadCount();
+        CompletableFuture.allOf(requests).get();
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+
+        if (measuring) {
+            this.latencies.add(latencies);
+            peakPlatformThreads = Math.max(peakPlatformThreads, platformThreads);
+            peakHeapUsed = Math.max(peakHeapUsed, heapUsed);
+        }
+        bh.consume(requests);
+    }
+
+    private static long percentileMicros(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return TimeUnit.NANOSECONDS.toMicros(sorted[Math.max(0, index)]);
+    }
+
+    private String generateGroovyCode(int index, int methods) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package com.benchmark\n\n");
+        sb.append("class BurstClass").append(index).append(" {\n");
+        for (int i = 0; i < methods; i++) {
+            sb.append("    def method").append(i).append("(param) {\n");
+            sb.append("        def result = param * ").append(i).append("\n");
+            sb.append("        [result].each { println it }\n");
+            sb.append("        return result\n");
+            sb.append("    }\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+}
@@ -3,6 +3,7 @@ package com.groovy.lsp.formatting.service;
 import com.google.googlejavaformat.java.FormatterException;
 import com.groovy.lsp.formatting.GroovyFormatter;
 import com.groovy.lsp.formatting.options.FormatOptions;
+import com.groovy.lsp.protocol.api.LineIndex;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -112,8 +113,9 @@ public class FormattingService {
                         GroovyFormatter customFormatter = new GroovyFormatter(formatOptions);
 
                         // Calculate offset and length from range
-                        int offset = calculateOffset(documentContent, range.getStart());
-                        int endOffset = calculateOffset(documentContent, range.getEnd());
+                        LineIndex lines = LineIndex.of(documentContent);
+                        int offset = lines.offsetAt(range.getStart());
+                        int endOffset = lines.offsetAt(range.getEnd());
                         int length = endOffset - offset;
 
                         // Format the range
@@ -159,10 +161,7 @@ public class FormattingService {
      */
     private TextEdit createFullDocumentEdit(String original, String formatted) {
         // Calculate the range of the entire document
-        int lines = countLines(original);
-        int lastLineLength = getLastLineLength(original);
-
-        Range fullRange = new Range(new Position(0, 0), new Position(lines - 1, lastLineLength));
+        Range fullRange = new Range(new Position(0, 0), LineIndex.of(original).getEndPosition());
 
         return new TextEdit(fullRange, formatted);
     }
@@ -183,51 +182,4 @@ public class FormattingService {
         // TODO: Implement proper range extraction based on range parameter
         return createFullDocumentEdit(original, formatted);
     }
-
-    /**
-     * Calculates the character offset for a given position
-     */
-    private int calculateOffset(String content, Position position) {
-        String[] lines = content.split("\n", -1);
-        int offset = 0;
-
-        for (int i = 0; i < position.getLine() && i < lines.length; i++) {
-            offset += lines[i].length() + 1; // +1 for newline
-        }
-
-        if (position.getLine() < lines.length) {
-            offset += Math.min(position.getCharacter(), lines[position.getLine()].length());
-        }
-
-        return offset;
-    }
-
-    /**
-     * Counts the number of lines in the content
-     */
-    private int countLines(String content) {
-        if (content.isEmpty()) {
-            return 1;
-        }
-
-        int lines = 1;
-        for (int i = 0; i < content.length(); i++) {
-            if (content.charAt(i) == '\n') {
-                lines++;
-            }
-        }
-
-        return lines;
-    }
-
-    /**
-     * Gets the length of the last line
-     */
-    private int getLastLineLength(String content) {
-        int lastNewline = content.lastIndexOf('\n');
-        if (lastNewline == -1) {
-            return content.length();
-        }
-        return content.length() - lastNewline - 1;
-    }
 }
@@ -3,6 +3,7 @@ package com.groovy.lsp.groovy.core.api;
 import java.util.List;
 import org.codehaus.groovy.ast.ASTNode;
 import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.Expression;
 import org.codehaus.groovy.ast.expr.MethodCallExpression;
 import org.codehaus.groovy.ast.expr.VariableExpression;
 import org.codehaus.groovy.control.CompilerConfiguration;
@@ -39,6 +40,71 @@ public interface ASTService {
     @Nullable ModuleNode parseSource(
             String sourceCode, String sourceName, CompilerConfiguration config);
 
+    /**
+     * Parses Groovy source code, abandoning the parse as soon as the token requests
+     * cancellation (checked between compilation phases and per class node).
+     *
+     * @param sourceCode the source code to parse
+     * @param sourceName the name of the source
+     * @param cancellationToken token checked while parsing
+     * @return the parsed ModuleNode or null if parsing failed
+     * @throws java.util.concurrent.CancellationException if the token requested cancellation
+     */
+    @Nullable ModuleNode parseSource(
+            String sourceCode, String sourceName, CancellationToken cancellationToken);
+
+    /**
+     * Parses a temporary variant of a source, such as the document with a placeholder
+     * inserted at the cursor, like {@link #parseSource(String, String, CancellationToken)}.
+     * The result is neither cached nor remembered as the last source of the name that
+     * compiled, so the variant never stands in for the real document. Recovery still uses
+     * the last source of the name that compiled, but never returns that older source in
+     * place of the variant.
+     *
+     * @param sourceCode the source code of the variant
+     * @param sourceName the name of the source the variant was derived from
+     * @param cancellationToken token checked while parsing
+     * @return the parsed ModuleNode or null if parsing failed
+     * @throws java.util.concurrent.CancellationException if the token requested cancellation
+     */
+    @Nullable ModuleNode parseTransient(
+            String sourceCode, String sourceName, CancellationToken cancellationToken);
+
+    /**
+     * Enables or disables recovery parsing, which is off by default. With recovery, source
+     * code that fails to compile still yields a partial AST: the lines with syntax errors, or
+     * failing that the lines edited since the last source that compiled, are left out, and
+     * as a last resort a fresh AST of that last source is returned. Nodes of a partial AST
+     * keep their positions in the real source. The last-resort AST is not cached, and the
+     * position lookups of this service return null for it, since its positions belong to
+     * the older source.
+     *
+     * @param enabled whether to recover partial ASTs from source code with errors
+     */
+    void setRecoveryEnabled(boolean enabled);
+
+    /**
+     * Parses Groovy source code only up to the conversion phase. Declarations and their
+     * positions are available, but no names are resolved and no transforms have run.
+     * The result is not cached, so callers that only extract declarations (indexing,
+     * outlines) do not keep the AST alive.
+     *
+     * @param sourceCode the source code to parse
+     * @param sourceName the name of the source
+     * @return the unresolved ModuleNode or null if parsing failed
+     */
+    @Nullable ModuleNode parseDeclarations(String sourceCode, String sourceName);
+
+    /**
+     * Extracts the outline of Groovy source code: its types and their fields, properties,
+     * constructors and methods. Method bodies and closures are not part of the outline.
+     *
+     * @param sourceCode the source code to analyze
+     * @param sourceName the name of the source
+     * @return the top-level outline elements, or an empty list if parsing failed
+     */
+    List<OutlineElement> parseOutline(String sourceCode, String sourceName);
+
     /**
      * Finds the AST node at the specified position.
      *
@@ -49,6 +115,27 @@ public interface ASTService {
      */
     @Nullable ASTNode findNodeAtPosition(ModuleNode moduleNode, int line, int column);
 
+    /**
+     * Finds the innermost class, method, constructor or closure enclosing the position.
+     *
+     * @param moduleNode the module to search in
+     * @param line the line number (1-based)
+     * @param column the column number (1-based)
+     * @return the enclosing scope node or null if the position is outside of any scope
+     */
+    @Nullable ASTNode findEnclosingScope(ModuleNode moduleNode, int line, int column);
+
+    /**
+     * Finds the innermost method, static method or constructor call enclosing the position,
+     * e.g. to show the signature of the method whose arguments are being typed.
+     *
+     * @param moduleNode the module to search in
+     * @param line the line number (1-based)
+     * @param column the column number (1-based)
+     * @return the call expression or null if the position is outside of any call
+     */
+    @Nullable Expression findEnclosingCall(ModuleNode moduleNode, int line, int column);
+
     /**
      * Finds all variable expressions in the module.
      *
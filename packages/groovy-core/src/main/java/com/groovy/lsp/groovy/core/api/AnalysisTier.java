@@ -0,0 +1,34 @@
+package com.groovy.lsp.groovy.core.api;
+
+/**
+ * How much analysis a document receives.
+ *
+ * <p>Lower tiers keep the server responsive on very large or slow to compile documents,
+ * such as generated sources and test fixtures.</p>
+ */
+public enum AnalysisTier {
+    /** Semantic diagnostics and AST based navigation. */
+    FULL,
+    /** Syntax diagnostics and outline based navigation, without semantic analysis or lint. */
+    SYNTAX_ONLY,
+    /** No diagnostics and no navigation; the document is only kept in sync. */
+    DISABLED;
+
+    /**
+     * Checks whether documents of this tier are semantically analyzed.
+     *
+     * @return true for the full tier
+     */
+    public boolean allowsSemanticAnalysis() {
+        return this == FULL;
+    }
+
+    /**
+     * Checks whether documents of this tier are parsed at all.
+     *
+     * @return true unless the tier is disabled
+     */
+    public boolean allowsSyntaxAnalysis() {
+        return this != DISABLED;
+    }
+}
@@ -0,0 +1,69 @@
+package com.groovy.lsp.groovy.core.api;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Chooses the {@link AnalysisTier} of each document.
+ *
+ * <p>The tier follows from the document length, from how long its recent semantic compiles
+ * took, and from a per-document override. Documents are demoted to
+ * {@link AnalysisTier#SYNTAX_ONLY} after several slow compiles in a row, are compiled
+ * again from time to time while demoted, and are promoted back once a compile is fast.</p>
+ */
+public interface AnalysisTierService {
+
+    /**
+     * Thresholds for choosing the tier of a document.
+     *
+     * @param syntaxOnlyLength the document length in characters above which only syntax is
+     *     analyzed
+     * @param disabledLength the document length in characters above which analysis is off
+     * @param slowCompileMillis the semantic compile time above which a compile counts as
+     *     slow
+     */
+    record Thresholds(long syntaxOnlyLength, long disabledLength, long slowCompileMillis) {
+
+        /** One million characters, ten million characters and two seconds. */
+        public static final Thresholds DEFAULTS = new Thresholds(1_000_000, 10_000_000, 2_000);
+    }
+
+    /**
+     * Gets the tier of a document.
+     *
+     * @param uri the document URI
+     * @param length the current document length in characters
+     * @return the tier
+     */
+    AnalysisTier getTier(String uri, long length);
+
+    /**
+     * Records how long a semantic compile of a document took.
+     *
+     * @param uri the document URI
+     * @param millis the compile time in milliseconds
+     */
+    void recordCompileTime(String uri, long millis);
+
+    /**
+     * Fixes the tier of a document regardless of its size and compile time.
+     *
+     * @param uri the document URI
+     * @param tier the tier, or null to choose it automatically again
+     */
+    void setOverride(String uri, @Nullable AnalysisTier tier);
+
+    /**
+     * Gets the override of a document.
+     *
+     * @param uri the document URI
+     * @return the tier set by {@link #setOverride}, or null if there is none
+     */
+    @Nullable AnalysisTier getOverride(String uri);
+
+    /**
+     * Forgets the compile times of a closed document. Overrides are kept.
+     *
+     * @param uri the document URI
+     */
+    void forget(String uri);
+}
@@ -0,0 +1,49 @@
+package com.groovy.lsp.groovy.core.api;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cooperative cancellation signal for long-running compilation and analysis work.
+ *
+ * <p>Callers supply a token whose state they control (for example "the document
+ * version this compile was started for is no longer current"); services poll it
+ * between compilation phases and per class node, and abandon the work by throwing
+ * {@link CancellationException} as soon as cancellation is requested.</p>
+ */
+@FunctionalInterface
+public interface CancellationToken {
+
+    /**
+     * A token that is never cancelled.
+     */
+    CancellationToken NONE = () -> false;
+
+    /**
+     * Returns whether the caller is no longer interested in the result.
+     *
+     * @return true if the work should be abandoned
+     */
+    boolean isCancellationRequested();
+
+    /**
+     * Throws {@link CancellationException} if cancellation has been requested.
+     *
+     * @throws CancellationException if the work should be abandoned
+     */
+    default void throwIfCancellationRequested() {
+        if (isCancellationRequested()) {
+            throw new CancellationException("Operation was cancelled");
+        }
+    }
+
+    /**
+     * Combines this token with another, for work that is abandoned for either reason
+     * (for example a request cancelled by the client or a superseded document version).
+     *
+     * @param other the other token
+     * @return a token that requests cancellation once either token does
+     */
+    default CancellationToken or(CancellationToken other) {
+        return () -> isCancellationRequested() || other.isCancellationRequested();
+    }
+}
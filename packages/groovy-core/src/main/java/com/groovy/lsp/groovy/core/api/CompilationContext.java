@@ -0,0 +1,79 @@
+package com.groovy.lsp.groovy.core.api;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.jmolecules.ddd.annotation.ValueObject;
+
+/**
+ * Per-project compilation context: the compiler configuration, the resolved classpath
+ * and the class loader shared by every compilation of the project.
+ *
+ * <p>The dependency classpath lives only in the shared class loader, not in the
+ * configuration, so creating a compilation unit from a context does not re-open the
+ * project's jars. A context is built once and replaced as a whole when the build files
+ * change; the configuration must be treated as read-only.</p>
+ */
+@ValueObject
+public final class CompilationContext {
+
+    private final CompilerConfiguration configuration;
+    private final List<Path> classpath;
+    private final ClassLoader classLoader;
+    private final long generation;
+
+    /**
+     * Creates a new compilation context.
+     *
+     * @param configuration the compiler configuration shared by all compilations
+     * @param classpath the resolved project classpath
+     * @param classLoader the class loader that loads the classpath entries
+     * @param generation the number of times the context of the project has been built
+     */
+    public CompilationContext(
+            CompilerConfiguration configuration,
+            List<Path> classpath,
+            ClassLoader classLoader,
+            long generation) {
+        this.configuration = configuration;
+        this.classpath = List.copyOf(classpath);
+        this.classLoader = classLoader;
+        this.generation = generation;
+    }
+
+    /**
+     * Gets the compiler configuration. Callers must not modify it.
+     *
+     * @return the shared compiler configuration
+     */
+    public CompilerConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Gets the resolved project classpath.
+     *
+     * @return an unmodifiable list of classpath entries
+     */
+    public List<Path> getClasspath() {
+        return classpath;
+    }
+
+    /**
+     * Gets the class loader shared by all compilations of the project.
+     *
+     * @return the shared class loader
+     */
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * Gets the generation of this context, incremented on every rebuild.
+     *
+     * @return the context generation
+     */
+    public long getGeneration() {
+        return generation;
+    }
+}
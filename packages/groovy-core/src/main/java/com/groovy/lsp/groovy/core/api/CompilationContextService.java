@@ -0,0 +1,60 @@
+package com.groovy.lsp.groovy.core.api;
+
+import java.nio.file.Path;
+import java.util.Set;
+import org.codehaus.groovy.control.CompilerConfiguration;
+
+/**
+ * Owns the {@link CompilationContext} of a project.
+ *
+ * <p>The context is built lazily on first use and kept until {@link #invalidate()} is
+ * called, typically because a build file changed. Every compilation in between shares
+ * the same configuration and class loader.</p>
+ */
+public interface CompilationContextService {
+
+    /**
+     * File names whose changes can alter the project classpath.
+     */
+    Set<String> BUILD_FILE_NAMES =
+            Set.of(
+                    "build.gradle",
+                    "build.gradle.kts",
+                    "settings.gradle",
+                    "settings.gradle.kts",
+                    "gradle.properties",
+                    "libs.versions.toml",
+                    "pom.xml");
+
+    /**
+     * Gets the current compilation context, building it if necessary.
+     *
+     * @return the current compilation context
+     */
+    CompilationContext getContext();
+
+    /**
+     * Gets the configuration for compiles that stop before classes are resolved, such as
+     * syntax checks up to the conversion phase. It carries no classpath, so getting it
+     * never waits for the context to be built.
+     *
+     * @return the project configuration without classpath, to be treated as read-only
+     */
+    CompilerConfiguration getSyntaxConfiguration();
+
+    /**
+     * Discards the current context so that the next {@link #getContext()} rebuilds it.
+     */
+    void invalidate();
+
+    /**
+     * Checks whether a change to the given file requires the context to be rebuilt.
+     *
+     * @param file the changed file
+     * @return true if the file is a build file
+     */
+    default boolean isBuildFile(Path file) {
+        Path fileName = file.getFileName();
+        return fileName != null && BUILD_FILE_NAMES.contains(fileName.toString());
+    }
+}
@@ -0,0 +1,79 @@
+package com.groovy.lsp.groovy.core.api;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Limits how many Groovy compilations of the services sharing it run at the same time.
+ *
+ * <p>Without a limit the number of compilations is bounded by the threads calling into the
+ * compiler. That no longer holds when requests run on virtual threads, so the launcher
+ * hands the services one instance that caps the CPU-bound work, while blocking work like
+ * index lookups stays unbounded. A compilation waiting for a permit keeps polling its
+ * {@link CancellationToken}.</p>
+ */
+public final class CompilationPermits {
+
+    /** Permits that never make a compilation wait. */
+    public static final CompilationPermits UNLIMITED = new CompilationPermits(0);
+
+    /** Interval in which a waiting compilation checks its token. */
+    private static final long POLL_INTERVAL_MS = 20;
+
+    private final int maxConcurrent;
+    private final @Nullable Semaphore permits;
+
+    /**
+     * Creates the permits.
+     *
+     * @param maxConcurrent the maximum number of concurrent compilations, or 0 or less for
+     *     no limit
+     */
+    public CompilationPermits(int maxConcurrent) {
+        this.maxConcurrent = Math.max(0, maxConcurrent);
+        this.permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+    }
+
+    /**
+     * Gets the maximum number of concurrent compilations.
+     *
+     * @return the maximum number of concurrent compilations, or 0 if there is no limit
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Waits for a permit. Every successful call must be followed by {@link #release()}.
+     *
+     * @param token the token of the waiting compilation
+     * @throws CancellationException if the token requested cancellation or the thread was
+     *     interrupted while waiting
+     */
+    public void acquire(CancellationToken token) {
+        Semaphore current = permits;
+        if (current == null) {
+            return;
+        }
+        try {
+            while (!current.tryAcquire(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                token.throwIfCancellationRequested();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a compile permit");
+        }
+    }
+
+    /**
+     * Releases a permit taken by {@link #acquire}.
+     */
+    public void release() {
+        Semaphore current = permits;
+        if (current != null) {
+            current.release();
+        }
+    }
+}
@@ -20,11 +20,22 @@ public class CompilationResult {
 
     private final boolean successful;
 
+    private final long compileTimeMillis;
+
     private CompilationResult(
             @Nullable ModuleNode moduleNode, List<CompilationError> errors, boolean successful) {
+        this(moduleNode, errors, successful, 0);
+    }
+
+    private CompilationResult(
+            @Nullable ModuleNode moduleNode,
+            List<CompilationError> errors,
+            boolean successful,
+            long compileTimeMillis) {
         this.moduleNode = moduleNode;
         this.errors = Collections.unmodifiableList(errors);
         this.successful = successful;
+        this.compileTimeMillis = compileTimeMillis;
     }
 
     /**
@@ -95,6 +106,25 @@ public class CompilationResult {
         return !errors.isEmpty();
     }
 
+    /**
+     * Gets the time spent compiling, without the time spent waiting for a compile permit.
+     *
+     * @return the compile time in milliseconds, or 0 for a cached result
+     */
+    public long getCompileTimeMillis() {
+        return compileTimeMillis;
+    }
+
+    /**
+     * Creates a copy of this result with the given compile time.
+     *
+     * @param millis the compile time in milliseconds
+     * @return the result with the compile time
+     */
+    public CompilationResult withCompileTime(long millis) {
+        return new CompilationResult(moduleNode, errors, successful, millis);
+    }
+
     /**
      * Represents a compilation error with detailed information.
      */
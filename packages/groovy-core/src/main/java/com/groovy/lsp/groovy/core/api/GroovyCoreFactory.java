@@ -1,9 +1,18 @@
 package com.groovy.lsp.groovy.core.api;
 
 import com.groovy.lsp.groovy.core.internal.impl.ASTServiceImpl;
+import com.groovy.lsp.groovy.core.internal.impl.AnalysisTierServiceImpl;
+import com.groovy.lsp.groovy.core.internal.impl.CompilationContextServiceImpl;
 import com.groovy.lsp.groovy.core.internal.impl.CompilerFactoryImpl;
 import com.groovy.lsp.groovy.core.internal.impl.IncrementalCompilationServiceImpl;
+import com.groovy.lsp.groovy.core.internal.impl.ModuleOutlineCacheImpl;
+import com.groovy.lsp.groovy.core.internal.impl.OutlineClassStubs;
+import com.groovy.lsp.groovy.core.internal.impl.ParserCacheServiceImpl;
+import com.groovy.lsp.groovy.core.internal.impl.ProjectModelServiceImpl;
+import com.groovy.lsp.groovy.core.internal.impl.SharedClassNodeResolver;
 import com.groovy.lsp.groovy.core.internal.impl.TypeInferenceServiceImpl;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
 import org.jmolecules.ddd.annotation.Factory;
 
 /**
@@ -23,11 +32,21 @@ public class GroovyCoreFactory {
     private final TypeInferenceService typeInferenceService;
     private final IncrementalCompilationService incrementalCompilationService;
 
+    // The parser caches are static, so a single service manages them for the whole JVM
+    private final ParserCacheService parserCacheService;
+
+    // Class resolution results are shared by every service this factory creates
+    private final SharedClassNodeResolver classNodeResolver;
+
     private GroovyCoreFactory() {
-        this.astService = new ASTServiceImpl();
+        // Created first so that its parser settings apply before any parse
+        this.parserCacheService = new ParserCacheServiceImpl();
+        this.classNodeResolver = new SharedClassNodeResolver();
+        this.astService = new ASTServiceImpl(classNodeResolver);
         this.compilerConfigurationService = new CompilerFactoryImpl();
         this.typeInferenceService = new TypeInferenceServiceImpl(this.astService);
-        this.incrementalCompilationService = new IncrementalCompilationServiceImpl();
+        this.incrementalCompilationService =
+                new IncrementalCompilationServiceImpl(classNodeResolver);
     }
 
     /**
@@ -45,7 +64,17 @@ public class GroovyCoreFactory {
      * @return a new ASTService instance
      */
     public ASTService createASTService() {
-        return new ASTServiceImpl();
+        return createASTService(CompilationPermits.UNLIMITED);
+    }
+
+    /**
+     * Creates a new ASTService instance whose compilations take a permit first.
+     *
+     * @param permits the permits limiting concurrent compilations
+     * @return a new ASTService instance
+     */
+    public ASTService createASTService(CompilationPermits permits) {
+        return new ASTServiceImpl(classNodeResolver, permits);
     }
 
     /**
@@ -100,7 +129,81 @@ public class GroovyCoreFactory {
      * @return a new IncrementalCompilationService instance
      */
     public IncrementalCompilationService createIncrementalCompilationService() {
-        return new IncrementalCompilationServiceImpl();
+        return createIncrementalCompilationService(CompilationPermits.UNLIMITED);
+    }
+
+    /**
+     * Creates a new IncrementalCompilationService instance whose compilations take a permit
+     * first.
+     *
+     * @param permits the permits limiting concurrent compilations
+     * @return a new IncrementalCompilationService instance
+     */
+    public IncrementalCompilationService createIncrementalCompilationService(
+            CompilationPermits permits) {
+        return new IncrementalCompilationServiceImpl(classNodeResolver, permits);
+    }
+
+    /**
+     * Creates a new CompilationContextService for a project.
+     *
+     * @param classpathProvider the provider of the project classpath
+     * @return a new CompilationContextService instance
+     */
+    public CompilationContextService createCompilationContextService(
+            ProjectClasspathProvider classpathProvider) {
+        return new CompilationContextServiceImpl(classpathProvider, classNodeResolver);
+    }
+
+    /**
+     * Creates a new ProjectModelService. Its classes become visible to the compilations of
+     * every service created by this factory.
+     *
+     * @param contextService the compilation context of the project
+     * @return a new ProjectModelService instance
+     */
+    public ProjectModelService createProjectModelService(CompilationContextService contextService) {
+        return createProjectModelService(contextService, CompilationPermits.UNLIMITED);
+    }
+
+    /**
+     * Creates a new ProjectModelService whose compilations take a permit first.
+     *
+     * @param contextService the compilation context of the project
+     * @param permits the permits limiting concurrent compilations
+     * @return a new ProjectModelService instance
+     */
+    public ProjectModelService createProjectModelService(
+            CompilationContextService contextService, CompilationPermits permits) {
+        return new ProjectModelServiceImpl(contextService, classNodeResolver, permits);
+    }
+
+    /**
+     * Creates a new AnalysisTierService.
+     *
+     * @param thresholds the thresholds for choosing the tier of a document
+     * @return a new AnalysisTierService instance
+     */
+    public AnalysisTierService createAnalysisTierService(
+            AnalysisTierService.Thresholds thresholds) {
+        return new AnalysisTierServiceImpl(thresholds);
+    }
+
+    /**
+     * Creates a new ModuleOutlineCache that stores outlines in the given directory. The
+     * classes declared by its outlines are resolved as stubs by the compilations of every
+     * service created by this factory, so a file compiles without its workspace
+     * dependencies.
+     *
+     * @param directory the cache directory, created when the first outline is stored
+     * @param writeExecutor the executor that writes stored outlines to disk
+     * @return a new ModuleOutlineCache instance
+     */
+    public ModuleOutlineCache createModuleOutlineCache(Path directory, Executor writeExecutor) {
+        ModuleOutlineCacheImpl outlineCache =
+                new ModuleOutlineCacheImpl(directory, astService, writeExecutor);
+        classNodeResolver.setWorkspaceStubs(new OutlineClassStubs(outlineCache)::find);
+        return outlineCache;
     }
 
     /**
@@ -111,4 +214,13 @@ public class GroovyCoreFactory {
     public IncrementalCompilationService getIncrementalCompilationService() {
         return incrementalCompilationService;
     }
+
+    /**
+     * Gets the shared ParserCacheService instance.
+     *
+     * @return the shared ParserCacheService instance
+     */
+    public ParserCacheService getParserCacheService() {
+        return parserCacheService;
+    }
 }
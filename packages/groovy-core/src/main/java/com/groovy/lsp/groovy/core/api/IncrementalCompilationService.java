@@ -2,6 +2,7 @@ package com.groovy.lsp.groovy.core.api;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import org.codehaus.groovy.ast.ModuleNode;
 import org.codehaus.groovy.control.CompilationUnit;
 import org.codehaus.groovy.control.CompilerConfiguration;
@@ -21,6 +22,15 @@ public interface IncrementalCompilationService {
      */
     CompilationUnit createCompilationUnit(CompilerConfiguration config);
 
+    /**
+     * Creates a new compilation unit that compiles against a project compilation context,
+     * reusing its configuration and shared class loader.
+     *
+     * @param context the project compilation context
+     * @return a new CompilationUnit instance
+     */
+    CompilationUnit createCompilationUnit(CompilationContext context);
+
     /**
      * Compiles a source file up to the specified phase.
      *
@@ -33,6 +43,25 @@ public interface IncrementalCompilationService {
     @Nullable ModuleNode compileToPhase(
             CompilationUnit unit, String sourceCode, String sourceName, CompilationPhase phase);
 
+    /**
+     * Compiles a source file up to the specified phase, polling the given token between
+     * phases and per class node so that stale compiles can be abandoned early.
+     *
+     * @param unit the compilation unit
+     * @param sourceCode the source code to compile
+     * @param sourceName the name of the source file
+     * @param phase the target compilation phase
+     * @param cancellationToken token checked while compiling
+     * @return the compiled ModuleNode, or null if compilation fails
+     * @throws java.util.concurrent.CancellationException if the token requested cancellation
+     */
+    @Nullable ModuleNode compileToPhase(
+            CompilationUnit unit,
+            String sourceCode,
+            String sourceName,
+            CompilationPhase phase,
+            CancellationToken cancellationToken);
+
     /**
      * Compiles a source file up to the specified phase with detailed error information.
      *
@@ -45,6 +74,25 @@ public interface IncrementalCompilationService {
     CompilationResult compileToPhaseWithResult(
             CompilationUnit unit, String sourceCode, String sourceName, CompilationPhase phase);
 
+    /**
+     * Compiles a source file up to the specified phase with detailed error information,
+     * polling the given token between phases and per class node.
+     *
+     * @param unit the compilation unit
+     * @param sourceCode the source code to compile
+     * @param sourceName the name of the source file
+     * @param phase the target compilation phase
+     * @param cancellationToken token checked while compiling
+     * @return the compilation result including AST and any errors
+     * @throws java.util.concurrent.CancellationException if the token requested cancellation
+     */
+    CompilationResult compileToPhaseWithResult(
+            CompilationUnit unit,
+            String sourceCode,
+            String sourceName,
+            CompilationPhase phase,
+            CancellationToken cancellationToken);
+
     /**
      * Incrementally updates a previously compiled module.
      *
@@ -75,7 +123,67 @@ public interface IncrementalCompilationService {
     List<String> getAffectedModules(String changedModule, Map<String, ModuleNode> allModules);
 
     /**
-     * Clears the compilation cache for a specific source.
+     * Attaches a persistent outline cache. The dependency graph is seeded from the stored
+     * outlines, so that affected modules are known before anything is compiled, and every
+     * successful compilation stores the outline of its source.
+     *
+     * @param outlineCache the outline cache
+     */
+    void setOutlineCache(ModuleOutlineCache outlineCache);
+
+    /**
+     * Marks a source as open or closed in the editor. Closing a source schedules the
+     * compaction of every source that is not open, see {@link #compactClosedSources()}.
+     *
+     * @param sourceName the name of the source file
+     * @param open whether the source is open
+     */
+    void setSourceOpen(String sourceName, boolean open);
+
+    /**
+     * Sets the executor that compacts the cached ASTs of sources that are not open in the
+     * background. Compaction is scheduled when a source is closed and when a source that
+     * is not open is compiled. Without an executor, sources are only compacted by
+     * {@link #compactClosedSources()}.
+     *
+     * @param executor the executor to compact on
+     */
+    void setCompactionExecutor(Executor executor);
+
+    /**
+     * Compacts the cached ASTs of all sources that are not open into declaration
+     * skeletons. A skeleton keeps classes, members, signatures and positions but no
+     * bodies, so the cache can hold the whole project. Skeletons are built from a fresh
+     * parse of the cached source to the conversion phase, so modules returned earlier stay
+     * intact and the types of a skeleton are unresolved; compiling the source again or
+     * calling {@link #getCachedModule(String)} rehydrates the full tree.
+     *
+     * @return the number of compacted modules
+     */
+    int compactClosedSources();
+
+    /**
+     * Gets the cached module of a source without compiling it, which is a declaration
+     * skeleton if the source has been compacted.
+     *
+     * @param sourceName the name of the source file
+     * @return the cached module, or null if the source is not cached
+     */
+    @Nullable ModuleNode getCachedDeclarations(String sourceName);
+
+    /**
+     * Gets the full cached AST of a source, recompiling the cached source code with its
+     * original configuration if the module has been compacted. The rehydrated tree is
+     * cached and kept full until the source is closed again.
+     *
+     * @param sourceName the name of the source file
+     * @return the full module, or null if the source is not cached or fails to compile
+     */
+    @Nullable ModuleNode getCachedModule(String sourceName);
+
+    /**
+     * Clears the compilation cache for a specific source, including its stored outline, so
+     * a deleted source no longer resolves as a workspace class.
      *
      * @param sourceName the name of the source to clear from cache
      */
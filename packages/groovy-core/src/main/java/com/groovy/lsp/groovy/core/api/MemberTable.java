@@ -0,0 +1,155 @@
+package com.groovy.lsp.groovy.core.api;
+
+import com.groovy.lsp.groovy.core.internal.impl.MemberTableBuilder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
+import org.jmolecules.ddd.annotation.ValueObject;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The members callable on instances of a type: its own and inherited methods, properties
+ * and fields, and the GDK extension methods that apply to it.
+ *
+ * <p>Tables are built once per {@link ClassNode} and stored in its node metadata. Types of
+ * the classpath are resolved to class nodes shared by all compilations, so their tables
+ * are reused by every request; tables of source types live as long as the AST they were
+ * built from. The GDK is reflected over once per JVM.</p>
+ */
+@ValueObject
+public final class MemberTable {
+
+    /**
+     * Kinds of members.
+     */
+    public enum MemberKind {
+        METHOD,
+        PROPERTY,
+        FIELD
+    }
+
+    /**
+     * A member of a type.
+     *
+     * @param name the member name
+     * @param kind the kind of member
+     * @param type the simple name of the return or value type
+     * @param parameterTypes the simple names of the parameter types, empty for properties
+     *     and fields
+     * @param parameterNames the parameter names, empty for properties and fields and for
+     *     methods whose names are not known, such as GDK extension methods
+     * @param declaringType the qualified name of the declaring type, or of the GDK class
+     *     for extension methods
+     * @param isStatic whether the member is static
+     * @param isExtension whether the member is a GDK extension method
+     * @param documentation the Groovydoc text of source members without comment markers,
+     *     or null
+     */
+    public record Member(
+            String name,
+            MemberKind kind,
+            String type,
+            List<String> parameterTypes,
+            List<String> parameterNames,
+            String declaringType,
+            boolean isStatic,
+            boolean isExtension,
+            @Nullable String documentation) {
+
+        /**
+         * Gets the signature as shown to users, e.g. {@code String substring(int beginIndex)}.
+         *
+         * @return the signature
+         */
+        public String signature() {
+            if (kind != MemberKind.METHOD) {
+                return type + " " + name;
+            }
+            StringBuilder signature = new StringBuilder();
+            signature.append(type).append(' ').append(name).append('(');
+            for (int i = 0; i < parameterTypes.size(); i++) {
+                if (i > 0) {
+                    signature.append(", ");
+                }
+                signature.append(parameterLabel(i));
+            }
+            return signature.append(')').toString();
+        }
+
+        /**
+         * Gets the label of a parameter: its type, followed by its name if known.
+         *
+         * @param index the parameter index
+         * @return the label
+         */
+        public String parameterLabel(int index) {
+            String parameterType = parameterTypes.get(index);
+            return parameterNames.isEmpty()
+                    ? parameterType
+                    : parameterType + " " + parameterNames.get(index);
+        }
+    }
+
+    private final List<Member> members;
+    private final Map<String, List<Member>> methodsByName;
+
+    /**
+     * Creates a table over the members of a type.
+     *
+     * @param members the members, ordered by name
+     */
+    public MemberTable(List<Member> members) {
+        this.members = List.copyOf(members);
+        Map<String, List<Member>> byName = new LinkedHashMap<>();
+        for (Member member : members) {
+            if (member.kind() == MemberKind.METHOD) {
+                byName.computeIfAbsent(member.name(), key -> new ArrayList<>()).add(member);
+            }
+        }
+        byName.replaceAll((name, overloads) -> List.copyOf(overloads));
+        this.methodsByName = byName;
+    }
+
+    /**
+     * Gets the member table of a type, building it on first use. Primitive types share
+     * the table of their wrapper type.
+     *
+     * @param type the type
+     * @return the member table cached with the type
+     */
+    public static MemberTable of(ClassNode type) {
+        ClassNode target = ClassHelper.isPrimitiveType(type) ? ClassHelper.getWrapper(type) : type;
+        target = target.redirect();
+        synchronized (target) {
+            MemberTable table = target.getNodeMetaData(MemberTable.class);
+            if (table == null) {
+                table = MemberTableBuilder.build(target);
+                target.putNodeMetaData(MemberTable.class, table);
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Gets all members, ordered by name.
+     *
+     * @return the members
+     */
+    public List<Member> getMembers() {
+        return members;
+    }
+
+    /**
+     * Gets the overloads of a method, including GDK extension methods.
+     *
+     * @param name the method name
+     * @return the overloads, fewest parameters first
+     */
+    public List<Member> getMethods(String name) {
+        return methodsByName.getOrDefault(name, Collections.emptyList());
+    }
+}
@@ -0,0 +1,109 @@
+package com.groovy.lsp.groovy.core.api;
+
+import java.util.List;
+import java.util.Set;
+import org.jmolecules.ddd.annotation.ValueObject;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The compact, AST-free structure of one source file: its package, imports, declarations
+ * with their signatures, and the type names it depends on.
+ *
+ * <p>Outlines are identified by the hash of the content they were built from, so a stored
+ * outline is valid exactly as long as the file content is unchanged.</p>
+ */
+@ValueObject
+public final class ModuleOutline {
+
+    private final String sourceName;
+    private final String contentHash;
+    private final @Nullable String packageName;
+    private final List<String> imports;
+    private final Set<String> dependencies;
+    private final List<OutlineElement> elements;
+
+    /**
+     * Creates a new module outline.
+     *
+     * @param sourceName the name of the source file
+     * @param contentHash the hash of the content the outline was built from
+     * @param packageName the package name, or null for the default package
+     * @param imports the imported class names, star imports ending in {@code .*}
+     * @param dependencies the names of the types the file depends on
+     * @param elements the top-level declarations
+     */
+    public ModuleOutline(
+            String sourceName,
+            String contentHash,
+            @Nullable String packageName,
+            List<String> imports,
+            Set<String> dependencies,
+            List<OutlineElement> elements) {
+        this.sourceName = sourceName;
+        this.contentHash = contentHash;
+        this.packageName = packageName;
+        this.imports = List.copyOf(imports);
+        this.dependencies = Set.copyOf(dependencies);
+        this.elements = List.copyOf(elements);
+    }
+
+    /**
+     * Gets the name of the source file.
+     *
+     * @return the source name
+     */
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    /**
+     * Gets the hash of the content the outline was built from.
+     *
+     * @return the content hash
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Gets the package name.
+     *
+     * @return the package name, or null for the default package
+     */
+    public @Nullable String getPackageName() {
+        return packageName;
+    }
+
+    /**
+     * Gets the imported class names. Star imports end in {@code .*}.
+     *
+     * @return an unmodifiable list of imports
+     */
+    public List<String> getImports() {
+        return imports;
+    }
+
+    /**
+     * Gets the names of the types the file depends on through imports, supertypes,
+     * member signatures and annotations.
+     *
+     * @return an unmodifiable set of type names
+     */
+    public Set<String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Gets the top-level declarations.
+     *
+     * @return an unmodifiable list of outline elements
+     */
+    public List<OutlineElement> getElements() {
+        return elements;
+    }
+
+    @Override
+    public String toString() {
+        return "ModuleOutline[" + sourceName + "@" + contentHash + "]";
+    }
+}
@@ -0,0 +1,62 @@
+package com.groovy.lsp.groovy.core.api;
+
+import java.util.Collection;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Persistent cache of {@link ModuleOutline}s, keyed by source name and content hash.
+ *
+ * <p>Outlines survive restarts, so cross-file features can use the structure of the whole
+ * project before anything has been compiled. Only the latest outline of each source is
+ * kept.</p>
+ */
+public interface ModuleOutlineCache {
+
+    /**
+     * Gets the outline of a source if one was stored for exactly this content.
+     *
+     * @param sourceName the name of the source file
+     * @param sourceCode the current content
+     * @return the outline, or null if none matches the content
+     */
+    @Nullable ModuleOutline get(String sourceName, String sourceCode);
+
+    /**
+     * Gets the outline of a source for its current content, parsing the declarations and
+     * storing the outline if none matches.
+     *
+     * @param sourceName the name of the source file
+     * @param sourceCode the current content
+     * @return the outline, or null if the source cannot be parsed
+     */
+    @Nullable ModuleOutline getOrParse(String sourceName, String sourceCode);
+
+    /**
+     * Gets the latest stored outline of a source, whatever content it was built from.
+     *
+     * @param sourceName the name of the source file
+     * @return the outline, or null if none is stored
+     */
+    @Nullable ModuleOutline getLatest(String sourceName);
+
+    /**
+     * Gets the latest stored outline of every source.
+     *
+     * @return the stored outlines
+     */
+    Collection<ModuleOutline> getAll();
+
+    /**
+     * Stores an outline, replacing any previous outline of the same source.
+     *
+     * @param outline the outline to store
+     */
+    void put(ModuleOutline outline);
+
+    /**
+     * Removes the outline of a source.
+     *
+     * @param sourceName the name of the source file
+     */
+    void remove(String sourceName);
+}
@@ -0,0 +1,20 @@
+package com.groovy.lsp.groovy.core.api;
+
+/**
+ * Kinds of identifier occurrences recorded in an {@link OccurrenceTable}.
+ */
+public enum OccurrenceKind {
+    /** A {@code VariableExpression}, keyed by the variable name. */
+    VARIABLE,
+    /** A {@code MethodCallExpression}, keyed by the method name. */
+    METHOD_CALL,
+    /** A {@code MethodNode} declaration (constructors excluded), keyed by the method name. */
+    METHOD_DECLARATION,
+    /**
+     * A {@code ClassExpression} or {@code ConstructorCallExpression}, keyed by the fully
+     * qualified name of the referenced class.
+     */
+    CLASS_REFERENCE,
+    /** A {@code PropertyExpression}, keyed by the property name. */
+    PROPERTY
+}
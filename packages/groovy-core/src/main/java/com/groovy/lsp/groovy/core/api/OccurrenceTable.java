@@ -0,0 +1,135 @@
+package com.groovy.lsp.groovy.core.api;
+
+import com.groovy.lsp.groovy.core.internal.impl.OccurrenceCollector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.jmolecules.ddd.annotation.ValueObject;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Identifier occurrences of a {@link ModuleNode}, collected in a single traversal.
+ *
+ * <p>Every variable, method call, method declaration, class reference and property
+ * access of the module is recorded once, in visit order, and indexed by identifier.
+ * The table is stored in the module's node metadata, so it lives as long as the cached
+ * AST it was built from and every handler working on that AST answers its queries by
+ * lookup instead of walking the tree again.</p>
+ */
+@ValueObject
+public final class OccurrenceTable {
+
+    private final Map<String, List<Occurrence>> occurrencesByName;
+    private final Map<OccurrenceKind, List<ASTNode>> occurrencesByKind;
+
+    /**
+     * Creates a table over the occurrences of a module.
+     *
+     * @param occurrences the occurrences in visit order
+     */
+    public OccurrenceTable(List<Occurrence> occurrences) {
+        Map<String, List<Occurrence>> byName = new HashMap<>();
+        Map<OccurrenceKind, List<ASTNode>> byKind = new EnumMap<>(OccurrenceKind.class);
+        for (Occurrence occurrence : occurrences) {
+            byKind.computeIfAbsent(occurrence.kind(), key -> new ArrayList<>())
+                    .add(occurrence.node());
+            String name = occurrence.name();
+            if (name != null) {
+                byName.computeIfAbsent(name, key -> new ArrayList<>()).add(occurrence);
+            }
+        }
+        this.occurrencesByName = new HashMap<>();
+        byName.forEach((name, named) -> occurrencesByName.put(name, List.copyOf(named)));
+        this.occurrencesByKind = new EnumMap<>(OccurrenceKind.class);
+        byKind.forEach((kind, nodes) -> occurrencesByKind.put(kind, List.copyOf(nodes)));
+    }
+
+    /**
+     * Gets the occurrence table of a module, building it on first use.
+     *
+     * @param moduleNode the module
+     * @return the occurrence table cached with the module
+     */
+    public static OccurrenceTable of(ModuleNode moduleNode) {
+        return of(moduleNode, CancellationToken.NONE);
+    }
+
+    /**
+     * Gets the occurrence table of a module, building it on first use and abandoning
+     * the build as soon as the token requests cancellation. An abandoned build caches
+     * nothing, so the next caller starts over.
+     *
+     * @param moduleNode the module
+     * @param cancellationToken token checked per method and block while building
+     * @return the occurrence table cached with the module
+     * @throws java.util.concurrent.CancellationException if the token requested cancellation
+     */
+    public static OccurrenceTable of(ModuleNode moduleNode, CancellationToken cancellationToken) {
+        synchronized (moduleNode) {
+            OccurrenceTable table = moduleNode.getNodeMetaData(OccurrenceTable.class);
+            if (table == null) {
+                table = OccurrenceCollector.collect(moduleNode, cancellationToken);
+                moduleNode.putNodeMetaData(OccurrenceTable.class, table);
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Finds the occurrences of an identifier.
+     *
+     * @param name the identifier
+     * @param kinds the occurrence kinds to include
+     * @return the matching nodes in visit order
+     */
+    public List<ASTNode> find(String name, Set<OccurrenceKind> kinds) {
+        List<Occurrence> occurrences = occurrencesByName.get(name);
+        if (occurrences == null) {
+            return Collections.emptyList();
+        }
+
+        List<ASTNode> nodes = new ArrayList<>();
+        for (Occurrence occurrence : occurrences) {
+            if (kinds.contains(occurrence.kind())) {
+                nodes.add(occurrence.node());
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Finds the occurrences of an identifier of a single kind.
+     *
+     * @param name the identifier
+     * @param kind the occurrence kind
+     * @return the matching nodes in visit order
+     */
+    public List<ASTNode> find(String name, OccurrenceKind kind) {
+        return find(name, Set.of(kind));
+    }
+
+    /**
+     * Gets all occurrences of a kind.
+     *
+     * @param kind the occurrence kind
+     * @return the nodes in visit order
+     */
+    public List<ASTNode> getAll(OccurrenceKind kind) {
+        return occurrencesByKind.getOrDefault(kind, Collections.emptyList());
+    }
+
+    /**
+     * A recorded occurrence.
+     *
+     * @param kind the occurrence kind
+     * @param name the identifier, or null for a dynamic name that cannot be looked up
+     * @param node the occurring node
+     */
+    public record Occurrence(OccurrenceKind kind, @Nullable String name, ASTNode node) {}
+}
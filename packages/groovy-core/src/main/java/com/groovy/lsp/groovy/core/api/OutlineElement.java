@@ -0,0 +1,206 @@
+package com.groovy.lsp.groovy.core.api;
+
+import java.util.List;
+import org.jmolecules.ddd.annotation.ValueObject;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A declaration in the outline of a source file: a type or one of its members,
+ * with its source range and nested declarations.
+ *
+ * <p>Outlines are extracted from a declaration-only parse and do not reference the
+ * AST they were built from. Positions follow the Groovy AST conventions: lines and
+ * columns are 1-based and end columns point just past the declaration or name.</p>
+ */
+@ValueObject
+public final class OutlineElement {
+
+    /**
+     * Kinds of outline elements.
+     */
+    public enum Kind {
+        CLASS,
+        INTERFACE,
+        TRAIT,
+        ENUM,
+        ANNOTATION,
+        ENUM_CONSTANT,
+        FIELD,
+        PROPERTY,
+        CONSTRUCTOR,
+        METHOD
+    }
+
+    private final String name;
+    private final Kind kind;
+    private final @Nullable String detail;
+    private final int startLine;
+    private final int startColumn;
+    private final int endLine;
+    private final int endColumn;
+    private final int nameLine;
+    private final int nameColumn;
+    private final int nameEndColumn;
+    private final List<String> supertypes;
+    private final List<OutlineElement> children;
+
+    /**
+     * Creates a new outline element.
+     *
+     * @param name the declared name
+     * @param kind the kind of declaration
+     * @param detail additional information such as the type or signature, or null
+     * @param startLine the start line (1-based)
+     * @param startColumn the start column (1-based)
+     * @param endLine the end line (1-based)
+     * @param endColumn the end column (1-based, exclusive)
+     * @param nameLine the line of the declared name (1-based)
+     * @param nameColumn the start column of the declared name (1-based)
+     * @param nameEndColumn the end column of the declared name (1-based, exclusive), equal
+     *     to the start column if the name was not found in the source
+     * @param supertypes the extended and implemented types of a type declaration, as
+     *     written in the source
+     * @param children the nested declarations
+     */
+    public OutlineElement(
+            String name,
+            Kind kind,
+            @Nullable String detail,
+            int startLine,
+            int startColumn,
+            int endLine,
+            int endColumn,
+            int nameLine,
+            int nameColumn,
+            int nameEndColumn,
+            List<String> supertypes,
+            List<OutlineElement> children) {
+        this.name = name;
+        this.kind = kind;
+        this.detail = detail;
+        this.startLine = startLine;
+        this.startColumn = startColumn;
+        this.endLine = endLine;
+        this.endColumn = endColumn;
+        this.nameLine = nameLine;
+        this.nameColumn = nameColumn;
+        this.nameEndColumn = nameEndColumn;
+        this.supertypes = List.copyOf(supertypes);
+        this.children = List.copyOf(children);
+    }
+
+    /**
+     * Gets the declared name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the kind of declaration.
+     *
+     * @return the kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets additional information such as the type or signature.
+     *
+     * @return the detail or null
+     */
+    public @Nullable String getDetail() {
+        return detail;
+    }
+
+    /**
+     * Gets the start line.
+     *
+     * @return the 1-based start line
+     */
+    public int getStartLine() {
+        return startLine;
+    }
+
+    /**
+     * Gets the start column.
+     *
+     * @return the 1-based start column
+     */
+    public int getStartColumn() {
+        return startColumn;
+    }
+
+    /**
+     * Gets the end line.
+     *
+     * @return the 1-based end line
+     */
+    public int getEndLine() {
+        return endLine;
+    }
+
+    /**
+     * Gets the end column.
+     *
+     * @return the 1-based, exclusive end column
+     */
+    public int getEndColumn() {
+        return endColumn;
+    }
+
+    /**
+     * Gets the line of the declared name.
+     *
+     * @return the 1-based line of the name
+     */
+    public int getNameLine() {
+        return nameLine;
+    }
+
+    /**
+     * Gets the start column of the declared name.
+     *
+     * @return the 1-based start column of the name
+     */
+    public int getNameColumn() {
+        return nameColumn;
+    }
+
+    /**
+     * Gets the end column of the declared name. It equals the start column, which is then
+     * the start of the declaration, if the name was not found in the source.
+     *
+     * @return the 1-based, exclusive end column of the name
+     */
+    public int getNameEndColumn() {
+        return nameEndColumn;
+    }
+
+    /**
+     * Gets the extended and implemented types of a type declaration, as written in the
+     * source. Implicit supertypes such as {@code Object} are left out.
+     *
+     * @return an unmodifiable list of type names, empty for members
+     */
+    public List<String> getSupertypes() {
+        return supertypes;
+    }
+
+    /**
+     * Gets the nested declarations.
+     *
+     * @return an unmodifiable list of children
+     */
+    public List<OutlineElement> getChildren() {
+        return children;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + name + " [" + startLine + ":" + startColumn + "]";
+    }
+}
@@ -0,0 +1,65 @@
+package com.groovy.lsp.groovy.core.api;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Manages the prediction caches of the Groovy parser.
+ *
+ * <p>The Parrot parser keeps its ANTLR DFA caches in static state shared by every parse
+ * in the JVM. The caches make later parses fast, but they are expensive to build on the
+ * first parse and keep growing as new syntax is seen. This service builds them before the
+ * first request arrives and clears them while the parser is idle once they grow past a
+ * limit.</p>
+ */
+public interface ParserCacheService {
+
+    /**
+     * System property with which Groovy clears the caches after a fixed number of parses.
+     * Groovy reads it on the first parse, so the launcher sets it to 0 at startup and
+     * leaves clearing to this service, which clears by size.
+     */
+    String GROOVY_CACHE_THRESHOLD_PROPERTY = "groovy.antlr4.cache.threshold";
+
+    /**
+     * Parses a set of representative sources so that the caches are populated.
+     * Blocks until done.
+     */
+    void warmUp();
+
+    /**
+     * Gets the number of DFA states currently cached by the parser and lexer.
+     *
+     * @return the number of cached states
+     */
+    long getCachedStateCount();
+
+    /**
+     * Gets the number of cached states above which the caches are cleared.
+     *
+     * @return the limit
+     */
+    long getMaxCachedStates();
+
+    /**
+     * Clears the caches if they exceed the limit and no parse is running.
+     *
+     * <p>The caches are only cleared when they have not grown since the previous call,
+     * unless they exceed twice the limit.</p>
+     *
+     * @return true if the caches were cleared
+     */
+    boolean trimIfIdle();
+
+    /**
+     * Warms up the parser in the background and starts checking the cache size periodically.
+     * The caches are warmed up again after they are cleared.
+     *
+     * @param scheduler the scheduler to run warm-up and checks on
+     */
+    void start(ScheduledExecutorService scheduler);
+
+    /**
+     * Stops the periodic checks.
+     */
+    void stop();
+}
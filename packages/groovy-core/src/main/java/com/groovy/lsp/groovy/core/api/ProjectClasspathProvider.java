@@ -0,0 +1,50 @@
+package com.groovy.lsp.groovy.core.api;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Supplies the dependency classpath of a project to the {@link CompilationContextService}.
+ *
+ * <p>Implementations typically wrap the build-system dependency resolver and its cache,
+ * which live outside the Groovy core module.</p>
+ */
+public interface ProjectClasspathProvider {
+
+    /**
+     * A provider for projects without dependencies, compiling against the server's own
+     * class loader.
+     */
+    ProjectClasspathProvider NONE =
+            new ProjectClasspathProvider() {
+                @Override
+                public List<Path> resolveClasspath() {
+                    return List.of();
+                }
+
+                @Override
+                public ClassLoader getClassLoader(List<Path> classpath) {
+                    return ProjectClasspathProvider.class.getClassLoader();
+                }
+            };
+
+    /**
+     * Resolves the project classpath.
+     *
+     * @return the classpath entries, never null
+     */
+    List<Path> resolveClasspath();
+
+    /**
+     * Gets a class loader for the given classpath.
+     *
+     * @param classpath the classpath returned by {@link #resolveClasspath()}
+     * @return a class loader that loads the classpath entries
+     */
+    ClassLoader getClassLoader(List<Path> classpath);
+
+    /**
+     * Drops any cached resolution results, called before the context is rebuilt.
+     */
+    default void invalidate() {}
+}
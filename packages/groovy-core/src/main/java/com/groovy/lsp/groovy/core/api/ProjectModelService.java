@@ -0,0 +1,90 @@
+package com.groovy.lsp.groovy.core.api;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Semantic model of all Groovy sources of a project.
+ *
+ * <p>The sources are compiled together to semantic analysis in one compilation unit, so
+ * references between workspace classes are resolved. Afterwards the model is updated per
+ * file: a change recompiles the file together with the modules affected by it, while all
+ * other modules are reused. Classes of the model are also visible to the per-file
+ * compilations of the other services, which therefore resolve workspace classes without
+ * compiling them again.</p>
+ *
+ * <p>The model keeps the declarations of every source, but not its method bodies,
+ * initializers or script statements, so its memory stays proportional to the declared
+ * API of the project.</p>
+ *
+ * <p>Sources are identified by name, which for workspace files is their URI.</p>
+ */
+public interface ProjectModelService {
+
+    /**
+     * Builds the model from all Groovy sources under a workspace root, skipping hidden and
+     * build output directories.
+     *
+     * @param workspaceRoot the workspace root directory
+     */
+    void load(Path workspaceRoot);
+
+    /**
+     * Builds the model from the given sources, replacing the current model. Sources with
+     * syntax errors are left out.
+     *
+     * @param sources the source code by source name
+     */
+    void build(Map<String, String> sources);
+
+    /**
+     * Recompiles all sources of the model, e.g. after the project classpath changed.
+     */
+    void rebuild();
+
+    /**
+     * Updates the model for a changed or new source. The source is recompiled together
+     * with every module that depends on its classes, directly or transitively. If the
+     * source does not compile, its previous module is kept.
+     *
+     * @param sourceName the name of the source
+     * @param sourceCode the new source code
+     * @return the names of the recompiled sources
+     */
+    Set<String> update(String sourceName, String sourceCode);
+
+    /**
+     * Removes a deleted source and recompiles the modules that depended on it.
+     *
+     * @param sourceName the name of the source
+     */
+    void remove(String sourceName);
+
+    /**
+     * Gets the declarations of a source.
+     *
+     * @param sourceName the name of the source
+     * @return the module without its method bodies, or null if the source is not part of
+     *     the model
+     */
+    @Nullable ModuleNode getModule(String sourceName);
+
+    /**
+     * Finds a class declared by a source of the model.
+     *
+     * @param className the fully qualified class name
+     * @return the class node, or null if no source declares the class
+     */
+    @Nullable ClassNode findClass(String className);
+
+    /**
+     * Gets the names of the sources in the model.
+     *
+     * @return an unmodifiable set of source names
+     */
+    Set<String> getSourceNames();
+}
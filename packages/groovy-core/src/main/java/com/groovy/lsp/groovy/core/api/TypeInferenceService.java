@@ -26,6 +26,18 @@ public interface TypeInferenceService {
      */
     ClassNode inferTypeAtPosition(String sourceCode, String sourceName, int line, int column);
 
+    /**
+     * Infers the type at a specific position of an already parsed module.
+     * Inference results are memoized per module, so callers that share the
+     * module (e.g. the cached AST of an open document) share the results.
+     *
+     * @param moduleNode the module to analyze
+     * @param line the line number (1-based)
+     * @param column the column number (1-based)
+     * @return the inferred type or Object type if unable to infer
+     */
+    ClassNode inferTypeAtPosition(ModuleNode moduleNode, int line, int column);
+
     /**
      * Infers the type of a given expression.
      *
@@ -34,4 +46,31 @@ public interface TypeInferenceService {
      * @return the inferred type or Object type if unable to infer
      */
     ClassNode inferExpressionType(Expression expression, ModuleNode moduleNode);
+
+    /**
+     * Infers the type of a given expression, abandoning the inference as soon as the
+     * token requests cancellation.
+     *
+     * @param expression the expression to analyze
+     * @param moduleNode the module containing the expression
+     * @param cancellationToken token checked per inferred sub-expression
+     * @return the inferred type or Object type if unable to infer
+     * @throws java.util.concurrent.CancellationException if the token requested cancellation
+     */
+    ClassNode inferExpressionType(
+            Expression expression, ModuleNode moduleNode, CancellationToken cancellationToken);
+
+    /**
+     * Gets the members available on the inferred type of an expression, such as the
+     * receiver of a member access. The table is cached with the inferred type, so repeated
+     * lookups on the same type only pay for the inference.
+     *
+     * @param expression the expression to analyze
+     * @param moduleNode the module containing the expression
+     * @param cancellationToken token checked per inferred sub-expression
+     * @return the member table of the inferred type
+     * @throws java.util.concurrent.CancellationException if the token requested cancellation
+     */
+    MemberTable inferMemberTable(
+            Expression expression, ModuleNode moduleNode, CancellationToken cancellationToken);
 }
@@ -1,29 +1,28 @@
 package com.groovy.lsp.groovy.core.internal.impl;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.groovy.core.api.CompilationPermits;
+import com.groovy.lsp.groovy.core.api.OccurrenceKind;
+import com.groovy.lsp.groovy.core.api.OccurrenceTable;
+import com.groovy.lsp.groovy.core.api.OutlineElement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import org.codehaus.groovy.ast.ASTNode;
-import org.codehaus.groovy.ast.ClassCodeVisitorSupport;
-import org.codehaus.groovy.ast.ClassNode;
-import org.codehaus.groovy.ast.FieldNode;
-import org.codehaus.groovy.ast.MethodNode;
 import org.codehaus.groovy.ast.ModuleNode;
-import org.codehaus.groovy.ast.expr.BinaryExpression;
-import org.codehaus.groovy.ast.expr.ClassExpression;
-import org.codehaus.groovy.ast.expr.ConstantExpression;
-import org.codehaus.groovy.ast.expr.FieldExpression;
+import org.codehaus.groovy.ast.expr.Expression;
 import org.codehaus.groovy.ast.expr.MethodCallExpression;
-import org.codehaus.groovy.ast.expr.PropertyExpression;
 import org.codehaus.groovy.ast.expr.VariableExpression;
-import org.codehaus.groovy.ast.stmt.Statement;
+import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.CompilationUnit;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.ErrorCollector;
+import org.codehaus.groovy.control.MultipleCompilationErrorsException;
 import org.codehaus.groovy.control.Phases;
 import org.codehaus.groovy.control.SourceUnit;
 import org.codehaus.groovy.control.io.StringReaderSource;
@@ -38,8 +37,32 @@ import org.slf4j.LoggerFactory;
 public class ASTServiceImpl implements ASTService {
     private static final Logger logger = LoggerFactory.getLogger(ASTServiceImpl.class);
 
-    // Cache for parsed ASTs to improve performance
-    private final Map<String, ModuleNode> astCache = new ConcurrentHashMap<>();
+    // Latest parsed AST of each file; a new version replaces the previous one
+    private final Map<String, ParsedSource> astCache = new ConcurrentHashMap<>();
+
+    // Last source of each file that compiled, used to recover from broken edits
+    private final Map<String, ParsedSource> lastGoodSources = new ConcurrentHashMap<>();
+
+    // Class resolution cache shared by every CompilationUnit this service creates
+    private final SharedClassNodeResolver classNodeResolver;
+
+    private final CompilationPermits compilationPermits;
+
+    private volatile boolean recoveryEnabled = false;
+
+    public ASTServiceImpl() {
+        this(new SharedClassNodeResolver());
+    }
+
+    public ASTServiceImpl(SharedClassNodeResolver classNodeResolver) {
+        this(classNodeResolver, CompilationPermits.UNLIMITED);
+    }
+
+    public ASTServiceImpl(
+            SharedClassNodeResolver classNodeResolver, CompilationPermits compilationPermits) {
+        this.classNodeResolver = classNodeResolver;
+        this.compilationPermits = compilationPermits;
+    }
 
     /**
      * Parses Groovy source code and returns the AST.
@@ -65,46 +88,221 @@ public class ASTServiceImpl implements ASTService {
     @Override
     public @Nullable ModuleNode parseSource(
             String sourceCode, String sourceName, CompilerConfiguration config) {
+        return parseSource(sourceCode, sourceName, config, CancellationToken.NONE);
+    }
+
+    /**
+     * Parses Groovy source code, abandoning the parse when the token requests cancellation.
+     *
+     * @param sourceCode the source code to parse
+     * @param sourceName the name of the source
+     * @param cancellationToken token checked between phases and per class node
+     * @return the parsed ModuleNode or null if parsing failed
+     */
+    @Override
+    public @Nullable ModuleNode parseSource(
+            String sourceCode, String sourceName, CancellationToken cancellationToken) {
+        return parseSource(
+                sourceCode,
+                sourceName,
+                CompilerFactoryImpl.createDefaultConfigurationStatic(),
+                cancellationToken);
+    }
+
+    private @Nullable ModuleNode parseSource(
+            String sourceCode,
+            String sourceName,
+            CompilerConfiguration config,
+            CancellationToken cancellationToken) {
         Objects.requireNonNull(sourceCode, "Source code cannot be null");
         Objects.requireNonNull(sourceName, "Source name cannot be null");
         Objects.requireNonNull(config, "Compiler configuration cannot be null");
 
-        String cacheKey = sourceName + ":" + sourceCode.hashCode();
-
         // Check cache first
-        ModuleNode cached = astCache.get(cacheKey);
-        if (cached != null) {
+        ParsedSource cached = astCache.get(sourceName);
+        if (cached != null && cached.sourceCode().equals(sourceCode)) {
             logger.debug("Returning cached AST for {}", sourceName);
-            return cached;
+            return cached.moduleNode();
         }
 
         try {
-            CompilationUnit unit = new CompilationUnit(config);
-            SourceUnit sourceUnit =
-                    new SourceUnit(
+            ModuleNode moduleNode =
+                    compile(
+                            sourceCode,
                             sourceName,
-                            new StringReaderSource(sourceCode, config),
                             config,
-                            unit.getClassLoader(),
-                            new ErrorCollector(config));
-
-            unit.addSource(sourceUnit);
-            unit.compile(Phases.SEMANTIC_ANALYSIS);
-
-            ModuleNode moduleNode = sourceUnit.getAST();
+                            Phases.SEMANTIC_ANALYSIS,
+                            cancellationToken);
 
             // Cache the result
-            astCache.put(cacheKey, moduleNode);
+            ParsedSource parsed = new ParsedSource(sourceCode, moduleNode);
+            astCache.put(sourceName, parsed);
+            lastGoodSources.put(sourceName, parsed);
 
             logger.debug("Successfully parsed source: {}", sourceName);
             return moduleNode;
 
+        } catch (CancellationException e) {
+            logger.debug("Parsing of {} was cancelled", sourceName);
+            throw e;
         } catch (Exception e) {
+            if (recoveryEnabled && e instanceof CompilationFailedException failure) {
+                ModuleNode recovered =
+                        recover(sourceCode, sourceName, config, cancellationToken, failure);
+                if (recovered != null) {
+                    // A stale AST is rebuilt on each request, so it never outlives the edit
+                    if (ParseRecovery.isStale(recovered)) {
+                        astCache.remove(sourceName);
+                    } else {
+                        astCache.put(sourceName, new ParsedSource(sourceCode, recovered));
+                    }
+                    logger.debug("Recovered a partial AST for {}", sourceName);
+                    return recovered;
+                }
+            }
             logger.error("Failed to parse source: {}", sourceName, e);
             return null;
         }
     }
 
+    /**
+     * Parses a variant of a source without caching it or recording it for recovery.
+     *
+     * @param sourceCode the source code of the variant
+     * @param sourceName the name of the source the variant was derived from
+     * @param cancellationToken token checked between phases and per class node
+     * @return the parsed ModuleNode or null if parsing failed
+     */
+    @Override
+    public @Nullable ModuleNode parseTransient(
+            String sourceCode, String sourceName, CancellationToken cancellationToken) {
+        Objects.requireNonNull(sourceCode, "Source code cannot be null");
+        Objects.requireNonNull(sourceName, "Source name cannot be null");
+        CompilerConfiguration config = CompilerFactoryImpl.createDefaultConfigurationStatic();
+        try {
+            return compile(
+                    sourceCode, sourceName, config, Phases.SEMANTIC_ANALYSIS, cancellationToken);
+        } catch (CancellationException e) {
+            logger.debug("Parsing of a variant of {} was cancelled", sourceName);
+            throw e;
+        } catch (Exception e) {
+            if (recoveryEnabled && e instanceof CompilationFailedException failure) {
+                ModuleNode recovered =
+                        recover(sourceCode, sourceName, config, cancellationToken, failure);
+                // The last good source lacks what the variant was made for
+                if (recovered != null && !ParseRecovery.isStale(recovered)) {
+                    return recovered;
+                }
+            }
+            logger.debug("Failed to parse a variant of {}: {}", sourceName, e.getMessage());
+            return null;
+        }
+    }
+
+    private @Nullable ModuleNode recover(
+            String sourceCode,
+            String sourceName,
+            CompilerConfiguration config,
+            CancellationToken cancellationToken,
+            CompilationFailedException failure) {
+        ParsedSource lastGood = lastGoodSources.get(sourceName);
+        return ParseRecovery.recover(
+                sourceCode,
+                failure,
+                lastGood != null ? lastGood.sourceCode() : null,
+                lastGood != null ? lastGood.moduleNode() : null,
+                candidate ->
+                        compile(
+                                candidate,
+                                sourceName,
+                                config,
+                                Phases.SEMANTIC_ANALYSIS,
+                                cancellationToken));
+    }
+
+    /**
+     * Enables or disables recovery parsing.
+     *
+     * @param enabled whether source code with errors is recovered into a partial AST
+     */
+    @Override
+    public void setRecoveryEnabled(boolean enabled) {
+        this.recoveryEnabled = enabled;
+    }
+
+    /**
+     * Parses Groovy source code up to the conversion phase, without caching the result.
+     *
+     * @param sourceCode the source code to parse
+     * @param sourceName the name of the source
+     * @return the unresolved ModuleNode or null if parsing failed
+     */
+    @Override
+    public @Nullable ModuleNode parseDeclarations(String sourceCode, String sourceName) {
+        Objects.requireNonNull(sourceCode, "Source code cannot be null");
+        Objects.requireNonNull(sourceName, "Source name cannot be null");
+
+        try {
+            return compile(
+                    sourceCode,
+                    sourceName,
+                    CompilerFactoryImpl.createDefaultConfigurationStatic(),
+                    Phases.CONVERSION,
+                    CancellationToken.NONE);
+        } catch (Exception e) {
+            // Syntax errors are reported by diagnostics, not by declaration consumers
+            logger.debug("Failed to parse declarations of {}: {}", sourceName, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Extracts the outline of Groovy source code from a declaration-only parse.
+     *
+     * @param sourceCode the source code to analyze
+     * @param sourceName the name of the source
+     * @return the top-level outline elements, or an empty list if parsing failed
+     */
+    @Override
+    public List<OutlineElement> parseOutline(String sourceCode, String sourceName) {
+        ModuleNode moduleNode = parseDeclarations(sourceCode, sourceName);
+        if (moduleNode == null) {
+            return Collections.emptyList();
+        }
+        return OutlineExtractor.extract(moduleNode, sourceCode);
+    }
+
+    private ModuleNode compile(
+            String sourceCode,
+            String sourceName,
+            CompilerConfiguration config,
+            int targetPhase,
+            CancellationToken cancellationToken) {
+        cancellationToken.throwIfCancellationRequested();
+
+        CompilationUnit unit = new CompilationUnit(config);
+        unit.setClassNodeResolver(classNodeResolver);
+        SourceUnit sourceUnit =
+                new SourceUnit(
+                        sourceName,
+                        new StringReaderSource(sourceCode, config),
+                        config,
+                        unit.getClassLoader(),
+                        new ErrorCollector(config));
+
+        unit.addSource(sourceUnit);
+        try {
+            CompilationCancellation.compile(
+                    unit, targetPhase, cancellationToken, compilationPermits);
+        } catch (MultipleCompilationErrorsException e) {
+            if (sourceUnit.getPhase() < Phases.CONVERSION) {
+                throw new ParseRecovery.SyntaxErrorsException(e.getErrorCollector());
+            }
+            throw e;
+        }
+        return sourceUnit.getAST();
+    }
+
     /**
      * Finds a node at the specified position in the AST.
      *
@@ -115,20 +313,60 @@ public class ASTServiceImpl implements ASTService {
      */
     @Override
     public @Nullable ASTNode findNodeAtPosition(ModuleNode moduleNode, int line, int column) {
-        if (moduleNode == null) {
+        // The positions of a stale AST belong to an older source
+        if (moduleNode == null || ParseRecovery.isStale(moduleNode)) {
             return null;
         }
+        return positionIndex(moduleNode).findNodeAt(line, column);
+    }
 
-        NodeFinder finder = new NodeFinder(line, column);
-        // Visit all classes in the module
-        for (ClassNode classNode : moduleNode.getClasses()) {
-            classNode.visitContents(finder);
+    /**
+     * Finds the innermost class, method, constructor or closure enclosing a position.
+     *
+     * @param moduleNode the module node to search
+     * @param line the line number (1-based)
+     * @param column the column number (1-based)
+     * @return the enclosing scope node or null if not found
+     */
+    @Override
+    public @Nullable ASTNode findEnclosingScope(ModuleNode moduleNode, int line, int column) {
+        // The positions of a stale AST belong to an older source
+        if (moduleNode == null || ParseRecovery.isStale(moduleNode)) {
+            return null;
         }
-        // Also visit the script body if present
-        if (moduleNode.getStatementBlock() != null) {
-            moduleNode.getStatementBlock().visit(finder);
+        return positionIndex(moduleNode).findEnclosingScope(line, column);
+    }
+
+    /**
+     * Finds the innermost method, static method or constructor call enclosing a position.
+     *
+     * @param moduleNode the module node to search
+     * @param line the line number (1-based)
+     * @param column the column number (1-based)
+     * @return the enclosing call or null if not found
+     */
+    @Override
+    public @Nullable Expression findEnclosingCall(ModuleNode moduleNode, int line, int column) {
+        // The positions of a stale AST belong to an older source
+        if (moduleNode == null || ParseRecovery.isStale(moduleNode)) {
+            return null;
+        }
+        return positionIndex(moduleNode).findEnclosingCall(line, column);
+    }
+
+    /**
+     * Gets the position index of a module, building it on first use.
+     * The index is stored as node metadata so it lives exactly as long as the AST.
+     */
+    NodePositionIndex positionIndex(ModuleNode moduleNode) {
+        synchronized (moduleNode) {
+            NodePositionIndex index = moduleNode.getNodeMetaData(NodePositionIndex.class);
+            if (index == null) {
+                index = NodePositionIndex.build(moduleNode);
+                moduleNode.putNodeMetaData(NodePositionIndex.class, index);
+            }
+            return index;
         }
-        return finder.getFoundNode();
     }
 
     /**
@@ -143,16 +381,11 @@ public class ASTServiceImpl implements ASTService {
             return Collections.emptyList();
         }
 
-        VariableCollector collector = new VariableCollector();
-        // Visit all classes in the module
-        for (ClassNode classNode : moduleNode.getClasses()) {
-            classNode.visitContents(collector);
-        }
-        // Also visit the script body if present
-        if (moduleNode.getStatementBlock() != null) {
-            moduleNode.getStatementBlock().visit(collector);
+        List<VariableExpression> variables = new ArrayList<>();
+        for (ASTNode node : OccurrenceTable.of(moduleNode).getAll(OccurrenceKind.VARIABLE)) {
+            variables.add((VariableExpression) node);
         }
-        return collector.getVariables();
+        return variables;
     }
 
     /**
@@ -167,16 +400,11 @@ public class ASTServiceImpl implements ASTService {
             return Collections.emptyList();
         }
 
-        MethodCallCollector collector = new MethodCallCollector();
-        // Visit all classes in the module
-        for (ClassNode classNode : moduleNode.getClasses()) {
-            classNode.visitContents(collector);
+        List<MethodCallExpression> methodCalls = new ArrayList<>();
+        for (ASTNode node : OccurrenceTable.of(moduleNode).getAll(OccurrenceKind.METHOD_CALL)) {
+            methodCalls.add((MethodCallExpression) node);
         }
-        // Also visit the script body if present
-        if (moduleNode.getStatementBlock() != null) {
-            moduleNode.getStatementBlock().visit(collector);
-        }
-        return collector.getMethodCalls();
+        return methodCalls;
     }
 
     /**
@@ -184,6 +412,8 @@ public class ASTServiceImpl implements ASTService {
      */
     public void clearCache() {
         astCache.clear();
+        lastGoodSources.clear();
+        classNodeResolver.invalidate();
         logger.debug("AST cache cleared");
     }
 
@@ -193,152 +423,10 @@ public class ASTServiceImpl implements ASTService {
      * @param sourceName the source name to remove
      */
     public void invalidateCache(String sourceName) {
-        astCache.entrySet().removeIf(entry -> entry.getKey().startsWith(sourceName + ":"));
+        astCache.remove(sourceName);
+        lastGoodSources.remove(sourceName);
         logger.debug("Invalidated cache entries for: {}", sourceName);
     }
 
-    /**
-     * Visitor for finding nodes at specific positions.
-     */
-    private static class NodeFinder extends ClassCodeVisitorSupport {
-        private final int targetLine;
-        private final int targetColumn;
-        private @Nullable ASTNode foundNode = null;
-
-        public NodeFinder(int line, int column) {
-            this.targetLine = line;
-            this.targetColumn = column;
-        }
-
-        @Override
-        protected SourceUnit getSourceUnit() {
-            // Not used in this visitor context
-            throw new UnsupportedOperationException("SourceUnit not available in this context");
-        }
-
-        @Override
-        public void visitField(FieldNode field) {
-            checkNode(field);
-            if (field.getType() != null) {
-                checkNode(field.getType());
-            }
-            super.visitField(field);
-        }
-
-        @Override
-        public void visitMethod(MethodNode method) {
-            checkNode(method);
-            if (method.getReturnType() != null) {
-                checkNode(method.getReturnType());
-            }
-            super.visitMethod(method);
-        }
-
-        @Override
-        public void visitStatement(Statement statement) {
-            checkNode(statement);
-            super.visitStatement(statement);
-        }
-
-        @Override
-        public void visitMethodCallExpression(MethodCallExpression call) {
-            checkNode(call);
-            super.visitMethodCallExpression(call);
-        }
-
-        @Override
-        public void visitBinaryExpression(BinaryExpression expression) {
-            checkNode(expression);
-            super.visitBinaryExpression(expression);
-        }
-
-        @Override
-        public void visitVariableExpression(VariableExpression expression) {
-            checkNode(expression);
-            super.visitVariableExpression(expression);
-        }
-
-        private void checkNode(ASTNode node) {
-            if (node.getLineNumber() <= targetLine && node.getLastLineNumber() >= targetLine) {
-                if (node.getColumnNumber() <= targetColumn
-                        && node.getLastColumnNumber() >= targetColumn) {
-                    foundNode = node;
-                }
-            }
-        }
-
-        @Override
-        public void visitPropertyExpression(PropertyExpression expression) {
-            checkNode(expression);
-            super.visitPropertyExpression(expression);
-        }
-
-        @Override
-        public void visitFieldExpression(FieldExpression expression) {
-            checkNode(expression);
-            super.visitFieldExpression(expression);
-        }
-
-        @Override
-        public void visitClassExpression(ClassExpression expression) {
-            checkNode(expression);
-            super.visitClassExpression(expression);
-        }
-
-        @Override
-        public void visitConstantExpression(ConstantExpression expression) {
-            checkNode(expression);
-            super.visitConstantExpression(expression);
-        }
-
-        public @Nullable ASTNode getFoundNode() {
-            return foundNode;
-        }
-    }
-
-    /**
-     * Visitor for collecting variable expressions.
-     */
-    private static class VariableCollector extends ClassCodeVisitorSupport {
-        private final List<VariableExpression> variables = new ArrayList<>();
-
-        @Override
-        protected SourceUnit getSourceUnit() {
-            // Not used in this visitor context
-            throw new UnsupportedOperationException("SourceUnit not available in this context");
-        }
-
-        @Override
-        public void visitVariableExpression(VariableExpression expression) {
-            variables.add(expression);
-            super.visitVariableExpression(expression);
-        }
-
-        public List<VariableExpression> getVariables() {
-            return new ArrayList<>(variables);
-        }
-    }
-
-    /**
-     * Visitor for collecting method call expressions.
-     */
-    private static class MethodCallCollector extends ClassCodeVisitorSupport {
-        private final List<MethodCallExpression> methodCalls = new ArrayList<>();
-
-        @Override
-        protected SourceUnit getSourceUnit() {
-            // Not used in this visitor context
-            throw new UnsupportedOperationException("SourceUnit not available in this context");
-        }
-
-        @Override
-        public void visitMethodCallExpression(MethodCallExpression call) {
-            methodCalls.add(call);
-            super.visitMethodCallExpression(call);
-        }
-
-        public List<MethodCallExpression> getMethodCalls() {
-            return new ArrayList<>(methodCalls);
-        }
-    }
+    private record ParsedSource(String sourceCode, ModuleNode moduleNode) {}
 }
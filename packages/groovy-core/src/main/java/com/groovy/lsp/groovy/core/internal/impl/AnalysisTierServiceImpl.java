@@ -0,0 +1,125 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import com.groovy.lsp.groovy.core.api.AnalysisTier;
+import com.groovy.lsp.groovy.core.api.AnalysisTierService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link AnalysisTierService} based on fixed thresholds.
+ *
+ * <p>A document is demoted after {@link #SLOW_COMPILES_TO_DEMOTE} slow compiles in a row,
+ * so a single outlier such as a cold classpath does not cost it its semantic analysis.
+ * A demoted document gets a full compile again every {@link #RETRY_INTERVAL_MILLIS}, and
+ * is promoted back as soon as one of them is fast.</p>
+ */
+public class AnalysisTierServiceImpl implements AnalysisTierService {
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisTierServiceImpl.class);
+
+    /** Number of consecutive slow compiles that demote a document. */
+    static final int SLOW_COMPILES_TO_DEMOTE = 3;
+
+    /** Time after which a demoted document is compiled again to check whether it got faster. */
+    static final long RETRY_INTERVAL_MILLIS = 30_000;
+
+    private final Thresholds thresholds;
+    private final LongSupplier nanoClock;
+    private final Map<String, AnalysisTier> overrides = new ConcurrentHashMap<>();
+    private final Map<String, CompileHistory> histories = new ConcurrentHashMap<>();
+
+    public AnalysisTierServiceImpl(Thresholds thresholds) {
+        this(thresholds, System::nanoTime);
+    }
+
+    AnalysisTierServiceImpl(Thresholds thresholds, LongSupplier nanoClock) {
+        this.thresholds = thresholds;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public AnalysisTier getTier(String uri, long length) {
+        AnalysisTier override = overrides.get(uri);
+        if (override != null) {
+            return override;
+        }
+        if (length > thresholds.disabledLength()) {
+            return AnalysisTier.DISABLED;
+        }
+        if (length > thresholds.syntaxOnlyLength() || isDemoted(uri)) {
+            return AnalysisTier.SYNTAX_ONLY;
+        }
+        return AnalysisTier.FULL;
+    }
+
+    private boolean isDemoted(String uri) {
+        CompileHistory history = histories.get(uri);
+        // Past the retry time the next compile decides whether the document stays demoted
+        return history != null
+                && history.demoted()
+                && nanoClock.getAsLong() - history.demotedAtNanos()
+                        < TimeUnit.MILLISECONDS.toNanos(RETRY_INTERVAL_MILLIS);
+    }
+
+    @Override
+    public void recordCompileTime(String uri, long millis) {
+        boolean slow = millis > thresholds.slowCompileMillis();
+        CompileHistory previous = histories.get(uri);
+        CompileHistory history =
+                histories.compute(
+                        uri,
+                        (key, current) -> {
+                            if (!slow) {
+                                return null;
+                            }
+                            int slowCompiles = current == null ? 1 : current.slowCompiles() + 1;
+                            if (slowCompiles < SLOW_COMPILES_TO_DEMOTE) {
+                                return new CompileHistory(slowCompiles, false, 0);
+                            }
+                            // Demoting again restarts the wait for the next retry
+                            return new CompileHistory(slowCompiles, true, nanoClock.getAsLong());
+                        });
+        if (history != null && history.demoted() && (previous == null || !previous.demoted())) {
+            logger.info(
+                    "Compiling {} took {} ms {} times in a row, analyzing only its syntax",
+                    uri,
+                    millis,
+                    history.slowCompiles());
+        } else if (history == null && previous != null && previous.demoted()) {
+            logger.info("Compiling {} took {} ms, analyzing it fully again", uri, millis);
+        }
+    }
+
+    @Override
+    public void setOverride(String uri, @Nullable AnalysisTier tier) {
+        if (tier == null) {
+            overrides.remove(uri);
+        } else {
+            overrides.put(uri, tier);
+        }
+        logger.debug("Analysis tier override of {} set to {}", uri, tier);
+    }
+
+    @Override
+    public @Nullable AnalysisTier getOverride(String uri) {
+        return overrides.get(uri);
+    }
+
+    @Override
+    public void forget(String uri) {
+        histories.remove(uri);
+    }
+
+    /**
+     * The slow compiles of a document.
+     *
+     * @param slowCompiles the number of consecutive slow compiles
+     * @param demoted whether the document is demoted
+     * @param demotedAtNanos the time of the last slow compile of a demoted document
+     */
+    private record CompileHistory(int slowCompiles, boolean demoted, long demotedAtNanos) {}
+}
@@ -0,0 +1,95 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.groovy.core.api.CompilationPermits;
+import java.util.function.LongConsumer;
+import org.codehaus.groovy.GroovyBugError;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.Phases;
+
+/**
+ * Hooks a {@link CancellationToken} into a Groovy {@link CompilationUnit}.
+ *
+ * <p>The token is polled after every completed phase (via the progress callback) and
+ * before each primary class node is processed in the phases from semantic analysis up to
+ * the target phase. Groovy wraps exceptions raised from phase operations into compilation
+ * errors or {@link GroovyBugError}s, so {@link #compile} re-checks the token whenever
+ * compilation fails and surfaces the cancellation instead of the synthetic error.</p>
+ */
+final class CompilationCancellation {
+
+    private CompilationCancellation() {
+        // Utility class
+    }
+
+    /**
+     * Compiles the unit to the target phase, aborting as soon as the token is cancelled.
+     * Waits for a compile permit first.
+     *
+     * @param unit the compilation unit to compile
+     * @param targetPhase the Groovy phase to compile to
+     * @param token the token to poll
+     * @param permits the permits limiting concurrent compilations
+     * @throws java.util.concurrent.CancellationException if the token requested cancellation
+     */
+    static void compile(
+            CompilationUnit unit,
+            int targetPhase,
+            CancellationToken token,
+            CompilationPermits permits) {
+        compile(unit, targetPhase, token, permits, elapsedNanos -> {});
+    }
+
+    /**
+     * Compiles the unit to the target phase like {@link #compile(CompilationUnit, int,
+     * CancellationToken, CompilationPermits)}, and reports how long compiling took, without
+     * the time spent waiting for the permit. The time is also reported when compilation
+     * fails.
+     *
+     * @param unit the compilation unit to compile
+     * @param targetPhase the Groovy phase to compile to
+     * @param token the token to poll
+     * @param permits the permits limiting concurrent compilations
+     * @param compileTime receives the compile time in nanoseconds
+     * @throws java.util.concurrent.CancellationException if the token requested cancellation
+     */
+    static void compile(
+            CompilationUnit unit,
+            int targetPhase,
+            CancellationToken token,
+            CompilationPermits permits,
+            LongConsumer compileTime) {
+        install(unit, token, targetPhase);
+        permits.acquire(token);
+        long start = System.nanoTime();
+        try {
+            unit.compile(targetPhase);
+        } catch (RuntimeException | GroovyBugError e) {
+            token.throwIfCancellationRequested();
+            throw e;
+        } finally {
+            compileTime.accept(System.nanoTime() - start);
+            permits.release();
+        }
+    }
+
+    /**
+     * Installs cancellation checks on the given compilation unit.
+     *
+     * @param unit the compilation unit to instrument
+     * @param token the token to poll
+     * @param targetPhase the Groovy phase the unit will be compiled to
+     */
+    static void install(CompilationUnit unit, CancellationToken token, int targetPhase) {
+        if (token == CancellationToken.NONE) {
+            return;
+        }
+
+        unit.setProgressCallback((context, phase) -> token.throwIfCancellationRequested());
+
+        for (int phase = Phases.SEMANTIC_ANALYSIS; phase <= targetPhase; phase++) {
+            unit.addFirstPhaseOperation(
+                    (source, context, classNode) -> token.throwIfCancellationRequested(), phase);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import com.groovy.lsp.groovy.core.api.CompilationContext;
+import com.groovy.lsp.groovy.core.api.CompilationContextService;
+import com.groovy.lsp.groovy.core.api.ProjectClasspathProvider;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Internal implementation of CompilationContextService.
+ * Builds the context from a {@link ProjectClasspathProvider} and caches it until invalidated.
+ */
+public class CompilationContextServiceImpl implements CompilationContextService {
+    private static final Logger logger =
+            LoggerFactory.getLogger(CompilationContextServiceImpl.class);
+
+    private final ProjectClasspathProvider classpathProvider;
+    private final SharedClassNodeResolver classNodeResolver;
+    private final AtomicLong generation = new AtomicLong();
+    private final Object lock = new Object();
+    private final CompilerConfiguration syntaxConfiguration =
+            CompilerFactoryImpl.createProjectConfigurationStatic();
+
+    private volatile @Nullable CompilationContext context;
+
+    public CompilationContextServiceImpl(
+            ProjectClasspathProvider classpathProvider, SharedClassNodeResolver classNodeResolver) {
+        this.classpathProvider = classpathProvider;
+        this.classNodeResolver = classNodeResolver;
+    }
+
+    @Override
+    public CompilationContext getContext() {
+        CompilationContext current = context;
+        if (current != null) {
+            return current;
+        }
+        synchronized (lock) {
+            current = context;
+            if (current == null) {
+                current = buildContext();
+                context = current;
+            }
+            return current;
+        }
+    }
+
+    @Override
+    public CompilerConfiguration getSyntaxConfiguration() {
+        return syntaxConfiguration;
+    }
+
+    @Override
+    public void invalidate() {
+        synchronized (lock) {
+            if (context == null) {
+                return;
+            }
+            context = null;
+            classpathProvider.invalidate();
+            // Jars may have been replaced in place, so drop resolution results as well
+            classNodeResolver.invalidate();
+        }
+        logger.info("Compilation context invalidated");
+    }
+
+    private CompilationContext buildContext() {
+        long startTime = System.currentTimeMillis();
+
+        List<Path> classpath;
+        try {
+            classpath = classpathProvider.resolveClasspath();
+        } catch (RuntimeException e) {
+            // Keep serving diagnostics without dependencies until the next build file change
+            logger.warn("Failed to resolve project classpath, compiling without it", e);
+            classpath = List.of();
+        }
+
+        ClassLoader classLoader = classpathProvider.getClassLoader(classpath);
+        CompilerConfiguration configuration =
+                CompilerFactoryImpl.createProjectConfigurationStatic();
+
+        CompilationContext built =
+                new CompilationContext(
+                        configuration, classpath, classLoader, generation.incrementAndGet());
+        logger.info(
+                "Built compilation context #{} with {} classpath entries in {}ms",
+                built.getGeneration(),
+                classpath.size(),
+                System.currentTimeMillis() - startTime);
+        return built;
+    }
+}
@@ -28,6 +28,23 @@ public class CompilerFactoryImpl implements CompilerConfigurationService {
     }
 
     public static CompilerConfiguration createDefaultConfigurationStatic() {
+        CompilerConfiguration config = createProjectConfigurationStatic();
+
+        // Add common import customizer
+        config.addCompilationCustomizers(createImportCustomizer());
+
+        logger.debug("Created default compiler configuration");
+        return config;
+    }
+
+    /**
+     * Creates the configuration used to compile project sources.
+     * Unlike the default configuration it adds no implicit imports, so that unresolved
+     * classes are reported exactly as the project build would report them.
+     *
+     * @return a configured CompilerConfiguration instance
+     */
+    public static CompilerConfiguration createProjectConfigurationStatic() {
         CompilerConfiguration config = new CompilerConfiguration();
 
         // Set source encoding
@@ -42,10 +59,6 @@ public class CompilerFactoryImpl implements CompilerConfigurationService {
         // Set optimization options (including Parrot parser)
         config.setOptimizationOptions(createOptimizationOptions());
 
-        // Add common import customizer
-        config.addCompilationCustomizers(createImportCustomizer());
-
-        logger.debug("Created default compiler configuration");
         return config;
     }
 
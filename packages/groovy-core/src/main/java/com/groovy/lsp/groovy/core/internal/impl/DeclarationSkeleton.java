@@ -0,0 +1,91 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import com.groovy.lsp.groovy.core.api.OccurrenceTable;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ConstructorNode;
+import org.codehaus.groovy.ast.FieldNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.PropertyNode;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+
+/**
+ * Compacts a compiled module into a declaration skeleton.
+ *
+ * <p>The skeleton keeps the classes with their members, signatures, annotations and
+ * positions, but drops method bodies, field initializers other than constants, property
+ * accessor blocks, initializer blocks and script statements, together with the per-AST
+ * indexes built over them. Statements and expressions make up most of a module's memory,
+ * so skeletons of files that are not open can be kept for the whole project.</p>
+ *
+ * <p>The module is compacted in place. Callers pass a tree nobody else holds, such as a
+ * fresh compile of the source, since compacting a tree that is being walked would pull
+ * statements away from under its readers.</p>
+ */
+final class DeclarationSkeleton {
+
+    private DeclarationSkeleton() {
+        // Utility class
+    }
+
+    /**
+     * Compacts a module into its declaration skeleton and marks it as such.
+     *
+     * @param moduleNode the module to compact
+     */
+    static void compact(ModuleNode moduleNode) {
+        synchronized (moduleNode) {
+            moduleNode.removeNodeMetaData(NodePositionIndex.class);
+            moduleNode.removeNodeMetaData(OccurrenceTable.class);
+            moduleNode.removeNodeMetaData(TypeInferenceContext.class);
+            moduleNode.putNodeMetaData(DeclarationSkeleton.class, Boolean.TRUE);
+        }
+
+        BlockStatement statementBlock = moduleNode.getStatementBlock();
+        if (statementBlock != null) {
+            statementBlock.getStatements().clear();
+        }
+        for (ClassNode classNode : moduleNode.getClasses()) {
+            compact(classNode);
+        }
+    }
+
+    private static void compact(ClassNode classNode) {
+        for (MethodNode method : classNode.getMethods()) {
+            dropBody(method);
+        }
+        for (ConstructorNode constructor : classNode.getDeclaredConstructors()) {
+            dropBody(constructor);
+        }
+        for (FieldNode field : classNode.getFields()) {
+            // Constants are kept for hovers and completion details
+            if (field.hasInitialExpression()
+                    && !(field.getInitialExpression() instanceof ConstantExpression)) {
+                field.setInitialValueExpression(null);
+            }
+        }
+        for (PropertyNode property : classNode.getProperties()) {
+            property.setGetterBlock(null);
+            property.setSetterBlock(null);
+        }
+        classNode.getObjectInitializerStatements().clear();
+    }
+
+    private static void dropBody(MethodNode method) {
+        // Abstract methods have no body; everything else keeps an empty one
+        if (method.getCode() != null) {
+            method.setCode(new BlockStatement());
+        }
+    }
+
+    /**
+     * Checks whether a module has been compacted into a skeleton.
+     *
+     * @param moduleNode the module to check
+     * @return true if the module is a skeleton
+     */
+    static boolean isSkeleton(ModuleNode moduleNode) {
+        return moduleNode.getNodeMetaData(DeclarationSkeleton.class) != null;
+    }
+}
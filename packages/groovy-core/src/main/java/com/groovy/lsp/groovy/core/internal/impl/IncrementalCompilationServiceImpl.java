@@ -1,8 +1,14 @@
 package com.groovy.lsp.groovy.core.internal.impl;
 
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.groovy.core.api.CompilationContext;
+import com.groovy.lsp.groovy.core.api.CompilationPermits;
 import com.groovy.lsp.groovy.core.api.CompilationResult;
 import com.groovy.lsp.groovy.core.api.CompilationResult.CompilationError;
 import com.groovy.lsp.groovy.core.api.IncrementalCompilationService;
+import com.groovy.lsp.groovy.core.api.ModuleOutline;
+import com.groovy.lsp.groovy.core.api.ModuleOutlineCache;
+import groovy.lang.GroovyClassLoader;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -13,10 +19,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
+import org.codehaus.groovy.GroovyBugError;
 import org.codehaus.groovy.ast.AnnotationNode;
 import org.codehaus.groovy.ast.ClassHelper;
 import org.codehaus.groovy.ast.ClassNode;
@@ -47,9 +60,14 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
     private static final Logger logger =
             LoggerFactory.getLogger(IncrementalCompilationServiceImpl.class);
 
-    private static final int DEFAULT_MAX_CACHE_SIZE = 1000;
+    // Sources that are not open are compacted into declaration skeletons, so the cache is
+    // sized for every source of a large project rather than for full ASTs
+    private static final int DEFAULT_MAX_CACHE_SIZE = 20_000;
     private static final long DEFAULT_CACHE_TTL_MS = 30 * 60 * 1000; // 30 minutes
 
+    // Rehydrated sources that keep their full AST until they are closed again
+    private static final int MAX_REHYDRATED_SOURCES = 16;
+
     private final long cacheTtlMs;
 
     // Using LinkedHashMap with access order for LRU eviction
@@ -57,12 +75,58 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
     private final Map<String, Set<String>> dependencyGraph = new ConcurrentHashMap<>();
     private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
 
+    // Class resolution cache shared by every CompilationUnit this service creates
+    private final SharedClassNodeResolver classNodeResolver;
+
+    private final CompilationPermits compilationPermits;
+
+    private volatile @Nullable ModuleOutlineCache outlineCache;
+
+    // Sources open in the editor keep their full AST, all others are compacted
+    private final Set<String> openSources = ConcurrentHashMap.newKeySet();
+    private final Set<String> rehydratedSources =
+            Collections.synchronizedSet(
+                    Collections.newSetFromMap(
+                            new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+                                @Override
+                                protected boolean removeEldestEntry(
+                                        Map.Entry<String, Boolean> eldest) {
+                                    return size() > MAX_REHYDRATED_SOURCES;
+                                }
+                            }));
+    private final AtomicBoolean compactionPending = new AtomicBoolean();
+    private volatile @Nullable Executor compactionExecutor;
+
     public IncrementalCompilationServiceImpl() {
         this(DEFAULT_MAX_CACHE_SIZE, DEFAULT_CACHE_TTL_MS);
     }
 
+    public IncrementalCompilationServiceImpl(SharedClassNodeResolver classNodeResolver) {
+        this(classNodeResolver, CompilationPermits.UNLIMITED);
+    }
+
+    public IncrementalCompilationServiceImpl(
+            SharedClassNodeResolver classNodeResolver, CompilationPermits compilationPermits) {
+        this(DEFAULT_MAX_CACHE_SIZE, DEFAULT_CACHE_TTL_MS, classNodeResolver, compilationPermits);
+    }
+
     public IncrementalCompilationServiceImpl(int maxCacheSize, long cacheTtlMs) {
+        this(maxCacheSize, cacheTtlMs, new SharedClassNodeResolver());
+    }
+
+    public IncrementalCompilationServiceImpl(
+            int maxCacheSize, long cacheTtlMs, SharedClassNodeResolver classNodeResolver) {
+        this(maxCacheSize, cacheTtlMs, classNodeResolver, CompilationPermits.UNLIMITED);
+    }
+
+    public IncrementalCompilationServiceImpl(
+            int maxCacheSize,
+            long cacheTtlMs,
+            SharedClassNodeResolver classNodeResolver,
+            CompilationPermits compilationPermits) {
         this.cacheTtlMs = cacheTtlMs;
+        this.classNodeResolver = classNodeResolver;
+        this.compilationPermits = compilationPermits;
         final int maxSize = maxCacheSize;
         this.compilationCache =
                 new LinkedHashMap<String, CompilationCacheEntry>(16, 0.75f, true) {
@@ -80,13 +144,54 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
 
     @Override
     public CompilationUnit createCompilationUnit(CompilerConfiguration config) {
-        return new CompilationUnit(config);
+        CompilationUnit unit = new CompilationUnit(config);
+        unit.setClassNodeResolver(classNodeResolver);
+        return unit;
+    }
+
+    @Override
+    public CompilationUnit createCompilationUnit(CompilationContext context) {
+        CompilerConfiguration config = context.getConfiguration();
+        // The dependency jars are loaded by the shared parent, nothing is added per unit
+        CompilationUnit unit =
+                new CompilationUnit(
+                        config, null, new GroovyClassLoader(context.getClassLoader(), config));
+        unit.setClassNodeResolver(classNodeResolver);
+        return unit;
+    }
+
+    /**
+     * Creates a fresh compilation unit with the same configuration and parent class loader
+     * as the given one, so that compilations keep the caller's classpath.
+     */
+    private CompilationUnit newCompilationUnit(CompilationUnit template) {
+        return newCompilationUnit(
+                template.getConfiguration(), template.getClassLoader().getParent());
+    }
+
+    private CompilationUnit newCompilationUnit(
+            CompilerConfiguration config, @Nullable ClassLoader parent) {
+        CompilationUnit compilationUnit =
+                new CompilationUnit(config, null, new GroovyClassLoader(parent, config));
+        compilationUnit.setClassNodeResolver(classNodeResolver);
+        return compilationUnit;
     }
 
     @Override
     @Nullable
     public ModuleNode compileToPhase(
             CompilationUnit unit, String sourceCode, String sourceName, CompilationPhase phase) {
+        return compileToPhase(unit, sourceCode, sourceName, phase, CancellationToken.NONE);
+    }
+
+    @Override
+    @Nullable
+    public ModuleNode compileToPhase(
+            CompilationUnit unit,
+            String sourceCode,
+            String sourceName,
+            CompilationPhase phase,
+            CancellationToken cancellationToken) {
 
         logger.debug("Compiling {} to phase {}", sourceName, phase);
 
@@ -99,6 +204,7 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
                 if (cached != null
                         && cached.sourceCode.equals(sourceCode)
                         && isPhaseGreaterOrEqual(cached.phase, phase)
+                        && !DeclarationSkeleton.isSkeleton(cached.moduleNode)
                         && !isCacheEntryExpired(cached)) {
                     logger.debug("Using cached compilation result for {}", sourceName);
                     return cached.moduleNode;
@@ -107,8 +213,10 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
                 cacheLock.readLock().unlock();
             }
 
+            cancellationToken.throwIfCancellationRequested();
+
             // Create a new CompilationUnit for each compilation to avoid state issues
-            compilationUnit = new CompilationUnit(unit.getConfiguration());
+            compilationUnit = newCompilationUnit(unit);
 
             // Create source unit
             SourceUnit sourceUnit =
@@ -124,8 +232,10 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
             // Compile to the requested phase
             int targetPhase = mapToGroovyPhase(phase);
             try {
-                compilationUnit.compile(targetPhase);
+                CompilationCancellation.compile(
+                        compilationUnit, targetPhase, cancellationToken, compilationPermits);
             } catch (Exception compilationError) {
+                cancellationToken.throwIfCancellationRequested();
                 // If compilation fails with an exception, return null
                 logger.debug(
                         "Compilation of {} failed with exception: {}",
@@ -153,17 +263,28 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
                     compilationCache.put(
                             sourceName,
                             new CompilationCacheEntry(
-                                    sourceCode, moduleNode, phase, System.currentTimeMillis()));
+                                    sourceCode,
+                                    moduleNode,
+                                    phase,
+                                    compilationUnit,
+                                    System.currentTimeMillis()));
                 } finally {
                     cacheLock.writeLock().unlock();
                 }
 
                 // Update dependency graph
                 updateDependencyGraph(sourceName, moduleNode);
+                storeOutline(sourceName, sourceCode, moduleNode);
+                if (!isKeptFull(sourceName)) {
+                    scheduleCompaction();
+                }
             }
 
             return moduleNode;
 
+        } catch (CancellationException e) {
+            logger.debug("Compilation of {} was cancelled", sourceName);
+            throw e;
         } catch (Exception e) {
             logger.error("Failed to compile {} to phase {}", sourceName, phase, e);
             return null;
@@ -173,6 +294,17 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
     @Override
     public CompilationResult compileToPhaseWithResult(
             CompilationUnit unit, String sourceCode, String sourceName, CompilationPhase phase) {
+        return compileToPhaseWithResult(
+                unit, sourceCode, sourceName, phase, CancellationToken.NONE);
+    }
+
+    @Override
+    public CompilationResult compileToPhaseWithResult(
+            CompilationUnit unit,
+            String sourceCode,
+            String sourceName,
+            CompilationPhase phase,
+            CancellationToken cancellationToken) {
 
         logger.debug("Compiling {} to phase {} with detailed results", sourceName, phase);
 
@@ -188,6 +320,7 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
                 if (cached != null
                         && cached.sourceCode.equals(sourceCode)
                         && isPhaseGreaterOrEqual(cached.phase, phase)
+                        && !DeclarationSkeleton.isSkeleton(cached.moduleNode)
                         && !isCacheEntryExpired(cached)) {
                     logger.debug("Using cached compilation result for {}", sourceName);
                     return CompilationResult.success(cached.moduleNode);
@@ -196,8 +329,10 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
                 cacheLock.readLock().unlock();
             }
 
+            cancellationToken.throwIfCancellationRequested();
+
             // Create a new CompilationUnit for each compilation
-            CompilationUnit compilationUnit = new CompilationUnit(unit.getConfiguration());
+            CompilationUnit compilationUnit = newCompilationUnit(unit);
 
             // Create source unit with error collector
             ErrorCollector errorCollector = new ErrorCollector(compilationUnit.getConfiguration());
@@ -214,10 +349,18 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
             // Compile to the requested phase
             int targetPhase = mapToGroovyPhase(phase);
             List<CompilationError> errors = new ArrayList<>();
+            AtomicLong compileNanos = new AtomicLong();
 
             try {
-                compilationUnit.compile(targetPhase);
+                CompilationCancellation.compile(
+                        compilationUnit,
+                        targetPhase,
+                        cancellationToken,
+                        compilationPermits,
+                        compileNanos::set);
             } catch (Exception compilationError) {
+                cancellationToken.throwIfCancellationRequested();
+
                 // Collect errors from the error collector
                 if (errorCollector.hasErrors()) {
                     List<? extends Message> messages = errorCollector.getErrors();
@@ -237,7 +380,8 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
                 }
 
                 logger.debug("Compilation of {} failed with {} errors", sourceName, errors.size());
-                return CompilationResult.failure(errors);
+                return CompilationResult.failure(errors)
+                        .withCompileTime(millis(compileNanos.get()));
             }
 
             // Get the module node
@@ -274,23 +418,37 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
                     compilationCache.put(
                             sourceName,
                             new CompilationCacheEntry(
-                                    sourceCode, moduleNode, phase, System.currentTimeMillis()));
+                                    sourceCode,
+                                    moduleNode,
+                                    phase,
+                                    compilationUnit,
+                                    System.currentTimeMillis()));
                 } finally {
                     cacheLock.writeLock().unlock();
                 }
 
                 // Update dependency graph
                 updateDependencyGraph(sourceName, moduleNode);
+                storeOutline(sourceName, sourceCode, moduleNode);
+                if (!isKeptFull(sourceName)) {
+                    scheduleCompaction();
+                }
 
-                return CompilationResult.success(moduleNode);
+                return CompilationResult.success(moduleNode)
+                        .withCompileTime(millis(compileNanos.get()));
             } else if (moduleNode != null) {
                 // Partial success - has AST but also errors
-                return CompilationResult.partial(moduleNode, errors);
+                return CompilationResult.partial(moduleNode, errors)
+                        .withCompileTime(millis(compileNanos.get()));
             } else {
                 // Complete failure
-                return CompilationResult.failure(errors);
+                return CompilationResult.failure(errors)
+                        .withCompileTime(millis(compileNanos.get()));
             }
 
+        } catch (CancellationException e) {
+            logger.debug("Compilation of {} was cancelled", sourceName);
+            throw e;
         } catch (Exception e) {
             logger.error("Unexpected error compiling {} to phase {}", sourceName, phase, e);
             List<CompilationError> errors =
@@ -305,6 +463,10 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
         }
     }
 
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
     @Override
     @Nullable
     public ModuleNode updateModule(
@@ -319,6 +481,13 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
 
     @Override
     public Map<String, DependencyType> getDependencies(ModuleNode moduleNode) {
+        return collectDependencies(moduleNode);
+    }
+
+    /**
+     * Collects the dependencies of a module, see {@link #getDependencies(ModuleNode)}.
+     */
+    static Map<String, DependencyType> collectDependencies(ModuleNode moduleNode) {
         Map<String, DependencyType> dependencies = new HashMap<>();
 
         // Collect import dependencies
@@ -431,6 +600,183 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
         return new ArrayList<>(affected);
     }
 
+    @Override
+    public void setOutlineCache(ModuleOutlineCache outlineCache) {
+        this.outlineCache = outlineCache;
+        int seeded = 0;
+        for (ModuleOutline outline : outlineCache.getAll()) {
+            // Edges from a real compilation are newer than stored ones
+            if (dependencyGraph.putIfAbsent(
+                            outline.getSourceName(), Set.copyOf(outline.getDependencies()))
+                    == null) {
+                seeded++;
+            }
+        }
+        logger.debug("Seeded dependency graph with {} stored outlines", seeded);
+    }
+
+    @Override
+    public void setSourceOpen(String sourceName, boolean open) {
+        boolean rehydrated = rehydratedSources.remove(sourceName);
+        if (open) {
+            openSources.add(sourceName);
+            return;
+        }
+        boolean wasOpen = openSources.remove(sourceName);
+        if (wasOpen || rehydrated) {
+            scheduleCompaction();
+        }
+    }
+
+    /**
+     * Checks whether the cached AST of a source is kept full: it is open, or its full AST
+     * was rehydrated since it was last closed.
+     */
+    private boolean isKeptFull(String sourceName) {
+        return openSources.contains(sourceName) || rehydratedSources.contains(sourceName);
+    }
+
+    @Override
+    public void setCompactionExecutor(Executor executor) {
+        this.compactionExecutor = executor;
+    }
+
+    @Override
+    public int compactClosedSources() {
+        Map<String, CompilationCacheEntry> candidates = new LinkedHashMap<>();
+        cacheLock.writeLock().lock();
+        try {
+            for (Map.Entry<String, CompilationCacheEntry> entry : compilationCache.entrySet()) {
+                if (!isKeptFull(entry.getKey())
+                        && !DeclarationSkeleton.isSkeleton(entry.getValue().moduleNode)) {
+                    candidates.put(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            cacheLock.writeLock().unlock();
+        }
+
+        int compacted = 0;
+        for (Map.Entry<String, CompilationCacheEntry> candidate : candidates.entrySet()) {
+            String sourceName = candidate.getKey();
+            CompilationCacheEntry entry = candidate.getValue();
+            // Callers may still be walking the cached tree, so the skeleton is built from a
+            // fresh parse of the same source instead of compacting that tree
+            ModuleNode skeleton = compileSkeleton(sourceName, entry);
+            if (skeleton == null) {
+                continue;
+            }
+            cacheLock.writeLock().lock();
+            try {
+                // Entries recompiled, reopened or rehydrated in the meantime are kept
+                if (compilationCache.get(sourceName) == entry && !isKeptFull(sourceName)) {
+                    compilationCache.put(sourceName, entry.withModule(skeleton));
+                    compacted++;
+                }
+            } finally {
+                cacheLock.writeLock().unlock();
+            }
+        }
+        if (compacted > 0) {
+            logger.debug("Compacted {} cached ASTs into declaration skeletons", compacted);
+        }
+        return compacted;
+    }
+
+    /**
+     * Builds the skeleton of a cached source from its declarations at the conversion phase,
+     * which only parses the source and resolves no classes.
+     */
+    private @Nullable ModuleNode compileSkeleton(String sourceName, CompilationCacheEntry entry) {
+        CompilationUnit compilationUnit =
+                newCompilationUnit(entry.configuration, entry.parentClassLoader);
+        SourceUnit sourceUnit =
+                new SourceUnit(
+                        sourceName,
+                        new StringReaderSource(entry.sourceCode, entry.configuration),
+                        entry.configuration,
+                        compilationUnit.getClassLoader(),
+                        new ErrorCollector(entry.configuration));
+        compilationUnit.addSource(sourceUnit);
+        try {
+            CompilationCancellation.compile(
+                    compilationUnit,
+                    Math.min(mapToGroovyPhase(entry.phase), Phases.CONVERSION),
+                    CancellationToken.NONE,
+                    compilationPermits);
+        } catch (RuntimeException | GroovyBugError e) {
+            logger.debug("Failed to parse {} into a skeleton: {}", sourceName, e.getMessage());
+            return null;
+        }
+        ModuleNode moduleNode = sourceUnit.getAST();
+        if (moduleNode == null) {
+            return null;
+        }
+        DeclarationSkeleton.compact(moduleNode);
+        return moduleNode;
+    }
+
+    /**
+     * Compacts the sources that are not open on the compaction executor. Requests made
+     * while a run is pending are folded into it.
+     */
+    private void scheduleCompaction() {
+        Executor executor = compactionExecutor;
+        if (executor == null || !compactionPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(
+                    () -> {
+                        // Sources cached from here on need another run
+                        compactionPending.set(false);
+                        try {
+                            compactClosedSources();
+                        } catch (RuntimeException e) {
+                            logger.warn("Failed to compact cached ASTs", e);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            compactionPending.set(false);
+            logger.debug("Compaction executor rejected the compaction run");
+        }
+    }
+
+    @Override
+    public @Nullable ModuleNode getCachedDeclarations(String sourceName) {
+        CompilationCacheEntry cached = getCacheEntry(sourceName);
+        return cached != null ? cached.moduleNode : null;
+    }
+
+    @Override
+    public @Nullable ModuleNode getCachedModule(String sourceName) {
+        CompilationCacheEntry cached = getCacheEntry(sourceName);
+        if (cached == null) {
+            return null;
+        }
+        if (!DeclarationSkeleton.isSkeleton(cached.moduleNode)) {
+            return cached.moduleNode;
+        }
+        logger.debug("Rehydrating the full AST of {}", sourceName);
+        // The full tree replaces the skeleton in the cache until the source is closed again
+        rehydratedSources.add(sourceName);
+        return compileToPhase(
+                newCompilationUnit(cached.configuration, cached.parentClassLoader),
+                cached.sourceCode,
+                sourceName,
+                cached.phase);
+    }
+
+    private @Nullable CompilationCacheEntry getCacheEntry(String sourceName) {
+        // Access-ordered map, so even a lookup needs the write lock
+        cacheLock.writeLock().lock();
+        try {
+            return compilationCache.get(sourceName);
+        } finally {
+            cacheLock.writeLock().unlock();
+        }
+    }
+
     @Override
     public void clearCache(String sourceName) {
         cacheLock.writeLock().lock();
@@ -439,7 +785,12 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
         } finally {
             cacheLock.writeLock().unlock();
         }
+        rehydratedSources.remove(sourceName);
         dependencyGraph.remove(sourceName);
+        ModuleOutlineCache cache = outlineCache;
+        if (cache != null) {
+            cache.remove(sourceName);
+        }
         logger.debug("Cleared cache for {}", sourceName);
     }
 
@@ -451,7 +802,9 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
         } finally {
             cacheLock.writeLock().unlock();
         }
+        rehydratedSources.clear();
         dependencyGraph.clear();
+        classNodeResolver.invalidate();
         logger.debug("Cleared all compilation caches");
     }
 
@@ -493,6 +846,18 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
         logger.debug("Updated dependency graph for {}: {}", sourceName, dependencyNames);
     }
 
+    private void storeOutline(String sourceName, String sourceCode, ModuleNode moduleNode) {
+        ModuleOutlineCache cache = outlineCache;
+        if (cache == null) {
+            return;
+        }
+        String contentHash = ModuleOutlineCacheImpl.contentHash(sourceCode);
+        ModuleOutline stored = cache.getLatest(sourceName);
+        if (stored == null || !stored.getContentHash().equals(contentHash)) {
+            cache.put(OutlineExtractor.extractModule(sourceName, contentHash, moduleNode, sourceCode));
+        }
+    }
+
     private String normalizeClassName(String className) {
         // Return the full class name for proper dependency tracking
         // This ensures accurate dependency resolution across packages
@@ -534,14 +899,45 @@ public class IncrementalCompilationServiceImpl implements IncrementalCompilation
         final String sourceCode;
         final ModuleNode moduleNode;
         final CompilationPhase phase;
+        // Kept so that a compacted module can be recompiled with the same classpath
+        final CompilerConfiguration configuration;
+        final @Nullable ClassLoader parentClassLoader;
         final long timestamp;
 
         CompilationCacheEntry(
-                String sourceCode, ModuleNode moduleNode, CompilationPhase phase, long timestamp) {
+                String sourceCode,
+                ModuleNode moduleNode,
+                CompilationPhase phase,
+                CompilationUnit compilationUnit,
+                long timestamp) {
+            this(
+                    sourceCode,
+                    moduleNode,
+                    phase,
+                    compilationUnit.getConfiguration(),
+                    compilationUnit.getClassLoader().getParent(),
+                    timestamp);
+        }
+
+        private CompilationCacheEntry(
+                String sourceCode,
+                ModuleNode moduleNode,
+                CompilationPhase phase,
+                CompilerConfiguration configuration,
+                @Nullable ClassLoader parentClassLoader,
+                long timestamp) {
             this.sourceCode = sourceCode;
             this.moduleNode = moduleNode;
             this.phase = phase;
+            this.configuration = configuration;
+            this.parentClassLoader = parentClassLoader;
             this.timestamp = timestamp;
         }
+
+        /** Gets an entry for the same source and compile holding another tree. */
+        CompilationCacheEntry withModule(ModuleNode otherModule) {
+            return new CompilationCacheEntry(
+                    sourceCode, otherModule, phase, configuration, parentClassLoader, timestamp);
+        }
     }
 }
@@ -0,0 +1,291 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import com.groovy.lsp.groovy.core.api.MemberTable;
+import com.groovy.lsp.groovy.core.api.MemberTable.Member;
+import com.groovy.lsp.groovy.core.api.MemberTable.MemberKind;
+import groovy.lang.groovydoc.Groovydoc;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.codehaus.groovy.ast.AnnotatedNode;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.FieldNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.Parameter;
+import org.codehaus.groovy.ast.PropertyNode;
+import org.codehaus.groovy.runtime.DefaultGroovyMethods;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Builds the {@link MemberTable} of a type from its class node and the GDK, which is
+ * reflected over once per JVM.
+ */
+public final class MemberTableBuilder {
+
+    private MemberTableBuilder() {
+        // Utility class
+    }
+
+    /**
+     * Builds the member table of a type.
+     *
+     * @param type the type, not primitive
+     * @return the member table
+     */
+    public static MemberTable build(ClassNode type) {
+        // Keyed by name, kind and parameters, so that declared members shadow extensions
+        Map<String, Member> members = new LinkedHashMap<>();
+
+        for (MethodNode method : type.getDeclaredMethodsMap().values()) {
+            if (isCompletable(method.getName(), method.getModifiers(), method.getDeclaringClass())
+                    && !method.isSynthetic()) {
+                addMember(members, toMember(method));
+            }
+        }
+        for (ClassNode current = type; current != null; current = current.getSuperClass()) {
+            for (PropertyNode property : current.getProperties()) {
+                addMember(
+                        members,
+                        new Member(
+                                property.getName(),
+                                MemberKind.PROPERTY,
+                                simpleName(property.getType()),
+                                List.of(),
+                                List.of(),
+                                current.getName(),
+                                property.isStatic(),
+                                false,
+                                groovydoc(property.getField(), current)));
+            }
+            for (FieldNode field : current.getFields()) {
+                if (isCompletable(field.getName(), field.getModifiers(), current)
+                        && current.getProperty(field.getName()) == null) {
+                    addMember(
+                            members,
+                            new Member(
+                                    field.getName(),
+                                    MemberKind.FIELD,
+                                    simpleName(field.getType()),
+                                    List.of(),
+                                    List.of(),
+                                    current.getName(),
+                                    field.isStatic(),
+                                    false,
+                                    groovydoc(field, current)));
+                }
+            }
+        }
+        // Getters of compiled classes are accessed as properties in Groovy
+        for (Member method : List.copyOf(members.values())) {
+            String property = propertyName(method);
+            if (property != null) {
+                addMember(
+                        members,
+                        new Member(
+                                property,
+                                MemberKind.PROPERTY,
+                                method.type(),
+                                List.of(),
+                                List.of(),
+                                method.declaringType(),
+                                false,
+                                false,
+                                null));
+            }
+        }
+        for (GdkMethods.Group group : GdkMethods.GROUPS) {
+            if (group.appliesTo(type)) {
+                group.members().forEach(member -> addMember(members, member));
+            }
+        }
+
+        List<Member> sorted = new ArrayList<>(members.values());
+        sorted.sort(
+                Comparator.comparing(Member::name)
+                        .thenComparing(Member::kind)
+                        .thenComparingInt(member -> member.parameterTypes().size()));
+        return new MemberTable(List.copyOf(sorted));
+    }
+
+    private static void addMember(Map<String, Member> members, Member member) {
+        members.putIfAbsent(
+                member.name() + ':' + member.kind() + ':' + member.parameterTypes(), member);
+    }
+
+    /**
+     * Checks whether a member can be completed: compiled classes contribute their public
+     * members, source classes all of them.
+     */
+    private static boolean isCompletable(String name, int modifiers, ClassNode declaringClass) {
+        return name.indexOf('$') < 0
+                && !name.startsWith("<")
+                && (Modifier.isPublic(modifiers) || declaringClass.isPrimaryClassNode());
+    }
+
+    private static Member toMember(MethodNode method) {
+        Parameter[] parameters = method.getParameters();
+        List<String> parameterTypes = new ArrayList<>(parameters.length);
+        List<String> parameterNames = new ArrayList<>(parameters.length);
+        for (Parameter parameter : parameters) {
+            parameterTypes.add(simpleName(parameter.getType()));
+            parameterNames.add(parameter.getName());
+        }
+        return new Member(
+                method.getName(),
+                MemberKind.METHOD,
+                simpleName(method.getReturnType()),
+                List.copyOf(parameterTypes),
+                List.copyOf(parameterNames),
+                method.getDeclaringClass().getName(),
+                method.isStatic(),
+                false,
+                method.getDeclaringClass().isPrimaryClassNode() ? groovydoc(method) : null);
+    }
+
+    private static @Nullable String propertyName(Member method) {
+        if (method.kind() != MemberKind.METHOD
+                || method.isStatic()
+                || !method.parameterTypes().isEmpty()
+                || "void".equals(method.type())) {
+            return null;
+        }
+        String name = method.name();
+        int prefix = name.startsWith("get") ? 3 : name.startsWith("is") ? 2 : 0;
+        if (prefix == 0 || name.length() == prefix) {
+            return null;
+        }
+        return name.substring(prefix, prefix + 1).toLowerCase(Locale.ROOT)
+                + name.substring(prefix + 1);
+    }
+
+    private static @Nullable String groovydoc(@Nullable FieldNode field, ClassNode owner) {
+        return field != null && owner.isPrimaryClassNode() ? groovydoc(field) : null;
+    }
+
+    private static @Nullable String groovydoc(AnnotatedNode node) {
+        Groovydoc groovydoc = node.getGroovydoc();
+        return groovydoc != null && groovydoc.isPresent()
+                ? stripCommentMarkers(groovydoc.getContent())
+                : null;
+    }
+
+    private static String stripCommentMarkers(String groovydoc) {
+        StringBuilder text = new StringBuilder();
+        for (String line : groovydoc.split("\\R")) {
+            String stripped = line.strip();
+            if (stripped.startsWith("/**")) {
+                stripped = stripped.substring(3);
+            }
+            if (stripped.endsWith("*/")) {
+                stripped = stripped.substring(0, stripped.length() - 2);
+            }
+            if (stripped.startsWith("*")) {
+                stripped = stripped.substring(1);
+            }
+            stripped = stripped.strip();
+            if (!stripped.isEmpty()) {
+                text.append(text.length() > 0 ? "\n" : "").append(stripped);
+            }
+        }
+        return text.toString();
+    }
+
+    private static String simpleName(ClassNode type) {
+        return type.getNameWithoutPackage();
+    }
+
+    /** Reflects over the GDK once, on first use. */
+    private static final class GdkMethods {
+
+        /** Extension methods grouped by the type they extend. */
+        static final List<Group> GROUPS = load();
+
+        /**
+         * The extension methods of one type.
+         *
+         * @param selfType the extended type
+         * @param members the extension methods
+         */
+        record Group(ClassNode selfType, List<Member> members) {
+
+            boolean appliesTo(ClassNode receiver) {
+                if (ClassHelper.isObjectType(selfType)) {
+                    return true;
+                }
+                if (selfType.isArray() || receiver.isArray()) {
+                    if (!selfType.isArray() || !receiver.isArray()) {
+                        return false;
+                    }
+                    ClassNode selfComponent = selfType.getComponentType();
+                    ClassNode receiverComponent = receiver.getComponentType();
+                    return selfComponent.equals(receiverComponent)
+                            || (ClassHelper.isObjectType(selfComponent)
+                                    && !ClassHelper.isPrimitiveType(receiverComponent));
+                }
+                return receiver.equals(selfType)
+                        || receiver.isDerivedFrom(selfType)
+                        || receiver.implementsInterface(selfType);
+            }
+        }
+
+        private static List<Group> load() {
+            Map<Class<?>, List<Member>> bySelfType = new LinkedHashMap<>();
+            for (Class<?> gdkClass : DefaultGroovyMethods.DGM_LIKE_CLASSES) {
+                for (Method method : gdkClass.getMethods()) {
+                    if (isExtension(method)) {
+                        Class<?> selfType = method.getParameterTypes()[0];
+                        if (selfType.isPrimitive()) {
+                            selfType =
+                                    ClassHelper.getWrapper(ClassHelper.make(selfType))
+                                            .getTypeClass();
+                        }
+                        bySelfType
+                                .computeIfAbsent(selfType, key -> new ArrayList<>())
+                                .add(toMember(method));
+                    }
+                }
+            }
+            List<Group> groups = new ArrayList<>(bySelfType.size());
+            bySelfType.forEach(
+                    (selfType, members) ->
+                            groups.add(
+                                    new Group(ClassHelper.make(selfType), List.copyOf(members))));
+            // Extensions of specific types shadow the same methods on Object
+            groups.sort(Comparator.comparing(group -> ClassHelper.isObjectType(group.selfType())));
+            return List.copyOf(groups);
+        }
+
+        private static boolean isExtension(Method method) {
+            return Modifier.isStatic(method.getModifiers())
+                    && method.getParameterCount() > 0
+                    && !method.isSynthetic()
+                    && !method.isAnnotationPresent(Deprecated.class);
+        }
+
+        private static Member toMember(Method method) {
+            Class<?>[] types = method.getParameterTypes();
+            List<String> parameterTypes = new ArrayList<>(types.length - 1);
+            // The first parameter is the receiver
+            for (int i = 1; i < types.length; i++) {
+                parameterTypes.add(types[i].getSimpleName());
+            }
+            return new Member(
+                    method.getName(),
+                    MemberKind.METHOD,
+                    method.getReturnType().getSimpleName(),
+                    List.copyOf(parameterTypes),
+                    // The GDK is compiled without parameter names
+                    List.of(),
+                    method.getDeclaringClass().getName(),
+                    false,
+                    true,
+                    null);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.ModuleOutline;
+import com.groovy.lsp.groovy.core.api.ModuleOutlineCache;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ModuleOutlineCache} backed by one file per source in a cache directory.
+ *
+ * <p>Files are named after a hash of the source name followed by the content hash, so a
+ * lookup for the current content is a single file check. All outlines are read into
+ * memory on first use; afterwards the disk is only written to. Unreadable files, for
+ * example from an older format, are deleted and rebuilt on demand, as are outlines of
+ * sources deleted while the server was not running.</p>
+ *
+ * <p>Storing an outline only updates memory. The files are written by a flush on the
+ * write executor, which persists the latest outline of each source changed since the
+ * previous flush, so a burst of edits to one source writes a single file.</p>
+ */
+public class ModuleOutlineCacheImpl implements ModuleOutlineCache {
+    private static final Logger logger = LoggerFactory.getLogger(ModuleOutlineCacheImpl.class);
+
+    private static final String EXTENSION = ".outline";
+    private static final int SOURCE_HASH_LENGTH = 16;
+
+    private final Path directory;
+    private final ASTService astService;
+    private final Executor writeExecutor;
+    private final Map<String, ModuleOutline> outlines = new ConcurrentHashMap<>();
+    // Content hash of the file stored for each source, only accessed while flushing
+    private final Map<String, String> storedHashes = new HashMap<>();
+    private final Set<String> unflushed = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    private final List<Consumer<String>> changeListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean loaded = false;
+
+    /**
+     * Creates a cache that writes its files on the calling thread.
+     *
+     * @param directory the cache directory
+     * @param astService the service that parses sources without a matching outline
+     */
+    public ModuleOutlineCacheImpl(Path directory, ASTService astService) {
+        this(directory, astService, Runnable::run);
+    }
+
+    /**
+     * Creates a cache that writes its files on the given executor.
+     *
+     * @param directory the cache directory
+     * @param astService the service that parses sources without a matching outline
+     * @param writeExecutor the executor that flushes stored outlines to disk
+     */
+    public ModuleOutlineCacheImpl(Path directory, ASTService astService, Executor writeExecutor) {
+        this.directory = directory;
+        this.astService = astService;
+        this.writeExecutor = writeExecutor;
+    }
+
+    @Override
+    public @Nullable ModuleOutline get(String sourceName, String sourceCode) {
+        ensureLoaded();
+        ModuleOutline outline = outlines.get(sourceName);
+        if (outline != null && outline.getContentHash().equals(contentHash(sourceCode))) {
+            return outline;
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable ModuleOutline getOrParse(String sourceName, String sourceCode) {
+        ModuleOutline cached = get(sourceName, sourceCode);
+        if (cached != null) {
+            return cached;
+        }
+        ModuleNode moduleNode = astService.parseDeclarations(sourceCode, sourceName);
+        if (moduleNode == null) {
+            return null;
+        }
+        ModuleOutline outline =
+                OutlineExtractor.extractModule(
+                        sourceName, contentHash(sourceCode), moduleNode, sourceCode);
+        put(outline);
+        return outline;
+    }
+
+    @Override
+    public @Nullable ModuleOutline getLatest(String sourceName) {
+        ensureLoaded();
+        return outlines.get(sourceName);
+    }
+
+    @Override
+    public Collection<ModuleOutline> getAll() {
+        ensureLoaded();
+        return List.copyOf(outlines.values());
+    }
+
+    @Override
+    public void put(ModuleOutline outline) {
+        ensureLoaded();
+        ModuleOutline previous = outlines.put(outline.getSourceName(), outline);
+        if (previous != null && previous.getContentHash().equals(outline.getContentHash())) {
+            return;
+        }
+        changeListeners.forEach(listener -> listener.accept(outline.getSourceName()));
+        scheduleFlush(outline.getSourceName());
+    }
+
+    @Override
+    public void remove(String sourceName) {
+        ensureLoaded();
+        if (outlines.remove(sourceName) == null) {
+            return;
+        }
+        changeListeners.forEach(listener -> listener.accept(sourceName));
+        scheduleFlush(sourceName);
+    }
+
+    /**
+     * Writes the latest outline of every source changed since the previous flush, and
+     * deletes the files of removed sources.
+     */
+    void flush() {
+        // Cleared first, so a change made while flushing schedules another flush
+        flushScheduled.set(false);
+        synchronized (flushLock) {
+            for (String sourceName : List.copyOf(unflushed)) {
+                unflushed.remove(sourceName);
+                // The current outline, however many versions were stored since the last flush
+                ModuleOutline outline = outlines.get(sourceName);
+                String storedHash = storedHashes.get(sourceName);
+                if (outline != null && outline.getContentHash().equals(storedHash)) {
+                    continue;
+                }
+                try {
+                    if (outline != null) {
+                        write(outline);
+                        storedHashes.put(sourceName, outline.getContentHash());
+                    } else {
+                        storedHashes.remove(sourceName);
+                    }
+                    if (storedHash != null) {
+                        Files.deleteIfExists(fileFor(sourceName, storedHash));
+                    }
+                } catch (IOException e) {
+                    logger.warn("Failed to store outline of {}", sourceName, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers a listener that is told the source name whenever the outline of a source is
+     * stored with new content or removed, so derived data can update that source only.
+     *
+     * @param listener called with the name of the changed source
+     */
+    void addChangeListener(Consumer<String> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Computes the hash that identifies a source content.
+     *
+     * @param sourceCode the content
+     * @return the hex encoded SHA-256 of the content
+     */
+    static String contentHash(String sourceCode) {
+        return sha256(sourceCode);
+    }
+
+    private void scheduleFlush(String sourceName) {
+        unflushed.add(sourceName);
+        if (!flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writeExecutor.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Write executor is saturated, storing outlines on the calling thread");
+            flush();
+        }
+    }
+
+    private void write(ModuleOutline outline) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "outline", ".tmp");
+        try (OutputStream output = Files.newOutputStream(temp)) {
+            ModuleOutlineCodec.write(outline, output);
+        }
+        move(temp, fileFor(outline.getSourceName(), outline.getContentHash()));
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                load();
+                loaded = true;
+            }
+        }
+    }
+
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Map<String, Path> files = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : stream) {
+                ModuleOutline outline = read(file);
+                if (outline == null || !sourceExists(outline.getSourceName())) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                // Keep the newest outline of each source
+                Path existing = files.get(outline.getSourceName());
+                if (existing != null) {
+                    if (Files.getLastModifiedTime(existing)
+                                    .compareTo(Files.getLastModifiedTime(file))
+                            >= 0) {
+                        Files.deleteIfExists(file);
+                        continue;
+                    }
+                    Files.deleteIfExists(existing);
+                }
+                files.put(outline.getSourceName(), file);
+                outlines.put(outline.getSourceName(), outline);
+                storedHashes.put(outline.getSourceName(), outline.getContentHash());
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to load outline cache from {}", directory, e);
+        }
+        logger.debug("Loaded {} module outlines from {}", outlines.size(), directory);
+    }
+
+    /**
+     * Checks whether the source of an outline still exists. Only sources named by a file
+     * URI or an absolute path can be checked, any other name is assumed to exist.
+     */
+    private static boolean sourceExists(String sourceName) {
+        try {
+            Path path =
+                    sourceName.startsWith("file:")
+                            ? Path.of(URI.create(sourceName))
+                            : Path.of(sourceName);
+            return !path.isAbsolute() || Files.exists(path);
+        } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+            return true;
+        }
+    }
+
+    private static @Nullable ModuleOutline read(Path file) {
+        try (InputStream input = Files.newInputStream(file)) {
+            return ModuleOutlineCodec.read(input);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Discarding unreadable outline {}", file, e);
+            return null;
+        }
+    }
+
+    private Path fileFor(String sourceName, String contentHash) {
+        return directory.resolve(
+                sha256(sourceName).substring(0, SOURCE_HASH_LENGTH)
+                        + "-"
+                        + contentHash
+                        + EXTENSION);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(
+                    source,
+                    target,
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import com.groovy.lsp.groovy.core.api.ModuleOutline;
+import com.groovy.lsp.groovy.core.api.OutlineElement;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Binary encoding of {@link ModuleOutline}s for the on-disk outline cache.
+ *
+ * <p>The format starts with a magic number and a version; data written by another version
+ * is rejected so that it is rebuilt rather than misread. Enum constants are stored by name.</p>
+ */
+final class ModuleOutlineCodec {
+
+    private static final int MAGIC = 0x474C4F4C; // "GLOL"
+    private static final int VERSION = 4;
+
+    private ModuleOutlineCodec() {
+        // Utility class
+    }
+
+    /**
+     * Writes an outline.
+     *
+     * @param outline the outline to write
+     * @param output the stream to write to, left open
+     * @throws IOException if writing fails
+     */
+    static void write(ModuleOutline outline, OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(outline.getSourceName());
+        out.writeUTF(outline.getContentHash());
+        writeNullable(out, outline.getPackageName());
+        writeStrings(out, outline.getImports());
+        writeStrings(out, outline.getDependencies());
+        writeElements(out, outline.getElements());
+        out.flush();
+    }
+
+    /**
+     * Reads an outline.
+     *
+     * @param input the stream to read from, left open
+     * @return the outline
+     * @throws IOException if reading fails or the data has another format
+     */
+    static ModuleOutline read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a module outline");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported module outline version " + version);
+        }
+        String sourceName = in.readUTF();
+        String contentHash = in.readUTF();
+        String packageName = readNullable(in);
+        List<String> imports = readStrings(in);
+        Set<String> dependencies = new HashSet<>(readStrings(in));
+        List<OutlineElement> elements = readElements(in);
+        return new ModuleOutline(
+                sourceName, contentHash, packageName, imports, dependencies, elements);
+    }
+
+    private static void writeElements(DataOutputStream out, List<OutlineElement> elements)
+            throws IOException {
+        out.writeInt(elements.size());
+        for (OutlineElement element : elements) {
+            out.writeUTF(element.getName());
+            out.writeUTF(element.getKind().name());
+            writeNullable(out, element.getDetail());
+            out.writeInt(element.getStartLine());
+            out.writeInt(element.getStartColumn());
+            out.writeInt(element.getEndLine());
+            out.writeInt(element.getEndColumn());
+            out.writeInt(element.getNameLine());
+            out.writeInt(element.getNameColumn());
+            out.writeInt(element.getNameEndColumn());
+            writeStrings(out, element.getSupertypes());
+            writeElements(out, element.getChildren());
+        }
+    }
+
+    private static List<OutlineElement> readElements(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<OutlineElement> elements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = in.readUTF();
+            OutlineElement.Kind kind;
+            try {
+                kind = OutlineElement.Kind.valueOf(in.readUTF());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown outline element kind", e);
+            }
+            String detail = readNullable(in);
+            int startLine = in.readInt();
+            int startColumn = in.readInt();
+            int endLine = in.readInt();
+            int endColumn = in.readInt();
+            int nameLine = in.readInt();
+            int nameColumn = in.readInt();
+            int nameEndColumn = in.readInt();
+            List<String> supertypes = readStrings(in);
+            elements.add(
+                    new OutlineElement(
+                            name,
+                            kind,
+                            detail,
+                            startLine,
+                            startColumn,
+                            endLine,
+                            endColumn,
+                            nameLine,
+                            nameColumn,
+                            nameEndColumn,
+                            supertypes,
+                            readElements(in)));
+        }
+        return elements;
+    }
+
+    private static void writeStrings(DataOutputStream out, Iterable<String> values)
+            throws IOException {
+        List<String> list = new ArrayList<>();
+        values.forEach(list::add);
+        out.writeInt(list.size());
+        for (String value : list) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    private static void writeNullable(DataOutputStream out, @Nullable String value)
+            throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static @Nullable String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,367 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassCodeVisitorSupport;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ConstructorNode;
+import org.codehaus.groovy.ast.FieldNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.BinaryExpression;
+import org.codehaus.groovy.ast.expr.ClassExpression;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.expr.ConstructorCallExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.FieldExpression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.PropertyExpression;
+import org.codehaus.groovy.ast.expr.StaticMethodCallExpression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.ast.stmt.Statement;
+import org.codehaus.groovy.control.SourceUnit;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Immutable position index over the nodes of a {@link ModuleNode}.
+ *
+ * <p>The module is visited once; every positioned node is recorded in visit order
+ * together with its source range and the index of its innermost enclosing node.
+ * Each source line keeps the sorted list of nodes whose range covers it, so a
+ * position query is a direct line lookup followed by a short backwards scan over
+ * that line's nodes, instead of a visit of the whole module.</p>
+ *
+ * <p>Line buckets are used rather than an interval tree or a binary search over
+ * sorted ranges. Groovy node ranges nest rather than overlap, so the nodes covering a
+ * line are its enclosing declarations and blocks plus the nodes written on it: a
+ * bucket holds roughly the nesting depth plus the expressions of one line, and the
+ * scan over it stays a handful of comparisons. The line lookup is constant time
+ * where a tree or a binary search would be logarithmic, and the innermost match
+ * falls out of the visit order without the parent walk a tree query would need.
+ * The cost is one entry per covered line for each multi-line node, which is bounded
+ * by the nesting depth times the number of lines.</p>
+ *
+ * <p>Node lookup keeps the semantics of the original visitor-based finder: among the
+ * nodes whose line and column ranges both contain the position, the one visited
+ * last (the innermost one) wins. Class, constructor and closure nodes, static method
+ * calls and constructor calls are indexed as scopes only.</p>
+ */
+final class NodePositionIndex {
+
+    private static final int[] NO_ENTRIES = new int[0];
+
+    private final ASTNode[] nodes;
+    private final int[] parents;
+    private final boolean[] positional;
+    private final int[] startLines;
+    private final int[] startColumns;
+    private final int[] endLines;
+    private final int[] endColumns;
+    private final int[][] entriesByLine;
+
+    private NodePositionIndex(List<Entry> entries) {
+        int size = entries.size();
+        this.nodes = new ASTNode[size];
+        this.parents = new int[size];
+        this.positional = new boolean[size];
+        this.startLines = new int[size];
+        this.startColumns = new int[size];
+        this.endLines = new int[size];
+        this.endColumns = new int[size];
+
+        int maxLine = 0;
+        for (int i = 0; i < size; i++) {
+            Entry entry = entries.get(i);
+            ASTNode node = entry.node();
+            nodes[i] = node;
+            positional[i] = entry.positional();
+            startLines[i] = node.getLineNumber();
+            startColumns[i] = node.getColumnNumber();
+            endLines[i] = node.getLastLineNumber();
+            endColumns[i] = node.getLastColumnNumber();
+            maxLine = Math.max(maxLine, endLines[i]);
+        }
+        linkParents();
+        this.entriesByLine = bucketByLine(maxLine);
+    }
+
+    /**
+     * Builds the index of a module.
+     *
+     * @param moduleNode the module to index
+     * @return the position index
+     */
+    static NodePositionIndex build(ModuleNode moduleNode) {
+        Collector collector = new Collector(moduleNode.getContext());
+        for (ClassNode classNode : moduleNode.getClasses()) {
+            collector.record(classNode, false);
+            classNode.visitContents(collector);
+        }
+        if (moduleNode.getStatementBlock() != null) {
+            moduleNode.getStatementBlock().visit(collector);
+        }
+        return new NodePositionIndex(collector.entries);
+    }
+
+    /**
+     * Finds the innermost node at the given position.
+     *
+     * @param line the line number (1-based)
+     * @param column the column number (1-based)
+     * @return the node at the position or null if there is none
+     */
+    @Nullable ASTNode findNodeAt(int line, int column) {
+        int[] candidates = entriesAt(line);
+        // Entries are in visit order, so the last match is the innermost node
+        for (int i = candidates.length - 1; i >= 0; i--) {
+            int entry = candidates[i];
+            if (positional[entry] && startColumns[entry] <= column && endColumns[entry] >= column) {
+                return nodes[entry];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the innermost class, method, constructor or closure enclosing the position.
+     *
+     * @param line the line number (1-based)
+     * @param column the column number (1-based)
+     * @return the enclosing scope node or null if the position is outside of any scope
+     */
+    @Nullable ASTNode findEnclosingScope(int line, int column) {
+        int entry = innermostContaining(line, column);
+        while (entry >= 0) {
+            ASTNode node = nodes[entry];
+            if (node instanceof MethodNode
+                    || node instanceof ClosureExpression
+                    || (node instanceof ClassNode && !positional[entry])) {
+                return node;
+            }
+            entry = parents[entry];
+        }
+        return null;
+    }
+
+    /**
+     * Finds the innermost method, static method or constructor call enclosing the position.
+     *
+     * @param line the line number (1-based)
+     * @param column the column number (1-based)
+     * @return the enclosing call or null if the position is outside of any call
+     */
+    @Nullable Expression findEnclosingCall(int line, int column) {
+        int entry = innermostContaining(line, column);
+        while (entry >= 0) {
+            ASTNode node = nodes[entry];
+            if (node instanceof MethodCallExpression
+                    || node instanceof StaticMethodCallExpression
+                    || node instanceof ConstructorCallExpression) {
+                return (Expression) node;
+            }
+            entry = parents[entry];
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of indexed nodes.
+     *
+     * @return the node count
+     */
+    int size() {
+        return nodes.length;
+    }
+
+    private int innermostContaining(int line, int column) {
+        int[] candidates = entriesAt(line);
+        for (int i = candidates.length - 1; i >= 0; i--) {
+            int entry = candidates[i];
+            if (contains(entry, line, column)) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private int[] entriesAt(int line) {
+        if (line < 0 || line >= entriesByLine.length) {
+            return NO_ENTRIES;
+        }
+        return entriesByLine[line];
+    }
+
+    private boolean contains(int entry, int line, int column) {
+        boolean afterStart =
+                line > startLines[entry]
+                        || (line == startLines[entry] && column >= startColumns[entry]);
+        boolean beforeEnd =
+                line < endLines[entry] || (line == endLines[entry] && column <= endColumns[entry]);
+        return afterStart && beforeEnd;
+    }
+
+    private boolean encloses(int outer, int inner) {
+        return contains(outer, startLines[inner], startColumns[inner])
+                && contains(outer, endLines[inner], endColumns[inner]);
+    }
+
+    /**
+     * Links every entry to the nearest preceding entry whose range encloses it.
+     * Entries are in visit (pre-order) order, so a stack of open ranges suffices.
+     */
+    private void linkParents() {
+        Deque<Integer> open = new ArrayDeque<>();
+        for (int i = 0; i < nodes.length; i++) {
+            while (!open.isEmpty() && !encloses(open.peek(), i)) {
+                open.pop();
+            }
+            parents[i] = open.isEmpty() ? -1 : open.peek();
+            open.push(i);
+        }
+    }
+
+    private int[][] bucketByLine(int maxLine) {
+        int[] counts = new int[maxLine + 1];
+        for (int i = 0; i < nodes.length; i++) {
+            for (int line = startLines[i]; line <= endLines[i]; line++) {
+                counts[line]++;
+            }
+        }
+
+        int[][] buckets = new int[maxLine + 1][];
+        for (int line = 0; line <= maxLine; line++) {
+            buckets[line] = counts[line] == 0 ? NO_ENTRIES : new int[counts[line]];
+            counts[line] = 0;
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            for (int line = startLines[i]; line <= endLines[i]; line++) {
+                buckets[line][counts[line]++] = i;
+            }
+        }
+        return buckets;
+    }
+
+    private record Entry(ASTNode node, boolean positional) {}
+
+    /**
+     * Visitor that records the same nodes the position lookup has always considered,
+     * plus the scope nodes used for enclosing-scope queries.
+     */
+    private static class Collector extends ClassCodeVisitorSupport {
+        private final List<Entry> entries = new ArrayList<>();
+        private final Set<ASTNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final SourceUnit sourceUnit;
+
+        Collector(SourceUnit sourceUnit) {
+            this.sourceUnit = sourceUnit;
+        }
+
+        @Override
+        protected SourceUnit getSourceUnit() {
+            return sourceUnit;
+        }
+
+        void record(@Nullable ASTNode node, boolean positional) {
+            if (node == null || node.getLineNumber() < 1 || node.getLastLineNumber() < 1) {
+                return;
+            }
+            // Script statements are reachable both from run() and the module block
+            if (seen.add(node)) {
+                entries.add(new Entry(node, positional));
+            }
+        }
+
+        @Override
+        public void visitField(FieldNode field) {
+            record(field, true);
+            record(field.getType(), true);
+            super.visitField(field);
+        }
+
+        @Override
+        public void visitMethod(MethodNode method) {
+            record(method, true);
+            record(method.getReturnType(), true);
+            super.visitMethod(method);
+        }
+
+        @Override
+        public void visitConstructor(ConstructorNode node) {
+            record(node, false);
+            super.visitConstructor(node);
+        }
+
+        @Override
+        public void visitStatement(Statement statement) {
+            record(statement, true);
+            super.visitStatement(statement);
+        }
+
+        @Override
+        public void visitClosureExpression(ClosureExpression expression) {
+            record(expression, false);
+            super.visitClosureExpression(expression);
+        }
+
+        @Override
+        public void visitMethodCallExpression(MethodCallExpression call) {
+            record(call, true);
+            super.visitMethodCallExpression(call);
+        }
+
+        @Override
+        public void visitStaticMethodCallExpression(StaticMethodCallExpression call) {
+            record(call, false);
+            super.visitStaticMethodCallExpression(call);
+        }
+
+        @Override
+        public void visitConstructorCallExpression(ConstructorCallExpression call) {
+            record(call, false);
+            super.visitConstructorCallExpression(call);
+        }
+
+        @Override
+        public void visitBinaryExpression(BinaryExpression expression) {
+            record(expression, true);
+            super.visitBinaryExpression(expression);
+        }
+
+        @Override
+        public void visitVariableExpression(VariableExpression expression) {
+            record(expression, true);
+            super.visitVariableExpression(expression);
+        }
+
+        @Override
+        public void visitPropertyExpression(PropertyExpression expression) {
+            record(expression, true);
+            super.visitPropertyExpression(expression);
+        }
+
+        @Override
+        public void visitFieldExpression(FieldExpression expression) {
+            record(expression, true);
+            super.visitFieldExpression(expression);
+        }
+
+        @Override
+        public void visitClassExpression(ClassExpression expression) {
+            record(expression, true);
+            super.visitClassExpression(expression);
+        }
+
+        @Override
+        public void visitConstantExpression(ConstantExpression expression) {
+            record(expression, true);
+            super.visitConstantExpression(expression);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.groovy.core.api.OccurrenceKind;
+import com.groovy.lsp.groovy.core.api.OccurrenceTable;
+import com.groovy.lsp.groovy.core.api.OccurrenceTable.Occurrence;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassCodeVisitorSupport;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.ClassExpression;
+import org.codehaus.groovy.ast.expr.ConstructorCallExpression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.PropertyExpression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+import org.codehaus.groovy.control.SourceUnit;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Visitor that records every identifier occurrence of a module once, building its
+ * {@link OccurrenceTable}.
+ */
+public final class OccurrenceCollector extends ClassCodeVisitorSupport {
+    private final CancellationToken cancellationToken;
+    private final List<Occurrence> occurrences = new ArrayList<>();
+    private final Set<ASTNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private OccurrenceCollector(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * Collects the occurrences of a module in a single traversal, abandoning it as soon
+     * as the token requests cancellation.
+     *
+     * @param moduleNode the module
+     * @param cancellationToken token checked per method and block
+     * @return the occurrence table of the module
+     * @throws java.util.concurrent.CancellationException if the token requested
+     *     cancellation
+     */
+    public static OccurrenceTable collect(
+            ModuleNode moduleNode, CancellationToken cancellationToken) {
+        OccurrenceCollector collector = new OccurrenceCollector(cancellationToken);
+        for (ClassNode classNode : moduleNode.getClasses()) {
+            cancellationToken.throwIfCancellationRequested();
+            classNode.visitContents(collector);
+        }
+        // Also visit the script body if present
+        if (moduleNode.getStatementBlock() != null) {
+            moduleNode.getStatementBlock().visit(collector);
+        }
+        return new OccurrenceTable(collector.occurrences);
+    }
+
+    @Override
+    protected @Nullable SourceUnit getSourceUnit() {
+        return null;
+    }
+
+    private void record(OccurrenceKind kind, @Nullable String name, ASTNode node) {
+        // Script statements are reachable both from run() and the module block
+        if (!seen.add(node)) {
+            return;
+        }
+        // Dynamic names (e.g. "$name"()) are recorded without one
+        occurrences.add(new Occurrence(kind, name, node));
+    }
+
+    @Override
+    public void visitBlockStatement(BlockStatement block) {
+        cancellationToken.throwIfCancellationRequested();
+        super.visitBlockStatement(block);
+    }
+
+    @Override
+    public void visitMethod(MethodNode node) {
+        cancellationToken.throwIfCancellationRequested();
+        record(OccurrenceKind.METHOD_DECLARATION, node.getName(), node);
+        super.visitMethod(node);
+    }
+
+    @Override
+    public void visitVariableExpression(VariableExpression expression) {
+        record(OccurrenceKind.VARIABLE, expression.getName(), expression);
+        super.visitVariableExpression(expression);
+    }
+
+    @Override
+    public void visitMethodCallExpression(MethodCallExpression call) {
+        record(OccurrenceKind.METHOD_CALL, call.getMethodAsString(), call);
+        super.visitMethodCallExpression(call);
+    }
+
+    @Override
+    public void visitClassExpression(ClassExpression expression) {
+        record(OccurrenceKind.CLASS_REFERENCE, expression.getType().getName(), expression);
+        super.visitClassExpression(expression);
+    }
+
+    @Override
+    public void visitConstructorCallExpression(ConstructorCallExpression call) {
+        record(OccurrenceKind.CLASS_REFERENCE, call.getType().getName(), call);
+        super.visitConstructorCallExpression(call);
+    }
+
+    @Override
+    public void visitPropertyExpression(PropertyExpression expression) {
+        record(OccurrenceKind.PROPERTY, expression.getPropertyAsString(), expression);
+        super.visitPropertyExpression(expression);
+    }
+}
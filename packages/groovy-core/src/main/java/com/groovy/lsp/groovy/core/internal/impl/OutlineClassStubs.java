@@ -0,0 +1,541 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import com.groovy.lsp.groovy.core.api.ModuleOutline;
+import com.groovy.lsp.groovy.core.api.OutlineElement;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.Parameter;
+import org.codehaus.groovy.ast.PropertyNode;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+import org.codehaus.groovy.control.ClassNodeResolver.LookupResult;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Synthesizes class node stubs for workspace classes from their stored outlines.
+ *
+ * <p>A stub carries the declared supertypes, fields, properties, constructors and method
+ * signatures of a class, but no code. Installed in the {@link SharedClassNodeResolver},
+ * stubs let a file that refers to other workspace classes compile on its own, without
+ * parsing the sources it depends on.</p>
+ *
+ * <p>Outlines store type names as written in the source, so the types of a stub are
+ * resolved the way the compiler would: against the declaring file's imports, its package,
+ * the workspace and the default imports. Stubs are built on first use and kept per
+ * classpath since their member types resolve against it. When the outline of a source
+ * changes, only the declarations of that source are re-indexed, and only the stubs of its
+ * classes and the stubs that refer to them are dropped. Only a source that declares a new
+ * class drops all stubs, since any of them may have failed to resolve that class.</p>
+ */
+public class OutlineClassStubs {
+
+    // Class file access flags that java.lang.reflect.Modifier does not expose
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_ENUM = 0x4000;
+
+    private static final List<String> DEFAULT_PACKAGES =
+            List.of(
+                    "java.lang.",
+                    "java.util.",
+                    "java.io.",
+                    "java.net.",
+                    "groovy.lang.",
+                    "groovy.util.");
+    private static final Set<String> DEFAULT_CLASSES =
+            Set.of("java.math.BigDecimal", "java.math.BigInteger");
+    private static final Set<OutlineElement.Kind> TYPE_KINDS =
+            Set.of(
+                    OutlineElement.Kind.CLASS,
+                    OutlineElement.Kind.INTERFACE,
+                    OutlineElement.Kind.TRAIT,
+                    OutlineElement.Kind.ENUM,
+                    OutlineElement.Kind.ANNOTATION);
+
+    private static final int MAX_CLASSPATHS = 8;
+
+    private final ModuleOutlineCacheImpl outlineCache;
+    private final Map<String, Declaration> declarations = new ConcurrentHashMap<>();
+    // Guarded by this, like every change of the declarations
+    private final Map<String, Set<String>> classNamesBySource = new HashMap<>();
+    private final Map<SharedClassNodeResolver.ClasspathKey, StubTable> stubsByClasspath =
+            new ConcurrentHashMap<>();
+    private volatile boolean indexed = false;
+
+    public OutlineClassStubs(ModuleOutlineCacheImpl outlineCache) {
+        this.outlineCache = outlineCache;
+        outlineCache.addChangeListener(this::sourceChanged);
+    }
+
+    /**
+     * Finds the stub of a workspace class.
+     *
+     * <p>Stubs are built without locking. A stub and the stubs its members refer to are
+     * built together and then published; if another thread published the same class in
+     * the meantime, its stub is returned instead.</p>
+     *
+     * @param className the fully qualified class name, nested classes separated by {@code $}
+     * @param compilationUnit the unit that looks up the class, used to resolve the types
+     *     of the stub
+     * @return the stub, or null if no stored outline declares the class
+     */
+    public @Nullable ClassNode find(String className, CompilationUnit compilationUnit) {
+        ensureIndexed();
+        Declaration declaration = declarations.get(className);
+        if (declaration == null) {
+            return null;
+        }
+        // Member types resolve against the classpath, so stubs are kept per classpath
+        StubTable table = stubTable(SharedClassNodeResolver.classpathKey(compilationUnit));
+        ClassNode stub = table.stubs.get(className);
+        if (stub != null) {
+            return stub;
+        }
+        long generation = table.generation;
+        StubBuilder builder = new StubBuilder(declarations, table.stubs, compilationUnit);
+        builder.createStub(className, declaration);
+        return table.publish(builder, generation, className);
+    }
+
+    /**
+     * Checks whether a class node is a stub synthesized from an outline.
+     *
+     * @param classNode the class node to check
+     * @return true if the class node is a stub
+     */
+    public static boolean isStub(ClassNode classNode) {
+        return classNode.redirect().getNodeMetaData(OutlineClassStubs.class) != null;
+    }
+
+    private void ensureIndexed() {
+        if (indexed) {
+            return;
+        }
+        synchronized (this) {
+            if (!indexed) {
+                for (ModuleOutline outline : outlineCache.getAll()) {
+                    reindex(outline.getSourceName(), outline);
+                }
+                indexed = true;
+            }
+        }
+    }
+
+    /**
+     * Re-indexes the declarations of one source and drops the stubs they invalidate.
+     */
+    private synchronized void sourceChanged(String sourceName) {
+        if (!indexed) {
+            // The first lookup indexes the current outlines
+            return;
+        }
+        Set<String> previous = classNamesBySource.getOrDefault(sourceName, Set.of());
+        Set<String> changed = reindex(sourceName, outlineCache.getLatest(sourceName));
+        // A new class may be what a stub's unresolved member type was meant to refer to
+        boolean added = !previous.containsAll(changed);
+        for (StubTable table : stubsByClasspath.values()) {
+            if (added) {
+                table.clear();
+            } else {
+                table.invalidate(changed);
+            }
+        }
+    }
+
+    /**
+     * Replaces the declarations of a source with those of its outline.
+     *
+     * @return the names of the classes the source declared before or declares now
+     */
+    private Set<String> reindex(String sourceName, @Nullable ModuleOutline outline) {
+        Map<String, Declaration> current = new HashMap<>();
+        if (outline != null) {
+            String packageName = outline.getPackageName();
+            String prefix = packageName == null || packageName.isEmpty() ? "" : packageName + ".";
+            index(current, outline, prefix, outline.getElements());
+        }
+        // New declarations are added before old ones are removed, so lookups never miss
+        declarations.putAll(current);
+        Set<String> previous = classNamesBySource.getOrDefault(sourceName, Set.of());
+        for (String className : previous) {
+            if (!current.containsKey(className)) {
+                Declaration declaration = declarations.get(className);
+                if (declaration != null
+                        && declaration.outline().getSourceName().equals(sourceName)) {
+                    declarations.remove(className);
+                }
+            }
+        }
+        if (current.isEmpty()) {
+            classNamesBySource.remove(sourceName);
+        } else {
+            classNamesBySource.put(sourceName, Set.copyOf(current.keySet()));
+        }
+        Set<String> changed = new HashSet<>(previous);
+        changed.addAll(current.keySet());
+        return changed;
+    }
+
+    private StubTable stubTable(SharedClassNodeResolver.ClasspathKey classpath) {
+        if (!stubsByClasspath.containsKey(classpath) && stubsByClasspath.size() >= MAX_CLASSPATHS) {
+            stubsByClasspath.clear();
+        }
+        return stubsByClasspath.computeIfAbsent(classpath, key -> new StubTable());
+    }
+
+    private static void index(
+            Map<String, Declaration> declarations,
+            ModuleOutline outline,
+            String prefix,
+            List<OutlineElement> elements) {
+        for (OutlineElement element : elements) {
+            if (TYPE_KINDS.contains(element.getKind())) {
+                String className = prefix + element.getName();
+                declarations.put(className, new Declaration(outline, element));
+                index(declarations, outline, className + "$", element.getChildren());
+            }
+        }
+    }
+
+    private static void addMember(
+            ClassNode stub, OutlineElement member, StubBuilder.TypeResolver types) {
+        String detail = member.getDetail();
+        switch (member.getKind()) {
+            case ENUM_CONSTANT ->
+                    positioned(
+                            stub.addField(
+                                    member.getName(),
+                                    Modifier.PUBLIC | Modifier.STATIC | Modifier.FINAL | ACC_ENUM,
+                                    stub,
+                                    null),
+                            member);
+            case FIELD ->
+                    positioned(
+                            stub.addField(
+                                    member.getName(), Modifier.PUBLIC, types.resolve(detail), null),
+                            member);
+            case PROPERTY -> {
+                PropertyNode property =
+                        stub.addProperty(
+                                member.getName(),
+                                Modifier.PUBLIC,
+                                types.resolve(detail),
+                                null,
+                                null,
+                                null);
+                positioned(property, member);
+                positioned(property.getField(), member);
+            }
+            case CONSTRUCTOR ->
+                    positioned(
+                            stub.addConstructor(
+                                    Modifier.PUBLIC,
+                                    parameters(detail, types),
+                                    ClassNode.EMPTY_ARRAY,
+                                    new BlockStatement()),
+                            member);
+            case METHOD -> {
+                String signature = detail == null ? "" : detail;
+                int separator = signature.lastIndexOf("): ");
+                ClassNode returnType =
+                        separator < 0
+                                ? ClassHelper.OBJECT_TYPE
+                                : types.resolve(signature.substring(separator + 3));
+                boolean isAbstract = stub.isInterface();
+                MethodNode method =
+                        stub.addMethod(
+                                member.getName(),
+                                isAbstract ? Modifier.PUBLIC | Modifier.ABSTRACT : Modifier.PUBLIC,
+                                returnType,
+                                parameters(detail, types),
+                                ClassNode.EMPTY_ARRAY,
+                                isAbstract ? null : new BlockStatement());
+                positioned(method, member);
+            }
+            default -> {
+                // Nested types are stubbed on their own when they are looked up
+            }
+        }
+    }
+
+    /**
+     * Parses a parameter list of the form {@code (Type name, Type name)}.
+     */
+    private static Parameter[] parameters(@Nullable String detail, StubBuilder.TypeResolver types) {
+        if (detail == null || !detail.startsWith("(")) {
+            return Parameter.EMPTY_ARRAY;
+        }
+        int end = detail.indexOf(')');
+        String list = detail.substring(1, end < 0 ? detail.length() : end).strip();
+        if (list.isEmpty()) {
+            return Parameter.EMPTY_ARRAY;
+        }
+        List<Parameter> parameters = new ArrayList<>();
+        for (String parameter : splitParameters(list)) {
+            int space = parameter.lastIndexOf(' ');
+            String type = space < 0 ? "Object" : parameter.substring(0, space);
+            String name = space < 0 ? parameter : parameter.substring(space + 1);
+            parameters.add(new Parameter(types.resolve(type), name));
+        }
+        return parameters.toArray(Parameter.EMPTY_ARRAY);
+    }
+
+    /**
+     * Splits a parameter list at the commas that are not inside type arguments.
+     */
+    private static List<String> splitParameters(String list) {
+        List<String> parameters = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < list.length(); i++) {
+            char c = list.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parameters.add(list.substring(start, i).strip());
+                start = i + 1;
+            }
+        }
+        parameters.add(list.substring(start).strip());
+        return parameters;
+    }
+
+    private static void positioned(ASTNode node, OutlineElement element) {
+        node.setLineNumber(element.getStartLine());
+        node.setColumnNumber(element.getStartColumn());
+        node.setLastLineNumber(element.getEndLine());
+        node.setLastColumnNumber(element.getEndColumn());
+    }
+
+    private static int modifiers(OutlineElement.Kind kind) {
+        return switch (kind) {
+            case INTERFACE, TRAIT -> Modifier.PUBLIC | Modifier.INTERFACE | Modifier.ABSTRACT;
+            case ANNOTATION ->
+                    Modifier.PUBLIC | Modifier.INTERFACE | Modifier.ABSTRACT | ACC_ANNOTATION;
+            case ENUM -> Modifier.PUBLIC | Modifier.FINAL | ACC_ENUM;
+            default -> Modifier.PUBLIC;
+        };
+    }
+
+    /**
+     * Builds the stub of one class together with the stubs of the workspace classes its
+     * members refer to, which are not published yet.
+     */
+    private static final class StubBuilder {
+        private final Map<String, Declaration> declarations;
+        private final Map<String, ClassNode> stubs;
+        private final CompilationUnit compilationUnit;
+        private final Map<String, ClassNode> built = new LinkedHashMap<>();
+        // Workspace class name to the names of the built stubs that refer to it
+        private final Map<String, Set<String>> references = new HashMap<>();
+
+        StubBuilder(
+                Map<String, Declaration> declarations,
+                Map<String, ClassNode> stubs,
+                CompilationUnit compilationUnit) {
+            this.declarations = declarations;
+            this.stubs = stubs;
+            this.compilationUnit = compilationUnit;
+        }
+
+        ClassNode createStub(String className, Declaration declaration) {
+            OutlineElement element = declaration.element();
+            ClassNode stub =
+                    new ClassNode(className, modifiers(element.getKind()), ClassHelper.OBJECT_TYPE);
+            stub.setLineNumber(element.getStartLine());
+            stub.setColumnNumber(element.getStartColumn());
+            stub.setLastLineNumber(element.getEndLine());
+            stub.setLastColumnNumber(element.getEndColumn());
+            stub.putNodeMetaData(OutlineClassStubs.class, declaration.outline().getSourceName());
+            // Registered before the members, so that types referring back to it find this stub
+            built.put(className, stub);
+
+            TypeResolver types = new TypeResolver(declaration.outline(), className);
+            if (element.getKind() == OutlineElement.Kind.ENUM) {
+                stub.setSuperClass(ClassHelper.Enum_Type);
+            }
+            List<ClassNode> interfaces = new ArrayList<>();
+            for (String supertype : element.getSupertypes()) {
+                ClassNode type = types.resolve(supertype);
+                if (type.isInterface()) {
+                    interfaces.add(type);
+                } else if (!stub.isInterface()) {
+                    stub.setSuperClass(type);
+                }
+            }
+            stub.setInterfaces(interfaces.toArray(ClassNode.EMPTY_ARRAY));
+
+            for (OutlineElement member : element.getChildren()) {
+                addMember(stub, member, types);
+            }
+            return stub;
+        }
+
+        /**
+         * Resolves the type names of one outline like the compiler resolves them in its source.
+         */
+        private final class TypeResolver {
+            private final ModuleOutline outline;
+            private final String referrer;
+
+            TypeResolver(ModuleOutline outline, String referrer) {
+                this.outline = outline;
+                this.referrer = referrer;
+            }
+
+            ClassNode resolve(@Nullable String typeName) {
+                if (typeName == null || typeName.isEmpty()) {
+                    return ClassHelper.OBJECT_TYPE;
+                }
+                int typeArguments = typeName.indexOf('<');
+                if (typeArguments >= 0) {
+                    return resolve(
+                            typeName.substring(0, typeArguments)
+                                    + typeName.substring(typeName.lastIndexOf('>') + 1));
+                }
+                if (typeName.endsWith("[]")) {
+                    return resolve(typeName.substring(0, typeName.length() - 2)).makeArray();
+                }
+                if (ClassHelper.isPrimitiveType(ClassHelper.make(typeName))) {
+                    return ClassHelper.make(typeName);
+                }
+                for (String candidate : candidates(typeName)) {
+                    ClassNode type = lookup(candidate);
+                    if (type != null) {
+                        return type;
+                    }
+                }
+                return ClassHelper.OBJECT_TYPE;
+            }
+
+            private List<String> candidates(String typeName) {
+                List<String> candidates = new ArrayList<>();
+                String nested = typeName.replace('.', '$');
+                if (typeName.contains(".")) {
+                    candidates.add(typeName);
+                }
+                String head =
+                        typeName.contains(".")
+                                ? typeName.substring(0, typeName.indexOf('.'))
+                                : typeName;
+                String rest = nested.substring(head.length());
+                for (String imported : outline.getImports()) {
+                    if (imported.endsWith("." + head)) {
+                        candidates.add(imported + rest);
+                    }
+                }
+                String packageName = outline.getPackageName();
+                String packagePrefix =
+                        packageName == null || packageName.isEmpty() ? "" : packageName + ".";
+                candidates.add(packagePrefix + nested);
+                for (String imported : outline.getImports()) {
+                    if (imported.endsWith(".*")) {
+                        candidates.add(imported.substring(0, imported.length() - 1) + nested);
+                    }
+                }
+                for (String defaultPackage : DEFAULT_PACKAGES) {
+                    candidates.add(defaultPackage + nested);
+                }
+                for (String defaultClass : DEFAULT_CLASSES) {
+                    if (defaultClass.endsWith("." + typeName)) {
+                        candidates.add(defaultClass);
+                    }
+                }
+                return candidates;
+            }
+
+            private @Nullable ClassNode lookup(String className) {
+                ClassNode stub = built.get(className);
+                if (stub == null) {
+                    stub = stubs.get(className);
+                }
+                if (stub == null) {
+                    Declaration declaration = declarations.get(className);
+                    if (declaration != null) {
+                        stub = createStub(className, declaration);
+                    }
+                }
+                if (stub != null) {
+                    references.computeIfAbsent(className, name -> new HashSet<>()).add(referrer);
+                    return stub;
+                }
+                LookupResult result =
+                        compilationUnit
+                                .getClassNodeResolver()
+                                .resolveName(className, compilationUnit);
+                return result != null && result.isClassNode() ? result.getClassNode() : null;
+            }
+        }
+    }
+
+    /**
+     * The stubs built for one classpath, and which stubs refer to which.
+     */
+    private static final class StubTable {
+        private final Map<String, ClassNode> stubs = new ConcurrentHashMap<>();
+        // Guarded by this
+        private final Map<String, Set<String>> dependents = new HashMap<>();
+        private volatile long generation = 0;
+
+        /**
+         * Publishes the stubs of a builder, unless stubs were dropped since it started.
+         *
+         * @return the stub of the class the builder was started for
+         */
+        synchronized @Nullable ClassNode publish(
+                StubBuilder builder, long startGeneration, String className) {
+            if (generation != startGeneration) {
+                // Built from declarations that may have changed, used for this lookup only
+                return builder.built.get(className);
+            }
+            for (Map.Entry<String, ClassNode> built : builder.built.entrySet()) {
+                stubs.putIfAbsent(built.getKey(), built.getValue());
+            }
+            for (Map.Entry<String, Set<String>> reference : builder.references.entrySet()) {
+                dependents
+                        .computeIfAbsent(reference.getKey(), name -> new HashSet<>())
+                        .addAll(reference.getValue());
+            }
+            return stubs.get(className);
+        }
+
+        synchronized void clear() {
+            generation++;
+            stubs.clear();
+            dependents.clear();
+        }
+
+        /**
+         * Drops the stubs of the given classes and, transitively, of the stubs referring to
+         * them, which hold on to the dropped stubs.
+         */
+        synchronized void invalidate(Set<String> classNames) {
+            generation++;
+            Deque<String> pending = new ArrayDeque<>(classNames);
+            while (!pending.isEmpty()) {
+                String className = pending.pop();
+                stubs.remove(className);
+                Set<String> referrers = dependents.remove(className);
+                if (referrers != null) {
+                    pending.addAll(referrers);
+                }
+            }
+        }
+    }
+
+    private record Declaration(ModuleOutline outline, OutlineElement element) {}
+}
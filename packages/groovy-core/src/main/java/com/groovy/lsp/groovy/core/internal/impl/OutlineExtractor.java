@@ -0,0 +1,345 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import com.groovy.lsp.groovy.core.api.ModuleOutline;
+import com.groovy.lsp.groovy.core.api.OutlineElement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ConstructorNode;
+import org.codehaus.groovy.ast.FieldNode;
+import org.codehaus.groovy.ast.ImportNode;
+import org.codehaus.groovy.ast.InnerClassNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.Parameter;
+import org.codehaus.groovy.ast.PropertyNode;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Extracts the declaration outline of a module.
+ *
+ * <p>Only class level declarations are read; method bodies, field initializers and
+ * closures are never visited, so the extraction works on an unresolved module straight
+ * out of the conversion phase. Members are ordered by source position and nested types
+ * are placed under their outer type. Declarations without a source position (e.g. the
+ * generated {@code run} and {@code main} methods of scripts) are left out. The AST does
+ * not record where a declared name is, so it is looked up in the source text as the first
+ * occurrence of the name as a whole word inside the declaration.</p>
+ */
+final class OutlineExtractor {
+
+    private static final String TRAIT_ANNOTATION = "groovy.transform.Trait";
+
+    private static final Set<String> IMPLICIT_SUPERTYPES =
+            Set.of(
+                    "java.lang.Object",
+                    "java.lang.Enum",
+                    "java.lang.annotation.Annotation",
+                    "groovy.lang.GroovyObject");
+
+    private static final Comparator<OutlineElement> BY_POSITION =
+            Comparator.comparingInt(OutlineElement::getStartLine)
+                    .thenComparingInt(OutlineElement::getStartColumn);
+
+    private OutlineExtractor() {
+        // Utility class
+    }
+
+    /**
+     * Extracts the outline of a module.
+     *
+     * @param moduleNode the module, parsed to at least the conversion phase
+     * @param sourceCode the source code the module was parsed from
+     * @return the top-level outline elements in source order
+     */
+    static List<OutlineElement> extract(ModuleNode moduleNode, String sourceCode) {
+        String[] lines = sourceCode.split("\\R", -1);
+        Map<ClassNode, List<ClassNode>> innerClasses = new IdentityHashMap<>();
+        List<ClassNode> topLevel = new ArrayList<>();
+        for (ClassNode classNode : moduleNode.getClasses()) {
+            if (classNode instanceof InnerClassNode inner && inner.isAnonymous()) {
+                continue;
+            }
+            ClassNode outer = classNode.getOuterClass();
+            if (outer == null) {
+                topLevel.add(classNode);
+            } else {
+                innerClasses.computeIfAbsent(outer, key -> new ArrayList<>()).add(classNode);
+            }
+        }
+
+        List<OutlineElement> elements = new ArrayList<>();
+        for (ClassNode classNode : topLevel) {
+            if (classNode.isScript()) {
+                // Script members are shown at the top level, like in the source
+                elements.addAll(members(lines, classNode, innerClasses));
+            } else if (hasPosition(classNode)) {
+                elements.add(typeElement(lines, classNode, innerClasses));
+            }
+        }
+        elements.sort(BY_POSITION);
+        return elements;
+    }
+
+    /**
+     * Extracts the outline of a module together with its imports and dependencies.
+     *
+     * @param sourceName the name of the source file
+     * @param contentHash the hash of the content the module was parsed from
+     * @param moduleNode the module, parsed to at least the conversion phase
+     * @param sourceCode the source code the module was parsed from
+     * @return the module outline
+     */
+    static ModuleOutline extractModule(
+            String sourceName, String contentHash, ModuleNode moduleNode, String sourceCode) {
+        // Only imports written in the source; those added by the configuration have no position
+        List<String> imports = new ArrayList<>();
+        for (ImportNode importNode : moduleNode.getImports()) {
+            if (hasPosition(importNode)) {
+                imports.add(importNode.getClassName());
+            }
+        }
+        for (ImportNode importNode : moduleNode.getStarImports()) {
+            if (hasPosition(importNode)) {
+                imports.add(importNode.getPackageName() + "*");
+            }
+        }
+        String packageName = moduleNode.getPackageName();
+        return new ModuleOutline(
+                sourceName,
+                contentHash,
+                packageName != null && packageName.endsWith(".")
+                        ? packageName.substring(0, packageName.length() - 1)
+                        : packageName,
+                imports,
+                IncrementalCompilationServiceImpl.collectDependencies(moduleNode).keySet(),
+                extract(moduleNode, sourceCode));
+    }
+
+    private static OutlineElement typeElement(
+            String[] lines, ClassNode classNode, Map<ClassNode, List<ClassNode>> innerClasses) {
+        return element(
+                lines,
+                simpleName(classNode),
+                typeKind(classNode),
+                classNode.getPackageName(),
+                classNode,
+                supertypes(classNode),
+                members(lines, classNode, innerClasses));
+    }
+
+    private static List<String> supertypes(ClassNode classNode) {
+        List<String> supertypes = new ArrayList<>();
+        ClassNode superClass = classNode.getUnresolvedSuperClass(false);
+        if (superClass != null && !IMPLICIT_SUPERTYPES.contains(superClass.getName())) {
+            supertypes.add(superClass.getName());
+        }
+        for (ClassNode type : classNode.getInterfaces()) {
+            if (!IMPLICIT_SUPERTYPES.contains(type.getName())) {
+                supertypes.add(type.getName());
+            }
+        }
+        return supertypes;
+    }
+
+    private static List<OutlineElement> members(
+            String[] lines, ClassNode classNode, Map<ClassNode, List<ClassNode>> innerClasses) {
+        List<OutlineElement> members = new ArrayList<>();
+
+        for (FieldNode field : classNode.getFields()) {
+            // Property backing fields are represented by the property
+            if (field.isSynthetic()
+                    || !hasPosition(field)
+                    || classNode.getProperty(field.getName()) != null) {
+                continue;
+            }
+            boolean enumConstant = field.isEnum();
+            members.add(
+                    element(
+                            lines,
+                            field.getName(),
+                            enumConstant
+                                    ? OutlineElement.Kind.ENUM_CONSTANT
+                                    : OutlineElement.Kind.FIELD,
+                            enumConstant ? null : typeName(field.getType()),
+                            field,
+                            List.of()));
+        }
+
+        for (PropertyNode property : classNode.getProperties()) {
+            if (hasPosition(property)) {
+                members.add(
+                        element(
+                                lines,
+                                property.getName(),
+                                OutlineElement.Kind.PROPERTY,
+                                typeName(property.getType()),
+                                property,
+                                List.of()));
+            }
+        }
+
+        for (ConstructorNode constructor : classNode.getDeclaredConstructors()) {
+            if (!constructor.isSynthetic() && hasPosition(constructor)) {
+                members.add(
+                        element(
+                                lines,
+                                simpleName(classNode),
+                                OutlineElement.Kind.CONSTRUCTOR,
+                                parameters(constructor.getParameters()),
+                                constructor,
+                                List.of()));
+            }
+        }
+
+        for (MethodNode method : classNode.getMethods()) {
+            if (!method.isSynthetic() && hasPosition(method)) {
+                members.add(
+                        element(
+                                lines,
+                                method.getName(),
+                                OutlineElement.Kind.METHOD,
+                                parameters(method.getParameters())
+                                        + ": "
+                                        + typeName(method.getReturnType()),
+                                method,
+                                List.of()));
+            }
+        }
+
+        for (ClassNode inner : innerClasses.getOrDefault(classNode, List.of())) {
+            if (hasPosition(inner)) {
+                members.add(typeElement(lines, inner, innerClasses));
+            }
+        }
+
+        members.sort(BY_POSITION);
+        return members;
+    }
+
+    private static OutlineElement element(
+            String[] lines,
+            String name,
+            OutlineElement.Kind kind,
+            @Nullable String detail,
+            ASTNode node,
+            List<OutlineElement> children) {
+        return element(lines, name, kind, detail, node, List.of(), children);
+    }
+
+    private static OutlineElement element(
+            String[] lines,
+            String name,
+            OutlineElement.Kind kind,
+            @Nullable String detail,
+            ASTNode node,
+            List<String> supertypes,
+            List<OutlineElement> children) {
+        boolean hasEnd = node.getLastLineNumber() > 0 && node.getLastColumnNumber() > 0;
+        int endLine = hasEnd ? node.getLastLineNumber() : node.getLineNumber();
+        int endColumn = hasEnd ? node.getLastColumnNumber() : node.getColumnNumber();
+        int nameLine = node.getLineNumber();
+        int nameColumn = node.getColumnNumber();
+        int nameEndColumn = nameColumn;
+        // Lines and columns are 1-based, the source lines 0-based
+        for (int line = node.getLineNumber(); line <= endLine && line <= lines.length; line++) {
+            int from = line == node.getLineNumber() ? node.getColumnNumber() - 1 : 0;
+            int to = line == endLine ? Math.min(endColumn - 1, lines[line - 1].length()) : -1;
+            int index = indexOfWord(lines[line - 1], name, from, to);
+            if (index >= 0) {
+                nameLine = line;
+                nameColumn = index + 1;
+                nameEndColumn = nameColumn + name.length();
+                break;
+            }
+        }
+        return new OutlineElement(
+                name,
+                kind,
+                detail,
+                node.getLineNumber(),
+                node.getColumnNumber(),
+                endLine,
+                endColumn,
+                nameLine,
+                nameColumn,
+                nameEndColumn,
+                supertypes,
+                children);
+    }
+
+    /**
+     * Finds a word in a line, not as part of a longer identifier.
+     *
+     * @param to the index the word must end by, or -1 for the end of the line
+     * @return the index of the word, or -1 if it does not occur
+     */
+    private static int indexOfWord(String line, String word, int from, int to) {
+        int limit = to < 0 ? line.length() : to;
+        for (int index = line.indexOf(word, Math.max(0, from));
+                index >= 0 && index + word.length() <= limit;
+                index = line.indexOf(word, index + 1)) {
+            int end = index + word.length();
+            if ((index == 0 || !Character.isJavaIdentifierPart(line.charAt(index - 1)))
+                    && (end == line.length()
+                            || !Character.isJavaIdentifierPart(line.charAt(end)))) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static OutlineElement.Kind typeKind(ClassNode classNode) {
+        if (classNode.isAnnotationDefinition()) {
+            return OutlineElement.Kind.ANNOTATION;
+        } else if (classNode.isEnum()) {
+            return OutlineElement.Kind.ENUM;
+        } else if (classNode.getAnnotations().stream()
+                .anyMatch(
+                        annotation ->
+                                annotation.getClassNode().getName().equals(TRAIT_ANNOTATION))) {
+            // Checked before interface, since traits are interfaces
+            return OutlineElement.Kind.TRAIT;
+        } else if (classNode.isInterface()) {
+            return OutlineElement.Kind.INTERFACE;
+        }
+        return OutlineElement.Kind.CLASS;
+    }
+
+    private static String simpleName(ClassNode classNode) {
+        String name = classNode.getNameWithoutPackage();
+        if (classNode.getOuterClass() != null) {
+            name = name.substring(name.lastIndexOf('$') + 1);
+        }
+        return name;
+    }
+
+    /**
+     * The erased name of a type as written in the source, qualified if the source qualified
+     * it, so that it can be resolved against the imports of the file.
+     */
+    private static String typeName(ClassNode type) {
+        if (type.isArray()) {
+            return typeName(type.getComponentType()) + "[]";
+        }
+        return type.getName();
+    }
+
+    private static String parameters(Parameter[] parameters) {
+        StringJoiner joiner = new StringJoiner(", ", "(", ")");
+        for (Parameter parameter : parameters) {
+            joiner.add(typeName(parameter.getType()) + " " + parameter.getName());
+        }
+        return joiner.toString();
+    }
+
+    private static boolean hasPosition(ASTNode node) {
+        return node.getLineNumber() > 0 && node.getColumnNumber() > 0;
+    }
+}
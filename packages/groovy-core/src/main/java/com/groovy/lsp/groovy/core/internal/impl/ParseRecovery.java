@@ -0,0 +1,272 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.ErrorCollector;
+import org.codehaus.groovy.control.MultipleCompilationErrorsException;
+import org.codehaus.groovy.control.messages.Message;
+import org.codehaus.groovy.control.messages.SyntaxErrorMessage;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Produces a partial AST for source code that does not compile, typically code in the
+ * middle of an edit.
+ *
+ * <p>Recovery blanks out the lines that break the compilation and compiles again. Blanked
+ * lines keep their line breaks and are filled with spaces, so every remaining node keeps
+ * the position it has in the real buffer. The steps are, in order:</p>
+ * <ol>
+ *   <li>blank the lines the compiler reported errors on, repeating while new error lines
+ *       show up;</li>
+ *   <li>blank the lines edited since the last source that compiled, which also handles
+ *       errors reported far from their cause, such as an unclosed brace;</li>
+ *   <li>fall back to a fresh AST of the last source that compiled, marked
+ *       {@linkplain #isStale stale}.</li>
+ * </ol>
+ * <p>Only errors raised while parsing are blanked; semantic errors such as an unresolved
+ * class say nothing about which lines are incomplete. A blanked candidate that lost a class
+ * of the last good AST is rejected.</p>
+ */
+final class ParseRecovery {
+    private static final Logger logger = LoggerFactory.getLogger(ParseRecovery.class);
+
+    private static final int MAX_BLANKED_LINES = 8;
+
+    private enum Kind {
+        PARTIAL,
+        STALE
+    }
+
+    /**
+     * Compiles source code, throwing a {@link CompilationFailedException} if it has errors.
+     */
+    @FunctionalInterface
+    interface Compiler {
+        ModuleNode compile(String sourceCode);
+    }
+
+    /**
+     * A compilation that failed while parsing, so every error it reports is a syntax error.
+     */
+    static final class SyntaxErrorsException extends MultipleCompilationErrorsException {
+        private static final long serialVersionUID = 1L;
+
+        SyntaxErrorsException(ErrorCollector errors) {
+            super(errors);
+        }
+    }
+
+    private ParseRecovery() {
+        // Utility class
+    }
+
+    /**
+     * Recovers a partial AST for source code that failed to compile.
+     *
+     * @param sourceCode the source code that failed
+     * @param failure the compilation failure
+     * @param lastGoodSource the last source of the same file that compiled, if any
+     * @param lastGoodModule the AST of that source, if any
+     * @param compiler compiles the blanked candidates
+     * @return the partial or stale AST, or null if nothing could be recovered
+     */
+    static @Nullable ModuleNode recover(
+            String sourceCode,
+            CompilationFailedException failure,
+            @Nullable String lastGoodSource,
+            @Nullable ModuleNode lastGoodModule,
+            Compiler compiler) {
+        Set<Integer> blanked = new TreeSet<>();
+        CompilationFailedException error = failure;
+        while (blanked.size() < MAX_BLANKED_LINES) {
+            Set<Integer> lines = errorLines(sourceCode, error);
+            lines.removeAll(blanked);
+            if (lines.isEmpty()) {
+                break;
+            }
+            blanked.addAll(lines);
+            try {
+                ModuleNode candidate = compiler.compile(blankLines(sourceCode, blanked));
+                if (keepsClasses(candidate, lastGoodModule)) {
+                    return recovered(candidate);
+                }
+                break;
+            } catch (CompilationFailedException e) {
+                error = e;
+            }
+        }
+
+        if (lastGoodSource != null) {
+            Set<Integer> edited = editedLines(lastGoodSource, sourceCode);
+            if (!edited.isEmpty()) {
+                try {
+                    ModuleNode candidate = compiler.compile(blankLines(sourceCode, edited));
+                    if (keepsClasses(candidate, lastGoodModule)) {
+                        return recovered(candidate);
+                    }
+                } catch (CompilationFailedException e) {
+                    logger.debug("Blanking the edited lines did not compile: {}", e.getMessage());
+                }
+            }
+        }
+
+        if (lastGoodSource == null) {
+            return null;
+        }
+        // The last good AST itself stays cached for its own source, so mark a copy
+        try {
+            return mark(compiler.compile(lastGoodSource), Kind.STALE);
+        } catch (CompilationFailedException e) {
+            logger.debug("The last good source no longer compiles: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether a module was recovered from source code with errors.
+     *
+     * @param moduleNode the module to check
+     * @return true if the module is a partial AST
+     */
+    static boolean isRecovered(ModuleNode moduleNode) {
+        return moduleNode.getNodeMetaData(ParseRecovery.class) != null;
+    }
+
+    /**
+     * Checks whether a module is the AST of an older source, returned because nothing
+     * could be recovered from the current one. Its positions do not match the current
+     * source.
+     *
+     * @param moduleNode the module to check
+     * @return true if the module is a stale AST
+     */
+    static boolean isStale(ModuleNode moduleNode) {
+        return moduleNode.getNodeMetaData(ParseRecovery.class) == Kind.STALE;
+    }
+
+    /**
+     * Checks that blanking did not remove a class declaration, in which case the last good
+     * AST is the better approximation.
+     */
+    private static boolean keepsClasses(ModuleNode candidate, @Nullable ModuleNode lastGood) {
+        if (lastGood == null) {
+            return true;
+        }
+        Set<String> names = new HashSet<>();
+        for (ClassNode classNode : candidate.getClasses()) {
+            // A blanked file can still produce a script class named after the file
+            if (!classNode.isScript()) {
+                names.add(classNode.getName());
+            }
+        }
+        for (ClassNode classNode : lastGood.getClasses()) {
+            if (!names.contains(classNode.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ModuleNode recovered(ModuleNode moduleNode) {
+        return mark(moduleNode, Kind.PARTIAL);
+    }
+
+    private static ModuleNode mark(ModuleNode moduleNode, Kind kind) {
+        moduleNode.putNodeMetaData(ParseRecovery.class, kind);
+        return moduleNode;
+    }
+
+    private static Set<Integer> errorLines(String sourceCode, CompilationFailedException failure) {
+        Set<Integer> lines = new TreeSet<>();
+        if (!(failure instanceof SyntaxErrorsException syntaxErrors)) {
+            return lines;
+        }
+        String[] sourceLines = sourceCode.split("\n", -1);
+        for (Message message : syntaxErrors.getErrorCollector().getErrors()) {
+            if (!(message instanceof SyntaxErrorMessage syntaxError)) {
+                continue;
+            }
+            int line = syntaxError.getCause().getStartLine();
+            if (line <= 0) {
+                continue;
+            }
+            lines.add(line);
+            // An error on the first token of a line usually means the previous line was
+            // left incomplete, like an assignment or a member access still being typed
+            if (line >= 2
+                    && line <= sourceLines.length
+                    && syntaxError.getCause().getStartColumn()
+                            <= firstTokenColumn(sourceLines[line - 1])) {
+                lines.add(line - 1);
+            }
+        }
+        return lines;
+    }
+
+    private static int firstTokenColumn(String line) {
+        int column = 0;
+        while (column < line.length() && Character.isWhitespace(line.charAt(column))) {
+            column++;
+        }
+        return column + 1;
+    }
+
+    /**
+     * Finds the lines of the new source that differ from the old one, between their common
+     * leading and trailing lines.
+     *
+     * @return the 1-based line numbers in the new source
+     */
+    static Set<Integer> editedLines(String oldSource, String newSource) {
+        String[] oldLines = oldSource.split("\n", -1);
+        String[] newLines = newSource.split("\n", -1);
+        int common = Math.min(oldLines.length, newLines.length);
+
+        int prefix = 0;
+        while (prefix < common && oldLines[prefix].equals(newLines[prefix])) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < common - prefix
+                && oldLines[oldLines.length - 1 - suffix].equals(
+                        newLines[newLines.length - 1 - suffix])) {
+            suffix++;
+        }
+
+        Set<Integer> lines = new TreeSet<>();
+        for (int line = prefix + 1; line <= newLines.length - suffix; line++) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    /**
+     * Replaces every character on the given lines with a space, keeping line breaks.
+     *
+     * @param sourceCode the source code
+     * @param lines the 1-based line numbers to blank
+     * @return the blanked source code
+     */
+    static String blankLines(String sourceCode, Set<Integer> lines) {
+        StringBuilder blanked = new StringBuilder(sourceCode.length());
+        int line = 1;
+        for (int i = 0; i < sourceCode.length(); i++) {
+            char c = sourceCode.charAt(i);
+            if (c == '\n') {
+                line++;
+                blanked.append(c);
+            } else if (c == '\r' || !lines.contains(line)) {
+                blanked.append(c);
+            } else {
+                blanked.append(' ');
+            }
+        }
+        return blanked.toString();
+    }
+}
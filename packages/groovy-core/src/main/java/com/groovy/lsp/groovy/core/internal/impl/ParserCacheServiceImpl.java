@@ -0,0 +1,268 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import com.groovy.lsp.groovy.core.api.ParserCacheService;
+import groovyjarjarantlr4.v4.runtime.atn.ATN;
+import groovyjarjarantlr4.v4.runtime.dfa.DFA;
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.groovy.parser.antlr4.GroovyLangLexer;
+import org.apache.groovy.parser.antlr4.GroovyLangParser;
+import org.apache.groovy.parser.antlr4.internal.atnmanager.AtnManager;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.Phases;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Default {@link ParserCacheService} for the Parrot parser.
+ *
+ * <p>Out of the box Groovy clears the parser DFA every 64 parses, which throws away the
+ * warmed-up state at a fixed rate no matter how large it is. The launcher turns that off
+ * through {@link #GROOVY_CACHE_THRESHOLD_PROPERTY} and this service clears by size instead.
+ * Clearing takes Groovy's own ATN lock, which every parse holds while it builds the parse
+ * tree, so a running parse is never disturbed.</p>
+ */
+public class ParserCacheServiceImpl implements ParserCacheService {
+    private static final Logger logger = LoggerFactory.getLogger(ParserCacheServiceImpl.class);
+
+    /** System property for the number of cached DFA states that triggers clearing. */
+    public static final String MAX_STATES_PROPERTY = "groovy.lsp.parser.dfa.max.states";
+
+    /** System property for the interval between cache size checks, in seconds. */
+    public static final String CHECK_INTERVAL_PROPERTY = "groovy.lsp.parser.dfa.check.interval";
+
+    private static final long DEFAULT_MAX_STATES = 50_000;
+    private static final long DEFAULT_CHECK_INTERVAL_SECONDS = 60;
+
+    // Sources touching the most common parser decisions: declarations, closures, GStrings,
+    // generics, collection literals, control flow and script statements
+    private static final List<String> WARM_UP_SOURCES =
+            List.of(
+                    """
+                    package warmup
+
+                    import groovy.transform.CompileStatic
+                    import java.util.function.Function
+
+                    @CompileStatic
+                    class Account<T extends Comparable<T>> implements Serializable {
+                        private static final long serialVersionUID = 1L
+                        final List<T> items = []
+                        Map<String, Integer> counts = [:]
+                        String owner = 'nobody'
+
+                        Account(String owner) {
+                            this.owner = owner
+                        }
+
+                        def add(T item, int times = 1) {
+                            times.times { items << item }
+                            counts[item.toString()] = (counts[item.toString()] ?: 0) + times
+                            return this
+                        }
+
+                        String describe() {
+                            "Account of ${owner} with ${items.size()} items: ${items*.toString()}"
+                        }
+
+                        int score(Function<T, Integer> weight) {
+                            int total = 0
+                            for (T item : items) {
+                                total += weight.apply(item)
+                            }
+                            total > 100 ? 100 : total
+                        }
+                    }
+                    """,
+                    """
+                    trait Greeter {
+                        abstract String getName()
+                        String greet(String other) { "Hello ${other}, I am ${name}" }
+                    }
+
+                    interface Shape {
+                        double area()
+                        default String label() { getClass().simpleName }
+                    }
+
+                    enum Color {
+                        RED('r'), GREEN('g')
+
+                        final String code
+
+                        Color(String code) { this.code = code }
+                    }
+
+                    @interface Marker {
+                        String value() default ''
+                    }
+                    """,
+                    """
+                    def numbers = [3, 1, 2].sort { a, b -> a <=> b }
+                    def squares = numbers.collect { it * it }.findAll { it % 2 == 1 }
+                    def index = [one: 1, two: 2].collectEntries { k, v -> [(v): k] }
+                    def text = '''multi
+                    line''' + /slashy ${numbers}/ + "${index?.size() ?: 0}"
+
+                    switch (numbers.size()) {
+                        case 0 -> println 'empty'
+                        case { it > 2 } -> println 'many'
+                        default -> println 'few'
+                    }
+
+                    try {
+                        assert squares instanceof List : 'not a list'
+                        def range = (1..<10).step(2)
+                        while (range) { range = range.drop(1) }
+                    } catch (IllegalStateException | IllegalArgumentException e) {
+                        throw new RuntimeException(e.message, e)
+                    } finally {
+                        println text
+                    }
+                    """);
+
+    private final long maxStates;
+    private final Duration checkInterval;
+    private final @Nullable Lock clearLock;
+
+    // Cached state count seen by the previous check, used to tell whether parses happened
+    private long lastObservedCount = -1;
+    private @Nullable ScheduledFuture<?> checkTask;
+    private volatile @Nullable ScheduledExecutorService scheduler;
+
+    public ParserCacheServiceImpl() {
+        this(
+                Long.getLong(MAX_STATES_PROPERTY, DEFAULT_MAX_STATES),
+                Duration.ofSeconds(
+                        Long.getLong(CHECK_INTERVAL_PROPERTY, DEFAULT_CHECK_INTERVAL_SECONDS)));
+    }
+
+    public ParserCacheServiceImpl(long maxStates, Duration checkInterval) {
+        this.maxStates = maxStates;
+        this.checkInterval = checkInterval;
+        this.clearLock = findGroovyWriteLock();
+    }
+
+    @Override
+    public void warmUp() {
+        long start = System.nanoTime();
+        for (int i = 0; i < WARM_UP_SOURCES.size(); i++) {
+            try {
+                CompilationUnit unit = new CompilationUnit(new CompilerConfiguration());
+                unit.addSource("ParserWarmUp" + i + ".groovy", WARM_UP_SOURCES.get(i));
+                unit.compile(Phases.CONVERSION);
+            } catch (RuntimeException e) {
+                logger.debug("Parser warm-up source {} failed to parse", i, e);
+            }
+        }
+        logger.info(
+                "Parser warmed up in {} ms with {} cached DFA states",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                getCachedStateCount());
+    }
+
+    @Override
+    public long getCachedStateCount() {
+        return countStates(GroovyLangParser._ATN) + countStates(GroovyLangLexer._ATN);
+    }
+
+    @Override
+    public long getMaxCachedStates() {
+        return maxStates;
+    }
+
+    @Override
+    public synchronized boolean trimIfIdle() {
+        long count = getCachedStateCount();
+        long previous = lastObservedCount;
+        lastObservedCount = count;
+
+        if (count <= maxStates) {
+            return false;
+        }
+        if (count != previous && count <= maxStates * 2) {
+            logger.debug("Parser DFA cache over limit ({} states) but still growing", count);
+            return false;
+        }
+
+        Lock lock = clearLock;
+        if (lock == null || !lock.tryLock()) {
+            return false;
+        }
+        try {
+            GroovyLangParser._ATN.clearDFA();
+            GroovyLangLexer._ATN.clearDFA();
+        } finally {
+            lock.unlock();
+        }
+        lastObservedCount = getCachedStateCount();
+        logger.info("Cleared parser DFA cache holding {} states (limit {})", count, maxStates);
+        return true;
+    }
+
+    @Override
+    public synchronized void start(ScheduledExecutorService scheduler) {
+        if (checkTask != null) {
+            return;
+        }
+        this.scheduler = scheduler;
+        scheduler.execute(this::warmUp);
+        long intervalMillis = checkInterval.toMillis();
+        checkTask =
+                scheduler.scheduleWithFixedDelay(
+                        this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (checkTask != null) {
+            checkTask.cancel(false);
+            checkTask = null;
+        }
+        scheduler = null;
+    }
+
+    private void check() {
+        try {
+            if (trimIfIdle()) {
+                ScheduledExecutorService current = scheduler;
+                if (current != null) {
+                    // Rebuild right away so the next request does not pay for it
+                    current.execute(this::warmUp);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Parser cache check failed", e);
+        }
+    }
+
+    private static long countStates(ATN atn) {
+        long count = 0;
+        for (DFA dfa : atn.decisionToDFA) {
+            count += dfa.states.size();
+        }
+        for (DFA dfa : atn.modeToDFA) {
+            count += dfa.states.size();
+        }
+        return count;
+    }
+
+    private static @Nullable Lock findGroovyWriteLock() {
+        try {
+            Field field = AtnManager.class.getDeclaredField("RRWL");
+            field.setAccessible(true);
+            return ((ReentrantReadWriteLock) field.get(null)).writeLock();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Groovy parser lock not accessible, DFA cache will not be cleared", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.groovy.core.api.CompilationContext;
+import com.groovy.lsp.groovy.core.api.CompilationContextService;
+import com.groovy.lsp.groovy.core.api.CompilationPermits;
+import com.groovy.lsp.groovy.core.api.ProjectModelService;
+import groovy.lang.GroovyClassLoader;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.ErrorCollector;
+import org.codehaus.groovy.control.MultipleCompilationErrorsException;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.control.io.StringReaderSource;
+import org.codehaus.groovy.control.messages.Message;
+import org.codehaus.groovy.control.messages.SyntaxErrorMessage;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of ProjectModelService.
+ *
+ * <p>Sources are compiled in one {@link CompilationUnit} with Groovy's parallel parsing
+ * enabled; the later phases run sequentially, as Groovy requires. A compilation that fails
+ * before semantic analysis is retried without the sources that have syntax errors, while
+ * resolution errors do not prevent the model from being built.</p>
+ *
+ * <p>Updates compile the changed source and the modules depending on it in a new unit.
+ * Classes of the other modules are served through the {@link SharedClassNodeResolver},
+ * which is also how per-file compilations of other services see the model.</p>
+ *
+ * <p>Every compiled module is compacted into its {@link DeclarationSkeleton} before it is
+ * installed, so the model retains the declarations of the whole project but none of its
+ * method bodies. The full tree of an
+ * open document comes from the per-file compilation of that document.</p>
+ */
+public class ProjectModelServiceImpl implements ProjectModelService {
+    private static final Logger logger = LoggerFactory.getLogger(ProjectModelServiceImpl.class);
+
+    private static final String GROOVY_EXTENSION = ".groovy";
+    private static final Set<String> SKIPPED_DIRECTORIES =
+            Set.of("build", "target", "out", "bin", "node_modules");
+    private static final int MAX_COMPILE_ATTEMPTS = 3;
+
+    private final CompilationContextService contextService;
+    private final SharedClassNodeResolver classNodeResolver;
+    private final CompilationPermits compilationPermits;
+
+    // Builds and updates are serialized, reads go to the concurrent maps
+    private final Object lock = new Object();
+    private final Map<String, String> sources = new ConcurrentHashMap<>();
+    private final Map<String, ModuleNode> modules = new ConcurrentHashMap<>();
+    private final Map<String, ClassNode> classes = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> dependencies = new ConcurrentHashMap<>();
+
+    public ProjectModelServiceImpl(
+            CompilationContextService contextService, SharedClassNodeResolver classNodeResolver) {
+        this(contextService, classNodeResolver, CompilationPermits.UNLIMITED);
+    }
+
+    public ProjectModelServiceImpl(
+            CompilationContextService contextService,
+            SharedClassNodeResolver classNodeResolver,
+            CompilationPermits compilationPermits) {
+        this.contextService = contextService;
+        this.classNodeResolver = classNodeResolver;
+        this.compilationPermits = compilationPermits;
+        classNodeResolver.setWorkspaceClasses(classes::get);
+    }
+
+    @Override
+    public void load(Path workspaceRoot) {
+        Map<String, String> found = new LinkedHashMap<>();
+        try {
+            Files.walkFileTree(
+                    workspaceRoot,
+                    new SimpleFileVisitor<>() {
+                        @Override
+                        public FileVisitResult preVisitDirectory(
+                                Path dir, BasicFileAttributes attrs) {
+                            Path name = dir.getFileName();
+                            if (!dir.equals(workspaceRoot)
+                                    && name != null
+                                    && (name.toString().startsWith(".")
+                                            || SKIPPED_DIRECTORIES.contains(name.toString()))) {
+                                return FileVisitResult.SKIP_SUBTREE;
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                            if (file.toString().endsWith(GROOVY_EXTENSION)) {
+                                try {
+                                    found.put(file.toUri().toString(), Files.readString(file));
+                                } catch (IOException e) {
+                                    logger.debug("Skipping unreadable source {}", file, e);
+                                }
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFileFailed(Path file, IOException e) {
+                            logger.debug("Skipping inaccessible path {}", file, e);
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+        } catch (IOException e) {
+            logger.warn("Failed to scan workspace {} for sources", workspaceRoot, e);
+        }
+        build(found);
+    }
+
+    @Override
+    public void build(Map<String, String> sources) {
+        long startTime = System.currentTimeMillis();
+        synchronized (lock) {
+            this.sources.clear();
+            this.sources.putAll(sources);
+            modules.clear();
+            classes.clear();
+            dependencies.clear();
+            install(compile(this.sources));
+        }
+        logger.info(
+                "Built project model of {}/{} sources in {}ms",
+                modules.size(),
+                sources.size(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    @Override
+    public void rebuild() {
+        build(Map.copyOf(sources));
+    }
+
+    @Override
+    public Set<String> update(String sourceName, String sourceCode) {
+        synchronized (lock) {
+            if (sourceCode.equals(sources.get(sourceName)) && modules.containsKey(sourceName)) {
+                return Set.of();
+            }
+            sources.put(sourceName, sourceCode);
+
+            Set<String> batch = new HashSet<>(affectedBy(sourceName, declaredNames(sourceName)));
+            batch.add(sourceName);
+            Map<String, ModuleNode> compiled = recompile(batch);
+
+            // Modules that failed to resolve a class the source now declares
+            Set<String> dependents = affectedBy(sourceName, declaredNames(sourceName));
+            dependents.removeAll(batch);
+            if (!dependents.isEmpty()) {
+                batch.addAll(dependents);
+                compiled.putAll(recompile(dependents));
+            }
+
+            logger.debug(
+                    "Updated project model for {}, recompiled {} modules",
+                    sourceName,
+                    compiled.size());
+            return Collections.unmodifiableSet(batch);
+        }
+    }
+
+    @Override
+    public void remove(String sourceName) {
+        synchronized (lock) {
+            Set<String> affected = affectedBy(sourceName, declaredNames(sourceName));
+            uninstall(sourceName);
+            sources.remove(sourceName);
+            if (!affected.isEmpty()) {
+                recompile(affected);
+            }
+        }
+    }
+
+    @Override
+    public @Nullable ModuleNode getModule(String sourceName) {
+        return modules.get(sourceName);
+    }
+
+    @Override
+    public @Nullable ClassNode findClass(String className) {
+        return classes.get(className);
+    }
+
+    @Override
+    public Set<String> getSourceNames() {
+        return Collections.unmodifiableSet(modules.keySet());
+    }
+
+    /**
+     * Recompiles a set of modules together, keeping the previous module of every source
+     * that does not compile.
+     */
+    private Map<String, ModuleNode> recompile(Set<String> sourceNames) {
+        Map<String, ModuleNode> previous = new HashMap<>();
+        Map<String, String> batch = new LinkedHashMap<>();
+        for (String name : sourceNames) {
+            ModuleNode module = modules.get(name);
+            if (module != null) {
+                previous.put(name, module);
+            }
+            String code = sources.get(name);
+            if (code != null) {
+                batch.put(name, code);
+            }
+            // Stale classes must not be served while their sources are recompiled
+            uninstall(name);
+        }
+
+        Map<String, ModuleNode> compiled = compile(batch);
+        for (Map.Entry<String, ModuleNode> entry : previous.entrySet()) {
+            compiled.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        install(compiled);
+        return compiled;
+    }
+
+    private Map<String, ModuleNode> compile(Map<String, String> batch) {
+        Map<String, ModuleNode> compiled = new LinkedHashMap<>();
+        if (batch.isEmpty()) {
+            return compiled;
+        }
+
+        CompilationContext context = contextService.getContext();
+        CompilerConfiguration config = new CompilerConfiguration(context.getConfiguration());
+        config.getOptimizationOptions().put(CompilerConfiguration.PARALLEL_PARSE, Boolean.TRUE);
+
+        Map<String, String> remaining = new LinkedHashMap<>(batch);
+        for (int attempt = 0; attempt < MAX_COMPILE_ATTEMPTS && !remaining.isEmpty(); attempt++) {
+            CompilationUnit unit =
+                    new CompilationUnit(
+                            config, null, new GroovyClassLoader(context.getClassLoader(), config));
+            unit.setClassNodeResolver(classNodeResolver);
+            Map<String, SourceUnit> sourceUnits = new LinkedHashMap<>();
+            for (Map.Entry<String, String> source : remaining.entrySet()) {
+                SourceUnit sourceUnit =
+                        new SourceUnit(
+                                source.getKey(),
+                                new StringReaderSource(source.getValue(), config),
+                                config,
+                                unit.getClassLoader(),
+                                new ErrorCollector(config));
+                unit.addSource(sourceUnit);
+                sourceUnits.put(source.getKey(), sourceUnit);
+            }
+
+            compilationPermits.acquire(CancellationToken.NONE);
+            try {
+                unit.compile(Phases.SEMANTIC_ANALYSIS);
+            } catch (CompilationFailedException e) {
+                if (unit.getPhase() < Phases.SEMANTIC_ANALYSIS) {
+                    Set<String> broken = failedSources(e);
+                    if (!remaining.keySet().removeAll(broken)) {
+                        logger.warn("Failed to compile project model: {}", e.getMessage());
+                        return compiled;
+                    }
+                    logger.debug("Leaving {} sources with syntax errors out of the model", broken);
+                    continue;
+                }
+                // Unresolved names only, every module went through semantic analysis
+                logger.debug("Project model has semantic errors: {}", e.getMessage());
+            } finally {
+                compilationPermits.release();
+            }
+
+            for (Map.Entry<String, SourceUnit> entry : sourceUnits.entrySet()) {
+                ModuleNode module = entry.getValue().getAST();
+                if (module != null) {
+                    compiled.put(entry.getKey(), module);
+                }
+            }
+            return compiled;
+        }
+        return compiled;
+    }
+
+    private static Set<String> failedSources(CompilationFailedException failure) {
+        Set<String> names = new HashSet<>();
+        if (failure instanceof MultipleCompilationErrorsException multiple) {
+            for (Message message : multiple.getErrorCollector().getErrors()) {
+                if (message instanceof SyntaxErrorMessage syntaxError
+                        && syntaxError.getCause().getSourceLocator() != null) {
+                    names.add(syntaxError.getCause().getSourceLocator());
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Installs compiled modules. Fresh ones are compacted into their skeletons first;
+     * dependencies come from declarations only, so a skeleton yields the same ones.
+     */
+    private void install(Map<String, ModuleNode> compiled) {
+        for (Map.Entry<String, ModuleNode> entry : compiled.entrySet()) {
+            ModuleNode module = entry.getValue();
+            if (!DeclarationSkeleton.isSkeleton(module)) {
+                DeclarationSkeleton.compact(module);
+            }
+            modules.put(entry.getKey(), module);
+            for (ClassNode classNode : module.getClasses()) {
+                classes.put(classNode.getName(), classNode);
+            }
+            dependencies.put(
+                    entry.getKey(),
+                    Set.copyOf(
+                            IncrementalCompilationServiceImpl.collectDependencies(module)
+                                    .keySet()));
+        }
+    }
+
+    private void uninstall(String sourceName) {
+        ModuleNode module = modules.remove(sourceName);
+        if (module != null) {
+            for (ClassNode classNode : module.getClasses()) {
+                classes.remove(classNode.getName(), classNode);
+            }
+        }
+        dependencies.remove(sourceName);
+    }
+
+    /**
+     * Gets the names a module's classes can be referred to by. Unresolved references keep
+     * the name as written, so simple names are included as well.
+     */
+    private Set<String> declaredNames(String sourceName) {
+        Set<String> names = new HashSet<>();
+        ModuleNode module = modules.get(sourceName);
+        if (module != null) {
+            for (ClassNode classNode : module.getClasses()) {
+                names.add(classNode.getName());
+                names.add(classNode.getNameWithoutPackage());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Finds the modules that depend on the given names, directly or through other
+     * affected modules.
+     */
+    private Set<String> affectedBy(String sourceName, Set<String> names) {
+        Set<String> affected = new HashSet<>();
+        Queue<Set<String>> pending = new ArrayDeque<>();
+        pending.add(names);
+        while (!pending.isEmpty()) {
+            Set<String> current = pending.poll();
+            for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+                String module = entry.getKey();
+                if (!module.equals(sourceName)
+                        && !affected.contains(module)
+                        && !Collections.disjoint(entry.getValue(), current)) {
+                    affected.add(module);
+                    pending.add(declaredNames(module));
+                }
+            }
+        }
+        return affected;
+    }
+}
@@ -0,0 +1,241 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import groovy.lang.GroovyClassLoader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.control.ClassNodeResolver;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ClassNodeResolver} shared by all compilation units of a session.
+ *
+ * <p>Groovy's default resolver caches lookups per {@link CompilationUnit}, and every compile in
+ * this server creates a fresh unit, so the ResolveVisitor used to re-probe the classpath for
+ * every imported and star-imported simple name on each keystroke. This resolver keeps a positive
+ * and a negative cache per classpath, identified by the configured entries and the identity of
+ * the compilation context's class loader, across units. Classes found on the classpath are
+ * ASM-decompiled {@code DecompiledClassNode}s (Groovy's default {@code asmResolving} mode),
+ * which are lazily initialised and keep the unit they were resolved with. They are therefore
+ * resolved with a unit owned by the classpath that never has sources, so a cached class
+ * neither keeps a requester's unit alive nor sees the AST of an unrelated compile.</p>
+ *
+ * <p>Classes compiled from workspace sources, see {@link #setWorkspaceClasses}, are looked
+ * up first. Stubs of workspace classes, see {@link #setWorkspaceStubs}, are looked up after
+ * the positive cache but before the negative one. Neither is ever cached. Only class node
+ * results are cached; lookups that resolve to a Groovy script on the classpath are returned
+ * as-is so that the script is compiled by the requesting unit. The caches are dropped by
+ * {@link #invalidate()}, and automatically once too many distinct classpaths have been
+ * seen.</p>
+ */
+public class SharedClassNodeResolver extends ClassNodeResolver {
+    private static final Logger logger = LoggerFactory.getLogger(SharedClassNodeResolver.class);
+
+    private static final int MAX_CLASSPATHS = 8;
+
+    private final Map<ClasspathKey, Classpath> classpaths = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private volatile Function<String, @Nullable ClassNode> workspaceClasses = name -> null;
+    private volatile BiFunction<String, CompilationUnit, @Nullable ClassNode> workspaceStubs =
+            (name, unit) -> null;
+
+    @Override
+    public @Nullable LookupResult resolveName(String name, CompilationUnit compilationUnit) {
+        // Workspace classes change with every edit, so they are looked up before the caches
+        ClassNode workspaceClass = workspaceClasses.apply(name);
+        if (workspaceClass != null) {
+            return new LookupResult(null, workspaceClass);
+        }
+
+        Classpath classpath = classpath(compilationUnit);
+
+        ClassNode cached = classpath.resolved.get(name);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return new LookupResult(null, cached);
+        }
+        // Stubs are never put in the caches, so a stub still shadows a missing class
+        ClassNode workspaceStub = workspaceStubs.apply(name, compilationUnit);
+        if (workspaceStub != null) {
+            return new LookupResult(null, workspaceStub);
+        }
+        if (classpath.unresolved.contains(name)) {
+            hits.incrementAndGet();
+            return null;
+        }
+
+        misses.incrementAndGet();
+        LookupResult result = findClassNode(name, classpath.unit);
+        if (result != null && result.isClassNode()) {
+            classpath.resolved.put(name, result.getClassNode());
+            return result;
+        }
+        // The classpath's unit does not load scripts, the requesting unit compiles them itself
+        LookupResult script = findScript(name, compilationUnit);
+        if (script == null) {
+            classpath.unresolved.add(name);
+        }
+        return script;
+    }
+
+    /**
+     * Ignored: callers of this method cannot tell which classpath the entry belongs to,
+     * and all lookups go through {@link #resolveName}.
+     */
+    @Override
+    public void cacheClass(String name, ClassNode res) {
+        // Intentionally not cached, see resolveName
+    }
+
+    @Override
+    public @Nullable ClassNode getFromClassCache(String name) {
+        return null;
+    }
+
+    /**
+     * Sets the lookup of classes compiled from workspace sources, which take precedence
+     * over the classpath.
+     *
+     * @param workspaceClasses finds a workspace class by its fully qualified name
+     */
+    public void setWorkspaceClasses(Function<String, @Nullable ClassNode> workspaceClasses) {
+        this.workspaceClasses = workspaceClasses;
+    }
+
+    /**
+     * Sets the lookup of declaration stubs of workspace classes, used for classes that are
+     * not available from {@link #setWorkspaceClasses}. Classes already found on the
+     * classpath take precedence over stubs.
+     *
+     * @param workspaceStubs finds the stub of a workspace class by its fully qualified name
+     */
+    public void setWorkspaceStubs(
+            BiFunction<String, CompilationUnit, @Nullable ClassNode> workspaceStubs) {
+        this.workspaceStubs = workspaceStubs;
+    }
+
+    /**
+     * Drops all cached lookups, e.g. after the classpath contents changed on disk.
+     */
+    public void invalidate() {
+        classpaths.clear();
+        logger.debug("Invalidated shared class node cache");
+    }
+
+    /**
+     * Drops the cached lookups of a single fully qualified class name.
+     *
+     * @param className the class name to forget
+     */
+    public void invalidate(String className) {
+        for (Classpath classpath : classpaths.values()) {
+            classpath.resolved.remove(className);
+            classpath.unresolved.remove(className);
+        }
+    }
+
+    /**
+     * Identifies the classpath a compilation unit resolves classes against: its configured
+     * entries and the class loader of the compilation context.
+     *
+     * @param compilationUnit the compilation unit
+     * @return the key of the classpath
+     */
+    static ClasspathKey classpathKey(CompilationUnit compilationUnit) {
+        return new ClasspathKey(
+                List.copyOf(compilationUnit.getConfiguration().getClasspath()),
+                compilationUnit.getClassLoader().getParent());
+    }
+
+    /**
+     * Looks up a Groovy script on the classpath the way {@link ClassNodeResolver} does for a
+     * class that cannot be loaded, adding it to the requesting unit.
+     */
+    private static @Nullable LookupResult findScript(String name, CompilationUnit compilationUnit) {
+        if (name.startsWith("java.") || name.indexOf('$') >= 0) {
+            return null;
+        }
+        try {
+            URL source =
+                    compilationUnit.getClassLoader().getResourceLoader().loadGroovySource(name);
+            return source == null
+                    ? null
+                    : new LookupResult(compilationUnit.addSource(source), null);
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    private Classpath classpath(CompilationUnit compilationUnit) {
+        ClasspathKey key = classpathKey(compilationUnit);
+        Classpath classpath = classpaths.get(key);
+        if (classpath != null) {
+            return classpath;
+        }
+        if (classpaths.size() >= MAX_CLASSPATHS) {
+            logger.debug("Too many distinct classpaths seen, dropping class node cache");
+            invalidate();
+        }
+        return classpaths.computeIfAbsent(
+                key, k -> new Classpath(k, compilationUnit.getConfiguration()));
+    }
+
+    // Test helper methods
+    int getResolvedCount() {
+        return classpaths.values().stream().mapToInt(classpath -> classpath.resolved.size()).sum();
+    }
+
+    int getUnresolvedCount() {
+        return classpaths.values().stream()
+                .mapToInt(classpath -> classpath.unresolved.size())
+                .sum();
+    }
+
+    long getHitCount() {
+        return hits.get();
+    }
+
+    long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Identifies a classpath. The class loader is compared by identity, a new compilation
+     * context is a new classpath.
+     */
+    record ClasspathKey(List<String> entries, @Nullable ClassLoader parent) {}
+
+    /**
+     * The cached lookups of one classpath, and the unit its classes are resolved with.
+     */
+    private static final class Classpath {
+        private final Map<String, ClassNode> resolved = new ConcurrentHashMap<>();
+        private final Set<String> unresolved = ConcurrentHashMap.newKeySet();
+        private final CompilationUnit unit;
+
+        Classpath(ClasspathKey key, CompilerConfiguration requesterConfiguration) {
+            CompilerConfiguration configuration = new CompilerConfiguration();
+            configuration.setClasspathList(key.entries());
+            configuration.setOptimizationOptions(
+                    new HashMap<>(requesterConfiguration.getOptimizationOptions()));
+            GroovyClassLoader classLoader = new GroovyClassLoader(key.parent(), configuration);
+            // Scripts on the classpath are compiled by the requesting unit, not this one
+            classLoader.setResourceLoader(filename -> null);
+            this.unit = new CompilationUnit(configuration, null, classLoader);
+        }
+    }
+}
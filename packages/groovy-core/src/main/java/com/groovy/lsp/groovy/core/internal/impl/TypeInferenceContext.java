@@ -0,0 +1,294 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassCodeVisitorSupport;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ConstructorNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.DeclarationExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+import org.codehaus.groovy.ast.stmt.ExpressionStatement;
+import org.codehaus.groovy.ast.stmt.Statement;
+import org.codehaus.groovy.control.SourceUnit;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Type inference state bound to one version of a {@link ModuleNode}.
+ *
+ * <p>The AST service hands out a new module for every distinct source text, so the context is
+ * stored in the module's node metadata and lives exactly as long as that AST version. It
+ * memoizes the inferred type of every expression (keyed by node identity), which keeps chained
+ * receivers such as {@code builder.a().b().c()} linear, and lazily builds a symbol table of all
+ * variable declarations in a single pass over the module. Hover, completion and any other caller
+ * that infers types against the same cached module share one context.</p>
+ */
+final class TypeInferenceContext {
+
+    private final ModuleNode moduleNode;
+    private final Map<Expression, ClassNode> expressionTypes = new ConcurrentHashMap<>();
+    private final Map<DeclarationExpression, ClassNode> declarationTypes =
+            new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private volatile @Nullable Map<String, List<Declaration>> symbolTable;
+
+    private TypeInferenceContext(ModuleNode moduleNode) {
+        this.moduleNode = moduleNode;
+    }
+
+    /**
+     * Gets the context of a module, creating it on first use.
+     *
+     * @param moduleNode the module the context is bound to
+     * @return the shared context of the module
+     */
+    static TypeInferenceContext of(ModuleNode moduleNode) {
+        synchronized (moduleNode) {
+            TypeInferenceContext context = moduleNode.getNodeMetaData(TypeInferenceContext.class);
+            if (context == null) {
+                context = new TypeInferenceContext(moduleNode);
+                moduleNode.putNodeMetaData(TypeInferenceContext.class, context);
+            }
+            return context;
+        }
+    }
+
+    /**
+     * Gets the memoized type of an expression.
+     *
+     * @param expression the expression
+     * @return the previously inferred type or null if the expression was not inferred yet
+     */
+    @Nullable ClassNode getCachedType(Expression expression) {
+        ClassNode type = expressionTypes.get(expression);
+        if (type != null) {
+            hits.incrementAndGet();
+        }
+        return type;
+    }
+
+    /**
+     * Memoizes the inferred type of an expression.
+     *
+     * @param expression the expression
+     * @param type the inferred type
+     */
+    void cacheType(Expression expression, ClassNode type) {
+        expressionTypes.put(expression, type);
+    }
+
+    /**
+     * Gets the memoized type of a declaration.
+     *
+     * @param declaration the declaration
+     * @return the previously resolved type or null
+     */
+    @Nullable ClassNode getDeclarationType(DeclarationExpression declaration) {
+        return declarationTypes.get(declaration);
+    }
+
+    /**
+     * Memoizes the resolved type of a declaration.
+     *
+     * @param declaration the declaration
+     * @param type the resolved type
+     */
+    void cacheDeclarationType(DeclarationExpression declaration, ClassNode type) {
+        declarationTypes.put(declaration, type);
+    }
+
+    /**
+     * Finds the declaration a variable usage most likely refers to without cancellation,
+     * see {@link #findDeclaration(String, ASTNode, CancellationToken)}.
+     *
+     * @param name the variable name
+     * @param usage the node using the variable
+     * @return the declaration or null if the module declares no such variable
+     */
+    @Nullable DeclarationExpression findDeclaration(String name, ASTNode usage) {
+        return findDeclaration(name, usage, CancellationToken.NONE);
+    }
+
+    /**
+     * Finds the declaration a variable usage most likely refers to.
+     *
+     * <p>Declarations whose scope encloses the usage are preferred, innermost scope first.
+     * When the usage has no position or no enclosing declaration exists, the last declaration
+     * of the name in the module is returned, which is what the module-wide search always did.</p>
+     *
+     * @param name the variable name
+     * @param usage the node using the variable
+     * @param cancellationToken token checked while the symbol table is built
+     * @return the declaration or null if the module declares no such variable
+     */
+    @Nullable DeclarationExpression findDeclaration(
+            String name, ASTNode usage, CancellationToken cancellationToken) {
+        List<Declaration> candidates = symbolTable(cancellationToken).get(name);
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
+        }
+
+        Declaration best = null;
+        if (usage.getLineNumber() > 0) {
+            for (Declaration candidate : candidates) {
+                if (encloses(candidate.scope(), usage)
+                        && (best == null || candidate.depth() >= best.depth())) {
+                    best = candidate;
+                }
+            }
+        }
+        if (best == null) {
+            best = candidates.get(candidates.size() - 1);
+        }
+        return best.expression();
+    }
+
+    // Test helper methods
+    int getMemoizedCount() {
+        return expressionTypes.size();
+    }
+
+    long getHitCount() {
+        return hits.get();
+    }
+
+    boolean isSymbolTableBuilt() {
+        return symbolTable != null;
+    }
+
+    private Map<String, List<Declaration>> symbolTable(CancellationToken cancellationToken) {
+        Map<String, List<Declaration>> table = symbolTable;
+        if (table == null) {
+            synchronized (this) {
+                table = symbolTable;
+                if (table == null) {
+                    table = buildSymbolTable(cancellationToken);
+                    symbolTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    private Map<String, List<Declaration>> buildSymbolTable(CancellationToken cancellationToken) {
+        DeclarationCollector collector = new DeclarationCollector(cancellationToken);
+        for (ClassNode classNode : moduleNode.getClasses()) {
+            cancellationToken.throwIfCancellationRequested();
+            collector.enterScope(classNode);
+            classNode.visitContents(collector);
+            collector.exitScope();
+        }
+
+        // Statements outside classes
+        BlockStatement statementBlock = moduleNode.getStatementBlock();
+        if (statementBlock != null) {
+            for (Statement statement : statementBlock.getStatements()) {
+                if (statement instanceof ExpressionStatement expressionStatement
+                        && expressionStatement.getExpression()
+                                instanceof DeclarationExpression declaration) {
+                    collector.visitDeclarationExpression(declaration);
+                }
+            }
+        }
+        return collector.table;
+    }
+
+    private static boolean encloses(@Nullable ASTNode scope, ASTNode node) {
+        if (scope == null || scope.getLineNumber() < 1 || scope.getLastLineNumber() < 1) {
+            // Module level or synthetic scopes (e.g. the script's run method)
+            return true;
+        }
+        int line = node.getLineNumber();
+        int column = node.getColumnNumber();
+        boolean afterStart =
+                line > scope.getLineNumber()
+                        || (line == scope.getLineNumber() && column >= scope.getColumnNumber());
+        boolean beforeEnd =
+                line < scope.getLastLineNumber()
+                        || (line == scope.getLastLineNumber()
+                                && column <= scope.getLastColumnNumber());
+        return afterStart && beforeEnd;
+    }
+
+    private record Declaration(
+            DeclarationExpression expression, @Nullable ASTNode scope, int depth) {}
+
+    /**
+     * Visitor that records every variable declaration with its innermost enclosing
+     * class, method, constructor or closure.
+     */
+    private static class DeclarationCollector extends ClassCodeVisitorSupport {
+        private final CancellationToken cancellationToken;
+        private final Map<String, List<Declaration>> table = new HashMap<>();
+        private final Deque<ASTNode> scopes = new ArrayDeque<>();
+        private final Set<DeclarationExpression> seen =
+                Collections.newSetFromMap(new IdentityHashMap<>());
+
+        DeclarationCollector(CancellationToken cancellationToken) {
+            this.cancellationToken = cancellationToken;
+        }
+
+        @Override
+        protected SourceUnit getSourceUnit() {
+            // Not used in this visitor context
+            throw new UnsupportedOperationException("SourceUnit not available in this context");
+        }
+
+        void enterScope(ASTNode scope) {
+            scopes.push(scope);
+        }
+
+        void exitScope() {
+            scopes.pop();
+        }
+
+        @Override
+        public void visitMethod(MethodNode node) {
+            cancellationToken.throwIfCancellationRequested();
+            enterScope(node);
+            super.visitMethod(node);
+            exitScope();
+        }
+
+        @Override
+        public void visitConstructor(ConstructorNode node) {
+            enterScope(node);
+            super.visitConstructor(node);
+            exitScope();
+        }
+
+        @Override
+        public void visitClosureExpression(ClosureExpression expression) {
+            cancellationToken.throwIfCancellationRequested();
+            enterScope(expression);
+            super.visitClosureExpression(expression);
+            exitScope();
+        }
+
+        @Override
+        public void visitDeclarationExpression(DeclarationExpression expression) {
+            // Script statements are reachable both from run() and the module block
+            if (expression.getLeftExpression() instanceof VariableExpression variable
+                    && seen.add(expression)) {
+                table.computeIfAbsent(variable.getName(), name -> new ArrayList<>())
+                        .add(new Declaration(expression, scopes.peek(), scopes.size()));
+            }
+            super.visitDeclarationExpression(expression);
+        }
+    }
+}
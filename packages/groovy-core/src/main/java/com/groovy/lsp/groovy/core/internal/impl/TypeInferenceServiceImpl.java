@@ -1,11 +1,12 @@
 package com.groovy.lsp.groovy.core.internal.impl;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.groovy.core.api.MemberTable;
 import com.groovy.lsp.groovy.core.api.TypeInferenceService;
 import java.util.List;
 import java.util.Objects;
 import org.codehaus.groovy.ast.ASTNode;
-import org.codehaus.groovy.ast.ClassCodeVisitorSupport;
 import org.codehaus.groovy.ast.ClassHelper;
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.ast.FieldNode;
@@ -22,10 +23,6 @@ import org.codehaus.groovy.ast.expr.MapExpression;
 import org.codehaus.groovy.ast.expr.MethodCallExpression;
 import org.codehaus.groovy.ast.expr.PropertyExpression;
 import org.codehaus.groovy.ast.expr.VariableExpression;
-import org.codehaus.groovy.ast.stmt.BlockStatement;
-import org.codehaus.groovy.ast.stmt.ExpressionStatement;
-import org.codehaus.groovy.ast.stmt.Statement;
-import org.codehaus.groovy.control.SourceUnit;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -57,6 +54,19 @@ public class TypeInferenceServiceImpl implements TypeInferenceService {
             return ClassHelper.OBJECT_TYPE;
         }
 
+        return inferTypeAtPosition(moduleNode, line, column);
+    }
+
+    /**
+     * Infers the type of the expression at a specific position of an already parsed module.
+     *
+     * @param moduleNode the module to analyze
+     * @param line the line number (1-based)
+     * @param column the column number (1-based)
+     * @return the inferred ClassNode or Object type if type cannot be determined
+     */
+    @Override
+    public ClassNode inferTypeAtPosition(ModuleNode moduleNode, int line, int column) {
         ASTNode node = astService.findNodeAtPosition(moduleNode, line, column);
         if (node instanceof Expression expression) {
             return inferExpressionType(expression, moduleNode);
@@ -74,10 +84,67 @@ public class TypeInferenceServiceImpl implements TypeInferenceService {
      */
     @Override
     public ClassNode inferExpressionType(Expression expression, @Nullable ModuleNode moduleNode) {
+        return inferExpressionType(expression, moduleNode, CancellationToken.NONE);
+    }
+
+    /**
+     * Infers the type of an expression, checking the token before every sub-expression.
+     *
+     * @param expression the expression to analyze
+     * @param moduleNode the module context
+     * @param cancellationToken token checked per inferred sub-expression
+     * @return the inferred ClassNode
+     */
+    @Override
+    public ClassNode inferExpressionType(
+            Expression expression,
+            @Nullable ModuleNode moduleNode,
+            CancellationToken cancellationToken) {
         if (expression == null) {
             return ClassHelper.OBJECT_TYPE;
         }
+        cancellationToken.throwIfCancellationRequested();
+        if (moduleNode == null) {
+            return inferUncachedType(expression, null, cancellationToken);
+        }
+
+        // Receivers of chained calls are inferred once per AST version
+        TypeInferenceContext context = TypeInferenceContext.of(moduleNode);
+        ClassNode cached = context.getCachedType(expression);
+        if (cached != null) {
+            return cached;
+        }
+        ClassNode type = inferUncachedType(expression, moduleNode, cancellationToken);
+        context.cacheType(expression, type);
+        return type;
+    }
 
+    @Override
+    public MemberTable inferMemberTable(
+            Expression expression, ModuleNode moduleNode, CancellationToken cancellationToken) {
+        ClassNode type = inferExpressionType(expression, moduleNode, cancellationToken);
+        // Members of an untyped variable are those of the value it was initialized with
+        if (ClassHelper.isObjectType(type)
+                && expression instanceof VariableExpression variableExpression
+                && variableExpression.getAccessedVariable() != null
+                && variableExpression.getAccessedVariable().isDynamicTyped()) {
+            type = findVariableDeclarationType(variableExpression, moduleNode, cancellationToken);
+        }
+        return MemberTable.of(type);
+    }
+
+    /**
+     * Infers the type of an expression without consulting the memo.
+     *
+     * @param expression the expression to analyze
+     * @param moduleNode the module context
+     * @param cancellationToken token checked per inferred sub-expression
+     * @return the inferred ClassNode
+     */
+    private ClassNode inferUncachedType(
+            Expression expression,
+            @Nullable ModuleNode moduleNode,
+            CancellationToken cancellationToken) {
         // Check if type is already set
         ClassNode existingType = expression.getType();
         if (existingType != null && !existingType.equals(ClassHelper.OBJECT_TYPE)) {
@@ -89,15 +156,15 @@ public class TypeInferenceServiceImpl implements TypeInferenceService {
 
         // Handle different expression types
         if (expression instanceof VariableExpression variableExpression) {
-            return inferVariableType(variableExpression, moduleNode);
+            return inferVariableType(variableExpression, moduleNode, cancellationToken);
         } else if (expression instanceof ConstantExpression constantExpression) {
             return inferConstantType(constantExpression);
         } else if (expression instanceof MethodCallExpression methodCallExpression) {
-            return inferMethodCallType(methodCallExpression, moduleNode);
+            return inferMethodCallType(methodCallExpression, moduleNode, cancellationToken);
         } else if (expression instanceof PropertyExpression propertyExpression) {
-            return inferPropertyType(propertyExpression, moduleNode);
+            return inferPropertyType(propertyExpression, moduleNode, cancellationToken);
         } else if (expression instanceof BinaryExpression binaryExpression) {
-            return inferBinaryExpressionType(binaryExpression, moduleNode);
+            return inferBinaryExpressionType(binaryExpression, moduleNode, cancellationToken);
         } else if (expression instanceof ListExpression) {
             return ClassHelper.LIST_TYPE;
         } else if (expression instanceof MapExpression) {
@@ -113,10 +180,13 @@ public class TypeInferenceServiceImpl implements TypeInferenceService {
      *
      * @param varExpr the variable expression
      * @param moduleNode the module context
+     * @param cancellationToken token checked per inferred sub-expression
      * @return the inferred type or null
      */
     private ClassNode inferVariableType(
-            VariableExpression varExpr, @Nullable ModuleNode moduleNode) {
+            VariableExpression varExpr,
+            @Nullable ModuleNode moduleNode,
+            CancellationToken cancellationToken) {
         String varName = varExpr.getName();
 
         // Check if it's a special variable
@@ -132,12 +202,7 @@ public class TypeInferenceServiceImpl implements TypeInferenceService {
         }
 
         // Try to find declaration in scope
-        ClassNode declarationType = findVariableDeclarationType(varName, moduleNode);
-        if (declarationType != null) {
-            return declarationType;
-        }
-
-        return ClassHelper.OBJECT_TYPE;
+        return findVariableDeclarationType(varExpr, moduleNode, cancellationToken);
     }
 
     /**
@@ -180,12 +245,15 @@ public class TypeInferenceServiceImpl implements TypeInferenceService {
      *
      * @param call the method call expression
      * @param moduleNode the module context
+     * @param cancellationToken token checked per inferred sub-expression
      * @return the inferred return type or null
      */
     private ClassNode inferMethodCallType(
-            MethodCallExpression call, @Nullable ModuleNode moduleNode) {
+            MethodCallExpression call,
+            @Nullable ModuleNode moduleNode,
+            CancellationToken cancellationToken) {
         Expression objectExpr = call.getObjectExpression();
-        ClassNode receiverType = inferExpressionType(objectExpr, moduleNode);
+        ClassNode receiverType = inferExpressionType(objectExpr, moduleNode, cancellationToken);
 
         if (receiverType == null) {
             return ClassHelper.OBJECT_TYPE;
@@ -221,12 +289,15 @@ public class TypeInferenceServiceImpl implements TypeInferenceService {
      *
      * @param propExpr the property expression
      * @param moduleNode the module context
+     * @param cancellationToken token checked per inferred sub-expression
      * @return the inferred type or null
      */
     private ClassNode inferPropertyType(
-            PropertyExpression propExpr, @Nullable ModuleNode moduleNode) {
+            PropertyExpression propExpr,
+            @Nullable ModuleNode moduleNode,
+            CancellationToken cancellationToken) {
         Expression objectExpr = propExpr.getObjectExpression();
-        ClassNode receiverType = inferExpressionType(objectExpr, moduleNode);
+        ClassNode receiverType = inferExpressionType(objectExpr, moduleNode, cancellationToken);
 
         if (receiverType == null) {
             return ClassHelper.OBJECT_TYPE;
@@ -265,10 +336,13 @@ public class TypeInferenceServiceImpl implements TypeInferenceService {
      *
      * @param binExpr the binary expression
      * @param moduleNode the module context
+     * @param cancellationToken token checked per inferred sub-expression
      * @return the inferred type
      */
     private ClassNode inferBinaryExpressionType(
-            BinaryExpression binExpr, @Nullable ModuleNode moduleNode) {
+            BinaryExpression binExpr,
+            @Nullable ModuleNode moduleNode,
+            CancellationToken cancellationToken) {
         int op = binExpr.getOperation().getType();
 
         // Comparison operators return boolean
@@ -279,7 +353,7 @@ public class TypeInferenceServiceImpl implements TypeInferenceService {
         // For arithmetic operators, return the type of the left operand
         // (simplified - real type inference would be more complex)
         Expression leftExpr = binExpr.getLeftExpression();
-        return inferExpressionType(leftExpr, moduleNode);
+        return inferExpressionType(leftExpr, moduleNode, cancellationToken);
     }
 
     /**
@@ -330,80 +404,56 @@ public class TypeInferenceServiceImpl implements TypeInferenceService {
     /**
      * Finds the declaration type of a variable.
      *
-     * @param varName the variable name
+     * @param varExpr the variable usage
      * @param moduleNode the module node
-     * @return the declaration type or null
+     * @param cancellationToken token checked while building the symbol table
+     * @return the declaration type or Object type if the variable is not declared
      */
-    private ClassNode findVariableDeclarationType(String varName, @Nullable ModuleNode moduleNode) {
-        VariableDeclarationFinder finder = new VariableDeclarationFinder(varName);
-
-        if (moduleNode != null) {
-            // Visit classes
-            for (ClassNode classNode : moduleNode.getClasses()) {
-                classNode.visitContents(finder);
-            }
+    private ClassNode findVariableDeclarationType(
+            VariableExpression varExpr,
+            @Nullable ModuleNode moduleNode,
+            CancellationToken cancellationToken) {
+        if (moduleNode == null) {
+            return ClassHelper.OBJECT_TYPE;
         }
 
-        // Visit script body (statements outside classes)
-        if (moduleNode != null) {
-            BlockStatement statementBlock = moduleNode.getStatementBlock();
-            if (statementBlock != null) {
-                for (Statement stmt : statementBlock.getStatements()) {
-                    if (stmt instanceof ExpressionStatement exprStmt) {
-                        Expression expr = exprStmt.getExpression();
-                        if (expr instanceof DeclarationExpression) {
-                            expr.visit(finder);
-                        }
-                    }
-                }
-            }
+        TypeInferenceContext context = TypeInferenceContext.of(moduleNode);
+        DeclarationExpression declaration =
+                context.findDeclaration(varExpr.getName(), varExpr, cancellationToken);
+        if (declaration == null) {
+            return ClassHelper.OBJECT_TYPE;
         }
 
-        return finder.getVariableType();
+        ClassNode cached = context.getDeclarationType(declaration);
+        if (cached != null) {
+            return cached;
+        }
+        ClassNode declarationType = inferDeclarationType(declaration, cancellationToken);
+        context.cacheDeclarationType(declaration, declarationType);
+        return declarationType;
     }
 
     /**
-     * Visitor for finding variable declarations.
+     * Resolves the type of a declaration from its declared type or, for untyped
+     * declarations, from its initializer.
+     *
+     * @param declaration the declaration
+     * @param cancellationToken token checked per inferred sub-expression
+     * @return the declaration type
      */
-    private class VariableDeclarationFinder extends ClassCodeVisitorSupport {
-        private final String targetVarName;
-        private @Nullable ClassNode variableType = null;
-
-        public VariableDeclarationFinder(String varName) {
-            this.targetVarName = varName;
-        }
-
-        @Override
-        protected SourceUnit getSourceUnit() {
-            // This method is not called in the context of this visitor
-            // as we're only traversing the AST without compilation
-            throw new UnsupportedOperationException("SourceUnit not available in this context");
-        }
-
-        @Override
-        public void visitDeclarationExpression(DeclarationExpression expression) {
-            Expression leftExpr = expression.getLeftExpression();
-            if (leftExpr instanceof VariableExpression varExpr) {
-                if (targetVarName.equals(varExpr.getName())) {
-                    variableType = varExpr.getType();
-                    if (variableType == null || variableType.equals(ClassHelper.OBJECT_TYPE)) {
-                        // Try to infer from right side
-                        Expression rightExpr = expression.getRightExpression();
-                        if (rightExpr instanceof ConstantExpression constantExpression) {
-                            // Use inferConstantType method to properly infer the type
-                            variableType = inferConstantType(constantExpression);
-                        } else if (rightExpr != null) {
-                            // For other expression types, try to infer their type
-                            variableType = inferExpressionType(rightExpr, null);
-                        }
-                    }
-                }
+    private ClassNode inferDeclarationType(
+            DeclarationExpression declaration, CancellationToken cancellationToken) {
+        ClassNode variableType = declaration.getLeftExpression().getType();
+        if (variableType == null || variableType.equals(ClassHelper.OBJECT_TYPE)) {
+            // Try to infer from right side
+            Expression rightExpr = declaration.getRightExpression();
+            if (rightExpr instanceof ConstantExpression constantExpression) {
+                variableType = inferConstantType(constantExpression);
+            } else if (rightExpr != null) {
+                // For other expression types, try to infer their type
+                variableType = inferExpressionType(rightExpr, null, cancellationToken);
             }
-            super.visitDeclarationExpression(expression);
-        }
-
-        public ClassNode getVariableType() {
-            return variableType != null ? variableType : ClassHelper.OBJECT_TYPE;
         }
+        return variableType != null ? variableType : ClassHelper.OBJECT_TYPE;
     }
 }
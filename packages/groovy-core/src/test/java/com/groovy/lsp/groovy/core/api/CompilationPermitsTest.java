@@ -0,0 +1,62 @@
+package com.groovy.lsp.groovy.core.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.concurrent.CancellationException;
+
+/**
+ * CompilationPermitsのテストクラス。
+ */
+class CompilationPermitsTest {
+
+    @UnitTest
+    void acquire_shouldNotWaitWhenUnlimited() {
+        // given
+        CompilationPermits permits = CompilationPermits.UNLIMITED;
+        permits.acquire(CancellationToken.NONE);
+
+        // when/then
+        assertThat(permits.getMaxConcurrent()).isZero();
+        assertThatCode(() -> permits.acquire(() -> true)).doesNotThrowAnyException();
+    }
+
+    @UnitTest
+    void acquire_shouldStopWaitingWhenTokenIsCancelled() {
+        // given
+        CompilationPermits permits = new CompilationPermits(1);
+        permits.acquire(CancellationToken.NONE);
+
+        // when/then
+        assertThatThrownBy(() -> permits.acquire(() -> true))
+                .isInstanceOf(CancellationException.class);
+        permits.release();
+    }
+
+    @UnitTest
+    void release_shouldMakePermitAvailableAgain() {
+        // given
+        CompilationPermits permits = new CompilationPermits(1);
+        permits.acquire(CancellationToken.NONE);
+        permits.release();
+
+        // when/then
+        assertThatCode(() -> permits.acquire(() -> true)).doesNotThrowAnyException();
+        permits.release();
+    }
+
+    @UnitTest
+    void acquire_shouldNotShareLimitBetweenInstances() {
+        // given
+        CompilationPermits first = new CompilationPermits(1);
+        CompilationPermits second = new CompilationPermits(1);
+        first.acquire(CancellationToken.NONE);
+
+        // when/then
+        assertThatCode(() -> second.acquire(() -> true)).doesNotThrowAnyException();
+        first.release();
+        second.release();
+    }
+}
@@ -38,6 +38,22 @@ class CompilationResultTest {
         assertThat(result.hasErrors()).isFalse();
     }
 
+    @UnitTest
+    void withCompileTime_shouldCopyResultWithTime() {
+        // given
+        ModuleNode moduleNode = new ModuleNode((SourceUnit) null);
+        CompilationResult result = CompilationResult.success(moduleNode);
+
+        // when
+        CompilationResult timed = result.withCompileTime(42);
+
+        // then
+        assertThat(result.getCompileTimeMillis()).isZero();
+        assertThat(timed.getCompileTimeMillis()).isEqualTo(42);
+        assertThat(timed.isSuccessful()).isTrue();
+        assertThat(timed.getModuleNode()).isSameAs(moduleNode);
+    }
+
     @UnitTest
     void failure_shouldCreateFailureResult() {
         // given
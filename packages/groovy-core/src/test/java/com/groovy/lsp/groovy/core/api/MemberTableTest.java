@@ -0,0 +1,133 @@
+package com.groovy.lsp.groovy.core.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.List;
+import java.util.Objects;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ModuleNode;
+
+/**
+ * MemberTableのテストクラス。
+ */
+class MemberTableTest {
+
+    @UnitTest
+    void of_shouldBeBuiltOncePerType() {
+        // when
+        MemberTable first = MemberTable.of(ClassHelper.STRING_TYPE);
+        MemberTable second = MemberTable.of(ClassHelper.make(String.class));
+
+        // then
+        assertThat(second).isSameAs(first);
+    }
+
+    @UnitTest
+    void of_shouldShareWrapperTableForPrimitives() {
+        // when
+        MemberTable primitive = MemberTable.of(ClassHelper.int_TYPE);
+        MemberTable wrapper = MemberTable.of(ClassHelper.Integer_TYPE);
+
+        // then
+        assertThat(primitive).isSameAs(wrapper);
+    }
+
+    @UnitTest
+    void getMembers_shouldIncludePublicMethodsAndApplicableExtensions() {
+        // when
+        MemberTable table = MemberTable.of(ClassHelper.STRING_TYPE);
+
+        // then
+        assertThat(table.getMethods("toUpperCase"))
+                .extracting(MemberTable.Member::isExtension)
+                .containsOnly(false);
+        // StringGroovyMethods extends CharSequence, DefaultGroovyMethods extends Object
+        assertThat(table.getMethods("capitalize")).isNotEmpty();
+        assertThat(table.getMethods("with"))
+                .allSatisfy(
+                        member -> {
+                            assertThat(member.isExtension()).isTrue();
+                            assertThat(member.declaringType())
+                                    .isEqualTo("org.codehaus.groovy.runtime.DefaultGroovyMethods");
+                        });
+        // Getters are Groovy properties
+        assertThat(table.getMembers())
+                .filteredOn(member -> member.kind() == MemberTable.MemberKind.PROPERTY)
+                .extracting(MemberTable.Member::name)
+                .contains("bytes", "empty");
+        // Extensions of unrelated types do not apply
+        assertThat(table.getMethods("eachFile")).isEmpty();
+    }
+
+    @UnitTest
+    void getMethods_shouldListOverloadsWithFewestParametersFirst() {
+        // when
+        List<MemberTable.Member> overloads =
+                MemberTable.of(ClassHelper.STRING_TYPE).getMethods("substring");
+
+        // then
+        assertThat(overloads).hasSize(2);
+        assertThat(overloads.get(0).parameterTypes()).containsExactly("int");
+        assertThat(overloads.get(1).parameterTypes()).containsExactly("int", "int");
+        assertThat(overloads.get(0).signature()).startsWith("String substring(int ");
+    }
+
+    @UnitTest
+    void getMethods_shouldShowOnlyParameterTypesOfExtensions() {
+        // when
+        List<MemberTable.Member> overloads =
+                MemberTable.of(ClassHelper.STRING_TYPE).getMethods("padLeft");
+
+        // then - the GDK is compiled without parameter names
+        assertThat(overloads)
+                .extracting(MemberTable.Member::signature)
+                .containsExactly("String padLeft(Number)", "String padLeft(Number, CharSequence)");
+        assertThat(overloads)
+                .extracting(MemberTable.Member::parameterNames)
+                .containsOnly(List.of());
+    }
+
+    @UnitTest
+    void getMembers_shouldIncludeSourceMembersOfClassHierarchy() {
+        // given
+        ModuleNode moduleNode =
+                Objects.requireNonNull(
+                        GroovyCoreFactory.getInstance()
+                                .createASTService()
+                                .parseSource(
+                                        """
+                                        class Base {
+                                            protected int count
+                                            private void reset() {}
+                                        }
+                                        class Person extends Base {
+                                            String name
+                                            String greet(String other) { "Hi ${other}" }
+                                        }
+                                        """,
+                                        "Person.groovy"));
+        ClassNode person =
+                moduleNode.getClasses().stream()
+                        .filter(classNode -> classNode.getName().equals("Person"))
+                        .findFirst()
+                        .orElseThrow();
+
+        // when
+        MemberTable table = MemberTable.of(person);
+
+        // then
+        assertThat(table.getMembers())
+                .extracting(MemberTable.Member::name, MemberTable.Member::kind)
+                .contains(
+                        tuple("name", MemberTable.MemberKind.PROPERTY),
+                        tuple("greet", MemberTable.MemberKind.METHOD),
+                        tuple("count", MemberTable.MemberKind.FIELD),
+                        tuple("reset", MemberTable.MemberKind.METHOD),
+                        tuple("hashCode", MemberTable.MemberKind.METHOD));
+        assertThat(table.getMethods("greet").get(0).signature())
+                .isEqualTo("String greet(String other)");
+    }
+}
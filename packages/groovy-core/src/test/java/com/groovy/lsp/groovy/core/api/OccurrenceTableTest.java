@@ -0,0 +1,144 @@
+package com.groovy.lsp.groovy.core.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.ClassExpression;
+import org.codehaus.groovy.ast.expr.ConstructorCallExpression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.PropertyExpression;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * OccurrenceTableのテストクラス。
+ */
+class OccurrenceTableTest {
+
+    private static final String SOURCE =
+            """
+            class Counter {
+                int count
+
+                void increment() {
+                    def step = 1
+                    count = count + step
+                    log(step)
+                }
+
+                void log(int value) {
+                    println this.count
+                    new Counter().increment()
+                    println Counter
+                }
+            }
+            """;
+
+    private ASTService astService;
+    private ModuleNode moduleNode;
+
+    @BeforeEach
+    void setUp() {
+        astService = GroovyCoreFactory.getInstance().createASTService();
+        moduleNode = Objects.requireNonNull(astService.parseSource(SOURCE, "Counter.groovy"));
+    }
+
+    @UnitTest
+    void of_shouldBeBuiltOncePerModule() {
+        // when
+        OccurrenceTable first = OccurrenceTable.of(moduleNode);
+        OccurrenceTable second = OccurrenceTable.of(moduleNode);
+
+        // then
+        assertThat(second).isSameAs(first);
+    }
+
+    @UnitTest
+    void of_shouldAbandonBuildWhenCancelled() {
+        // when / then
+        assertThatThrownBy(() -> OccurrenceTable.of(moduleNode, () -> true))
+                .isInstanceOf(CancellationException.class);
+
+        // then - nothing was cached, so the next caller builds the table
+        assertThat(OccurrenceTable.of(moduleNode).find("step", OccurrenceKind.VARIABLE)).hasSize(3);
+    }
+
+    @UnitTest
+    void find_shouldReturnVariableOccurrences() {
+        // when
+        List<ASTNode> occurrences =
+                OccurrenceTable.of(moduleNode).find("step", OccurrenceKind.VARIABLE);
+
+        // then - declaration, use in the sum and the argument
+        assertThat(occurrences).hasSize(3);
+    }
+
+    @UnitTest
+    void find_shouldSeparateMethodCallsAndDeclarations() {
+        // given
+        OccurrenceTable table = OccurrenceTable.of(moduleNode);
+
+        // when
+        List<ASTNode> calls = table.find("increment", OccurrenceKind.METHOD_CALL);
+        List<ASTNode> both =
+                table.find(
+                        "increment",
+                        EnumSet.of(OccurrenceKind.METHOD_DECLARATION, OccurrenceKind.METHOD_CALL));
+
+        // then
+        assertThat(calls).hasSize(1).allMatch(MethodCallExpression.class::isInstance);
+        assertThat(both).hasSize(2);
+        assertThat(both.get(0)).isInstanceOf(MethodNode.class);
+    }
+
+    @UnitTest
+    void find_shouldReturnClassReferencesAndProperties() {
+        // given
+        OccurrenceTable table = OccurrenceTable.of(moduleNode);
+
+        // when
+        List<ASTNode> classReferences = table.find("Counter", OccurrenceKind.CLASS_REFERENCE);
+        List<ASTNode> properties = table.find("count", OccurrenceKind.PROPERTY);
+
+        // then
+        assertThat(classReferences)
+                .hasSize(2)
+                .anyMatch(ConstructorCallExpression.class::isInstance)
+                .anyMatch(ClassExpression.class::isInstance);
+        assertThat(properties).hasSize(1).allMatch(PropertyExpression.class::isInstance);
+    }
+
+    @UnitTest
+    void find_shouldReturnEmptyListForUnknownName() {
+        // when
+        List<ASTNode> occurrences =
+                OccurrenceTable.of(moduleNode).find("missing", OccurrenceKind.VARIABLE);
+
+        // then
+        assertThat(occurrences).isEmpty();
+    }
+
+    @UnitTest
+    void getAll_shouldRecordScriptStatementsOnce() {
+        // given
+        ModuleNode script =
+                Objects.requireNonNull(
+                        astService.parseSource("def x = 1\nprintln x\n", "Script.groovy"));
+
+        // when
+        List<ASTNode> occurrences = OccurrenceTable.of(script).find("x", OccurrenceKind.VARIABLE);
+
+        // then - the declaration and the argument, although both are reachable twice
+        assertThat(occurrences).hasSize(2);
+        assertThat(astService.findAllVariables(script))
+                .filteredOn(variable -> variable.getName().equals("x"))
+                .hasSize(2);
+    }
+}
@@ -3,9 +3,13 @@ package com.groovy.lsp.groovy.core.internal.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.groovy.core.api.CompilationPermits;
 import com.groovy.lsp.test.annotations.UnitTest;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.codehaus.groovy.ast.ASTNode;
 import org.codehaus.groovy.ast.ModuleNode;
 import org.codehaus.groovy.ast.expr.MethodCallExpression;
@@ -72,6 +76,129 @@ class ASTServiceImplTest {
         assertThat(moduleNode).isNull();
     }
 
+    @UnitTest
+    void parseSource_shouldRecoverFromLinesWithErrors() {
+        // given
+        astService.setRecoveryEnabled(true);
+        String brokenCode =
+                """
+                class Greeter {
+                    String greet(String name) {
+                        def message = "Hello, " +
+                        return name
+                    }
+
+                    int count() { 1 }
+                }
+                """;
+
+        // when
+        ModuleNode moduleNode = astService.parseSource(brokenCode, "Greeter.groovy");
+
+        // then
+        assertThat(moduleNode).isNotNull();
+        ModuleNode recovered = requireNonNullForTest(moduleNode);
+        assertThat(ParseRecovery.isRecovered(recovered)).isTrue();
+        assertThat(recovered.getClasses().get(0).getMethods())
+                .extracting(method -> method.getName())
+                .contains("greet", "count");
+        assertThat(recovered.getClasses().get(0).getMethods("count").get(0).getLineNumber())
+                .isEqualTo(7);
+    }
+
+    @UnitTest
+    void parseSource_shouldRecoverFromEditSinceLastGoodParse() {
+        // given
+        astService.setRecoveryEnabled(true);
+        String goodCode =
+                """
+                class Greeter {
+                    String greet(String name) {
+                        "Hello, $name"
+                    }
+                }
+                """;
+        astService.parseSource(goodCode, "Greeter.groovy");
+        // An unclosed block is only reported at the end of the file
+        String brokenCode = goodCode.replace("\n}", "\n    void unfinished() {\n}");
+
+        // when
+        ModuleNode moduleNode = astService.parseSource(brokenCode, "Greeter.groovy");
+
+        // then
+        assertThat(moduleNode).isNotNull();
+        ModuleNode recovered = requireNonNullForTest(moduleNode);
+        assertThat(ParseRecovery.isRecovered(recovered)).isTrue();
+        assertThat(recovered.getClasses().get(0).getMethods("greet")).hasSize(1);
+    }
+
+    @UnitTest
+    void parseSource_shouldFallBackToLastGoodAst() {
+        // given
+        astService.setRecoveryEnabled(true);
+        ModuleNode good = astService.parseSource("class Greeter {\n}\n", "Greeter.groovy");
+
+        // when - removing the closing brace leaves no edited line to blank
+        ModuleNode moduleNode = astService.parseSource("class Greeter {\n", "Greeter.groovy");
+
+        // then
+        assertThat(good).isNotNull();
+        ModuleNode stale = requireNonNullForTest(moduleNode);
+        assertThat(stale).isNotSameAs(good);
+        assertThat(ParseRecovery.isStale(stale)).isTrue();
+        assertThat(stale.getClasses().get(0).getName()).isEqualTo("Greeter");
+        assertThat(astService.findNodeAtPosition(stale, 1, 8)).isNull();
+        assertThat(astService.parseSource("class Greeter {\n", "Greeter.groovy"))
+                .isNotSameAs(stale);
+    }
+
+    @UnitTest
+    void parseTransient_shouldNotReplaceDocumentOfSameName() {
+        // given
+        astService.setRecoveryEnabled(true);
+        astService.parseSource("class Greeter {\n}\n", "Greeter.groovy");
+
+        // when
+        ModuleNode variant =
+                astService.parseTransient(
+                        "class Other {\n}\n", "Greeter.groovy", CancellationToken.NONE);
+
+        // then - neither the recovery nor the cache of the document sees the variant
+        assertThat(variant).isNotNull();
+        ModuleNode stale = astService.parseSource("class Greeter {\n", "Greeter.groovy");
+        assertThat(requireNonNullForTest(stale).getClasses().get(0).getName()).isEqualTo("Greeter");
+        assertThat(astService.parseSource("class Other {\n}\n", "Greeter.groovy"))
+                .isNotSameAs(variant);
+    }
+
+    @UnitTest
+    void parseTransient_shouldNotReturnLastGoodAst() {
+        // given
+        astService.setRecoveryEnabled(true);
+        astService.parseSource("class Greeter {\n}\n", "Greeter.groovy");
+
+        // when
+        ModuleNode moduleNode =
+                astService.parseTransient(
+                        "class Greeter {\n", "Greeter.groovy", CancellationToken.NONE);
+
+        // then
+        assertThat(moduleNode).isNull();
+    }
+
+    @UnitTest
+    void parseSource_shouldNotBlankLinesWithSemanticErrors() {
+        // given
+        astService.setRecoveryEnabled(true);
+        String sourceCode = "class Holder {\n    Missing value\n}\n";
+
+        // when
+        ModuleNode moduleNode = astService.parseSource(sourceCode, "Holder.groovy");
+
+        // then - an unresolved class is not an incomplete line
+        assertThat(moduleNode).isNull();
+    }
+
     @UnitTest
     void parseSource_shouldParseWithCustomCompilerConfiguration() {
         // given
@@ -102,6 +229,21 @@ class ASTServiceImplTest {
         assertThat(second).isSameAs(first); // Same instance from cache
     }
 
+    @UnitTest
+    void parseSource_shouldEvictPreviousVersionOfSameSource() {
+        // given
+        String sourceName = "CacheTest.groovy";
+        ModuleNode first = astService.parseSource("class CacheTest {}", sourceName);
+
+        // when
+        astService.parseSource("class CacheTest { int count }", sourceName);
+        ModuleNode reparsed = astService.parseSource("class CacheTest {}", sourceName);
+
+        // then
+        assertThat(first).isNotNull();
+        assertThat(reparsed).isNotNull().isNotSameAs(first);
+    }
+
     @UnitTest
     void parseSource_shouldThrowExceptionForNullParameters() throws Exception {
         // when/then
@@ -616,4 +758,56 @@ class ASTServiceImplTest {
                 .extracting(MethodCallExpression::getMethodAsString)
                 .contains("println", "toUpperCase", "call", "substring");
     }
+
+    @UnitTest
+    void parseSource_shouldAbandonParseWhenTokenIsCancelled() {
+        // given
+        String sourceCode = "class Abandoned { void run() { println 'x' } }";
+        AtomicInteger polls = new AtomicInteger();
+
+        // when / then
+        assertThatThrownBy(
+                        () ->
+                                astService.parseSource(
+                                        sourceCode,
+                                        "Abandoned.groovy",
+                                        () -> polls.incrementAndGet() > 2))
+                .isInstanceOf(CancellationException.class);
+
+        // the abandoned parse must not be cached
+        ModuleNode moduleNode = astService.parseSource(sourceCode, "Abandoned.groovy");
+        assertThat(moduleNode).isNotNull();
+    }
+
+    @UnitTest
+    void parseSource_shouldCompleteWhenTokenIsNotCancelled() {
+        // given
+        String sourceCode = "class Current { String name }";
+
+        // when
+        ModuleNode moduleNode = astService.parseSource(sourceCode, "Current.groovy", () -> false);
+
+        // then
+        assertThat(moduleNode).isNotNull();
+        assertThat(requireNonNullForTest(moduleNode).getClasses())
+                .extracting(c -> c.getNameWithoutPackage())
+                .contains("Current");
+    }
+
+    @UnitTest
+    void parseSource_shouldWaitForPermitOfItsOwnPermits() {
+        // given
+        CompilationPermits permits = new CompilationPermits(1);
+        ASTServiceImpl limited = new ASTServiceImpl(new SharedClassNodeResolver(), permits);
+        String sourceCode = "class Limited { String name }";
+        permits.acquire(CancellationToken.NONE);
+
+        // when / then - the held permit keeps the parse waiting until it is cancelled
+        assertThatThrownBy(() -> limited.parseSource(sourceCode, "Limited.groovy", () -> true))
+                .isInstanceOf(CancellationException.class);
+        assertThat(astService.parseSource(sourceCode, "Limited.groovy", CancellationToken.NONE))
+                .isNotNull();
+        permits.release();
+        assertThat(limited.parseSource(sourceCode, "Limited.groovy", () -> false)).isNotNull();
+    }
 }
@@ -0,0 +1,106 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groovy.lsp.groovy.core.api.AnalysisTier;
+import com.groovy.lsp.groovy.core.api.AnalysisTierService.Thresholds;
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * AnalysisTierServiceImplのテストクラス。
+ */
+class AnalysisTierServiceImplTest {
+
+    private static final String URI = "file:///Generated.groovy";
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private AnalysisTierServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AnalysisTierServiceImpl(new Thresholds(100, 1_000, 50), nanos::get);
+    }
+
+    @UnitTest
+    void getTier_shouldLowerTierWithDocumentLength() {
+        // when/then
+        assertThat(service.getTier(URI, 100)).isEqualTo(AnalysisTier.FULL);
+        assertThat(service.getTier(URI, 101)).isEqualTo(AnalysisTier.SYNTAX_ONLY);
+        assertThat(service.getTier(URI, 1_001)).isEqualTo(AnalysisTier.DISABLED);
+    }
+
+    @UnitTest
+    void recordCompileTime_shouldDemoteAfterConsecutiveSlowCompilesUntilForgotten() {
+        // given
+        service.recordCompileTime(URI, 51);
+        service.recordCompileTime(URI, 51);
+        AnalysisTier afterTwoSlowCompiles = service.getTier(URI, 10);
+
+        // when
+        service.recordCompileTime(URI, 51);
+
+        // then
+        assertThat(afterTwoSlowCompiles).isEqualTo(AnalysisTier.FULL);
+        assertThat(service.getTier(URI, 10)).isEqualTo(AnalysisTier.SYNTAX_ONLY);
+        assertThat(service.getTier("file:///Other.groovy", 10)).isEqualTo(AnalysisTier.FULL);
+        service.forget(URI);
+        assertThat(service.getTier(URI, 10)).isEqualTo(AnalysisTier.FULL);
+    }
+
+    @UnitTest
+    void recordCompileTime_shouldNotDemoteForInterruptedSlowCompiles() {
+        // when
+        service.recordCompileTime(URI, 51);
+        service.recordCompileTime(URI, 51);
+        service.recordCompileTime(URI, 10);
+        service.recordCompileTime(URI, 51);
+        service.recordCompileTime(URI, 51);
+
+        // then
+        assertThat(service.getTier(URI, 10)).isEqualTo(AnalysisTier.FULL);
+    }
+
+    @UnitTest
+    void recordCompileTime_shouldPromoteBackAfterFastRetry() {
+        // given
+        for (int i = 0; i < AnalysisTierServiceImpl.SLOW_COMPILES_TO_DEMOTE; i++) {
+            service.recordCompileTime(URI, 51);
+        }
+        nanos.addAndGet(
+                TimeUnit.MILLISECONDS.toNanos(AnalysisTierServiceImpl.RETRY_INTERVAL_MILLIS));
+        AnalysisTier atRetry = service.getTier(URI, 10);
+
+        // when
+        service.recordCompileTime(URI, 51);
+        AnalysisTier afterSlowRetry = service.getTier(URI, 10);
+        nanos.addAndGet(
+                TimeUnit.MILLISECONDS.toNanos(AnalysisTierServiceImpl.RETRY_INTERVAL_MILLIS));
+        service.recordCompileTime(URI, 10);
+
+        // then
+        assertThat(atRetry).isEqualTo(AnalysisTier.FULL);
+        assertThat(afterSlowRetry).isEqualTo(AnalysisTier.SYNTAX_ONLY);
+        assertThat(service.getTier(URI, 10)).isEqualTo(AnalysisTier.FULL);
+    }
+
+    @UnitTest
+    void setOverride_shouldTakePrecedenceAndSurviveForget() {
+        // given
+        service.setOverride(URI, AnalysisTier.DISABLED);
+        service.setOverride("file:///Large.groovy", AnalysisTier.FULL);
+
+        // when
+        service.forget(URI);
+
+        // then
+        assertThat(service.getTier(URI, 10)).isEqualTo(AnalysisTier.DISABLED);
+        assertThat(service.getTier("file:///Large.groovy", 5_000)).isEqualTo(AnalysisTier.FULL);
+        service.setOverride(URI, null);
+        assertThat(service.getOverride(URI)).isNull();
+        assertThat(service.getTier(URI, 10)).isEqualTo(AnalysisTier.FULL);
+    }
+}
@@ -0,0 +1,153 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groovy.lsp.groovy.core.api.CompilationContext;
+import com.groovy.lsp.groovy.core.api.CompilationResult;
+import com.groovy.lsp.groovy.core.api.IncrementalCompilationService.CompilationPhase;
+import com.groovy.lsp.groovy.core.api.ProjectClasspathProvider;
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * CompilationContextServiceImplのテストクラス。
+ */
+class CompilationContextServiceImplTest {
+
+    private CountingClasspathProvider classpathProvider;
+    private SharedClassNodeResolver classNodeResolver;
+    private CompilationContextServiceImpl contextService;
+
+    @BeforeEach
+    void setUp() {
+        classpathProvider = new CountingClasspathProvider(List.of(Paths.get("lib", "a.jar")));
+        classNodeResolver = new SharedClassNodeResolver();
+        contextService = new CompilationContextServiceImpl(classpathProvider, classNodeResolver);
+    }
+
+    @UnitTest
+    void getContext_shouldBuildContextOnceUntilInvalidated() {
+        // when
+        CompilationContext first = contextService.getContext();
+        CompilationContext second = contextService.getContext();
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(first.getClasspath()).containsExactly(Paths.get("lib", "a.jar"));
+        assertThat(first.getClassLoader()).isSameAs(classpathProvider.classLoader);
+        assertThat(first.getConfiguration().getClasspath()).isEmpty();
+        assertThat(classpathProvider.resolveCount.get()).isEqualTo(1);
+    }
+
+    @UnitTest
+    void invalidate_shouldRebuildContextOnNextUse() {
+        // given
+        CompilationContext first = contextService.getContext();
+
+        // when
+        contextService.invalidate();
+        CompilationContext rebuilt = contextService.getContext();
+
+        // then
+        assertThat(rebuilt).isNotSameAs(first);
+        assertThat(rebuilt.getGeneration()).isEqualTo(first.getGeneration() + 1);
+        assertThat(classpathProvider.resolveCount.get()).isEqualTo(2);
+        assertThat(classpathProvider.invalidateCount.get()).isEqualTo(1);
+    }
+
+    @UnitTest
+    void invalidate_shouldBeNoOpWhenContextWasNeverBuilt() {
+        // when
+        contextService.invalidate();
+
+        // then
+        assertThat(classpathProvider.invalidateCount.get()).isZero();
+    }
+
+    @UnitTest
+    void getContext_shouldFallBackToEmptyClasspathWhenResolutionFails() {
+        // given
+        ProjectClasspathProvider failing =
+                new CountingClasspathProvider(List.of()) {
+                    @Override
+                    public List<Path> resolveClasspath() {
+                        throw new IllegalStateException("Gradle daemon unavailable");
+                    }
+                };
+        CompilationContextServiceImpl service =
+                new CompilationContextServiceImpl(failing, classNodeResolver);
+
+        // when
+        CompilationContext context = service.getContext();
+
+        // then
+        assertThat(context.getClasspath()).isEmpty();
+    }
+
+    @UnitTest
+    void isBuildFile_shouldRecognizeGradleAndMavenBuildFiles() {
+        assertThat(contextService.isBuildFile(Paths.get("project", "build.gradle"))).isTrue();
+        assertThat(contextService.isBuildFile(Paths.get("project", "settings.gradle.kts")))
+                .isTrue();
+        assertThat(contextService.isBuildFile(Paths.get("project", "pom.xml"))).isTrue();
+        assertThat(contextService.isBuildFile(Paths.get("project", "src", "Main.groovy")))
+                .isFalse();
+    }
+
+    @UnitTest
+    void createCompilationUnit_shouldCompileAgainstSharedClassLoader() {
+        // given
+        IncrementalCompilationServiceImpl compilationService =
+                new IncrementalCompilationServiceImpl(classNodeResolver);
+        CompilationContext context = contextService.getContext();
+
+        // when
+        CompilationUnit unit = compilationService.createCompilationUnit(context);
+        CompilationResult result =
+                compilationService.compileToPhaseWithResult(
+                        unit,
+                        "import org.slf4j.Logger\nclass Holder { Logger logger }",
+                        "Holder.groovy",
+                        CompilationPhase.SEMANTIC_ANALYSIS);
+
+        // then
+        assertThat(unit.getConfiguration()).isSameAs(context.getConfiguration());
+        assertThat(unit.getClassLoader().getParent()).isSameAs(context.getClassLoader());
+        assertThat(result.isSuccessful()).isTrue();
+    }
+
+    private static class CountingClasspathProvider implements ProjectClasspathProvider {
+        final AtomicInteger resolveCount = new AtomicInteger();
+        final AtomicInteger invalidateCount = new AtomicInteger();
+        final ClassLoader classLoader =
+                new URLClassLoader(new URL[0], CountingClasspathProvider.class.getClassLoader());
+        private final List<Path> classpath;
+
+        CountingClasspathProvider(List<Path> classpath) {
+            this.classpath = classpath;
+        }
+
+        @Override
+        public List<Path> resolveClasspath() {
+            resolveCount.incrementAndGet();
+            return classpath;
+        }
+
+        @Override
+        public ClassLoader getClassLoader(List<Path> classpath) {
+            return classLoader;
+        }
+
+        @Override
+        public void invalidate() {
+            invalidateCount.incrementAndGet();
+        }
+    }
+}
@@ -1,19 +1,24 @@
 package com.groovy.lsp.groovy.core.internal.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.fail;
 
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.groovy.core.api.CompilationResult;
 import com.groovy.lsp.groovy.core.api.IncrementalCompilationService.CompilationPhase;
 import com.groovy.lsp.groovy.core.api.IncrementalCompilationService.DependencyType;
+import com.groovy.lsp.groovy.core.api.ModuleOutline;
 import com.groovy.lsp.test.annotations.UnitTest;
 import java.lang.ref.WeakReference;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -22,13 +27,16 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.MethodNode;
 import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
 import org.codehaus.groovy.control.CompilationUnit;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.SourceUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -224,6 +232,221 @@ class IncrementalCompilationServiceImplTest {
 
             assertThat(newA).isNotNull();
         }
+
+        @UnitTest
+        @DisplayName("Should compact closed sources into declaration skeletons")
+        void shouldCompactClosedSources() {
+            String sourceCode =
+                    """
+                    class Invoice {
+                        static final int LIMIT = 10
+                        List<String> lines = new ArrayList<>()
+
+                        int total(int tax) {
+                            def sum = lines.size() * tax
+                            return sum + LIMIT
+                        }
+                    }
+                    """;
+            CompilationUnit unit = service.createCompilationUnit(config);
+            service.setSourceOpen("Open.groovy", true);
+            ModuleNode open =
+                    service.compileToPhase(
+                            unit, sourceCode, "Open.groovy", CompilationPhase.SEMANTIC_ANALYSIS);
+            ModuleNode closed =
+                    service.compileToPhase(
+                            unit, sourceCode, "Closed.groovy", CompilationPhase.SEMANTIC_ANALYSIS);
+
+            int compacted = service.compactClosedSources();
+
+            assertThat(compacted).isEqualTo(1);
+            assertThat(DeclarationSkeleton.isSkeleton(Objects.requireNonNull(open))).isFalse();
+            ModuleNode skeleton =
+                    Objects.requireNonNull(service.getCachedDeclarations("Closed.groovy"));
+            assertThat(skeleton).isNotSameAs(closed);
+            ClassNode invoice = skeleton.getClasses().get(0);
+            MethodNode total = invoice.getMethods("total").get(0);
+            assertThat(total.getParameters()).hasSize(1);
+            assertThat(total.getLineNumber()).isEqualTo(5);
+            assertThat(((BlockStatement) total.getCode()).getStatements()).isEmpty();
+            assertThat(invoice.getField("LIMIT").getInitialExpression()).isNotNull();
+            assertThat(invoice.getField("lines").getInitialExpression()).isNull();
+            // The module handed out before compaction is left intact
+            MethodNode original =
+                    Objects.requireNonNull(closed).getClasses().get(0).getMethods("total").get(0);
+            assertThat(((BlockStatement) original.getCode()).getStatements()).isNotEmpty();
+        }
+
+        @UnitTest
+        @DisplayName("Should compact sources that are not open on the compaction executor")
+        void shouldCompactSourcesThatAreNotOpenInBackground() {
+            String sourceCode = "class Ledger { int total() { return 1 + 2 } }";
+            CompilationUnit unit = service.createCompilationUnit(config);
+            service.setCompactionExecutor(Runnable::run);
+
+            ModuleNode compiled =
+                    service.compileToPhase(
+                            unit, sourceCode, "Ledger.groovy", CompilationPhase.SEMANTIC_ANALYSIS);
+
+            ModuleNode cached =
+                    Objects.requireNonNull(service.getCachedDeclarations("Ledger.groovy"));
+            assertThat(DeclarationSkeleton.isSkeleton(cached)).isTrue();
+            assertThat(DeclarationSkeleton.isSkeleton(Objects.requireNonNull(compiled))).isFalse();
+        }
+
+        @UnitTest
+        @DisplayName("Should rehydrate compacted modules on demand")
+        void shouldRehydrateCompactedModules() {
+            String sourceCode = "class Greeter { String greet() { 'hello' } }";
+            CompilationUnit unit = service.createCompilationUnit(config);
+            service.setSourceOpen("Greeter.groovy", true);
+            service.compileToPhase(
+                    unit, sourceCode, "Greeter.groovy", CompilationPhase.SEMANTIC_ANALYSIS);
+            service.setSourceOpen("Greeter.groovy", false);
+            service.compactClosedSources();
+
+            ModuleNode rehydrated = service.getCachedModule("Greeter.groovy");
+            ModuleNode recompiled =
+                    service.compileToPhase(
+                            unit, sourceCode, "Greeter.groovy", CompilationPhase.SEMANTIC_ANALYSIS);
+
+            assertThat(rehydrated).isNotNull();
+            assertThat(DeclarationSkeleton.isSkeleton(Objects.requireNonNull(rehydrated)))
+                    .isFalse();
+            MethodNode greet = rehydrated.getClasses().get(0).getMethods("greet").get(0);
+            assertThat(((BlockStatement) greet.getCode()).getStatements()).isNotEmpty();
+            assertThat(recompiled).isSameAs(rehydrated);
+        }
+
+        @UnitTest
+        @DisplayName("Should keep rehydrated modules until the source is closed again")
+        void shouldKeepRehydratedModulesUntilClosedAgain() {
+            String sourceCode = "class Greeter { String greet() { 'hello' } }";
+            CompilationUnit unit = service.createCompilationUnit(config);
+            service.compileToPhase(
+                    unit, sourceCode, "Greeter.groovy", CompilationPhase.SEMANTIC_ANALYSIS);
+            service.compactClosedSources();
+            ModuleNode rehydrated = service.getCachedModule("Greeter.groovy");
+
+            int compactedWhileRehydrated = service.compactClosedSources();
+            ModuleNode cachedAgain = service.getCachedModule("Greeter.groovy");
+            service.setSourceOpen("Greeter.groovy", false);
+            int compactedAfterClose = service.compactClosedSources();
+
+            assertThat(compactedWhileRehydrated).isZero();
+            assertThat(cachedAgain).isNotNull().isSameAs(rehydrated);
+            assertThat(compactedAfterClose).isEqualTo(1);
+            assertThat(
+                            DeclarationSkeleton.isSkeleton(
+                                    Objects.requireNonNull(
+                                            service.getCachedDeclarations("Greeter.groovy"))))
+                    .isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Cooperative cancellation")
+    class CooperativeCancellation {
+
+        private static final String SOURCE =
+                """
+                class First {
+                    String name
+                    void greet() { println name }
+                }
+                class Second {
+                    int count
+                }
+                """;
+
+        @UnitTest
+        @DisplayName("Should abandon compilation when token is already cancelled")
+        void shouldAbandonWhenAlreadyCancelled() {
+            CompilationUnit unit = service.createCompilationUnit(config);
+
+            assertThatThrownBy(
+                            () ->
+                                    service.compileToPhase(
+                                            unit,
+                                            SOURCE,
+                                            "Cancelled.groovy",
+                                            CompilationPhase.SEMANTIC_ANALYSIS,
+                                            () -> true))
+                    .isInstanceOf(CancellationException.class);
+        }
+
+        @UnitTest
+        @DisplayName("Should abandon compilation when cancellation is requested mid-compile")
+        void shouldAbandonWhenCancelledMidCompile() {
+            CompilationUnit unit = service.createCompilationUnit(config);
+            AtomicInteger polls = new AtomicInteger();
+            // Allow the first few checks to pass, then report the document as stale
+            CancellationToken token = () -> polls.incrementAndGet() > 3;
+
+            assertThatThrownBy(
+                            () ->
+                                    service.compileToPhaseWithResult(
+                                            unit,
+                                            SOURCE,
+                                            "Stale.groovy",
+                                            CompilationPhase.SEMANTIC_ANALYSIS,
+                                            token))
+                    .isInstanceOf(CancellationException.class);
+            assertThat(polls.get()).isGreaterThan(3);
+
+            // Nothing from the abandoned compile should have been cached
+            CompilationResult result =
+                    service.compileToPhaseWithResult(
+                            unit, SOURCE, "Stale.groovy", CompilationPhase.SEMANTIC_ANALYSIS);
+            assertThat(result.isSuccessful()).isTrue();
+            assertThat(result.getModuleNode()).isNotNull();
+        }
+
+        @UnitTest
+        @DisplayName("Should poll the token while compiling and finish when not cancelled")
+        void shouldPollTokenAndFinish() {
+            CompilationUnit unit = service.createCompilationUnit(config);
+            AtomicInteger polls = new AtomicInteger();
+            CancellationToken token =
+                    () -> {
+                        polls.incrementAndGet();
+                        return false;
+                    };
+
+            ModuleNode moduleNode =
+                    service.compileToPhase(
+                            unit,
+                            SOURCE,
+                            "Current.groovy",
+                            CompilationPhase.SEMANTIC_ANALYSIS,
+                            token);
+
+            assertThat(moduleNode).isNotNull();
+            assertThat(Objects.requireNonNull(moduleNode).getClasses()).hasSize(2);
+            // Checked before starting, after every phase and once per class node
+            assertThat(polls.get()).isGreaterThan(4);
+        }
+
+        @UnitTest
+        @DisplayName("Should return cached result without compiling even for a live token")
+        void shouldReturnCachedResult() {
+            CompilationUnit unit = service.createCompilationUnit(config);
+            ModuleNode first =
+                    service.compileToPhase(
+                            unit, SOURCE, "Cached.groovy", CompilationPhase.SEMANTIC_ANALYSIS);
+            AtomicInteger polls = new AtomicInteger();
+
+            ModuleNode second =
+                    service.compileToPhase(
+                            unit,
+                            SOURCE,
+                            "Cached.groovy",
+                            CompilationPhase.SEMANTIC_ANALYSIS,
+                            () -> polls.incrementAndGet() < 0);
+
+            assertThat(second).isSameAs(first);
+            assertThat(polls.get()).isZero();
+        }
     }
 
     @Nested
@@ -404,6 +627,61 @@ class IncrementalCompilationServiceImplTest {
             assertThat(affected).isNotNull();
             assertThat(affected).contains("B.groovy");
         }
+
+        @UnitTest
+        @DisplayName("Should detect affected modules from stored outlines before compiling")
+        void shouldDetectAffectedModulesFromStoredOutlines(@TempDir Path tempDir) {
+            // Outlines stored by a previous session
+            ModuleOutlineCacheImpl previousSession =
+                    new ModuleOutlineCacheImpl(tempDir, new ASTServiceImpl());
+            previousSession.getOrParse("B.groovy", "class B { A myA }");
+            previousSession.getOrParse("C.groovy", "class C { B myB }");
+
+            // Fresh service, nothing compiled yet
+            IncrementalCompilationServiceImpl restarted = new IncrementalCompilationServiceImpl();
+            restarted.setOutlineCache(new ModuleOutlineCacheImpl(tempDir, new ASTServiceImpl()));
+
+            List<String> affected = restarted.getAffectedModules("A.groovy", new HashMap<>());
+
+            assertThat(affected).containsExactlyInAnyOrder("B.groovy", "C.groovy");
+        }
+
+        @UnitTest
+        @DisplayName("Should store the outline of successful compilations")
+        void shouldStoreOutlineOfSuccessfulCompilations(@TempDir Path tempDir) {
+            ModuleOutlineCacheImpl outlineCache =
+                    new ModuleOutlineCacheImpl(tempDir, new ASTServiceImpl());
+            service.setOutlineCache(outlineCache);
+
+            service.compileToPhase(
+                    service.createCompilationUnit(config),
+                    "class Stored { String name }",
+                    "Stored.groovy",
+                    CompilationPhase.SEMANTIC_ANALYSIS);
+
+            ModuleOutline outline = outlineCache.getLatest("Stored.groovy");
+            assertThat(outline).isNotNull();
+            assertThat(Objects.requireNonNull(outline).getDependencies())
+                    .contains("java.lang.String");
+        }
+
+        @UnitTest
+        @DisplayName("Should remove the stored outline when a source is cleared")
+        void shouldRemoveStoredOutlineWhenSourceIsCleared(@TempDir Path tempDir) {
+            ModuleOutlineCacheImpl outlineCache =
+                    new ModuleOutlineCacheImpl(tempDir, new ASTServiceImpl());
+            service.setOutlineCache(outlineCache);
+            service.compileToPhase(
+                    service.createCompilationUnit(config),
+                    "class Deleted {}",
+                    "Deleted.groovy",
+                    CompilationPhase.SEMANTIC_ANALYSIS);
+
+            service.clearCache("Deleted.groovy");
+
+            assertThat(outlineCache.getLatest("Deleted.groovy")).isNull();
+            assertThat(outlineCache.getAll()).isEmpty();
+        }
     }
 
     @Nested
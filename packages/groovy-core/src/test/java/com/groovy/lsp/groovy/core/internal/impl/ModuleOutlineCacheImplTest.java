@@ -0,0 +1,168 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groovy.lsp.groovy.core.api.ModuleOutline;
+import com.groovy.lsp.groovy.core.api.OutlineElement;
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ModuleOutlineCacheImplのテストクラス。
+ */
+class ModuleOutlineCacheImplTest {
+
+    private static final String SOURCE =
+            """
+            package sample
+
+            import java.time.LocalDate
+            import java.util.concurrent.*
+
+            class Invoice extends Document implements Comparable<Invoice> {
+                LocalDate due
+
+                BigDecimal total(List<Line> lines) {
+                    lines.sum { it.amount }
+                }
+            }
+            """;
+
+    @UnitTest
+    void getOrParse_shouldPersistOutlineAcrossInstances(@TempDir Path tempDir) {
+        // given
+        new ModuleOutlineCacheImpl(tempDir, new ASTServiceImpl())
+                .getOrParse("Invoice.groovy", SOURCE);
+
+        // when - a new instance simulates a restart
+        ModuleOutlineCacheImpl restarted =
+                new ModuleOutlineCacheImpl(tempDir, new ASTServiceImpl());
+        ModuleOutline outline = restarted.get("Invoice.groovy", SOURCE);
+
+        // then
+        assertThat(outline).isNotNull();
+        ModuleOutline loaded = Objects.requireNonNull(outline);
+        assertThat(loaded.getPackageName()).isEqualTo("sample");
+        assertThat(loaded.getImports())
+                .containsExactly("java.time.LocalDate", "java.util.concurrent.*");
+        assertThat(loaded.getDependencies())
+                .contains("java.time.LocalDate", "Document", "Comparable", "BigDecimal");
+        OutlineElement invoice = loaded.getElements().get(0);
+        assertThat(invoice.getName()).isEqualTo("Invoice");
+        assertThat(invoice.getSupertypes()).containsExactly("Document", "Comparable");
+        assertThat(invoice.getChildren())
+                .extracting(OutlineElement::getName)
+                .containsExactly("due", "total");
+        assertThat(invoice.getChildren().get(1).getDetail()).isEqualTo("(List lines): BigDecimal");
+    }
+
+    @UnitTest
+    void get_shouldIgnoreOutlineOfOtherContent(@TempDir Path tempDir) throws IOException {
+        // given
+        ModuleOutlineCacheImpl cache = new ModuleOutlineCacheImpl(tempDir, new ASTServiceImpl());
+        cache.getOrParse("Invoice.groovy", SOURCE);
+        String changed = SOURCE.replace("LocalDate due", "LocalDate due\n    String note");
+
+        // when
+        ModuleOutline stale = cache.get("Invoice.groovy", changed);
+        ModuleOutline updated = cache.getOrParse("Invoice.groovy", changed);
+
+        // then - only the latest outline of a source is kept
+        assertThat(stale).isNull();
+        assertThat(updated).isNotNull();
+        assertThat(cache.getLatest("Invoice.groovy")).isSameAs(updated);
+        assertThat(outlineFiles(tempDir)).isEqualTo(1);
+    }
+
+    @UnitTest
+    void getAll_shouldDiscardUnreadableFiles(@TempDir Path tempDir) throws IOException {
+        // given
+        new ModuleOutlineCacheImpl(tempDir, new ASTServiceImpl())
+                .getOrParse("Invoice.groovy", SOURCE);
+        Files.writeString(tempDir.resolve("0000-broken.outline"), "not an outline");
+
+        // when
+        ModuleOutlineCacheImpl restarted =
+                new ModuleOutlineCacheImpl(tempDir, new ASTServiceImpl());
+
+        // then
+        assertThat(restarted.getAll())
+                .extracting(ModuleOutline::getSourceName)
+                .containsExactly("Invoice.groovy");
+        assertThat(outlineFiles(tempDir)).isEqualTo(1);
+    }
+
+    @UnitTest
+    void getAll_shouldDiscardOutlinesOfDeletedSources(@TempDir Path tempDir) throws IOException {
+        // given
+        Path kept = Files.writeString(tempDir.resolve("Kept.groovy"), "class Kept {}");
+        Path deleted = Files.writeString(tempDir.resolve("Deleted.groovy"), "class Deleted {}");
+        Path cacheDir = tempDir.resolve("cache");
+        ModuleOutlineCacheImpl cache = new ModuleOutlineCacheImpl(cacheDir, new ASTServiceImpl());
+        cache.getOrParse(kept.toUri().toString(), "class Kept {}");
+        cache.getOrParse(deleted.toString(), "class Deleted {}");
+        Files.delete(deleted);
+
+        // when - the source was deleted while the server was not running
+        ModuleOutlineCacheImpl restarted =
+                new ModuleOutlineCacheImpl(cacheDir, new ASTServiceImpl());
+
+        // then
+        assertThat(restarted.getAll())
+                .extracting(ModuleOutline::getSourceName)
+                .containsExactly(kept.toUri().toString());
+        assertThat(outlineFiles(cacheDir)).isEqualTo(1);
+    }
+
+    @UnitTest
+    void put_shouldWriteOnlyLatestOutlineOnWriteExecutor(@TempDir Path tempDir) throws IOException {
+        // given
+        List<Runnable> writes = new ArrayList<>();
+        ModuleOutlineCacheImpl cache =
+                new ModuleOutlineCacheImpl(tempDir, new ASTServiceImpl(), writes::add);
+        String changed = SOURCE.replace("LocalDate due", "LocalDate due\n    String note");
+
+        // when - two edits before the writer runs
+        cache.getOrParse("Invoice.groovy", SOURCE);
+        ModuleOutline latest = cache.getOrParse("Invoice.groovy", changed);
+        long filesBeforeWrite = outlineFiles(tempDir);
+        writes.forEach(Runnable::run);
+
+        // then
+        assertThat(filesBeforeWrite).isZero();
+        assertThat(writes).hasSize(1);
+        ModuleOutlineCacheImpl restarted =
+                new ModuleOutlineCacheImpl(tempDir, new ASTServiceImpl());
+        assertThat(restarted.get("Invoice.groovy", changed)).isNotNull();
+        assertThat(Objects.requireNonNull(latest).getContentHash())
+                .isEqualTo(ModuleOutlineCacheImpl.contentHash(changed));
+        assertThat(outlineFiles(tempDir)).isEqualTo(1);
+    }
+
+    @UnitTest
+    void remove_shouldDeleteStoredOutline(@TempDir Path tempDir) throws IOException {
+        // given
+        ModuleOutlineCacheImpl cache = new ModuleOutlineCacheImpl(tempDir, new ASTServiceImpl());
+        cache.getOrParse("Invoice.groovy", SOURCE);
+
+        // when
+        cache.remove("Invoice.groovy");
+
+        // then
+        assertThat(cache.getLatest("Invoice.groovy")).isNull();
+        assertThat(outlineFiles(tempDir)).isZero();
+    }
+
+    private static long outlineFiles(Path tempDir) throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(file -> file.toString().endsWith(".outline")).count();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.Objects;
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.expr.ConstructorCallExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * NodePositionIndexのテストクラス。
+ */
+class NodePositionIndexTest {
+
+    private static final String SOURCE =
+            """
+            class Greeter {
+                String name = "world"
+
+                Greeter() {
+                    name = "ctor"
+                }
+
+                void greet() {
+                    println name
+                    [1, 2].each { item ->
+                        println item
+                    }
+                }
+            }
+            """;
+
+    private ASTServiceImpl astService;
+    private ModuleNode moduleNode;
+
+    @BeforeEach
+    void setUp() {
+        astService = new ASTServiceImpl();
+        moduleNode = Objects.requireNonNull(astService.parseSource(SOURCE, "Greeter.groovy"));
+    }
+
+    @UnitTest
+    void findNodeAt_shouldReturnInnermostNode() {
+        // when - "name" in "println name"
+        ASTNode node = NodePositionIndex.build(moduleNode).findNodeAt(9, 17);
+
+        // then
+        assertThat(node).isInstanceOf(VariableExpression.class);
+        assertThat(((VariableExpression) Objects.requireNonNull(node)).getName()).isEqualTo("name");
+    }
+
+    @UnitTest
+    void findNodeAt_shouldFindConstantInConstructor() {
+        // when - the "ctor" literal
+        ASTNode node = NodePositionIndex.build(moduleNode).findNodeAt(5, 17);
+
+        // then
+        assertThat(node).isInstanceOf(ConstantExpression.class);
+        assertThat(((ConstantExpression) Objects.requireNonNull(node)).getText()).isEqualTo("ctor");
+    }
+
+    @UnitTest
+    void findNodeAt_shouldFindNodesInsideClosure() {
+        // when - "println" and "item" inside the closure
+        NodePositionIndex index = NodePositionIndex.build(moduleNode);
+        ASTNode methodName = index.findNodeAt(11, 13);
+        ASTNode argument = index.findNodeAt(11, 21);
+
+        // then
+        assertThat(methodName).isInstanceOf(ConstantExpression.class);
+        assertThat(argument).isInstanceOf(VariableExpression.class);
+        assertThat(((VariableExpression) Objects.requireNonNull(argument)).getName())
+                .isEqualTo("item");
+    }
+
+    @UnitTest
+    void findNodeAt_shouldReturnNullOutsideOfAnyNode() {
+        // when
+        NodePositionIndex index = NodePositionIndex.build(moduleNode);
+
+        // then
+        assertThat(index.findNodeAt(3, 1)).isNull();
+        assertThat(index.findNodeAt(500, 1)).isNull();
+        assertThat(index.findNodeAt(0, 0)).isNull();
+    }
+
+    @UnitTest
+    void findEnclosingScope_shouldReturnMethod() {
+        // when
+        ASTNode scope = NodePositionIndex.build(moduleNode).findEnclosingScope(9, 17);
+
+        // then
+        assertThat(scope).isInstanceOf(MethodNode.class);
+        assertThat(((MethodNode) Objects.requireNonNull(scope)).getName()).isEqualTo("greet");
+    }
+
+    @UnitTest
+    void findEnclosingScope_shouldReturnClosure() {
+        // when
+        ASTNode scope = NodePositionIndex.build(moduleNode).findEnclosingScope(11, 21);
+
+        // then
+        assertThat(scope).isInstanceOf(ClosureExpression.class);
+    }
+
+    @UnitTest
+    void findEnclosingScope_shouldReturnConstructor() {
+        // when
+        ASTNode scope = NodePositionIndex.build(moduleNode).findEnclosingScope(5, 9);
+
+        // then
+        assertThat(scope).isInstanceOf(MethodNode.class);
+        assertThat(((MethodNode) Objects.requireNonNull(scope)).getName()).isEqualTo("<init>");
+    }
+
+    @UnitTest
+    void findEnclosingScope_shouldReturnClassForFieldPosition() {
+        // when
+        ASTNode scope = NodePositionIndex.build(moduleNode).findEnclosingScope(2, 20);
+
+        // then
+        assertThat(scope).isInstanceOf(ClassNode.class);
+        assertThat(((ClassNode) Objects.requireNonNull(scope)).getName()).isEqualTo("Greeter");
+    }
+
+    @UnitTest
+    void findEnclosingCall_shouldReturnInnermostCall() {
+        // given
+        ModuleNode script =
+                Objects.requireNonNull(
+                        astService.parseSource(
+                                "def text = 'abc'\nprintln(text.substring(1, 2))\nnew Date(0)\n",
+                                "Calls.groovy"));
+        NodePositionIndex index = NodePositionIndex.build(script);
+
+        // when - inside the arguments of substring, of println, and of the constructor
+        Expression inner = index.findEnclosingCall(2, 25);
+        Expression outer = index.findEnclosingCall(2, 8);
+        Expression constructor = index.findEnclosingCall(3, 10);
+
+        // then
+        assertThat(inner).isInstanceOf(MethodCallExpression.class);
+        assertThat(((MethodCallExpression) Objects.requireNonNull(inner)).getMethodAsString())
+                .isEqualTo("substring");
+        assertThat(((MethodCallExpression) Objects.requireNonNull(outer)).getMethodAsString())
+                .isEqualTo("println");
+        assertThat(constructor).isInstanceOf(ConstructorCallExpression.class);
+        assertThat(index.findEnclosingCall(1, 5)).isNull();
+    }
+
+    @UnitTest
+    void positionIndex_shouldBeBuiltOncePerModule() {
+        // when
+        NodePositionIndex first = astService.positionIndex(moduleNode);
+        NodePositionIndex second = astService.positionIndex(moduleNode);
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(first.size()).isPositive();
+    }
+
+    @UnitTest
+    void findNodeAt_shouldIndexScriptStatementsOnce() {
+        // given
+        ModuleNode script =
+                Objects.requireNonNull(
+                        astService.parseSource("def x = 1\nprintln x\n", "Script.groovy"));
+
+        // when
+        ASTNode node = astService.findNodeAtPosition(script, 2, 9);
+
+        // then
+        assertThat(node).isInstanceOf(VariableExpression.class);
+    }
+}
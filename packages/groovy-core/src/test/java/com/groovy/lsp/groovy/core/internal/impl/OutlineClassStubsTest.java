@@ -0,0 +1,224 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * OutlineClassStubsのテストクラス。
+ */
+class OutlineClassStubsTest {
+
+    private static final String CUSTOMER =
+            """
+            package billing
+
+            import java.time.LocalDate
+
+            class Customer extends Party implements Comparable<Customer> {
+                String name
+                LocalDate since
+                Address address
+
+                Customer(String name) {
+                    this.name = name
+                }
+
+                BigDecimal balance(List<Invoice> invoices, int year) {
+                    invoices.sum { it.total }
+                }
+
+                int compareTo(Customer other) { name <=> other.name }
+            }
+            """;
+    private static final String PARTY =
+            """
+            package billing
+
+            abstract class Party {
+                String id
+            }
+            """;
+    private static final String ADDRESS =
+            """
+            package billing
+
+            class Address {
+                Customer owner
+            }
+            """;
+
+    private ModuleOutlineCacheImpl outlineCache;
+    private ASTServiceImpl astService;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        SharedClassNodeResolver classNodeResolver = new SharedClassNodeResolver();
+        astService = new ASTServiceImpl(classNodeResolver);
+        outlineCache = new ModuleOutlineCacheImpl(tempDir, new ASTServiceImpl());
+        classNodeResolver.setWorkspaceStubs(new OutlineClassStubs(outlineCache)::find);
+    }
+
+    @UnitTest
+    void find_shouldResolveWorkspaceClassesWithoutTheirSources() {
+        // given
+        outlineCache.getOrParse("Customer.groovy", CUSTOMER);
+        outlineCache.getOrParse("Party.groovy", PARTY);
+        outlineCache.getOrParse("Address.groovy", ADDRESS);
+
+        // when
+        ClassNode customer = customerOf("package billing\nclass Order { Customer customer }\n");
+
+        // then
+        assertThat(OutlineClassStubs.isStub(customer)).isTrue();
+        assertThat(customer.getName()).isEqualTo("billing.Customer");
+        assertThat(customer.getSuperClass().getName()).isEqualTo("billing.Party");
+        assertThat(customer.getSuperClass().getProperty("id")).isNotNull();
+        assertThat(customer.getInterfaces())
+                .extracting(ClassNode::getName)
+                .containsExactly("java.lang.Comparable");
+        assertThat(customer.getProperty("name").getType().getName()).isEqualTo("java.lang.String");
+        assertThat(customer.getProperty("since").getType().getName())
+                .isEqualTo("java.time.LocalDate");
+        assertThat(customer.getDeclaredConstructors()).hasSize(1);
+        assertThat(customer.getLineNumber()).isEqualTo(5);
+    }
+
+    @UnitTest
+    void find_shouldResolveMemberTypesOfStubs() {
+        // given
+        outlineCache.getOrParse("Customer.groovy", CUSTOMER);
+        outlineCache.getOrParse("Address.groovy", ADDRESS);
+
+        // when
+        ClassNode customer = customerOf("package billing\nclass Order { Customer customer }\n");
+
+        // then
+        ClassNode address = customer.getProperty("address").getType();
+        assertThat(OutlineClassStubs.isStub(address)).isTrue();
+        assertThat(address.getProperty("owner").getType()).isSameAs(customer);
+        MethodNode balance = customer.getMethods("balance").get(0);
+        assertThat(balance.getReturnType().getName()).isEqualTo("java.math.BigDecimal");
+        assertThat(balance.getParameters())
+                .extracting(parameter -> parameter.getType().getName())
+                .containsExactly("java.util.List", "int");
+    }
+
+    @UnitTest
+    void find_shouldResolveQualifiedAndGenericParameterTypes() {
+        // given
+        outlineCache.getOrParse(
+                "Ledger.groovy",
+                """
+                package billing
+
+                class Ledger {
+                    void post(Map<String, List<Integer>> entries, java.time.LocalDate day) {}
+                }
+                """);
+
+        // when
+        ModuleNode moduleNode =
+                Objects.requireNonNull(
+                        astService.parseSource(
+                                "package billing\nclass Book { Ledger ledger }\n", "Book.groovy"));
+        ClassNode ledger = moduleNode.getClasses().get(0).getField("ledger").getType().redirect();
+
+        // then
+        assertThat(ledger.getMethods("post").get(0).getParameters())
+                .extracting(parameter -> parameter.getType().getName())
+                .containsExactly("java.util.Map", "java.time.LocalDate");
+    }
+
+    @UnitTest
+    void find_shouldKeepStubsPerClasspath() {
+        // given
+        outlineCache.getOrParse("Address.groovy", ADDRESS);
+        OutlineClassStubs stubs = new OutlineClassStubs(outlineCache);
+        CompilerConfiguration other = new CompilerConfiguration();
+        other.setClasspathList(List.of("other.jar"));
+
+        // when
+        ClassNode first = stubs.find("billing.Address", new CompilationUnit());
+        ClassNode again = stubs.find("billing.Address", new CompilationUnit());
+        ClassNode otherClasspath = stubs.find("billing.Address", new CompilationUnit(other));
+
+        // then
+        assertThat(first).isNotNull();
+        assertThat(again).isSameAs(first);
+        assertThat(otherClasspath).isNotNull().isNotSameAs(first);
+    }
+
+    @UnitTest
+    void find_shouldFollowOutlineChanges() {
+        // given
+        outlineCache.getOrParse("Address.groovy", ADDRESS);
+        ClassNode before = addressOf("class Shipment { Address address }");
+
+        // when
+        outlineCache.getOrParse(
+                "Address.groovy", "package billing\nclass Address { String street }\n");
+        ClassNode after = addressOf("class Parcel { Address address }");
+
+        // then
+        assertThat(before.getProperty("owner")).isNotNull();
+        assertThat(after.getProperty("owner")).isNull();
+        assertThat(after.getProperty("street")).isNotNull();
+    }
+
+    @UnitTest
+    void find_shouldOnlyRebuildStubsAffectedByOutlineChange() {
+        // given
+        outlineCache.getOrParse("Customer.groovy", CUSTOMER);
+        outlineCache.getOrParse("Party.groovy", PARTY);
+        outlineCache.getOrParse("Address.groovy", ADDRESS);
+        OutlineClassStubs stubs = new OutlineClassStubs(outlineCache);
+        CompilationUnit unit = new CompilationUnit();
+        ClassNode party = stubs.find("billing.Party", unit);
+        ClassNode address = stubs.find("billing.Address", unit);
+
+        // when - Customer changes its members, Address refers to Customer
+        outlineCache.getOrParse("Customer.groovy", CUSTOMER.replace("String name\n", ""));
+
+        // then
+        assertThat(stubs.find("billing.Party", unit)).isSameAs(party);
+        ClassNode rebuilt = Objects.requireNonNull(stubs.find("billing.Address", unit));
+        assertThat(rebuilt).isNotSameAs(address);
+        assertThat(rebuilt.getProperty("owner").getType().getProperty("name")).isNull();
+    }
+
+    @UnitTest
+    void find_shouldLeaveUnknownClassesToTheClasspath() {
+        // when
+        ModuleNode moduleNode =
+                astService.parseSource(
+                        "package billing\nclass Order { Customer customer }\n", "Order.groovy");
+
+        // then - unresolved, so the compilation fails as before
+        assertThat(moduleNode).isNull();
+    }
+
+    private ClassNode customerOf(String source) {
+        ModuleNode moduleNode =
+                Objects.requireNonNull(astService.parseSource(source, "Order.groovy"));
+        return moduleNode.getClasses().get(0).getField("customer").getType().redirect();
+    }
+
+    private ClassNode addressOf(String declaration) {
+        ModuleNode moduleNode =
+                Objects.requireNonNull(
+                        astService.parseSource(
+                                "package billing\n" + declaration + "\n", "Shipment.groovy"));
+        return moduleNode.getClasses().get(0).getField("address").getType().redirect();
+    }
+}
@@ -0,0 +1,197 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.groovy.lsp.groovy.core.api.OutlineElement;
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.List;
+import java.util.Objects;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * OutlineExtractorのテストクラス。
+ */
+class OutlineExtractorTest {
+
+    private ASTServiceImpl astService;
+
+    @BeforeEach
+    void setUp() {
+        astService = new ASTServiceImpl();
+    }
+
+    @UnitTest
+    void parseOutline_shouldListTypesAndMembersInSourceOrder() {
+        // given
+        String source =
+                """
+                package sample
+
+                class Account {
+                    private int balance
+                    String owner
+
+                    Account(String owner) {
+                        this.owner = owner
+                    }
+
+                    void deposit(int amount) {
+                        [amount].each { balance += it }
+                    }
+
+                    static class Entry {
+                        long timestamp
+                    }
+                }
+
+                enum Color { RED, GREEN }
+
+                interface Named {}
+
+                trait Greeter {}
+                """;
+
+        // when
+        List<OutlineElement> outline = astService.parseOutline(source, "Account.groovy");
+
+        // then
+        assertThat(outline)
+                .extracting(OutlineElement::getName)
+                .containsExactly("Account", "Color", "Named", "Greeter");
+        assertThat(outline)
+                .extracting(OutlineElement::getKind)
+                .containsExactly(
+                        OutlineElement.Kind.CLASS,
+                        OutlineElement.Kind.ENUM,
+                        OutlineElement.Kind.INTERFACE,
+                        OutlineElement.Kind.TRAIT);
+
+        OutlineElement account = outline.get(0);
+        assertThat(account.getDetail()).isEqualTo("sample");
+        assertThat(account.getStartLine()).isEqualTo(3);
+        assertThat(account.getEndLine()).isEqualTo(18);
+        assertThat(account.getChildren())
+                .extracting(OutlineElement::getName)
+                .containsExactly("balance", "owner", "Account", "deposit", "Entry");
+        assertThat(account.getChildren())
+                .extracting(OutlineElement::getKind)
+                .containsExactly(
+                        OutlineElement.Kind.FIELD,
+                        OutlineElement.Kind.PROPERTY,
+                        OutlineElement.Kind.CONSTRUCTOR,
+                        OutlineElement.Kind.METHOD,
+                        OutlineElement.Kind.CLASS);
+        assertThat(account.getChildren().get(3).getDetail()).isEqualTo("(int amount): void");
+        assertThat(account.getChildren().get(4).getChildren())
+                .extracting(OutlineElement::getName)
+                .containsExactly("timestamp");
+
+        assertThat(outline.get(1).getChildren())
+                .extracting(OutlineElement::getKind)
+                .containsOnly(OutlineElement.Kind.ENUM_CONSTANT);
+    }
+
+    @UnitTest
+    void parseOutline_shouldListScriptMembersAtTopLevel() {
+        // given
+        String source =
+                """
+                def helper(x) { x * 2 }
+
+                println helper(21)
+
+                class Local {}
+                """;
+
+        // when
+        List<OutlineElement> outline = astService.parseOutline(source, "script.groovy");
+
+        // then - the generated run and main methods have no position
+        assertThat(outline).extracting(OutlineElement::getName).containsExactly("helper", "Local");
+    }
+
+    @UnitTest
+    void parseOutline_shouldLocateDeclaredNames() {
+        // given
+        String source =
+                """
+                @Deprecated
+                class Account {
+                    Account account
+                    private int total = 0
+
+                    Account(int total) {}
+
+                    int totalOf(int total) { total }
+                }
+                """;
+
+        // when
+        List<OutlineElement> outline = astService.parseOutline(source, "Account.groovy");
+
+        // then
+        OutlineElement account = outline.get(0);
+        assertThat(account)
+                .extracting(
+                        OutlineElement::getNameLine,
+                        OutlineElement::getNameColumn,
+                        OutlineElement::getNameEndColumn)
+                .containsExactly(2, 7, 14);
+        assertThat(account.getChildren())
+                .extracting(
+                        OutlineElement::getName,
+                        OutlineElement::getNameLine,
+                        OutlineElement::getNameColumn,
+                        OutlineElement::getNameEndColumn)
+                .containsExactly(
+                        tuple("account", 3, 13, 20),
+                        tuple("total", 4, 17, 22),
+                        tuple("Account", 6, 5, 12),
+                        tuple("totalOf", 8, 9, 16));
+    }
+
+    @UnitTest
+    void parseOutline_shouldKeepQualifiersAndDropTypeArguments() {
+        // given
+        String source =
+                """
+                class Ledger {
+                    java.time.LocalDate post(Map<String, List<Integer>> entries, String[] tags) {}
+                }
+                """;
+
+        // when
+        List<OutlineElement> outline = astService.parseOutline(source, "Ledger.groovy");
+
+        // then
+        assertThat(outline.get(0).getChildren().get(0).getDetail())
+                .isEqualTo("(Map entries, String[] tags): java.time.LocalDate");
+    }
+
+    @UnitTest
+    void parseOutline_shouldReturnEmptyListForSyntaxErrors() {
+        // when
+        List<OutlineElement> outline = astService.parseOutline("class Broken {", "Broken.groovy");
+
+        // then
+        assertThat(outline).isEmpty();
+    }
+
+    @UnitTest
+    void parseDeclarations_shouldNotCacheOrResolve() {
+        // given
+        String source = "class Holder { List<String> items }";
+
+        // when
+        ModuleNode first =
+                Objects.requireNonNull(astService.parseDeclarations(source, "Holder.groovy"));
+        ModuleNode second =
+                Objects.requireNonNull(astService.parseDeclarations(source, "Holder.groovy"));
+
+        // then - names are left unresolved at the conversion phase
+        assertThat(second).isNotSameAs(first);
+        assertThat(first.getClasses().get(0).getProperty("items").getType().isResolved()).isFalse();
+    }
+}
@@ -0,0 +1,61 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.time.Duration;
+
+/**
+ * ParserCacheServiceImplのテストクラス。
+ */
+class ParserCacheServiceImplTest {
+
+    @UnitTest
+    void warmUp_shouldPopulateParserCache() {
+        // given
+        ParserCacheServiceImpl service =
+                new ParserCacheServiceImpl(Long.MAX_VALUE / 4, Duration.ofMinutes(1));
+
+        // when
+        service.warmUp();
+
+        // then
+        assertThat(service.getCachedStateCount()).isPositive();
+    }
+
+    @UnitTest
+    void trimIfIdle_shouldClearOnlyOnceCacheStopsGrowing() {
+        // given
+        new ParserCacheServiceImpl(Long.MAX_VALUE / 4, Duration.ofMinutes(1)).warmUp();
+        long warmedUp = new ParserCacheServiceImpl(1, Duration.ofMinutes(1)).getCachedStateCount();
+        // Just below the cache size, so that only the idle rule can trigger clearing
+        ParserCacheServiceImpl service =
+                new ParserCacheServiceImpl(warmedUp - 1, Duration.ofMinutes(1));
+
+        // when - the first check sees the cache for the first time, the second sees it unchanged
+        boolean firstCheck = service.trimIfIdle();
+        boolean secondCheck = service.trimIfIdle();
+
+        // then
+        assertThat(firstCheck).isFalse();
+        assertThat(secondCheck).isTrue();
+        assertThat(service.getCachedStateCount()).isZero();
+    }
+
+    @UnitTest
+    void trimIfIdle_shouldKeepCacheWithinLimit() {
+        // given
+        ParserCacheServiceImpl service =
+                new ParserCacheServiceImpl(Long.MAX_VALUE / 4, Duration.ofMinutes(1));
+        service.warmUp();
+        service.trimIfIdle();
+
+        // when
+        boolean cleared = service.trimIfIdle();
+
+        // then
+        assertThat(cleared).isFalse();
+        assertThat(service.getCachedStateCount()).isPositive();
+        assertThat(service.getMaxCachedStates()).isEqualTo(Long.MAX_VALUE / 4);
+    }
+}
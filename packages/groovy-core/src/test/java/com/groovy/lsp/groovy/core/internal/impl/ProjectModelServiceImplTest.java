@@ -0,0 +1,205 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groovy.lsp.groovy.core.api.ProjectClasspathProvider;
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ProjectModelServiceImplのテストクラス。
+ */
+class ProjectModelServiceImplTest {
+
+    private static final String INVOICE =
+            """
+            package billing
+
+            class Invoice {
+                Customer customer
+                List<Line> lines
+            }
+            """;
+    private static final String CUSTOMER =
+            """
+            package billing
+
+            class Customer {
+                String name
+            }
+            """;
+    private static final String LINE =
+            """
+            package billing
+
+            class Line {
+                BigDecimal amount
+            }
+            """;
+
+    private SharedClassNodeResolver classNodeResolver;
+    private ProjectModelServiceImpl model;
+
+    @BeforeEach
+    void setUp() {
+        classNodeResolver = new SharedClassNodeResolver();
+        model =
+                new ProjectModelServiceImpl(
+                        new CompilationContextServiceImpl(
+                                ProjectClasspathProvider.NONE, classNodeResolver),
+                        classNodeResolver);
+    }
+
+    @UnitTest
+    void build_shouldResolveReferencesBetweenSources() {
+        // when
+        model.build(
+                Map.of(
+                        "Invoice.groovy", INVOICE,
+                        "Customer.groovy", CUSTOMER,
+                        "Line.groovy", LINE));
+
+        // then
+        assertThat(model.getSourceNames())
+                .containsExactlyInAnyOrder("Invoice.groovy", "Customer.groovy", "Line.groovy");
+        ClassNode invoice = requireClass("billing.Invoice");
+        assertThat(invoice.getField("customer").getType().redirect())
+                .isSameAs(model.findClass("billing.Customer"));
+    }
+
+    @UnitTest
+    void build_shouldLeaveOutSourcesWithSyntaxErrors() {
+        // when
+        model.build(
+                Map.of(
+                        "Invoice.groovy", INVOICE,
+                        "Customer.groovy", CUSTOMER,
+                        "Broken.groovy", "class Broken {"));
+
+        // then
+        assertThat(model.getSourceNames())
+                .containsExactlyInAnyOrder("Invoice.groovy", "Customer.groovy");
+        assertThat(model.findClass("billing.Customer")).isNotNull();
+    }
+
+    @UnitTest
+    void update_shouldRecompileOnlyAffectedModules() {
+        // given
+        model.build(
+                Map.of(
+                        "Invoice.groovy", INVOICE,
+                        "Customer.groovy", CUSTOMER,
+                        "Line.groovy", LINE));
+        ModuleNode line = model.getModule("Line.groovy");
+
+        // when
+        Set<String> recompiled =
+                model.update("Customer.groovy", CUSTOMER.replace("String name", "String email"));
+
+        // then
+        assertThat(recompiled).containsExactlyInAnyOrder("Customer.groovy", "Invoice.groovy");
+        assertThat(model.getModule("Line.groovy")).isSameAs(line);
+        ClassNode customer = requireClass("billing.Customer");
+        assertThat(customer.getField("email")).isNotNull();
+        assertThat(requireClass("billing.Invoice").getField("customer").getType().redirect())
+                .isSameAs(customer);
+        assertThat(requireClass("billing.Invoice").getField("lines").getType().getGenericsTypes())
+                .isNotNull();
+    }
+
+    @UnitTest
+    void update_shouldKeepOnlyDeclarationsOfModules() {
+        // given
+        model.build(
+                Map.of(
+                        "Line.groovy",
+                        LINE,
+                        "Report.groovy",
+                        "package billing\nclass Report {\n    Line first() { new Line() }\n}\n"));
+        MethodNode first = requireClass("billing.Report").getMethods("first").get(0);
+
+        // when
+        Set<String> recompiled =
+                model.update("Line.groovy", LINE.replace("BigDecimal amount", "int amount"));
+
+        // then
+        assertThat(((BlockStatement) first.getCode()).getStatements()).isEmpty();
+        assertThat(recompiled).containsExactlyInAnyOrder("Line.groovy", "Report.groovy");
+    }
+
+    @UnitTest
+    void update_shouldKeepPreviousModuleWhenSourceDoesNotCompile() {
+        // given
+        model.build(Map.of("Invoice.groovy", INVOICE, "Customer.groovy", CUSTOMER));
+        ClassNode customer = requireClass("billing.Customer");
+
+        // when
+        model.update("Customer.groovy", "package billing\nclass Customer {");
+
+        // then
+        assertThat(model.findClass("billing.Customer")).isSameAs(customer);
+    }
+
+    @UnitTest
+    void update_shouldResolveClassesAddedLater() {
+        // given
+        model.build(Map.of("Invoice.groovy", INVOICE, "Line.groovy", LINE));
+
+        // when
+        Set<String> recompiled = model.update("Customer.groovy", CUSTOMER);
+
+        // then
+        assertThat(recompiled).contains("Invoice.groovy");
+        assertThat(requireClass("billing.Invoice").getField("customer").getType().redirect())
+                .isSameAs(model.findClass("billing.Customer"));
+    }
+
+    @UnitTest
+    void perFileCompilations_shouldResolveModelClasses() {
+        // given
+        model.build(Map.of("Customer.groovy", CUSTOMER));
+        ASTServiceImpl astService = new ASTServiceImpl(classNodeResolver);
+
+        // when
+        ModuleNode order =
+                astService.parseSource(
+                        "package billing\nclass Order { Customer customer }\n", "Order.groovy");
+
+        // then
+        assertThat(order).isNotNull();
+        ClassNode orderClass = Objects.requireNonNull(order).getClasses().get(0);
+        assertThat(orderClass.getField("customer").getType().redirect())
+                .isSameAs(model.findClass("billing.Customer"));
+    }
+
+    @UnitTest
+    void load_shouldSkipBuildOutput(@TempDir Path tempDir) throws IOException {
+        // given
+        Files.createDirectories(tempDir.resolve("src/billing"));
+        Files.createDirectories(tempDir.resolve("build/generated"));
+        Files.writeString(tempDir.resolve("src/billing/Customer.groovy"), CUSTOMER);
+        Files.writeString(tempDir.resolve("build/generated/Line.groovy"), LINE);
+
+        // when
+        model.load(tempDir);
+
+        // then
+        assertThat(model.getSourceNames())
+                .containsExactly(tempDir.resolve("src/billing/Customer.groovy").toUri().toString());
+    }
+
+    private ClassNode requireClass(String className) {
+        return Objects.requireNonNull(model.findClass(className), className);
+    }
+}
@@ -0,0 +1,201 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groovy.lsp.groovy.core.api.IncrementalCompilationService.CompilationPhase;
+import com.groovy.lsp.test.annotations.UnitTest;
+import groovy.lang.GroovyClassLoader;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Objects;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.decompiled.DecompiledClassNode;
+import org.codehaus.groovy.control.ClassNodeResolver.LookupResult;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * SharedClassNodeResolverのテストクラス。
+ */
+class SharedClassNodeResolverTest {
+
+    private static final String SOURCE =
+            """
+            import org.slf4j.Logger
+            import java.util.concurrent.*
+
+            class Holder {
+                Logger logger
+                ConcurrentHashMap<String, String> values
+            }
+            """;
+
+    private SharedClassNodeResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new SharedClassNodeResolver();
+    }
+
+    @UnitTest
+    void resolveName_shouldReturnDecompiledClassNodeForJarClass() {
+        // given
+        CompilationUnit unit = newUnit(new CompilerConfiguration());
+
+        // when
+        LookupResult result = resolver.resolveName("org.slf4j.Logger", unit);
+
+        // then
+        assertThat(result).isNotNull();
+        assertThat(Objects.requireNonNull(result).isClassNode()).isTrue();
+        assertThat(result.getClassNode()).isInstanceOf(DecompiledClassNode.class);
+    }
+
+    @UnitTest
+    void resolveName_shouldShareResultsAcrossCompilationUnits() {
+        // given
+        CompilerConfiguration config = new CompilerConfiguration();
+        LookupResult first = resolver.resolveName("org.slf4j.Logger", newUnit(config));
+
+        // when
+        LookupResult second = resolver.resolveName("org.slf4j.Logger", newUnit(config));
+
+        // then
+        assertThat(Objects.requireNonNull(second).getClassNode())
+                .isSameAs(Objects.requireNonNull(first).getClassNode());
+        assertThat(resolver.getMissCount()).isEqualTo(1);
+        assertThat(resolver.getHitCount()).isEqualTo(1);
+    }
+
+    @UnitTest
+    void resolveName_shouldCacheNegativeLookups() {
+        // given
+        CompilerConfiguration config = new CompilerConfiguration();
+        assertThat(resolver.resolveName("java.util.DoesNotExist", newUnit(config))).isNull();
+
+        // when
+        LookupResult again = resolver.resolveName("java.util.DoesNotExist", newUnit(config));
+
+        // then
+        assertThat(again).isNull();
+        assertThat(resolver.getUnresolvedCount()).isEqualTo(1);
+        assertThat(resolver.getMissCount()).isEqualTo(1);
+    }
+
+    @UnitTest
+    void resolveName_shouldKeySeparatelyPerClasspath() {
+        // given
+        CompilerConfiguration plain = new CompilerConfiguration();
+        CompilerConfiguration withClasspath = new CompilerConfiguration();
+        withClasspath.setClasspathList(List.of("/tmp/does-not-exist.jar"));
+        resolver.resolveName("org.slf4j.Logger", newUnit(plain));
+
+        // when
+        resolver.resolveName("org.slf4j.Logger", newUnit(withClasspath));
+
+        // then
+        assertThat(resolver.getMissCount()).isEqualTo(2);
+        assertThat(resolver.getResolvedCount()).isEqualTo(2);
+    }
+
+    @UnitTest
+    void resolveName_shouldKeySeparatelyPerContextClassLoader() {
+        // given - same classpath entries, different compilation contexts
+        CompilerConfiguration config = new CompilerConfiguration();
+        ClassLoader parent = getClass().getClassLoader();
+        resolver.resolveName(
+                "org.slf4j.Logger", newUnit(config, new URLClassLoader(new URL[0], parent)));
+
+        // when
+        resolver.resolveName(
+                "org.slf4j.Logger", newUnit(config, new URLClassLoader(new URL[0], parent)));
+
+        // then
+        assertThat(resolver.getMissCount()).isEqualTo(2);
+        assertThat(resolver.getResolvedCount()).isEqualTo(2);
+    }
+
+    @UnitTest
+    void resolveName_shouldNotKeepRequestingUnitAlive() throws InterruptedException {
+        // given
+        CompilationUnit unit = newUnit(new CompilerConfiguration());
+        WeakReference<CompilationUnit> requester = new WeakReference<>(unit);
+        LookupResult result = resolver.resolveName("org.slf4j.Logger", unit);
+        ClassNode logger = Objects.requireNonNull(result).getClassNode();
+
+        // when - lazy member resolution runs after the requester is gone
+        unit = null;
+        for (int i = 0; i < 20 && requester.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // then
+        assertThat(requester.get()).isNull();
+        assertThat(logger.getMethods("info")).isNotEmpty();
+    }
+
+    @UnitTest
+    void invalidate_shouldDropAllCachedLookups() {
+        // given
+        CompilerConfiguration config = new CompilerConfiguration();
+        resolver.resolveName("org.slf4j.Logger", newUnit(config));
+        resolver.resolveName("java.util.DoesNotExist", newUnit(config));
+
+        // when
+        resolver.invalidate();
+
+        // then
+        assertThat(resolver.getResolvedCount()).isZero();
+        assertThat(resolver.getUnresolvedCount()).isZero();
+    }
+
+    @UnitTest
+    void invalidate_shouldDropSingleClassName() {
+        // given
+        CompilerConfiguration config = new CompilerConfiguration();
+        resolver.resolveName("org.slf4j.Logger", newUnit(config));
+        resolver.resolveName("java.util.DoesNotExist", newUnit(config));
+
+        // when
+        resolver.invalidate("java.util.DoesNotExist");
+
+        // then
+        assertThat(resolver.getResolvedCount()).isEqualTo(1);
+        assertThat(resolver.getUnresolvedCount()).isZero();
+    }
+
+    @UnitTest
+    void compileToPhase_shouldReuseResolutionWorkAcrossCompiles() {
+        // given
+        IncrementalCompilationServiceImpl service = new IncrementalCompilationServiceImpl(resolver);
+        CompilationUnit unit = service.createCompilationUnit(new CompilerConfiguration());
+        service.compileToPhase(unit, SOURCE, "First.groovy", CompilationPhase.SEMANTIC_ANALYSIS);
+        long missesAfterFirstCompile = resolver.getMissCount();
+
+        // when - a different source name bypasses the compilation cache
+        service.compileToPhase(unit, SOURCE, "Second.groovy", CompilationPhase.SEMANTIC_ANALYSIS);
+
+        // then
+        assertThat(missesAfterFirstCompile).isPositive();
+        assertThat(resolver.getMissCount()).isEqualTo(missesAfterFirstCompile);
+        assertThat(resolver.getHitCount()).isPositive();
+        assertThat(resolver.getUnresolvedCount()).isPositive();
+    }
+
+    private CompilationUnit newUnit(CompilerConfiguration config) {
+        CompilationUnit unit = new CompilationUnit(config);
+        unit.setClassNodeResolver(resolver);
+        return unit;
+    }
+
+    private CompilationUnit newUnit(CompilerConfiguration config, ClassLoader parent) {
+        CompilationUnit unit =
+                new CompilationUnit(config, null, new GroovyClassLoader(parent, config));
+        unit.setClassNodeResolver(resolver);
+        return unit;
+    }
+}
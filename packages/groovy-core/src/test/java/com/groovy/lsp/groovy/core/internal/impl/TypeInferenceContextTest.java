@@ -0,0 +1,178 @@
+package com.groovy.lsp.groovy.core.internal.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.Objects;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.Parameter;
+import org.codehaus.groovy.ast.expr.ArgumentListExpression;
+import org.codehaus.groovy.ast.expr.DeclarationExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.control.SourceUnit;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * TypeInferenceContextのテストクラス。
+ */
+class TypeInferenceContextTest {
+
+    private ASTServiceImpl astService;
+    private TypeInferenceServiceImpl typeInferenceService;
+
+    @BeforeEach
+    void setUp() {
+        astService = new ASTServiceImpl();
+        typeInferenceService = new TypeInferenceServiceImpl(astService);
+    }
+
+    @UnitTest
+    void of_shouldReturnSameContextForSameModule() {
+        // given
+        ModuleNode moduleNode = new ModuleNode((SourceUnit) null);
+
+        // when
+        TypeInferenceContext first = TypeInferenceContext.of(moduleNode);
+        TypeInferenceContext second = TypeInferenceContext.of(moduleNode);
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(TypeInferenceContext.of(new ModuleNode((SourceUnit) null))).isNotSameAs(first);
+    }
+
+    @UnitTest
+    void inferExpressionType_shouldMemoizeChainedReceivers() {
+        // given - builder.step().step().step()
+        ClassNode builder = new ClassNode("Builder", 1, ClassHelper.OBJECT_TYPE);
+        builder.addMethod(
+                new MethodNode(
+                        "step", 1, builder, Parameter.EMPTY_ARRAY, ClassNode.EMPTY_ARRAY, null));
+        VariableExpression receiver = new VariableExpression("builder");
+        receiver.setType(builder);
+        Expression chain = receiver;
+        for (int i = 0; i < 3; i++) {
+            chain = new MethodCallExpression(chain, "step", ArgumentListExpression.EMPTY_ARGUMENTS);
+        }
+        ModuleNode moduleNode = new ModuleNode((SourceUnit) null);
+        TypeInferenceContext context = TypeInferenceContext.of(moduleNode);
+
+        // when
+        ClassNode first = typeInferenceService.inferExpressionType(chain, moduleNode);
+        int memoized = context.getMemoizedCount();
+        ClassNode second = typeInferenceService.inferExpressionType(chain, moduleNode);
+
+        // then - every link of the chain is inferred once, the second call is a memo hit
+        assertThat(first).isSameAs(builder);
+        assertThat(second).isSameAs(builder);
+        assertThat(memoized).isEqualTo(4);
+        assertThat(context.getMemoizedCount()).isEqualTo(4);
+        assertThat(context.getHitCount()).isEqualTo(1);
+    }
+
+    @UnitTest
+    void inferExpressionType_shouldBuildSymbolTableLazily() {
+        // given
+        ModuleNode moduleNode =
+                Objects.requireNonNull(
+                        astService.parseSource("def a = 'x'\ndef b = 1\n", "Script.groovy"));
+        TypeInferenceContext context = TypeInferenceContext.of(moduleNode);
+        assertThat(context.isSymbolTableBuilt()).isFalse();
+
+        // when
+        ClassNode a =
+                typeInferenceService.inferExpressionType(new VariableExpression("a"), moduleNode);
+        ClassNode b =
+                typeInferenceService.inferExpressionType(new VariableExpression("b"), moduleNode);
+
+        // then
+        assertThat(context.isSymbolTableBuilt()).isTrue();
+        assertThat(a).isEqualTo(ClassHelper.STRING_TYPE);
+        assertThat(b).isEqualTo(ClassHelper.int_TYPE);
+    }
+
+    @UnitTest
+    void findDeclaration_shouldPreferDeclarationInEnclosingScope() {
+        // given
+        String source =
+                """
+                class Sample {
+                    void first() {
+                        def value = "text"
+                        println value
+                    }
+
+                    void second() {
+                        def value = 42
+                        println value
+                    }
+                }
+                """;
+        ModuleNode moduleNode =
+                Objects.requireNonNull(astService.parseSource(source, "Sample.groovy"));
+        TypeInferenceContext context = TypeInferenceContext.of(moduleNode);
+        VariableExpression usageInFirst = usage(4, 17);
+        VariableExpression usageInSecond = usage(9, 17);
+
+        // when
+        DeclarationExpression first = context.findDeclaration("value", usageInFirst);
+        DeclarationExpression second = context.findDeclaration("value", usageInSecond);
+
+        // then
+        assertThat(first).isNotNull();
+        assertThat(Objects.requireNonNull(first).getLineNumber()).isEqualTo(3);
+        assertThat(second).isNotNull();
+        assertThat(Objects.requireNonNull(second).getLineNumber()).isEqualTo(8);
+        assertThat(typeInferenceService.inferExpressionType(usageInFirst, moduleNode))
+                .isEqualTo(ClassHelper.STRING_TYPE);
+        assertThat(typeInferenceService.inferExpressionType(usageInSecond, moduleNode))
+                .isEqualTo(ClassHelper.int_TYPE);
+    }
+
+    @UnitTest
+    void findDeclaration_shouldFallBackToLastDeclarationForUnpositionedUsage() {
+        // given
+        ModuleNode moduleNode =
+                Objects.requireNonNull(
+                        astService.parseSource(
+                                "def v = 'a'\nv = null\ndef w = 1\n", "Script.groovy"));
+        TypeInferenceContext context = TypeInferenceContext.of(moduleNode);
+
+        // when
+        DeclarationExpression declaration =
+                context.findDeclaration("v", new VariableExpression("v"));
+
+        // then
+        assertThat(declaration).isNotNull();
+        assertThat(Objects.requireNonNull(declaration).getLineNumber()).isEqualTo(1);
+        assertThat(context.findDeclaration("missing", new VariableExpression("missing"))).isNull();
+    }
+
+    @UnitTest
+    void inferTypeAtPosition_shouldShareContextOfCachedModule() {
+        // given
+        String source = "def text = 'hello'\nprintln text.length()\n";
+        ModuleNode moduleNode =
+                Objects.requireNonNull(astService.parseSource(source, "Script.groovy"));
+
+        // when
+        typeInferenceService.inferTypeAtPosition(moduleNode, 2, 10);
+        int memoized = TypeInferenceContext.of(moduleNode).getMemoizedCount();
+
+        // then
+        assertThat(memoized).isPositive();
+    }
+
+    private static VariableExpression usage(int line, int column) {
+        VariableExpression usage = new VariableExpression("value");
+        usage.setLineNumber(line);
+        usage.setColumnNumber(column);
+        usage.setLastLineNumber(line);
+        usage.setLastColumnNumber(column + 5);
+        return usage;
+    }
+}
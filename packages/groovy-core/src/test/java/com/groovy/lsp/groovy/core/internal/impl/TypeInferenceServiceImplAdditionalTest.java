@@ -3,6 +3,8 @@ package com.groovy.lsp.groovy.core.internal.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.groovy.core.api.MemberTable;
 import com.groovy.lsp.test.annotations.UnitTest;
 import java.util.Objects;
 import org.codehaus.groovy.ast.ASTNode;
@@ -76,6 +78,27 @@ class TypeInferenceServiceImplAdditionalTest {
         assertThat(type.getName()).contains("ArrayList");
     }
 
+    @UnitTest
+    void inferMemberTable_shouldUseInitializerTypeOfUntypedVariable() {
+        // given
+        String sourceCode =
+                """
+                def text = 'hello'
+                text.size()
+                """;
+        ModuleNode moduleNode = parseSourceNotNull(sourceCode, "test.groovy");
+        MethodCallExpression call = findFirstNodeNotNull(moduleNode, MethodCallExpression.class);
+
+        // when
+        MemberTable table =
+                typeInferenceService.inferMemberTable(
+                        call.getObjectExpression(), moduleNode, CancellationToken.NONE);
+
+        // then
+        assertThat(table).isSameAs(MemberTable.of(ClassHelper.STRING_TYPE));
+        assertThat(table.getMethods("toUpperCase")).isNotEmpty();
+    }
+
     @UnitTest
     void inferExpressionType_shouldHandleCastExpression() {
         // given
@@ -8,6 +8,7 @@ import static org.mockito.Mockito.when;
 import com.groovy.lsp.groovy.core.api.ASTService;
 import com.groovy.lsp.test.annotations.UnitTest;
 import java.time.Instant;
+import java.util.concurrent.CancellationException;
 import org.codehaus.groovy.ast.ClassHelper;
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.ast.FieldNode;
@@ -143,6 +144,20 @@ class TypeInferenceServiceImplTest {
         assertThat(type).isEqualTo(ClassHelper.STRING_TYPE);
     }
 
+    @UnitTest
+    void inferExpressionType_shouldThrowWhenCancelled() {
+        // given
+        Expression expr = new ConstantExpression("test");
+        ModuleNode moduleNode = new ModuleNode((SourceUnit) null);
+
+        // when / then
+        assertThatThrownBy(
+                        () ->
+                                typeInferenceService.inferExpressionType(
+                                        expr, moduleNode, () -> true))
+                .isInstanceOf(CancellationException.class);
+    }
+
     @UnitTest
     void inferExpressionType_shouldInferConstantExpressionTypes() {
         // given
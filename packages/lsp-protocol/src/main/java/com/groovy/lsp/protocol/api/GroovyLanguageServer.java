@@ -3,12 +3,17 @@ package com.groovy.lsp.protocol.api;
 import com.google.inject.Inject;
 import com.groovy.lsp.protocol.internal.impl.GroovyTextDocumentService;
 import com.groovy.lsp.protocol.internal.impl.GroovyWorkspaceService;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import org.eclipse.lsp4j.CodeLensOptions;
 import org.eclipse.lsp4j.CompletionOptions;
+import org.eclipse.lsp4j.ExecuteCommandOptions;
 import org.eclipse.lsp4j.InitializeParams;
 import org.eclipse.lsp4j.InitializeResult;
+import org.eclipse.lsp4j.InitializedParams;
 import org.eclipse.lsp4j.ServerCapabilities;
+import org.eclipse.lsp4j.SignatureHelpOptions;
 import org.eclipse.lsp4j.TextDocumentSyncKind;
 import org.eclipse.lsp4j.services.LanguageClient;
 import org.eclipse.lsp4j.services.LanguageClientAware;
@@ -33,6 +38,7 @@ public class GroovyLanguageServer implements LanguageServer, LanguageClientAware
     private final GroovyTextDocumentService textDocumentService;
     private final GroovyWorkspaceService workspaceService;
     private @Nullable LanguageClient client;
+    private @Nullable Path workspaceRoot;
     private int errorCode = 1;
 
     @Inject
@@ -56,7 +62,11 @@ public class GroovyLanguageServer implements LanguageServer, LanguageClientAware
         capabilities.setTextDocumentSync(TextDocumentSyncKind.Incremental);
 
         // Completion support
-        capabilities.setCompletionProvider(new CompletionOptions());
+        capabilities.setCompletionProvider(new CompletionOptions(true, List.of(".")));
+
+        // Signature help, shown when opening a call and updated at each argument
+        capabilities.setSignatureHelpProvider(
+                new SignatureHelpOptions(List.of("(", ","), List.of(",")));
 
         // Hover support
         capabilities.setHoverProvider(true);
@@ -86,6 +96,13 @@ public class GroovyLanguageServer implements LanguageServer, LanguageClientAware
         // Rename
         capabilities.setRenameProvider(true);
 
+        // Commands
+        capabilities.setExecuteCommandProvider(
+                new ExecuteCommandOptions(
+                        List.of(
+                                GroovyWorkspaceService.SET_ANALYSIS_TIER_COMMAND,
+                                GroovyWorkspaceService.EXECUTOR_STATS_COMMAND)));
+
         // Folding range
         capabilities.setFoldingRangeProvider(true);
 
@@ -94,6 +111,25 @@ public class GroovyLanguageServer implements LanguageServer, LanguageClientAware
         return CompletableFuture.completedFuture(result);
     }
 
+    /**
+     * Sets the workspace root whose project model is loaded once the client has finished
+     * initializing. Without a root no project model is loaded.
+     *
+     * @param workspaceRoot the workspace root directory
+     */
+    public void setWorkspaceRoot(Path workspaceRoot) {
+        this.workspaceRoot = workspaceRoot;
+    }
+
+    @Override
+    public void initialized(InitializedParams params) {
+        logger.info("Client initialized");
+        Path root = workspaceRoot;
+        if (root != null) {
+            workspaceService.loadProjectModel(root);
+        }
+    }
+
     @Override
     public CompletableFuture<Object> shutdown() {
         logger.info("Shutting down Groovy Language Server");
@@ -1,7 +1,9 @@
 package com.groovy.lsp.protocol.api;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CompilationContextService;
 import com.groovy.lsp.groovy.core.api.IncrementalCompilationService;
+import com.groovy.lsp.groovy.core.api.ProjectModelService;
 import com.groovy.lsp.groovy.core.api.TypeInferenceService;
 import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
 
@@ -36,6 +38,22 @@ public interface IServiceRouter {
      */
     IncrementalCompilationService getIncrementalCompilationService();
 
+    /**
+     * Get the compilation context service of the workspace project.
+     *
+     * @return the compilation context service
+     * @throws IllegalStateException if the service is not available
+     */
+    CompilationContextService getCompilationContextService();
+
+    /**
+     * Get the semantic model of the workspace project.
+     *
+     * @return the project model service
+     * @throws IllegalStateException if the service is not available
+     */
+    ProjectModelService getProjectModelService();
+
     /**
      * Get the workspace index service.
      *
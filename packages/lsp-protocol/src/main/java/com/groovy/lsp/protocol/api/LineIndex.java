@@ -0,0 +1,214 @@
+package com.groovy.lsp.protocol.api;
+
+import java.util.Arrays;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.PositionEncodingKind;
+
+/**
+ * Line starts of a text, for converting between LSP positions and offsets.
+ *
+ * Offsets are indices into the Java string, i.e. UTF-16 code units. Lines are separated
+ * by {@code \n}; a preceding {@code \r} counts as part of the line. The characters of a
+ * position are UTF-16 code units unless another {@link PositionEncodingKind} is given.
+ * Converting an offset into a position takes a binary search over the line starts.
+ *
+ * Instances are immutable. Open documents keep one per version, see
+ * {@code DocumentManager#getLineIndex}.
+ */
+public final class LineIndex {
+
+    private final String text;
+    private final int[] lineStarts;
+
+    private LineIndex(String text, int[] lineStarts) {
+        this.text = text;
+        this.lineStarts = lineStarts;
+    }
+
+    /**
+     * Indexes the lines of a text.
+     *
+     * @param text the text
+     * @return the line index
+     */
+    public static LineIndex of(String text) {
+        int count = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        int[] lineStarts = new int[count];
+        int line = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lineStarts[line++] = i + 1;
+            }
+        }
+        return new LineIndex(text, lineStarts);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the number of lines, which is the number of line breaks plus one.
+     */
+    public int getLineCount() {
+        return lineStarts.length;
+    }
+
+    /**
+     * Gets the offset where a line starts. Lines past the end are clamped to the text end.
+     *
+     * @param line the zero-based line
+     * @return the offset of the first character of the line
+     */
+    public int getLineStart(int line) {
+        if (line < 0) {
+            return 0;
+        }
+        return line < lineStarts.length ? lineStarts[line] : text.length();
+    }
+
+    /**
+     * Gets the offset where a line ends, before its line break.
+     *
+     * @param line the zero-based line
+     * @return the offset after the last character of the line
+     */
+    public int getLineEnd(int line) {
+        if (line < 0) {
+            return 0;
+        }
+        return line + 1 < lineStarts.length ? lineStarts[line + 1] - 1 : text.length();
+    }
+
+    /**
+     * Gets the text of a line without its line break.
+     *
+     * @param line the zero-based line
+     * @return the line text, or an empty string for lines past the end
+     */
+    public String getLine(int line) {
+        return text.substring(getLineStart(line), getLineEnd(line));
+    }
+
+    /**
+     * Converts a UTF-16 position into an offset, clamping it to its line.
+     *
+     * @param position the position
+     * @return the offset
+     */
+    public int offsetAt(Position position) {
+        return offsetAt(position.getLine(), position.getCharacter());
+    }
+
+    /**
+     * Converts a UTF-16 position into an offset, clamping it to its line.
+     *
+     * @param line the zero-based line
+     * @param character the zero-based UTF-16 character within the line
+     * @return the offset
+     */
+    public int offsetAt(int line, int character) {
+        if (line >= lineStarts.length) {
+            return text.length();
+        }
+        int lineStart = getLineStart(line);
+        return Math.min(lineStart + Math.max(character, 0), getLineEnd(line));
+    }
+
+    /**
+     * Converts a position in the given encoding into an offset, clamping it to its line.
+     * A character inside a multi-unit code point resolves to the start of the code point.
+     *
+     * @param position the position
+     * @param encoding the position encoding, one of the {@link PositionEncodingKind} values
+     * @return the offset
+     */
+    public int offsetAt(Position position, String encoding) {
+        if (PositionEncodingKind.UTF16.equals(encoding)) {
+            return offsetAt(position);
+        }
+        if (position.getLine() >= lineStarts.length) {
+            return text.length();
+        }
+        int offset = getLineStart(position.getLine());
+        int lineEnd = getLineEnd(position.getLine());
+        int units = 0;
+        while (offset < lineEnd) {
+            int codePoint = text.codePointAt(offset);
+            int width = width(codePoint, encoding);
+            if (units + width > position.getCharacter()) {
+                break;
+            }
+            units += width;
+            offset += Character.charCount(codePoint);
+        }
+        return offset;
+    }
+
+    /**
+     * Converts an offset into a UTF-16 position.
+     *
+     * @param offset the offset, clamped to the text
+     * @return the position
+     */
+    public Position positionAt(int offset) {
+        int clamped = Math.max(0, Math.min(offset, text.length()));
+        int line = lineOf(clamped);
+        return new Position(line, clamped - lineStarts[line]);
+    }
+
+    /**
+     * Converts an offset into a position in the given encoding.
+     *
+     * @param offset the offset, clamped to the text
+     * @param encoding the position encoding, one of the {@link PositionEncodingKind} values
+     * @return the position
+     */
+    public Position positionAt(int offset, String encoding) {
+        if (PositionEncodingKind.UTF16.equals(encoding)) {
+            return positionAt(offset);
+        }
+        int clamped = Math.max(0, Math.min(offset, text.length()));
+        int line = lineOf(clamped);
+        int units = 0;
+        for (int i = lineStarts[line]; i < clamped; ) {
+            int codePoint = text.codePointAt(i);
+            units += width(codePoint, encoding);
+            i += Character.charCount(codePoint);
+        }
+        return new Position(line, units);
+    }
+
+    /**
+     * Gets the position of the end of the text.
+     */
+    public Position getEndPosition() {
+        return positionAt(text.length());
+    }
+
+    private int lineOf(int offset) {
+        int index = Arrays.binarySearch(lineStarts, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private static int width(int codePoint, String encoding) {
+        if (PositionEncodingKind.UTF8.equals(encoding)) {
+            if (codePoint < 0x80) {
+                return 1;
+            }
+            if (codePoint < 0x800) {
+                return 2;
+            }
+            return codePoint < 0x10000 ? 3 : 4;
+        }
+        if (PositionEncodingKind.UTF32.equals(encoding)) {
+            return 1;
+        }
+        return Character.charCount(codePoint);
+    }
+}
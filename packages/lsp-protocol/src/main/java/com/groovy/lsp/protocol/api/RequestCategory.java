@@ -0,0 +1,43 @@
+package com.groovy.lsp.protocol.api;
+
+/**
+ * Classes of server work, each run on its own {@link RequestExecutor}, so a burst of one
+ * class never queues up behind another.
+ */
+public enum RequestCategory {
+
+    /**
+     * Requests the user waits for, like hover, definition and references. When the queue
+     * is full the oldest queued request is shed, since the user has moved on from it.
+     */
+    INTERACTIVE(RequestExecutor.OverflowPolicy.SHED_OLDEST),
+
+    /**
+     * Diagnostics runs, keyed by document. A newer run of a document supersedes an older
+     * one, so when the queue is full a queued run of the same document is shed. Runs of
+     * other documents are never shed; if none of the same document is queued, the new run
+     * is rejected and its caller retries.
+     */
+    DIAGNOSTICS(RequestExecutor.OverflowPolicy.SHED_SAME_KEY),
+
+    /**
+     * Background work like project model updates. Every task matters, so new tasks are
+     * rejected when the queue is full instead of dropping queued ones.
+     */
+    BULK(RequestExecutor.OverflowPolicy.REJECT);
+
+    private final RequestExecutor.OverflowPolicy overflowPolicy;
+
+    RequestCategory(RequestExecutor.OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Gets what an executor of this category does with work that does not fit its queue.
+     *
+     * @return the overflow policy
+     */
+    public RequestExecutor.OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+}
@@ -0,0 +1,335 @@
+package com.groovy.lsp.protocol.api;
+
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fixed-size thread pool with a bounded queue for one {@link RequestCategory}.
+ *
+ * Work that does not fit the queue is handled by the overflow policy of the category:
+ * either a queued task is shed, which cancels its future, or the new task is rejected,
+ * which completes its future with a {@link RejectedExecutionException}. Only tasks with a
+ * future are shed; commands passed to {@link #execute} have nobody to learn
+ * that they were dropped, so they are never shed.
+ * The executor counts what it ran, shed and rejected, and how long tasks waited in the
+ * queue and ran, see {@link #getStats()}.
+ *
+ * Work started through {@link #supply} gets a token that is cancelled together with the
+ * returned future. lsp4j handles {@code $/cancelRequest} by cancelling that future, so
+ * parsing, type inference and index searches the token is handed to stop at their next
+ * check instead of running to completion.
+ */
+public final class RequestExecutor implements Executor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestExecutor.class);
+
+    /** Time after which idle threads are stopped. */
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * What an executor does with work that does not fit its queue.
+     */
+    public enum OverflowPolicy {
+        /** Cancels the oldest queued task to make room for the new one. */
+        SHED_OLDEST,
+        /**
+         * Cancels the queued task with the same key as the new one, which it supersedes. If
+         * no such task is queued, the new task is rejected.
+         */
+        SHED_SAME_KEY,
+        /** Rejects the new task. */
+        REJECT
+    }
+
+    /**
+     * Counters of an executor at one point in time.
+     *
+     * @param category the category of the executor
+     * @param queueDepth the number of queued tasks
+     * @param activeCount the number of running tasks
+     * @param completedCount the number of tasks that ran
+     * @param shedCount the number of queued tasks that were shed
+     * @param rejectedCount the number of tasks that were rejected
+     * @param averageWaitMillis the average time tasks waited in the queue
+     * @param averageRunMillis the average time tasks ran
+     */
+    public record Stats(
+            RequestCategory category,
+            int queueDepth,
+            int activeCount,
+            long completedCount,
+            long shedCount,
+            long rejectedCount,
+            double averageWaitMillis,
+            double averageRunMillis) {}
+
+    private final RequestCategory category;
+    private final ThreadPoolExecutor pool;
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder shedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+
+    /**
+     * Creates an executor running on platform threads.
+     *
+     * @param category the category of work the executor runs
+     * @param threads the maximum number of threads
+     * @param queueCapacity the maximum number of queued tasks
+     */
+    public RequestExecutor(RequestCategory category, int threads, int queueCapacity) {
+        this(category, threads, queueCapacity, false);
+    }
+
+    /**
+     * Creates an executor.
+     *
+     * On virtual threads a task blocked on I/O or on another future does not hold on to an
+     * OS thread, so {@code threads} can be much larger than the number of processors. The
+     * CPU-bound compile work of the tasks is then limited separately by the
+     * {@link com.groovy.lsp.groovy.core.api.CompilationPermits} of the services.
+     *
+     * @param category the category of work the executor runs
+     * @param threads the maximum number of tasks running at the same time
+     * @param queueCapacity the maximum number of queued tasks
+     * @param virtualThreads whether tasks run on virtual threads
+     */
+    public RequestExecutor(
+            RequestCategory category, int threads, int queueCapacity, boolean virtualThreads) {
+        this.category = category;
+        String prefix = "groovy-lsp-" + category.name().toLowerCase(Locale.ROOT) + "-";
+        ThreadFactory threadFactory;
+        if (virtualThreads) {
+            threadFactory = Thread.ofVirtual().name(prefix, 1).factory();
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            threadFactory =
+                    runnable -> {
+                        Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    };
+        }
+        this.pool =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        KEEP_ALIVE_SECONDS,
+                        TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity),
+                        threadFactory,
+                        this::handleOverflow);
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    public RequestCategory getCategory() {
+        return category;
+    }
+
+    /**
+     * Runs work asynchronously with a token bound to the returned future.
+     *
+     * @param work the work, receiving a token that is cancelled once the future is
+     * @param <T> the result type
+     * @return the future of the result; cancelling it cancels the token
+     */
+    public <T> CompletableFuture<T> supply(Function<CancellationToken, T> work) {
+        return supply(null, work);
+    }
+
+    /**
+     * Runs work asynchronously with a token bound to the returned future. A later task with
+     * an equal key supersedes it while it is queued, see {@link OverflowPolicy#SHED_SAME_KEY}.
+     *
+     * @param key what the work is for, like the URI of a document, or null for none
+     * @param work the work, receiving a token that is cancelled once the future is
+     * @param <T> the result type
+     * @return the future of the result; cancelling it cancels the token
+     */
+    public <T> CompletableFuture<T> supply(
+            @Nullable Object key, Function<CancellationToken, T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CancellationToken token = result::isCancelled;
+        Task task =
+                new Task(
+                        () -> {
+                            // Cancelled or shed while queued
+                            if (result.isDone()) {
+                                return;
+                            }
+                            try {
+                                result.complete(work.apply(token));
+                            } catch (Throwable e) {
+                                result.completeExceptionally(e);
+                            }
+                        },
+                        () -> result.cancel(false),
+                        key);
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Runs work asynchronously.
+     *
+     * @param work the work
+     * @return the future completed once the work ran
+     */
+    public CompletableFuture<Void> run(Runnable work) {
+        return run(null, work);
+    }
+
+    /**
+     * Runs work asynchronously. A later task with an equal key supersedes it while it is
+     * queued, see {@link OverflowPolicy#SHED_SAME_KEY}.
+     *
+     * @param key what the work is for, like the URI of a document, or null for none
+     * @param work the work
+     * @return the future completed once the work ran
+     */
+    public CompletableFuture<Void> run(@Nullable Object key, Runnable work) {
+        return supply(
+                key,
+                token -> {
+                    work.run();
+                    return null;
+                });
+    }
+
+    /**
+     * Runs a command. The command is never shed from the queue; if the queue is full and
+     * holds no task that can be shed, the command is rejected instead.
+     *
+     * @param command the command
+     * @throws RejectedExecutionException if the command was rejected
+     */
+    @Override
+    public void execute(Runnable command) {
+        pool.execute(new Task(command, null, null));
+    }
+
+    /**
+     * Gets the current counters.
+     *
+     * @return the counters
+     */
+    public Stats getStats() {
+        long completed = completedCount.sum();
+        return new Stats(
+                category,
+                pool.getQueue().size(),
+                pool.getActiveCount(),
+                completed,
+                shedCount.sum(),
+                rejectedCount.sum(),
+                averageMillis(waitNanos.sum(), completed),
+                averageMillis(runNanos.sum(), completed));
+    }
+
+    /**
+     * Stops accepting work. Queued tasks still run.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void handleOverflow(Runnable rejected, ThreadPoolExecutor executor) {
+        Task shed =
+                executor.isShutdown()
+                        ? null
+                        : switch (category.getOverflowPolicy()) {
+                            case SHED_OLDEST -> removeQueued(executor, null);
+                            case SHED_SAME_KEY ->
+                                    rejected instanceof Task task && task.key != null
+                                            ? removeQueued(executor, task.key)
+                                            : null;
+                            case REJECT -> null;
+                        };
+        if (shed != null) {
+            shedCount.increment();
+            logger.debug("Shed a queued {} task", category);
+            shed.shed();
+            executor.execute(rejected);
+            return;
+        }
+        rejectedCount.increment();
+        logger.warn("Rejected {} task with {} tasks queued", category, executor.getQueue().size());
+        throw new RejectedExecutionException(category + " executor is saturated");
+    }
+
+    /**
+     * Removes the oldest queued task that can be shed, and that has the given key unless it
+     * is null.
+     */
+    private static @Nullable Task removeQueued(ThreadPoolExecutor executor, @Nullable Object key) {
+        for (Runnable queued : executor.getQueue()) {
+            if (queued instanceof Task task
+                    && task.isSheddable()
+                    && (key == null || key.equals(task.key))
+                    && executor.remove(task)) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private static double averageMillis(long totalNanos, long count) {
+        return count == 0 ? 0 : totalNanos / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Queued work that records its latency and knows how to give up when shed.
+     */
+    private final class Task implements Runnable {
+        private final Runnable work;
+        private final @Nullable Runnable onShed;
+        private final @Nullable Object key;
+        private final long enqueuedNanos = System.nanoTime();
+
+        Task(Runnable work, @Nullable Runnable onShed, @Nullable Object key) {
+            this.work = work;
+            this.onShed = onShed;
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            long startedNanos = System.nanoTime();
+            waitNanos.add(startedNanos - enqueuedNanos);
+            try {
+                work.run();
+            } finally {
+                runNanos.add(System.nanoTime() - startedNanos);
+                completedCount.increment();
+            }
+        }
+
+        boolean isSheddable() {
+            return onShed != null;
+        }
+
+        void shed() {
+            if (onShed != null) {
+                onShed.run();
+            }
+        }
+    }
+}
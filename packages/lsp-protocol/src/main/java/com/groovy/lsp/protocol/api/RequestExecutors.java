@@ -0,0 +1,102 @@
+package com.groovy.lsp.protocol.api;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The executors of all {@link RequestCategory request categories}.
+ *
+ * The server injects its configured instance. Handlers and services created without one
+ * use {@link #defaults()}, which is sized from the available processors.
+ */
+public final class RequestExecutors {
+
+    /** Default queue capacity of the interactive executor. */
+    public static final int DEFAULT_INTERACTIVE_QUEUE_CAPACITY = 64;
+
+    /** Default queue capacity of the diagnostics executor. */
+    public static final int DEFAULT_DIAGNOSTICS_QUEUE_CAPACITY = 32;
+
+    /** Default queue capacity of the bulk executor. */
+    public static final int DEFAULT_BULK_QUEUE_CAPACITY = 256;
+
+    private final Map<RequestCategory, RequestExecutor> executors =
+            new EnumMap<>(RequestCategory.class);
+
+    /**
+     * Creates the executors of all categories.
+     *
+     * @param interactive the executor for interactive requests
+     * @param diagnostics the executor for diagnostics runs
+     * @param bulk the executor for background work
+     */
+    public RequestExecutors(
+            RequestExecutor interactive, RequestExecutor diagnostics, RequestExecutor bulk) {
+        executors.put(RequestCategory.INTERACTIVE, interactive);
+        executors.put(RequestCategory.DIAGNOSTICS, diagnostics);
+        executors.put(RequestCategory.BULK, bulk);
+    }
+
+    /**
+     * Gets the shared executors used when none are injected.
+     *
+     * @return the default executors
+     */
+    public static RequestExecutors defaults() {
+        return DefaultsHolder.INSTANCE;
+    }
+
+    /**
+     * Gets the executor of a category.
+     *
+     * @param category the category
+     * @return the executor
+     */
+    public RequestExecutor get(RequestCategory category) {
+        RequestExecutor executor = executors.get(category);
+        if (executor == null) {
+            throw new IllegalArgumentException("No executor for " + category);
+        }
+        return executor;
+    }
+
+    /**
+     * Gets the counters of all executors.
+     *
+     * @return the counters, one per category
+     */
+    public List<RequestExecutor.Stats> getStats() {
+        List<RequestExecutor.Stats> stats = new ArrayList<>();
+        for (RequestExecutor executor : executors.values()) {
+            stats.add(executor.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Stops accepting work on all executors.
+     */
+    public void shutdown() {
+        executors.values().forEach(RequestExecutor::shutdown);
+    }
+
+    private static final class DefaultsHolder {
+        private static final RequestExecutors INSTANCE = createDefaults();
+
+        private static RequestExecutors createDefaults() {
+            int processors = Runtime.getRuntime().availableProcessors();
+            return new RequestExecutors(
+                    new RequestExecutor(
+                            RequestCategory.INTERACTIVE,
+                            Math.max(2, processors / 2),
+                            DEFAULT_INTERACTIVE_QUEUE_CAPACITY),
+                    new RequestExecutor(
+                            RequestCategory.DIAGNOSTICS,
+                            Math.max(1, processors / 4),
+                            DEFAULT_DIAGNOSTICS_QUEUE_CAPACITY),
+                    new RequestExecutor(RequestCategory.BULK, 1, DEFAULT_BULK_QUEUE_CAPACITY));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.groovy.lsp.protocol.internal.completion;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.codehaus.groovy.runtime.DefaultGroovyMethods;
+import org.eclipse.lsp4j.CompletionItemKind;
+
+/**
+ * Names every Groovy source can use: the keywords of the language and the methods the GDK
+ * adds to {@link Object}.
+ */
+final class BuiltinNames {
+
+    private static final List<String> KEYWORDS =
+            List.of(
+                    "abstract",
+                    "as",
+                    "assert",
+                    "boolean",
+                    "break",
+                    "byte",
+                    "case",
+                    "catch",
+                    "char",
+                    "class",
+                    "continue",
+                    "def",
+                    "default",
+                    "do",
+                    "double",
+                    "else",
+                    "enum",
+                    "extends",
+                    "false",
+                    "final",
+                    "finally",
+                    "float",
+                    "for",
+                    "if",
+                    "implements",
+                    "import",
+                    "in",
+                    "instanceof",
+                    "int",
+                    "interface",
+                    "long",
+                    "new",
+                    "null",
+                    "package",
+                    "private",
+                    "protected",
+                    "public",
+                    "return",
+                    "short",
+                    "static",
+                    "super",
+                    "switch",
+                    "synchronized",
+                    "this",
+                    "throw",
+                    "throws",
+                    "trait",
+                    "true",
+                    "try",
+                    "var",
+                    "void",
+                    "while");
+
+    private BuiltinNames() {}
+
+    /**
+     * Adds the keywords to a collector.
+     *
+     * @param collector the collector
+     */
+    static void addKeywords(CompletionCollector collector) {
+        for (String keyword : KEYWORDS) {
+            collector.add(
+                    keyword, CompletionItemKind.Keyword, null, CompletionCollector.Source.KEYWORD);
+        }
+    }
+
+    /**
+     * Adds the GDK methods available on every object to a collector.
+     *
+     * @param collector the collector
+     */
+    static void addGdkMethods(CompletionCollector collector) {
+        for (Map.Entry<String, String> method : GdkMethods.SIGNATURES.entrySet()) {
+            collector.add(
+                    method.getKey(),
+                    CompletionItemKind.Method,
+                    method.getValue(),
+                    CompletionCollector.Source.GDK);
+        }
+    }
+
+    /** Reflects over the GDK once, on first use. */
+    private static final class GdkMethods {
+
+        /** Name of each method mapped to the signature of its shortest overload. */
+        static final Map<String, String> SIGNATURES = load();
+
+        private static Map<String, String> load() {
+            Map<String, String> signatures = new LinkedHashMap<>();
+            Arrays.stream(DefaultGroovyMethods.class.getMethods())
+                    .filter(GdkMethods::isObjectMethod)
+                    .sorted(
+                            Comparator.comparing(Method::getName)
+                                    .thenComparingInt(Method::getParameterCount))
+                    .forEach(method -> signatures.putIfAbsent(method.getName(), signature(method)));
+            return Map.copyOf(signatures);
+        }
+
+        private static boolean isObjectMethod(Method method) {
+            return Modifier.isStatic(method.getModifiers())
+                    && !method.isAnnotationPresent(Deprecated.class)
+                    && method.getParameterCount() > 0
+                    && method.getParameterTypes()[0] == Object.class;
+        }
+
+        /** Signature as called on the object, without the receiver parameter. */
+        private static String signature(Method method) {
+            String parameters =
+                    Arrays.stream(method.getParameterTypes())
+                            .skip(1)
+                            .map(Class::getSimpleName)
+                            .collect(Collectors.joining(", "));
+            return method.getReturnType().getSimpleName()
+                    + ' '
+                    + method.getName()
+                    + '('
+                    + parameters
+                    + ')';
+        }
+    }
+}
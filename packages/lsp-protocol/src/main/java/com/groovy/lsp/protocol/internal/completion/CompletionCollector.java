@@ -0,0 +1,185 @@
+package com.groovy.lsp.protocol.internal.completion;
+
+import com.groovy.lsp.groovy.core.api.MemberTable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionItemKind;
+import org.eclipse.lsp4j.CompletionList;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Collects the completion candidates matching a prefix and ranks them.
+ *
+ * Candidates are ordered by how well they match the prefix, then by where they come from,
+ * then by length, so that the closest and shortest names are at the top. Only the best
+ * ones are returned; the list is marked incomplete when some were left out, so that the
+ * client asks again as the prefix grows. Details can be left out of the list and kept in
+ * {@link CompletionResponses} until the client resolves the items it shows.
+ */
+public final class CompletionCollector {
+
+    /**
+     * Where a candidate comes from, in order of relevance.
+     */
+    public enum Source {
+        /** Local variables and parameters. */
+        SCOPE,
+        /** Members of the enclosing or the receiver's class. */
+        MEMBER,
+        /** Groovy keywords. */
+        KEYWORD,
+        /** Types of the workspace and its dependencies. */
+        TYPE,
+        /** Methods the GDK adds to every object. */
+        GDK
+    }
+
+    private record Candidate(
+            String label,
+            CompletionItemKind kind,
+            @Nullable String detail,
+            MemberTable.@Nullable Member member,
+            Source source,
+            boolean exactCase) {}
+
+    private static final Comparator<Candidate> RANKING =
+            Comparator.comparing((Candidate c) -> !c.exactCase())
+                    .thenComparing(Candidate::source)
+                    .thenComparingInt(c -> c.label().length())
+                    .thenComparing(Candidate::label);
+
+    private final String prefix;
+    private final String lowerCasePrefix;
+    private final Map<String, Candidate> candidates = new LinkedHashMap<>();
+
+    /**
+     * Creates a collector.
+     *
+     * @param prefix the identifier part in front of the cursor
+     */
+    public CompletionCollector(String prefix) {
+        this.prefix = prefix;
+        this.lowerCasePrefix = prefix.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the prefix candidates are matched against.
+     *
+     * @return the prefix
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Adds a candidate if it matches the prefix. Of candidates with the same label and
+     * kind the more relevant one is kept.
+     *
+     * @param label the inserted name
+     * @param kind the kind of the candidate
+     * @param detail the type or signature shown next to the name
+     * @param source where the candidate comes from
+     */
+    public void add(String label, CompletionItemKind kind, @Nullable String detail, Source source) {
+        if (label.isEmpty() || !label.toLowerCase(Locale.ROOT).startsWith(lowerCasePrefix)) {
+            return;
+        }
+        add(new Candidate(label, kind, detail, null, source, label.startsWith(prefix)));
+    }
+
+    /**
+     * Adds a member of a type if it matches the prefix. Overloads of a method are
+     * collapsed into one candidate, the one with the fewest parameters.
+     *
+     * @param member the member
+     * @param source where the member comes from
+     */
+    public void addMember(MemberTable.Member member, Source source) {
+        String label = member.name();
+        if (label.isEmpty() || !label.toLowerCase(Locale.ROOT).startsWith(lowerCasePrefix)) {
+            return;
+        }
+        CompletionItemKind kind =
+                switch (member.kind()) {
+                    case METHOD -> CompletionItemKind.Method;
+                    case PROPERTY -> CompletionItemKind.Property;
+                    case FIELD -> CompletionItemKind.Field;
+                };
+        add(
+                new Candidate(
+                        label, kind, member.signature(), member, source, label.startsWith(prefix)));
+    }
+
+    private void add(Candidate candidate) {
+        candidates.merge(
+                candidate.label() + '\0' + candidate.kind(),
+                candidate,
+                (existing, added) ->
+                        added.source().compareTo(existing.source()) < 0 ? added : existing);
+    }
+
+    /**
+     * Gets the number of matching candidates collected so far.
+     *
+     * @return the number of candidates
+     */
+    public int size() {
+        return candidates.size();
+    }
+
+    /**
+     * Ranks the candidates and returns the best ones.
+     *
+     * @param maxItems the maximum number of items
+     * @param incomplete whether candidates are already known to be missing
+     * @return the completion list
+     */
+    public CompletionList toCompletionList(int maxItems, boolean incomplete) {
+        return toCompletionList(maxItems, incomplete, null);
+    }
+
+    /**
+     * Ranks the candidates and returns the best ones without their details, which are
+     * kept until the items are resolved.
+     *
+     * @param maxItems the maximum number of items
+     * @param incomplete whether candidates are already known to be missing
+     * @param responses where to keep the details of the items
+     * @return the completion list
+     */
+    public CompletionList toCompletionList(
+            int maxItems, boolean incomplete, @Nullable CompletionResponses responses) {
+        List<Candidate> ranked = new ArrayList<>(candidates.values());
+        ranked.sort(RANKING);
+
+        int count = Math.min(maxItems, ranked.size());
+        List<CompletionItem> items = new ArrayList<>(count);
+        List<CompletionResponses.Details> details = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Candidate candidate = ranked.get(i);
+            CompletionItem item = new CompletionItem(candidate.label());
+            item.setKind(candidate.kind());
+            // Keeps the ranking, clients sort by label otherwise
+            item.setSortText(String.format(Locale.ROOT, "%05d", i));
+            if (responses == null) {
+                item.setDetail(candidate.detail());
+            } else {
+                details.add(
+                        new CompletionResponses.Details(candidate.detail(), candidate.member()));
+            }
+            items.add(item);
+        }
+        if (responses != null && !items.isEmpty()) {
+            long responseId = responses.register(List.copyOf(details));
+            for (int i = 0; i < items.size(); i++) {
+                items.get(i).setData(CompletionResponses.key(responseId, i));
+            }
+        }
+        return new CompletionList(incomplete || ranked.size() > maxItems, items);
+    }
+}
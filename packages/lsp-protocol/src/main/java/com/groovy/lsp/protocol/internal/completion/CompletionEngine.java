@@ -0,0 +1,245 @@
+package com.groovy.lsp.protocol.internal.completion;
+
+import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.groovy.core.api.MemberTable;
+import com.groovy.lsp.groovy.core.api.TypeInferenceService;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
+import com.groovy.lsp.shared.workspace.api.dto.SymbolKind;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.ClassExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.eclipse.lsp4j.CompletionItemKind;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.Position;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Computes completion candidates for a position in a document.
+ *
+ * Candidates come from the scope at the position in the cached AST, the type names of
+ * the workspace and its dependencies in a {@link TypeNameIndex}, the Groovy keywords and
+ * the GDK. After a dot they are the members of the receiver, read from the
+ * {@link MemberTable} of its inferred type. Items are returned without details, which
+ * are kept in {@link CompletionResponses} until the client resolves them.
+ *
+ * Each request has a time budget; once the document is parsed, sources that do not
+ * finish within it are cut short and the result is marked incomplete, so that the
+ * client asks again with a longer prefix instead of waiting.
+ */
+public final class CompletionEngine {
+
+    /** Default maximum number of items returned. */
+    public static final int DEFAULT_MAX_ITEMS = 100;
+
+    /** Default time budget of a request. */
+    public static final Duration DEFAULT_BUDGET = Duration.ofMillis(150);
+
+    /** Stands in for a missing member name, so that the member access parses on its own. */
+    private static final String MEMBER_PLACEHOLDER = "$member";
+
+    private final TypeNameIndex typeNameIndex;
+    private final CompletionResponses responses;
+    private final RequestExecutor indexExecutor;
+    private final int maxItems;
+    private final long budgetNanos;
+
+    /**
+     * Creates an engine with the default limits.
+     *
+     * @param typeNameIndex the type names to complete
+     * @param responses where to keep the details of the items until they are resolved
+     * @param indexExecutor the executor the type names are rebuilt on
+     */
+    public CompletionEngine(
+            TypeNameIndex typeNameIndex,
+            CompletionResponses responses,
+            RequestExecutor indexExecutor) {
+        this(typeNameIndex, responses, indexExecutor, DEFAULT_MAX_ITEMS, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Creates an engine.
+     *
+     * @param typeNameIndex the type names to complete
+     * @param responses where to keep the details of the items until they are resolved
+     * @param indexExecutor the executor the type names are rebuilt on
+     * @param maxItems the maximum number of items returned
+     * @param budget the time budget of a request
+     */
+    public CompletionEngine(
+            TypeNameIndex typeNameIndex,
+            CompletionResponses responses,
+            RequestExecutor indexExecutor,
+            int maxItems,
+            Duration budget) {
+        this.typeNameIndex = typeNameIndex;
+        this.responses = responses;
+        this.indexExecutor = indexExecutor;
+        this.maxItems = maxItems;
+        this.budgetNanos = budget.toNanos();
+    }
+
+    /**
+     * Computes the completion list at a position.
+     *
+     * @param text the document text
+     * @param offset the offset of the position in the text
+     * @param position the position (0-based)
+     * @param uri the document URI, used as the key of the cached AST
+     * @param astService the service to parse the document with
+     * @param typeInferenceService the service to infer the type of receivers with
+     * @param indexService the index to read type names from, or {@code null} if none is
+     *     available
+     * @param cancellationToken a token that aborts the request
+     * @return the ranked completion list
+     * @throws CancellationException if the request is cancelled
+     */
+    public CompletionList complete(
+            String text,
+            int offset,
+            Position position,
+            String uri,
+            ASTService astService,
+            TypeInferenceService typeInferenceService,
+            @Nullable WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
+        long deadlineNanos = System.nanoTime() + budgetNanos;
+        CancellationToken deadline = () -> System.nanoTime() - deadlineNanos >= 0;
+
+        int start = offset;
+        while (start > 0 && Character.isJavaIdentifierPart(text.charAt(start - 1))) {
+            start--;
+        }
+        CompletionCollector collector = new CompletionCollector(text.substring(start, offset));
+
+        if (isMemberAccess(text, start)) {
+            int column = position.getCharacter() - (offset - start) + 1;
+            addMembers(
+                    collector,
+                    text,
+                    start,
+                    offset,
+                    position.getLine() + 1,
+                    column,
+                    uri,
+                    astService,
+                    typeInferenceService,
+                    cancellationToken);
+            cancellationToken.throwIfCancellationRequested();
+            return collector.toCompletionList(maxItems, false, responses);
+        }
+
+        // The parse is not cut short: its result is cached for the requests that follow,
+        // while an aborted parse would have to start over with each of them
+        ModuleNode moduleNode = astService.parseSource(text, uri, cancellationToken);
+        if (moduleNode != null) {
+            ScopeNameCollector.collect(
+                    moduleNode, position.getLine() + 1, position.getCharacter() + 1, collector);
+        }
+
+        BuiltinNames.addKeywords(collector);
+        boolean incomplete = addTypeNames(collector, indexService, deadline);
+        BuiltinNames.addGdkMethods(collector);
+
+        cancellationToken.throwIfCancellationRequested();
+        return collector.toCompletionList(
+                maxItems, incomplete || deadline.isCancellationRequested(), responses);
+    }
+
+    /**
+     * Adds the members of the receiver in front of the prefix. If the receiver cannot be
+     * found, only the GDK methods every object has are added.
+     */
+    private static void addMembers(
+            CompletionCollector collector,
+            String text,
+            int start,
+            int offset,
+            int line,
+            int column,
+            String uri,
+            ASTService astService,
+            TypeInferenceService typeInferenceService,
+            CancellationToken cancellationToken) {
+        // Without a name the member access would take the next token as its member
+        String source =
+                start == offset
+                        ? text.substring(0, offset) + MEMBER_PLACEHOLDER + text.substring(offset)
+                        : text;
+        // The patched source must not replace the document in the AST cache
+        ModuleNode moduleNode = astService.parseTransient(source, uri, cancellationToken);
+        Expression receiver =
+                moduleNode != null ? ReceiverFinder.find(moduleNode, line, column) : null;
+        if (moduleNode == null || receiver == null) {
+            BuiltinNames.addGdkMethods(collector);
+            return;
+        }
+
+        MemberTable memberTable =
+                typeInferenceService.inferMemberTable(receiver, moduleNode, cancellationToken);
+        // Only static members can be accessed on a class name
+        boolean staticOnly = receiver instanceof ClassExpression;
+        for (MemberTable.Member member : memberTable.getMembers()) {
+            if (staticOnly && !member.isStatic()) {
+                continue;
+            }
+            collector.addMember(
+                    member,
+                    member.isExtension()
+                            ? CompletionCollector.Source.GDK
+                            : CompletionCollector.Source.MEMBER);
+        }
+    }
+
+    /**
+     * Adds the type names matching the prefix.
+     *
+     * @return whether some type names may be missing
+     */
+    private boolean addTypeNames(
+            CompletionCollector collector,
+            @Nullable WorkspaceIndexService indexService,
+            CancellationToken deadline) {
+        if (indexService == null) {
+            return false;
+        }
+        TypeNameTrie trie = typeNameIndex.get(indexService, indexExecutor);
+        // Every type matches an empty prefix; wait for the user to narrow it down
+        if (trie == null || collector.getPrefix().isEmpty()) {
+            return true;
+        }
+        if (deadline.isCancellationRequested()) {
+            return true;
+        }
+        TypeNameTrie.Match match = trie.find(collector.getPrefix(), maxItems, deadline);
+        for (TypeNameTrie.TypeName typeName : match.names()) {
+            collector.add(
+                    typeName.simpleName(),
+                    toItemKind(typeName.kind()),
+                    typeName.qualifiedName(),
+                    CompletionCollector.Source.TYPE);
+        }
+        return match.truncated();
+    }
+
+    private static boolean isMemberAccess(String text, int start) {
+        int i = start - 1;
+        while (i >= 0 && Character.isWhitespace(text.charAt(i))) {
+            i--;
+        }
+        // Safe navigation and spread end with the same dot, ranges with two
+        return i >= 0 && text.charAt(i) == '.' && (i == 0 || text.charAt(i - 1) != '.');
+    }
+
+    private static CompletionItemKind toItemKind(SymbolKind kind) {
+        return switch (kind) {
+            case INTERFACE, TRAIT -> CompletionItemKind.Interface;
+            case ENUM -> CompletionItemKind.Enum;
+            default -> CompletionItemKind.Class;
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.groovy.lsp.protocol.internal.completion;
+
+import com.google.gson.JsonPrimitive;
+import com.groovy.lsp.groovy.core.api.MemberTable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.MarkupContent;
+import org.eclipse.lsp4j.MarkupKind;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Keeps the details of the last completion responses until their items are resolved.
+ *
+ * Completion items are sent with a label, a kind and a key in their data only; the
+ * signature and documentation of an item are filled in by
+ * {@code completionItem/resolve} when the client shows it. Only the most recent
+ * responses are kept, as clients resolve items of the list they are showing.
+ */
+public final class CompletionResponses {
+
+    /** Number of responses whose items can be resolved. */
+    private static final int RETAINED_RESPONSES = 4;
+
+    /**
+     * What is needed to resolve one item.
+     *
+     * @param detail the type or signature shown next to the name, or null
+     * @param member the member the item stands for, or null
+     */
+    record Details(@Nullable String detail, MemberTable.@Nullable Member member) {}
+
+    private final AtomicLong nextResponseId = new AtomicLong();
+
+    private final Map<Long, List<Details>> responses =
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, List<Details>> eldest) {
+                    return size() > RETAINED_RESPONSES;
+                }
+            };
+
+    /**
+     * Stores the details of the items of a response.
+     *
+     * @param details the details, in the order of the items
+     * @return the id of the response
+     */
+    long register(List<Details> details) {
+        long responseId = nextResponseId.incrementAndGet();
+        synchronized (responses) {
+            responses.put(responseId, details);
+        }
+        return responseId;
+    }
+
+    /**
+     * Creates the data of an item, which identifies it to {@link #resolve(CompletionItem)}.
+     */
+    static String key(long responseId, int index) {
+        return responseId + ":" + index;
+    }
+
+    /**
+     * Fills in the detail and documentation of an item of a recent response. Items of
+     * older responses are left as they are.
+     *
+     * @param item the item to resolve
+     * @return the same item
+     */
+    public CompletionItem resolve(CompletionItem item) {
+        Details details = find(item.getData());
+        if (details == null) {
+            return item;
+        }
+        item.setDetail(details.detail());
+        MemberTable.Member member = details.member();
+        if (member != null) {
+            item.setDocumentation(new MarkupContent(MarkupKind.MARKDOWN, documentation(member)));
+        }
+        return item;
+    }
+
+    private @Nullable Details find(@Nullable Object data) {
+        // Data comes back as JSON from the client
+        String key =
+                data instanceof JsonPrimitive primitive && primitive.isString()
+                        ? primitive.getAsString()
+                        : data instanceof String string ? string : null;
+        if (key == null) {
+            return null;
+        }
+        int separator = key.indexOf(':');
+        if (separator < 0) {
+            return null;
+        }
+        try {
+            long responseId = Long.parseLong(key.substring(0, separator));
+            int index = Integer.parseInt(key.substring(separator + 1));
+            List<Details> details;
+            synchronized (responses) {
+                details = responses.get(responseId);
+            }
+            return details != null && index >= 0 && index < details.size()
+                    ? details.get(index)
+                    : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String documentation(MemberTable.Member member) {
+        StringBuilder documentation = new StringBuilder();
+        String groovydoc = member.documentation();
+        if (groovydoc != null) {
+            documentation.append(groovydoc).append("\n\n");
+        }
+        String declaringType =
+                member.declaringType().substring(member.declaringType().lastIndexOf('.') + 1);
+        documentation
+                .append(member.isExtension() ? "Groovy extension method from `" : "Declared in `")
+                .append(declaringType)
+                .append('`');
+        return documentation.toString();
+    }
+}
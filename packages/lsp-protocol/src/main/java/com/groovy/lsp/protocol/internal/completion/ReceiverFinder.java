@@ -0,0 +1,98 @@
+package com.groovy.lsp.protocol.internal.completion;
+
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.CodeVisitorSupport;
+import org.codehaus.groovy.ast.FieldNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.PropertyNode;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.PropertyExpression;
+import org.codehaus.groovy.ast.stmt.Statement;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Finds the receiver of the member access whose member name starts at a position, e.g.
+ * {@code text} in {@code text.to|}.
+ */
+final class ReceiverFinder extends CodeVisitorSupport {
+
+    private final int line;
+    private final int column;
+    private @Nullable Expression receiver;
+
+    private ReceiverFinder(int line, int column) {
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Finds the receiver of a member access.
+     *
+     * @param moduleNode the parsed module
+     * @param line the line number of the member name (1-based)
+     * @param column the column number of the member name (1-based)
+     * @return the receiver, or null if there is no member access at the position
+     */
+    static @Nullable Expression find(ModuleNode moduleNode, int line, int column) {
+        ReceiverFinder finder = new ReceiverFinder(line, column);
+        for (ClassNode classNode : moduleNode.getClasses()) {
+            finder.visitClass(classNode);
+            if (finder.receiver != null) {
+                break;
+            }
+        }
+        return finder.receiver;
+    }
+
+    private void visitClass(ClassNode classNode) {
+        for (FieldNode field : classNode.getFields()) {
+            visit(field.getInitialExpression());
+        }
+        for (PropertyNode property : classNode.getProperties()) {
+            visit(property.getInitialExpression());
+        }
+        for (MethodNode method : classNode.getMethods()) {
+            visit(method.getCode());
+        }
+        for (MethodNode constructor : classNode.getDeclaredConstructors()) {
+            visit(constructor.getCode());
+        }
+        classNode.getObjectInitializerStatements().forEach(this::visit);
+    }
+
+    private void visit(@Nullable ASTNode node) {
+        if (receiver != null || node == null) {
+            return;
+        }
+        if (node instanceof Statement statement) {
+            statement.visit(this);
+        } else if (node instanceof Expression expression) {
+            expression.visit(this);
+        }
+    }
+
+    @Override
+    public void visitPropertyExpression(PropertyExpression expression) {
+        if (receiver == null && startsAtPosition(expression.getProperty())) {
+            receiver = expression.getObjectExpression();
+            return;
+        }
+        super.visitPropertyExpression(expression);
+    }
+
+    @Override
+    public void visitMethodCallExpression(MethodCallExpression call) {
+        if (receiver == null && !call.isImplicitThis() && startsAtPosition(call.getMethod())) {
+            receiver = call.getObjectExpression();
+            return;
+        }
+        super.visitMethodCallExpression(call);
+    }
+
+    private boolean startsAtPosition(ASTNode node) {
+        return node.getLineNumber() == line && node.getColumnNumber() == column;
+    }
+}
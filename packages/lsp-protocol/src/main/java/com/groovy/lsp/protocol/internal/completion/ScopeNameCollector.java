@@ -0,0 +1,224 @@
+package com.groovy.lsp.protocol.internal.completion;
+
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.CodeVisitorSupport;
+import org.codehaus.groovy.ast.FieldNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.Parameter;
+import org.codehaus.groovy.ast.PropertyNode;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.DeclarationExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+import org.codehaus.groovy.ast.stmt.CatchStatement;
+import org.codehaus.groovy.ast.stmt.ForStatement;
+import org.codehaus.groovy.ast.stmt.Statement;
+import org.eclipse.lsp4j.CompletionItemKind;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Collects the names visible at a position of a parsed module: the members of the
+ * enclosing classes, the parameters of the enclosing methods and closures, and the local
+ * variables declared before the position in the enclosing blocks.
+ */
+final class ScopeNameCollector extends CodeVisitorSupport {
+
+    private final int line;
+    private final int column;
+    private final CompletionCollector collector;
+    private @Nullable Statement root;
+
+    private ScopeNameCollector(int line, int column, CompletionCollector collector) {
+        this.line = line;
+        this.column = column;
+        this.collector = collector;
+    }
+
+    /**
+     * Adds the names visible at a position to a collector.
+     *
+     * @param moduleNode the parsed module
+     * @param line the line number (1-based)
+     * @param column the column number (1-based)
+     * @param collector the collector to add the names to
+     */
+    static void collect(
+            ModuleNode moduleNode, int line, int column, CompletionCollector collector) {
+        ScopeNameCollector scope = new ScopeNameCollector(line, column, collector);
+        for (ClassNode classNode : moduleNode.getClasses()) {
+            if (classNode.isScript() || scope.contains(classNode)) {
+                scope.visitClass(classNode);
+            }
+        }
+    }
+
+    private void visitClass(ClassNode classNode) {
+        for (FieldNode field : classNode.getFields()) {
+            if (isSourceName(field.getName())) {
+                collector.add(
+                        field.getName(),
+                        CompletionItemKind.Field,
+                        typeName(field.getType(), field.isDynamicTyped()),
+                        CompletionCollector.Source.MEMBER);
+            }
+        }
+        for (PropertyNode property : classNode.getProperties()) {
+            collector.add(
+                    property.getName(),
+                    CompletionItemKind.Property,
+                    typeName(property.getType(), property.isDynamicTyped()),
+                    CompletionCollector.Source.MEMBER);
+        }
+        for (MethodNode method : classNode.getMethods()) {
+            if (isSourceName(method.getName()) && !method.isScriptBody()) {
+                collector.add(
+                        method.getName(),
+                        CompletionItemKind.Method,
+                        signature(method),
+                        CompletionCollector.Source.MEMBER);
+            }
+        }
+        for (MethodNode method : classNode.getMethods()) {
+            if (method.isScriptBody() || contains(method)) {
+                visitMethod(method);
+            }
+        }
+        classNode.getDeclaredConstructors().stream()
+                .filter(this::contains)
+                .forEach(this::visitMethod);
+    }
+
+    private void visitMethod(MethodNode method) {
+        addParameters(method.getParameters());
+        Statement code = method.getCode();
+        if (code != null) {
+            root = code;
+            code.visit(this);
+        }
+    }
+
+    @Override
+    public void visitBlockStatement(BlockStatement block) {
+        // Variables of blocks the position is not in are out of scope
+        if (block == root || contains(block)) {
+            super.visitBlockStatement(block);
+        }
+    }
+
+    @Override
+    public void visitDeclarationExpression(DeclarationExpression expression) {
+        if (isBefore(expression)) {
+            if (expression.isMultipleAssignmentDeclaration()) {
+                for (Expression element : expression.getTupleExpression().getExpressions()) {
+                    if (element instanceof VariableExpression variable) {
+                        addVariable(variable);
+                    }
+                }
+            } else {
+                addVariable(expression.getVariableExpression());
+            }
+        }
+        super.visitDeclarationExpression(expression);
+    }
+
+    @Override
+    public void visitClosureExpression(ClosureExpression expression) {
+        if (!contains(expression)) {
+            return;
+        }
+        if (expression.isParameterSpecified()) {
+            addParameters(expression.getParameters());
+        } else {
+            collector.add(
+                    "it", CompletionItemKind.Variable, null, CompletionCollector.Source.SCOPE);
+        }
+        super.visitClosureExpression(expression);
+    }
+
+    @Override
+    public void visitForLoop(ForStatement forLoop) {
+        if (contains(forLoop) && forLoop.getVariable() != ForStatement.FOR_LOOP_DUMMY) {
+            addParameters(new Parameter[] {forLoop.getVariable()});
+        }
+        super.visitForLoop(forLoop);
+    }
+
+    @Override
+    public void visitCatchStatement(CatchStatement statement) {
+        if (contains(statement)) {
+            addParameters(new Parameter[] {statement.getVariable()});
+        }
+        super.visitCatchStatement(statement);
+    }
+
+    private void addVariable(VariableExpression variable) {
+        collector.add(
+                variable.getName(),
+                CompletionItemKind.Variable,
+                typeName(variable.getOriginType(), variable.isDynamicTyped()),
+                CompletionCollector.Source.SCOPE);
+    }
+
+    private void addParameters(@Nullable Parameter[] parameters) {
+        if (parameters == null) {
+            return;
+        }
+        for (Parameter parameter : parameters) {
+            collector.add(
+                    parameter.getName(),
+                    CompletionItemKind.Variable,
+                    typeName(parameter.getOriginType(), parameter.isDynamicTyped()),
+                    CompletionCollector.Source.SCOPE);
+        }
+    }
+
+    /**
+     * Checks whether the position is inside a node; nodes without a position count as
+     * containing it.
+     */
+    private boolean contains(ASTNode node) {
+        if (node.getLineNumber() < 1) {
+            return true;
+        }
+        boolean afterStart =
+                node.getLineNumber() < line
+                        || (node.getLineNumber() == line && node.getColumnNumber() <= column);
+        boolean beforeEnd =
+                node.getLastLineNumber() > line
+                        || (node.getLastLineNumber() == line
+                                && node.getLastColumnNumber() >= column);
+        return afterStart && beforeEnd;
+    }
+
+    private boolean isBefore(ASTNode node) {
+        return node.getLineNumber() > 0
+                && (node.getLineNumber() < line
+                        || (node.getLineNumber() == line && node.getColumnNumber() < column));
+    }
+
+    private static boolean isSourceName(String name) {
+        return name.indexOf('$') < 0 && !name.startsWith("<");
+    }
+
+    static @Nullable String typeName(@Nullable ClassNode type, boolean dynamic) {
+        return type == null || dynamic ? null : type.getNameWithoutPackage();
+    }
+
+    static String signature(MethodNode method) {
+        StringBuilder signature = new StringBuilder();
+        signature.append(method.getReturnType().getNameWithoutPackage()).append(' ');
+        signature.append(method.getName()).append('(');
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0) {
+                signature.append(", ");
+            }
+            signature.append(parameters[i].getType().getNameWithoutPackage());
+            signature.append(' ').append(parameters[i].getName());
+        }
+        return signature.append(')').toString();
+    }
+}
@@ -0,0 +1,135 @@
+package com.groovy.lsp.protocol.internal.completion;
+
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
+import com.groovy.lsp.shared.workspace.api.dto.SymbolInfo;
+import com.groovy.lsp.shared.workspace.api.dto.SymbolKind;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The type names of the workspace and its dependencies, kept in memory as a
+ * {@link TypeNameTrie} built from the symbol index.
+ *
+ * Reading every symbol out of the index takes too long for a completion request, so the
+ * trie is built in the background. Requests use the trie built last, or go without type
+ * names until the first build completes. {@link #invalidate()} schedules a rebuild with
+ * the next request.
+ */
+public class TypeNameIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TypeNameIndex.class);
+
+    private static final Set<SymbolKind> TYPE_KINDS =
+            EnumSet.of(
+                    SymbolKind.CLASS,
+                    SymbolKind.INTERFACE,
+                    SymbolKind.TRAIT,
+                    SymbolKind.ENUM,
+                    SymbolKind.ANNOTATION);
+
+    /** Separator between a jar and the class file path in the locations of dependencies. */
+    private static final String JAR_ENTRY_SEPARATOR = "!/";
+
+    private volatile @Nullable TypeNameTrie trie;
+    private volatile boolean stale = true;
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    /**
+     * Gets the trie built last, starting a rebuild when there is none yet or it is stale.
+     *
+     * @param indexService the index to read the types from
+     * @param executor the executor to build on
+     * @return the trie, or {@code null} until the first build completes
+     */
+    @Nullable TypeNameTrie get(WorkspaceIndexService indexService, RequestExecutor executor) {
+        TypeNameTrie current = trie;
+        if (stale && building.compareAndSet(false, true)) {
+            executor.run(() -> rebuild(indexService))
+                    .whenComplete(
+                            (result, error) -> {
+                                building.set(false);
+                                if (error != null) {
+                                    // Rejected or shed, try again with the next request
+                                    stale = true;
+                                }
+                            });
+        }
+        return current;
+    }
+
+    /**
+     * Marks the trie as stale, so that the next request rebuilds it.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Builds the trie on the calling thread.
+     *
+     * @param indexService the index to read the types from
+     */
+    public void rebuild(WorkspaceIndexService indexService) {
+        long start = System.nanoTime();
+        // Cleared first, so that an invalidation during the build is not lost
+        stale = false;
+        TypeNameTrie built = new TypeNameTrie();
+        try (Stream<SymbolInfo> symbols = indexService.searchSymbols("").get()) {
+            symbols.filter(symbol -> TYPE_KINDS.contains(symbol.kind()))
+                    .map(TypeNameIndex::toTypeName)
+                    .forEach(
+                            typeName -> {
+                                if (typeName != null) {
+                                    built.add(typeName);
+                                }
+                            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stale = true;
+            return;
+        } catch (ExecutionException | RuntimeException e) {
+            logger.debug("Failed to read type names from the workspace index", e);
+            stale = true;
+            return;
+        }
+        trie = built;
+        logger.debug(
+                "Indexed {} type names for completion in {} ms",
+                built.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Converts an index entry of a type. Workspace types are indexed by their qualified
+     * name, dependency types by their simple name with the class file as location.
+     */
+    private static TypeNameTrie.@Nullable TypeName toTypeName(SymbolInfo symbol) {
+        String name = symbol.name();
+        // Nested and anonymous classes are not completed by their binary name
+        if (name.indexOf('$') >= 0) {
+            return null;
+        }
+        int lastDot = name.lastIndexOf('.');
+        if (lastDot >= 0) {
+            return new TypeNameTrie.TypeName(name.substring(lastDot + 1), name, symbol.kind());
+        }
+        String location = symbol.location().toString().replace('\\', '/');
+        int entry = location.indexOf(JAR_ENTRY_SEPARATOR);
+        String qualifiedName = name;
+        if (entry >= 0 && location.endsWith(".class")) {
+            qualifiedName =
+                    location.substring(
+                                    entry + JAR_ENTRY_SEPARATOR.length(),
+                                    location.length() - ".class".length())
+                            .replace('/', '.');
+        }
+        return new TypeNameTrie.TypeName(name, qualifiedName, symbol.kind());
+    }
+}
@@ -0,0 +1,148 @@
+package com.groovy.lsp.protocol.internal.completion;
+
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.shared.workspace.api.dto.SymbolKind;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Prefix trie of simple type names, matched case-insensitively.
+ *
+ * Children are kept in sorted parallel arrays instead of maps, which keeps the trie small
+ * enough for the tens of thousands of classes on a typical classpath. Lookups walk the
+ * prefix and then the subtree breadth-first, so shorter names come first and a lookup can
+ * stop as soon as it has enough of them.
+ */
+final class TypeNameTrie {
+
+    /** Number of visited nodes between two checks of the deadline. */
+    private static final int CHECK_INTERVAL = 256;
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    /**
+     * A type known to the trie.
+     *
+     * @param simpleName the simple name the trie is keyed by
+     * @param qualifiedName the fully qualified name
+     * @param kind the kind of the type
+     */
+    record TypeName(String simpleName, String qualifiedName, SymbolKind kind) {}
+
+    /**
+     * The result of a lookup.
+     *
+     * @param names the names found, shorter names first
+     * @param truncated whether more names match than were returned
+     */
+    record Match(List<TypeName> names, boolean truncated) {}
+
+    private final Node root = new Node();
+    private int size;
+
+    /**
+     * Adds a type.
+     *
+     * @param typeName the type to add
+     */
+    void add(TypeName typeName) {
+        String key = typeName.simpleName().toLowerCase(Locale.ROOT);
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.getOrAddChild(key.charAt(i));
+        }
+        node.addEntry(typeName);
+        size++;
+    }
+
+    /**
+     * Gets the number of types in the trie.
+     *
+     * @return the number of types
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds the types whose simple name starts with a prefix, ignoring case.
+     *
+     * @param prefix the prefix
+     * @param limit the maximum number of types to return
+     * @param deadline a token that stops the lookup with what was found so far
+     * @return the types found
+     */
+    Match find(String prefix, int limit, CancellationToken deadline) {
+        Node start = root;
+        String key = prefix.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < key.length() && start != null; i++) {
+            start = start.child(key.charAt(i));
+        }
+        if (start == null) {
+            return new Match(List.of(), false);
+        }
+
+        List<TypeName> names = new ArrayList<>();
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        queue.add(start);
+        int visited = 0;
+        while (!queue.isEmpty()) {
+            if (++visited % CHECK_INTERVAL == 0 && deadline.isCancellationRequested()) {
+                return new Match(names, true);
+            }
+            Node node = queue.poll();
+            for (TypeName entry : node.entries) {
+                if (names.size() == limit) {
+                    return new Match(names, true);
+                }
+                names.add(entry);
+            }
+            queue.addAll(Arrays.asList(node.children));
+        }
+        return new Match(names, false);
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private List<TypeName> entries = List.of();
+
+        @Nullable Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrAddChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = child;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(
+                    children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        void addEntry(TypeName entry) {
+            if (entries.isEmpty()) {
+                entries = new ArrayList<>(1);
+            }
+            entries.add(entry);
+        }
+    }
+}
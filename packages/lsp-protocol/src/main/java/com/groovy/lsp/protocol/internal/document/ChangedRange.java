@@ -0,0 +1,14 @@
+package com.groovy.lsp.protocol.internal.document;
+
+/**
+ * A range of a document replaced by an edit, in offsets.
+ *
+ * The start and old end are offsets into the text before the edit, and the new end is
+ * the offset into the text after the edit where the replacement ends. Ranges of
+ * consecutive edits are each relative to the text their edit was applied to.
+ *
+ * @param startOffset the offset where the replaced range starts
+ * @param oldEndOffset the offset where the replaced range ended before the edit
+ * @param newEndOffset the offset where the replacement ends after the edit
+ */
+public record ChangedRange(int startOffset, int oldEndOffset, int newEndOffset) {}
@@ -1,7 +1,13 @@
 package com.groovy.lsp.protocol.internal.document;
 
 import com.google.inject.Singleton;
+import com.groovy.lsp.protocol.api.LineIndex;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
 import org.eclipse.lsp4j.TextDocumentItem;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
@@ -12,13 +18,29 @@ import org.slf4j.LoggerFactory;
  *
  * This service tracks opened documents and their content,
  * allowing other services to retrieve document content by URI.
+ *
+ * The text of each document is kept in a {@link PieceTable}, so incremental changes
+ * are applied in place at the cost of the edit rather than of the document. The ranges
+ * replaced since they were last taken are recorded per document for incremental
+ * reparsing.
+ *
+ * Readers get immutable {@link DocumentSnapshot}s of one version, so edits that arrive
+ * while a request runs never change the text the request works on. The snapshot of the
+ * current version, and with it its {@link LineIndex}, is created on first request and
+ * shared until the next edit.
  */
 @Singleton
 public class DocumentManager {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentManager.class);
 
-    private final ConcurrentHashMap<String, TextDocumentItem> documents = new ConcurrentHashMap<>();
+    /**
+     * Number of changed ranges kept per document. Beyond it, the ranges are collapsed
+     * into one range covering the whole document.
+     */
+    private static final int MAX_CHANGED_RANGES = 256;
+
+    private final ConcurrentHashMap<String, OpenDocument> documents = new ConcurrentHashMap<>();
 
     /**
      * Opens a document and stores its content.
@@ -27,7 +49,13 @@ public class DocumentManager {
      */
     public void openDocument(TextDocumentItem document) {
         logger.debug("Opening document: {}", document.getUri());
-        documents.put(document.getUri(), document);
+        documents.put(
+                document.getUri(),
+                new OpenDocument(
+                        document.getUri(),
+                        document.getLanguageId(),
+                        document.getVersion(),
+                        document.getText()));
     }
 
     /**
@@ -38,16 +66,41 @@ public class DocumentManager {
      * @param version The new version number
      */
     public void updateDocument(String uri, String newContent, int version) {
+        applyChanges(uri, List.of(new TextDocumentContentChangeEvent(newContent)), version);
+    }
+
+    /**
+     * Applies the content changes of a didChange notification to an opened document.
+     * Changes with a range replace that range, changes without one replace the whole
+     * document. Changes are applied in order, each to the result of the previous one.
+     *
+     * @param uri The document URI
+     * @param changes The content changes
+     * @param version The new version number
+     */
+    public void applyChanges(
+            String uri, List<TextDocumentContentChangeEvent> changes, int version) {
         logger.debug("Updating document: {} to version {}", uri, version);
-        TextDocumentItem doc = documents.get(uri);
+        OpenDocument doc = documents.get(uri);
         if (doc != null) {
-            doc.setText(newContent);
-            doc.setVersion(version);
+            doc.apply(changes, version);
         } else {
             logger.warn("Attempted to update non-existent document: {}", uri);
         }
     }
 
+    /**
+     * Takes the ranges of a document replaced since they were last taken.
+     *
+     * @param uri The document URI
+     * @return The changed ranges in the order of the edits, or an empty list if the
+     *     document is unchanged or not open
+     */
+    public List<ChangedRange> takeChangedRanges(String uri) {
+        OpenDocument doc = documents.get(uri);
+        return doc != null ? doc.takeChangedRanges() : List.of();
+    }
+
     /**
      * Closes a document and removes it from memory.
      *
@@ -65,18 +118,53 @@ public class DocumentManager {
      * @return The document content, or null if not found
      */
     public @Nullable String getDocumentContent(String uri) {
-        TextDocumentItem doc = documents.get(uri);
-        return doc != null ? doc.getText() : null;
+        OpenDocument doc = documents.get(uri);
+        return doc != null ? doc.getSnapshot().getText() : null;
+    }
+
+    /**
+     * Gets a snapshot of the current version of a document.
+     *
+     * @param uri The document URI
+     * @return The snapshot, or null if not found
+     */
+    public @Nullable DocumentSnapshot getSnapshot(String uri) {
+        OpenDocument doc = documents.get(uri);
+        return doc != null ? doc.getSnapshot() : null;
+    }
+
+    /**
+     * Gets the line index of the current content of a document. The index is built on
+     * first request and kept until the document changes.
+     *
+     * @param uri The document URI
+     * @return The line index, or null if not found
+     */
+    public @Nullable LineIndex getLineIndex(String uri) {
+        DocumentSnapshot snapshot = getSnapshot(uri);
+        return snapshot != null ? snapshot.getLineIndex() : null;
+    }
+
+    /**
+     * Gets the current version of a document.
+     *
+     * @param uri The document URI
+     * @return The document version, or -1 if the document is not open
+     */
+    public int getDocumentVersion(String uri) {
+        OpenDocument doc = documents.get(uri);
+        return doc != null ? doc.getVersion() : -1;
     }
 
     /**
      * Gets the full document item.
      *
      * @param uri The document URI
-     * @return The document item, or null if not found
+     * @return A copy of the document item, or null if not found
      */
     public @Nullable TextDocumentItem getDocument(String uri) {
-        return documents.get(uri);
+        OpenDocument doc = documents.get(uri);
+        return doc != null ? doc.toItem() : null;
     }
 
     /**
@@ -88,4 +176,78 @@ public class DocumentManager {
     public boolean isDocumentOpen(String uri) {
         return documents.containsKey(uri);
     }
+
+    /**
+     * An open document. Edits arrive in order from the client, but reads come from
+     * other threads, so all access is synchronized on the document.
+     */
+    private static final class OpenDocument {
+        private final String uri;
+        private final String languageId;
+        private final PieceTable text;
+        private final List<ChangedRange> changedRanges = new ArrayList<>();
+        private int version;
+        private int lengthAtLastTake;
+        private @Nullable DocumentSnapshot snapshot;
+
+        OpenDocument(String uri, String languageId, int version, String text) {
+            this.uri = uri;
+            this.languageId = languageId;
+            this.version = version;
+            this.text = new PieceTable(text);
+            this.lengthAtLastTake = text.length();
+        }
+
+        synchronized void apply(List<TextDocumentContentChangeEvent> changes, int newVersion) {
+            for (TextDocumentContentChangeEvent change : changes) {
+                Range range = change.getRange();
+                int start = range != null ? offsetAt(range.getStart()) : 0;
+                int end = range != null ? offsetAt(range.getEnd()) : text.length();
+                String replacement = change.getText();
+                text.replace(start, Math.max(start, end), replacement);
+                recordChange(
+                        new ChangedRange(
+                                start, Math.max(start, end), start + replacement.length()));
+            }
+            version = newVersion;
+            snapshot = null;
+        }
+
+        synchronized List<ChangedRange> takeChangedRanges() {
+            List<ChangedRange> taken = List.copyOf(changedRanges);
+            changedRanges.clear();
+            lengthAtLastTake = text.length();
+            return taken;
+        }
+
+        synchronized DocumentSnapshot getSnapshot() {
+            DocumentSnapshot current = snapshot;
+            if (current == null) {
+                current = new DocumentSnapshot(uri, version, text.toString());
+                snapshot = current;
+            }
+            return current;
+        }
+
+        synchronized int getVersion() {
+            return version;
+        }
+
+        synchronized TextDocumentItem toItem() {
+            return new TextDocumentItem(uri, languageId, version, getSnapshot().getText());
+        }
+
+        private int offsetAt(Position position) {
+            return text.offsetAt(position.getLine(), position.getCharacter());
+        }
+
+        private void recordChange(ChangedRange range) {
+            if (changedRanges.size() < MAX_CHANGED_RANGES) {
+                changedRanges.add(range);
+                return;
+            }
+            changedRanges.clear();
+            changedRanges.add(new ChangedRange(0, lengthAtLastTake, text.length()));
+        }
+    }
 }
@@ -0,0 +1,51 @@
+package com.groovy.lsp.protocol.internal.document;
+
+import com.groovy.lsp.protocol.api.LineIndex;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Immutable content of a document at one version.
+ *
+ * Handlers take a snapshot once per request and work on it throughout, so the text
+ * they analyze always belongs to the version they report results for, no matter how
+ * many edits arrive meanwhile. The line index of the snapshot is built on first use.
+ */
+public final class DocumentSnapshot {
+
+    private final String uri;
+    private final int version;
+    private final String text;
+    private volatile @Nullable LineIndex lineIndex;
+
+    public DocumentSnapshot(String uri, int version, String text) {
+        this.uri = uri;
+        this.version = version;
+        this.text = text;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the line index of the text, building it on first use.
+     *
+     * @return the line index
+     */
+    public LineIndex getLineIndex() {
+        LineIndex current = lineIndex;
+        if (current == null) {
+            current = LineIndex.of(text);
+            lineIndex = current;
+        }
+        return current;
+    }
+}
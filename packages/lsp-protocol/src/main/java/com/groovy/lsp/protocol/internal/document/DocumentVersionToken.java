@@ -0,0 +1,62 @@
+package com.groovy.lsp.protocol.internal.document;
+
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+
+/**
+ * Cancellation token that fires once a document has moved past the version
+ * a piece of work was started for (or has been closed).
+ *
+ * Handlers pass it to compilation and parsing so that compiles for stale
+ * document versions are abandoned instead of running to completion.
+ */
+public final class DocumentVersionToken implements CancellationToken {
+
+    private final DocumentManager documentManager;
+    private final String uri;
+    private final int version;
+
+    private DocumentVersionToken(DocumentManager documentManager, String uri, int version) {
+        this.documentManager = documentManager;
+        this.uri = uri;
+        this.version = version;
+    }
+
+    /**
+     * Creates a token bound to the document's current version.
+     *
+     * @param documentManager the document manager tracking the document
+     * @param uri the document URI
+     * @return a token that is cancelled once the document version changes
+     */
+    public static DocumentVersionToken forCurrentVersion(
+            DocumentManager documentManager, String uri) {
+        return new DocumentVersionToken(
+                documentManager, uri, documentManager.getDocumentVersion(uri));
+    }
+
+    /**
+     * Creates a token bound to the version of a snapshot.
+     *
+     * @param documentManager the document manager tracking the document
+     * @param snapshot the snapshot the work runs on
+     * @return a token that is cancelled once the document moves past the snapshot
+     */
+    public static DocumentVersionToken forSnapshot(
+            DocumentManager documentManager, DocumentSnapshot snapshot) {
+        return new DocumentVersionToken(documentManager, snapshot.getUri(), snapshot.getVersion());
+    }
+
+    /**
+     * Gets the document version this token was created for.
+     *
+     * @return the captured document version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean isCancellationRequested() {
+        return documentManager.getDocumentVersion(uri) != version;
+    }
+}
@@ -0,0 +1,279 @@
+package com.groovy.lsp.protocol.internal.document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Mutable text of an open document, stored as a piece table.
+ *
+ * The text is a sequence of pieces, each a slice of either the original text or of an
+ * append-only buffer holding all inserted text. An edit splits at most two pieces and
+ * appends the inserted text, so its cost depends on the size of the edit and the number
+ * of pieces, not on the size of the document. The line breaks of each buffer are kept in
+ * a shared array of buffer offsets, and each piece refers to the range of that array
+ * covering its slice, so splitting a piece neither scans nor copies its line breaks and
+ * LSP positions turn into offsets without scanning the text.
+ *
+ * Lines are separated by {@code \n}, and characters are UTF-16 code units like Java chars
+ * and LSP positions. Not thread-safe.
+ */
+public final class PieceTable {
+
+    /** Number of pieces above which the pieces are merged into a new original text. */
+    private static final int MAX_PIECES = 2048;
+
+    private String original;
+    private int[] originalBreaks = new int[0];
+    private final StringBuilder added = new StringBuilder();
+    // Offsets of the line breaks in the added buffer, in order, followed by unused slots
+    private int[] addedBreaks = new int[16];
+    private int addedBreakCount;
+    private final List<Piece> pieces = new ArrayList<>();
+    private int length;
+    private @Nullable String text;
+
+    public PieceTable(String text) {
+        this.original = text;
+        reset(text);
+    }
+
+    /**
+     * Gets the length of the text.
+     *
+     * @return the length in UTF-16 code units
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Gets the number of lines of the text.
+     *
+     * @return the number of line breaks plus one
+     */
+    public int lineCount() {
+        int lines = 1;
+        for (Piece piece : pieces) {
+            lines += piece.lineBreakCount();
+        }
+        return lines;
+    }
+
+    /**
+     * Converts a position into an offset. Positions past the end of their line are
+     * clamped to the line end, and lines past the end of the text to the text end.
+     *
+     * @param line the zero-based line
+     * @param character the zero-based character within the line
+     * @return the offset of the position
+     */
+    public int offsetAt(int line, int character) {
+        int lineStart = lineStart(line);
+        if (lineStart < 0) {
+            return length;
+        }
+        int nextLineStart = lineStart(line + 1);
+        int lineEnd = nextLineStart < 0 ? length : nextLineStart - 1;
+        return Math.min(lineStart + Math.max(character, 0), lineEnd);
+    }
+
+    /**
+     * Replaces a range of the text.
+     *
+     * @param start the offset where the range starts
+     * @param end the offset where the range ends, exclusive
+     * @param replacement the text to insert in place of the range
+     */
+    public void replace(int start, int end, String replacement) {
+        if (start < 0 || end < start || end > length) {
+            throw new IndexOutOfBoundsException(
+                    "Range [" + start + ", " + end + ") outside of text of length " + length);
+        }
+        if (start == end && replacement.isEmpty()) {
+            return;
+        }
+        text = null;
+        if (start == 0 && end == length) {
+            reset(replacement);
+            return;
+        }
+        int first = splitAt(start);
+        int last = splitAt(end);
+        pieces.subList(first, last).clear();
+        if (!replacement.isEmpty()) {
+            insert(first, replacement);
+        }
+        length += replacement.length() - (end - start);
+        if (pieces.size() > MAX_PIECES) {
+            reset(toString());
+        }
+    }
+
+    @Override
+    public String toString() {
+        String current = text;
+        if (current == null) {
+            StringBuilder builder = new StringBuilder(length);
+            for (Piece piece : pieces) {
+                builder.append(buffer(piece), piece.start(), piece.start() + piece.length());
+            }
+            current = builder.toString();
+            text = current;
+        }
+        return current;
+    }
+
+    private void reset(String newText) {
+        original = newText;
+        originalBreaks = lineBreaks(newText);
+        added.setLength(0);
+        addedBreakCount = 0;
+        pieces.clear();
+        if (!newText.isEmpty()) {
+            pieces.add(new Piece(false, 0, newText.length(), 0, originalBreaks.length));
+        }
+        length = newText.length();
+        text = newText;
+    }
+
+    /**
+     * Inserts text before a piece. Typing appends to the piece inserted last instead of
+     * adding a new piece.
+     */
+    private void insert(int index, String insertion) {
+        int breaksFrom = addedBreakCount;
+        for (int i = 0; i < insertion.length(); i++) {
+            if (insertion.charAt(i) == '\n') {
+                if (addedBreakCount == addedBreaks.length) {
+                    addedBreaks = Arrays.copyOf(addedBreaks, addedBreaks.length * 2);
+                }
+                addedBreaks[addedBreakCount++] = added.length() + i;
+            }
+        }
+        if (index > 0) {
+            Piece previous = pieces.get(index - 1);
+            // A piece ending at the buffer end also ends at the end of the break array
+            if (previous.added() && previous.start() + previous.length() == added.length()) {
+                pieces.set(
+                        index - 1,
+                        new Piece(
+                                true,
+                                previous.start(),
+                                previous.length() + insertion.length(),
+                                previous.breaksFrom(),
+                                addedBreakCount));
+                added.append(insertion);
+                return;
+            }
+        }
+        pieces.add(
+                index,
+                new Piece(true, added.length(), insertion.length(), breaksFrom, addedBreakCount));
+        added.append(insertion);
+    }
+
+    /**
+     * Splits the pieces at an offset.
+     *
+     * @return the index of the first piece at or after the offset
+     */
+    private int splitAt(int offset) {
+        int pieceStart = 0;
+        for (int i = 0; i < pieces.size(); i++) {
+            Piece piece = pieces.get(i);
+            if (offset == pieceStart) {
+                return i;
+            }
+            int pieceEnd = pieceStart + piece.length();
+            if (offset < pieceEnd) {
+                int split = offset - pieceStart;
+                int index =
+                        Arrays.binarySearch(
+                                breaks(piece),
+                                piece.breaksFrom(),
+                                piece.breaksTo(),
+                                piece.start() + split);
+                int firstRight = index >= 0 ? index : -index - 1;
+                pieces.set(
+                        i,
+                        new Piece(
+                                piece.added(),
+                                piece.start(),
+                                split,
+                                piece.breaksFrom(),
+                                firstRight));
+                pieces.add(
+                        i + 1,
+                        new Piece(
+                                piece.added(),
+                                piece.start() + split,
+                                piece.length() - split,
+                                firstRight,
+                                piece.breaksTo()));
+                return i + 1;
+            }
+            pieceStart = pieceEnd;
+        }
+        return pieces.size();
+    }
+
+    /**
+     * Finds where a line starts.
+     *
+     * @return the offset of the line start, or -1 if the text has fewer lines
+     */
+    private int lineStart(int line) {
+        if (line <= 0) {
+            return 0;
+        }
+        int linesBefore = 0;
+        int pieceStart = 0;
+        for (Piece piece : pieces) {
+            int count = piece.lineBreakCount();
+            if (linesBefore + count >= line) {
+                int lineBreak = breaks(piece)[piece.breaksFrom() + line - linesBefore - 1];
+                return pieceStart + lineBreak - piece.start() + 1;
+            }
+            linesBefore += count;
+            pieceStart += piece.length();
+        }
+        return -1;
+    }
+
+    private CharSequence buffer(Piece piece) {
+        return piece.added() ? added : original;
+    }
+
+    private int[] breaks(Piece piece) {
+        return piece.added() ? addedBreaks : originalBreaks;
+    }
+
+    private static int[] lineBreaks(String value) {
+        int count = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        int[] breaks = new int[count];
+        int next = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '\n') {
+                breaks[next++] = i;
+            }
+        }
+        return breaks;
+    }
+
+    /**
+     * A slice of one of the buffers. Its line breaks are the entries from {@code breaksFrom}
+     * to {@code breaksTo}, exclusive, of the break array of that buffer.
+     */
+    private record Piece(boolean added, int start, int length, int breaksFrom, int breaksTo) {
+        int lineBreakCount() {
+            return breaksTo - breaksFrom;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.groovy.lsp.protocol.internal.handler;
+
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.protocol.api.RequestExecutors;
+import com.groovy.lsp.protocol.internal.completion.CompletionEngine;
+import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
+import com.groovy.lsp.protocol.internal.document.DocumentVersionToken;
+import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
+import java.util.Collections;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.Position;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles completion requests for Groovy documents.
+ *
+ * The candidates are computed by a {@link CompletionEngine} on a snapshot of the
+ * document; results for a superseded version or a cancelled request are dropped.
+ */
+public class CompletionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompletionHandler.class);
+
+    private final IServiceRouter serviceRouter;
+    private final DocumentManager documentManager;
+    private final CompletionEngine engine;
+    private final RequestExecutor executor;
+
+    public CompletionHandler(
+            IServiceRouter serviceRouter,
+            DocumentManager documentManager,
+            CompletionEngine engine) {
+        this(
+                serviceRouter,
+                documentManager,
+                engine,
+                RequestExecutors.defaults().get(RequestCategory.INTERACTIVE));
+    }
+
+    public CompletionHandler(
+            IServiceRouter serviceRouter,
+            DocumentManager documentManager,
+            CompletionEngine engine,
+            RequestExecutor executor) {
+        this.serviceRouter = serviceRouter;
+        this.documentManager = documentManager;
+        this.engine = engine;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<CompletionList> handleCompletion(CompletionParams params) {
+        return executor.supply(
+                requestToken -> {
+                    try {
+                        String uri = params.getTextDocument().getUri();
+                        Position position = params.getPosition();
+
+                        logger.debug(
+                                "Processing completion at {}:{}:{}",
+                                uri,
+                                position.getLine(),
+                                position.getCharacter());
+
+                        // Work on one version of the document throughout
+                        DocumentSnapshot snapshot = documentManager.getSnapshot(uri);
+                        if (snapshot == null) {
+                            logger.debug("Document not found in document manager: {}", uri);
+                            return emptyList();
+                        }
+                        CancellationToken staleToken =
+                                DocumentVersionToken.forSnapshot(documentManager, snapshot);
+                        CancellationToken cancellationToken = requestToken.or(staleToken);
+
+                        int offset = snapshot.getLineIndex().offsetAt(position);
+                        CompletionList completionList =
+                                engine.complete(
+                                        snapshot.getText(),
+                                        offset,
+                                        position,
+                                        uri,
+                                        serviceRouter.getAstService(),
+                                        serviceRouter.getTypeInferenceService(),
+                                        workspaceIndexService(),
+                                        cancellationToken);
+
+                        logger.debug(
+                                "Found {} completion items for {} (incomplete: {})",
+                                completionList.getItems().size(),
+                                uri,
+                                completionList.isIncomplete());
+                        return completionList;
+
+                    } catch (CancellationException e) {
+                        logger.debug(
+                                "Abandoned stale or cancelled completion request for URI: {}",
+                                params.getTextDocument().getUri());
+                        // Nothing is known about this version, ask again as typing goes on
+                        return new CompletionList(true, Collections.emptyList());
+                    } catch (Exception e) {
+                        logger.error(
+                                "Error processing completion request for URI: {} at position"
+                                        + " {}:{}",
+                                params.getTextDocument().getUri(),
+                                params.getPosition().getLine(),
+                                params.getPosition().getCharacter(),
+                                e);
+                        return emptyList();
+                    }
+                });
+    }
+
+    private @Nullable WorkspaceIndexService workspaceIndexService() {
+        try {
+            return serviceRouter.getWorkspaceIndexService();
+        } catch (IllegalStateException e) {
+            logger.debug("Workspace index not available, completing without type names");
+            return null;
+        }
+    }
+
+    private static CompletionList emptyList() {
+        return new CompletionList(false, Collections.emptyList());
+    }
+}
@@ -1,9 +1,16 @@
 package com.groovy.lsp.protocol.internal.handler;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.protocol.api.RequestExecutors;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
+import com.groovy.lsp.protocol.internal.document.DocumentVersionToken;
 import com.groovy.lsp.protocol.internal.util.LocationUtils;
+import com.groovy.lsp.protocol.internal.util.RequestCancellation;
 import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
 import com.groovy.lsp.shared.workspace.api.dto.SymbolInfo;
 import com.groovy.lsp.shared.workspace.api.dto.SymbolKind;
@@ -11,6 +18,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.codehaus.groovy.ast.ASTNode;
@@ -30,6 +38,7 @@ import org.codehaus.groovy.ast.expr.Expression;
 import org.codehaus.groovy.ast.expr.MethodCallExpression;
 import org.codehaus.groovy.ast.expr.PropertyExpression;
 import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
 import org.codehaus.groovy.ast.stmt.CatchStatement;
 import org.codehaus.groovy.ast.stmt.ForStatement;
 import org.codehaus.groovy.control.SourceUnit;
@@ -59,16 +68,28 @@ public class DefinitionHandler {
 
     private final IServiceRouter serviceRouter;
     private final DocumentManager documentManager;
+    private final RequestExecutor executor;
 
     public DefinitionHandler(IServiceRouter serviceRouter, DocumentManager documentManager) {
+        this(
+                serviceRouter,
+                documentManager,
+                RequestExecutors.defaults().get(RequestCategory.INTERACTIVE));
+    }
+
+    public DefinitionHandler(
+            IServiceRouter serviceRouter,
+            DocumentManager documentManager,
+            RequestExecutor executor) {
         this.serviceRouter = serviceRouter;
         this.documentManager = documentManager;
+        this.executor = executor;
     }
 
     public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>>
             handleDefinition(DefinitionParams params) {
-        return CompletableFuture.supplyAsync(
-                () -> {
+        return executor.supply(
+                requestToken -> {
                     try {
                         String uri = params.getTextDocument().getUri();
                         Position position = params.getPosition();
@@ -84,15 +105,20 @@ public class DefinitionHandler {
                         WorkspaceIndexService indexService =
                                 serviceRouter.getWorkspaceIndexService();
 
-                        // Get document content
-                        String sourceCode = documentManager.getDocumentContent(uri);
-                        if (sourceCode == null) {
+                        // Work on one version of the document throughout
+                        DocumentSnapshot snapshot = documentManager.getSnapshot(uri);
+                        if (snapshot == null) {
                             logger.debug("Document not found in document manager: {}", uri);
                             return Either.forLeft(Collections.emptyList());
                         }
+                        String sourceCode = snapshot.getText();
+                        CancellationToken staleToken =
+                                DocumentVersionToken.forSnapshot(documentManager, snapshot);
+                        CancellationToken cancellationToken = requestToken.or(staleToken);
 
                         // Parse the document
-                        ModuleNode moduleNode = astService.parseSource(sourceCode, uri);
+                        ModuleNode moduleNode =
+                                astService.parseSource(sourceCode, uri, cancellationToken);
                         if (moduleNode == null) {
                             logger.debug("Failed to parse module for {}", uri);
                             return Either.forLeft(Collections.emptyList());
@@ -115,10 +141,18 @@ public class DefinitionHandler {
 
                         // Find definition locations
                         List<Location> locations =
-                                findDefinitions(node, moduleNode, uri, indexService);
+                                findDefinitions(
+                                        node, moduleNode, uri, indexService, cancellationToken);
 
+                        // Never answer for a superseded version or a cancelled request
+                        cancellationToken.throwIfCancellationRequested();
                         return Either.forLeft(locations);
 
+                    } catch (CancellationException e) {
+                        logger.debug(
+                                "Abandoned stale or cancelled definition request for URI: {}",
+                                params.getTextDocument().getUri());
+                        return Either.forLeft(Collections.emptyList());
                     } catch (Exception e) {
                         logger.error(
                                 "Error processing definition request for URI: {} at position {}:{}",
@@ -135,31 +169,49 @@ public class DefinitionHandler {
             ASTNode node,
             ModuleNode moduleNode,
             String currentUri,
-            WorkspaceIndexService indexService) {
+            WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
 
         List<Location> locations = new ArrayList<>();
 
         if (node instanceof VariableExpression variableExpression) {
-            locations.addAll(findVariableDefinition(variableExpression, moduleNode, currentUri));
+            locations.addAll(
+                    findVariableDefinition(
+                            variableExpression, moduleNode, currentUri, cancellationToken));
         } else if (node instanceof MethodCallExpression methodCallExpression) {
             locations.addAll(
                     findMethodDefinition(
-                            methodCallExpression, moduleNode, currentUri, indexService));
+                            methodCallExpression,
+                            moduleNode,
+                            currentUri,
+                            indexService,
+                            cancellationToken));
         } else if (node instanceof PropertyExpression propertyExpression) {
             locations.addAll(
                     findPropertyDefinition(
-                            propertyExpression, moduleNode, currentUri, indexService));
+                            propertyExpression,
+                            moduleNode,
+                            currentUri,
+                            indexService,
+                            cancellationToken));
         } else if (node instanceof ClassExpression classExpression) {
-            locations.addAll(findClassDefinition(classExpression, currentUri, indexService));
+            locations.addAll(
+                    findClassDefinition(
+                            classExpression, currentUri, indexService, cancellationToken));
         } else if (node instanceof ConstructorCallExpression ctorCall) {
-            locations.addAll(findClassDefinition(ctorCall.getType(), currentUri, indexService));
+            locations.addAll(
+                    findClassDefinition(
+                            ctorCall.getType(), currentUri, indexService, cancellationToken));
         }
 
         return locations;
     }
 
     private List<Location> findVariableDefinition(
-            VariableExpression varExpr, ModuleNode moduleNode, String currentUri) {
+            VariableExpression varExpr,
+            ModuleNode moduleNode,
+            String currentUri,
+            CancellationToken cancellationToken) {
 
         Variable variable = varExpr.getAccessedVariable();
         if (variable == null) {
@@ -169,7 +221,7 @@ public class DefinitionHandler {
         // Check if it's a local variable or parameter
         if (variable instanceof Parameter || variable instanceof DynamicVariable) {
             // Find the declaring node
-            ASTNode declaringNode = findDeclaringNode(variable, moduleNode);
+            ASTNode declaringNode = findDeclaringNode(variable, moduleNode, cancellationToken);
             if (declaringNode != null) {
                 Location location = LocationUtils.createLocation(currentUri, declaringNode);
                 if (location != null) {
@@ -187,7 +239,8 @@ public class DefinitionHandler {
             MethodCallExpression methodCall,
             ModuleNode moduleNode,
             String currentUri,
-            WorkspaceIndexService indexService) {
+            WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
 
         String methodName = methodCall.getMethodAsString();
         if (methodName == null) {
@@ -198,6 +251,7 @@ public class DefinitionHandler {
 
         // First, check local methods in the current class
         for (ClassNode classNode : moduleNode.getClasses()) {
+            cancellationToken.throwIfCancellationRequested();
             for (MethodNode method : classNode.getMethods()) {
                 if (method.getName().equals(methodName)) {
                     Location location = LocationUtils.createLocation(currentUri, method);
@@ -212,9 +266,8 @@ public class DefinitionHandler {
         if (locations.isEmpty() && indexService != null) {
             try {
                 List<SymbolInfo> symbols =
-                        indexService
-                                .searchSymbols(methodName)
-                                .get()
+                        RequestCancellation.await(
+                                        indexService.searchSymbols(methodName), cancellationToken)
                                 .filter(symbol -> symbol.kind() == SymbolKind.METHOD)
                                 .collect(Collectors.toList());
 
@@ -224,6 +277,8 @@ public class DefinitionHandler {
                         locations.add(location);
                     }
                 }
+            } catch (CancellationException e) {
+                throw e;
             } catch (Exception e) {
                 logger.warn(
                         "Error searching workspace index for method: {}. Falling back to local"
@@ -242,7 +297,8 @@ public class DefinitionHandler {
             PropertyExpression propExpr,
             ModuleNode moduleNode,
             String currentUri,
-            WorkspaceIndexService indexService) {
+            WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
 
         String propertyName = propExpr.getPropertyAsString();
         if (propertyName == null) {
@@ -253,6 +309,7 @@ public class DefinitionHandler {
 
         // Check local properties/fields
         for (ClassNode classNode : moduleNode.getClasses()) {
+            cancellationToken.throwIfCancellationRequested();
             // Check fields
             for (FieldNode field : classNode.getFields()) {
                 if (field.getName().equals(propertyName)) {
@@ -278,9 +335,8 @@ public class DefinitionHandler {
         if (locations.isEmpty() && indexService != null) {
             try {
                 List<SymbolInfo> symbols =
-                        indexService
-                                .searchSymbols(propertyName)
-                                .get()
+                        RequestCancellation.await(
+                                        indexService.searchSymbols(propertyName), cancellationToken)
                                 .filter(
                                         symbol ->
                                                 symbol.kind() == SymbolKind.FIELD
@@ -293,6 +349,8 @@ public class DefinitionHandler {
                         locations.add(location);
                     }
                 }
+            } catch (CancellationException e) {
+                throw e;
             } catch (Exception e) {
                 logger.warn(
                         "Error searching workspace index for property: {}. Falling back to local"
@@ -307,7 +365,10 @@ public class DefinitionHandler {
     }
 
     private List<Location> findClassDefinition(
-            ClassNode classNode, String currentUri, WorkspaceIndexService indexService) {
+            ClassNode classNode,
+            String currentUri,
+            WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
 
         String className = classNode.getName();
         List<Location> locations = new ArrayList<>();
@@ -326,9 +387,8 @@ public class DefinitionHandler {
         if (indexService != null) {
             try {
                 List<SymbolInfo> symbols =
-                        indexService
-                                .searchSymbols(className)
-                                .get()
+                        RequestCancellation.await(
+                                        indexService.searchSymbols(className), cancellationToken)
                                 .filter(
                                         symbol ->
                                                 symbol.kind() == SymbolKind.CLASS
@@ -355,6 +415,8 @@ public class DefinitionHandler {
                         }
                     }
                 }
+            } catch (CancellationException e) {
+                throw e;
             } catch (Exception e) {
                 logger.warn(
                         "Error searching workspace index for class: {}. Falling back to local"
@@ -369,15 +431,22 @@ public class DefinitionHandler {
     }
 
     private List<Location> findClassDefinition(
-            ClassExpression classExpr, String currentUri, WorkspaceIndexService indexService) {
-        return findClassDefinition(classExpr.getType(), currentUri, indexService);
+            ClassExpression classExpr,
+            String currentUri,
+            WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
+        return findClassDefinition(
+                classExpr.getType(), currentUri, indexService, cancellationToken);
     }
 
-    private @Nullable ASTNode findDeclaringNode(Variable variable, ModuleNode moduleNode) {
-        VariableDeclarationVisitor visitor = new VariableDeclarationVisitor(variable);
+    private @Nullable ASTNode findDeclaringNode(
+            Variable variable, ModuleNode moduleNode, CancellationToken cancellationToken) {
+        VariableDeclarationVisitor visitor =
+                new VariableDeclarationVisitor(variable, cancellationToken);
 
         // Visit all classes in the module
         for (ClassNode classNode : moduleNode.getClasses()) {
+            cancellationToken.throwIfCancellationRequested();
             classNode.visitContents(visitor);
             if (visitor.getDeclarationNode() != null) {
                 return visitor.getDeclarationNode();
@@ -397,10 +466,17 @@ public class DefinitionHandler {
      */
     private static class VariableDeclarationVisitor extends ClassCodeVisitorSupport {
         private final Variable targetVariable;
+        private final CancellationToken cancellationToken;
         private @Nullable ASTNode declarationNode;
 
         public VariableDeclarationVisitor(Variable targetVariable) {
+            this(targetVariable, CancellationToken.NONE);
+        }
+
+        public VariableDeclarationVisitor(
+                Variable targetVariable, CancellationToken cancellationToken) {
             this.targetVariable = targetVariable;
+            this.cancellationToken = cancellationToken;
         }
 
         public @Nullable ASTNode getDeclarationNode() {
@@ -418,8 +494,15 @@ public class DefinitionHandler {
             super.visitDeclarationExpression(expression);
         }
 
+        @Override
+        public void visitBlockStatement(BlockStatement block) {
+            cancellationToken.throwIfCancellationRequested();
+            super.visitBlockStatement(block);
+        }
+
         @Override
         public void visitMethod(MethodNode node) {
+            cancellationToken.throwIfCancellationRequested();
             // Check method parameters
             for (Parameter param : node.getParameters()) {
                 if (param.getName().equals(targetVariable.getName())) {
@@ -1,12 +1,25 @@
 package com.groovy.lsp.protocol.internal.handler;
 
+import com.groovy.lsp.groovy.core.api.AnalysisTier;
+import com.groovy.lsp.groovy.core.api.AnalysisTierService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.groovy.core.api.CompilationContext;
 import com.groovy.lsp.groovy.core.api.CompilationResult;
 import com.groovy.lsp.groovy.core.api.IncrementalCompilationService;
+import com.groovy.lsp.groovy.core.api.IncrementalCompilationService.CompilationPhase;
 import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.LineIndex;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.protocol.api.RequestExecutors;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
+import com.groovy.lsp.protocol.internal.document.DocumentVersionToken;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -18,6 +31,7 @@ import org.eclipse.lsp4j.DiagnosticSeverity;
 import org.eclipse.lsp4j.PublishDiagnosticsParams;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.services.LanguageClient;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,135 +42,281 @@ import org.slf4j.LoggerFactory;
  * - Syntax errors (using Parrot parser)
  * - Type errors
  * - Semantic errors
- * With debounce functionality for better performance.
+ *
+ * Diagnostics are computed in two lanes, each with its own debounce and executor:
+ * - The syntax lane compiles to CONVERSION only, without the project classpath, and
+ *   publishes syntax errors quickly.
+ * - The semantic lane follows and publishes the full result. It reuses the syntax lane's
+ *   errors for the same document version instead of recompiling, since semantic analysis
+ *   never gets past a phase with errors.
+ * Compiles are bound to the document version they were started for and are abandoned
+ * once a newer edit arrives. Immediate runs on open and save skip the debounce and go to
+ * the diagnostics {@link RequestExecutor}.
+ *
+ * Documents below the full analysis tier skip the semantic lane, and the syntax lane
+ * publishes for them directly. Semantic compile times are reported back, so a document
+ * that compiles too slowly is demoted.
  */
 public class DiagnosticsHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(DiagnosticsHandler.class);
 
-    // Debounce delay in milliseconds
-    private static final long DEBOUNCE_DELAY_MS = 250;
+    // Debounce delays in milliseconds
+    private static final long SYNTAX_DEBOUNCE_DELAY_MS = 50;
+    private static final long SEMANTIC_DEBOUNCE_DELAY_MS = 250;
 
     private final IServiceRouter serviceRouter;
     private final DocumentManager documentManager;
     private final ErrorRangeCalculator errorRangeCalculator = new ErrorRangeCalculator();
     private final DiagnosticCodeMapper diagnosticCodeMapper = new DiagnosticCodeMapper();
-    private final ScheduledExecutorService debounceExecutor =
-            Executors.newSingleThreadScheduledExecutor(
-                    r -> {
-                        Thread thread = new Thread(r);
-                        thread.setName("diagnostics-debounce");
-                        thread.setDaemon(true);
-                        return thread;
-                    });
-
-    // Map to track scheduled tasks for debouncing
-    private final java.util.concurrent.ConcurrentHashMap<String, ScheduledFuture<?>>
-            scheduledTasks = new java.util.concurrent.ConcurrentHashMap<>();
+
+    private final DebounceLane syntaxLane = new DebounceLane("syntax", SYNTAX_DEBOUNCE_DELAY_MS);
+    private final DebounceLane semanticLane =
+            new DebounceLane("semantic", SEMANTIC_DEBOUNCE_DELAY_MS);
+
+    // Latest syntax lane result per URI, reused by the semantic lane
+    private final ConcurrentHashMap<String, SyntaxResult> syntaxResults = new ConcurrentHashMap<>();
+
+    // Last published diagnostics per URI, used to skip redundant publications
+    private final ConcurrentHashMap<String, List<Diagnostic>> publishedDiagnostics =
+            new ConcurrentHashMap<>();
+
+    private volatile @Nullable AnalysisTierService analysisTierService;
+    private volatile RequestExecutor executor =
+            RequestExecutors.defaults().get(RequestCategory.DIAGNOSTICS);
 
     public DiagnosticsHandler(IServiceRouter serviceRouter, DocumentManager documentManager) {
         this.serviceRouter = serviceRouter;
         this.documentManager = documentManager;
     }
 
+    /**
+     * Sets the service that chooses how much analysis each document receives. Without
+     * it, every document is fully analyzed.
+     */
+    public void setAnalysisTierService(AnalysisTierService analysisTierService) {
+        this.analysisTierService = analysisTierService;
+    }
+
+    /**
+     * Sets the executor of immediate diagnostics runs. Without it, the default
+     * diagnostics executor is used.
+     */
+    public void setExecutor(RequestExecutor executor) {
+        this.executor = executor;
+    }
+
     /**
      * Handles diagnostics for a document immediately (e.g., on open).
+     * Runs the syntax lane and then the semantic lane. If the executor is saturated with
+     * runs of other documents, for example when a session restores many files, the run
+     * falls back to the debounced lanes so that the document still gets diagnostics.
      */
     public CompletableFuture<Void> handleDiagnosticsImmediate(String uri, LanguageClient client) {
-        return CompletableFuture.runAsync(
-                () -> {
-                    try {
-                        publishDiagnostics(uri, client);
-                    } catch (Exception e) {
-                        logger.error("Error handling immediate diagnostics for URI: {}", uri, e);
-                    }
-                });
+        CompletableFuture<Void> run =
+                executor.run(
+                        uri,
+                        () -> {
+                            try {
+                                runSyntaxLane(uri, client);
+                                runSemanticLane(uri, client);
+                            } catch (Exception e) {
+                                logger.error(
+                                        "Error handling immediate diagnostics for URI: {}", uri, e);
+                            }
+                        });
+        // Rejection completes the future before run returns
+        if (run.isCompletedExceptionally()) {
+            logger.debug("Diagnostics executor is saturated, debouncing the run of {}", uri);
+            return handleDiagnosticsDebounced(uri, client);
+        }
+        return run;
     }
 
     /**
      * Handles diagnostics for a document with debouncing (e.g., on change).
+     * Each lane is debounced independently.
      */
     public CompletableFuture<Void> handleDiagnosticsDebounced(String uri, LanguageClient client) {
-        // Cancel any existing scheduled task for this URI
-        ScheduledFuture<?> existingTask = scheduledTasks.get(uri);
-        if (existingTask != null && !existingTask.isDone()) {
-            existingTask.cancel(false);
-        }
+        syntaxLane.schedule(uri, () -> runSyntaxLane(uri, client));
+        semanticLane.schedule(uri, () -> runSemanticLane(uri, client));
+        return CompletableFuture.completedFuture(null);
+    }
 
-        // Schedule new task with debounce delay
-        ScheduledFuture<?> newTask =
-                debounceExecutor.schedule(
-                        () -> {
-                            try {
-                                publishDiagnostics(uri, client);
-                            } finally {
-                                // タスク完了後にマップから削除
-                                scheduledTasks.remove(uri);
-                            }
-                        },
-                        DEBOUNCE_DELAY_MS,
-                        TimeUnit.MILLISECONDS);
+    private void runSyntaxLane(String uri, LanguageClient client) {
+        try {
+            logger.debug("Computing syntax diagnostics for: {}", uri);
 
-        scheduledTasks.put(uri, newTask);
+            // Compile one version of the document and bind the compile to it
+            DocumentSnapshot snapshot = documentManager.getSnapshot(uri);
+            if (snapshot == null) {
+                logger.debug("Document not found in document manager: {}", uri);
+                return;
+            }
+            String sourceCode = snapshot.getText();
+            DocumentVersionToken staleToken =
+                    DocumentVersionToken.forSnapshot(documentManager, snapshot);
+
+            AnalysisTier tier = tierOf(uri, sourceCode);
+            if (!tier.allowsSyntaxAnalysis()) {
+                logger.debug("Analysis is disabled for: {}", uri);
+                publish(snapshot, List.of(), client);
+                return;
+            }
 
-        return CompletableFuture.completedFuture(null);
+            CompilationResult result = compileSyntax(sourceCode, uri, staleToken);
+            List<Diagnostic> diagnostics = convertToDiagnostics(result, snapshot);
+
+            // Never publish diagnostics computed for a superseded version
+            staleToken.throwIfCancellationRequested();
+
+            boolean hasErrors =
+                    diagnostics.stream().anyMatch(d -> d.getSeverity() == DiagnosticSeverity.Error);
+            SyntaxResult previous =
+                    syntaxResults.put(
+                            uri, new SyntaxResult(staleToken.getVersion(), diagnostics, hasErrors));
+
+            // Publish early only to show new syntax errors or to clear fixed ones;
+            // otherwise keep the last semantic diagnostics until the semantic lane runs
+            if (!tier.allowsSemanticAnalysis()
+                    || !diagnostics.isEmpty()
+                    || (previous != null && !previous.diagnostics().isEmpty())) {
+                publish(snapshot, diagnostics, client);
+            }
+
+        } catch (CancellationException e) {
+            logger.debug("Abandoned syntax diagnostics for stale version of: {}", uri);
+        } catch (Exception e) {
+            logger.error("Error computing syntax diagnostics for URI: {}", uri, e);
+        }
     }
 
-    private void publishDiagnostics(String uri, LanguageClient client) {
+    private void runSemanticLane(String uri, LanguageClient client) {
         try {
             logger.debug("Computing diagnostics for: {}", uri);
 
-            // Get document content
-            String sourceCode = documentManager.getDocumentContent(uri);
-            if (sourceCode == null) {
+            // Compile one version of the document and bind the compile to it
+            DocumentSnapshot snapshot = documentManager.getSnapshot(uri);
+            if (snapshot == null) {
                 logger.debug("Document not found in document manager: {}", uri);
                 return;
             }
+            String sourceCode = snapshot.getText();
+            DocumentVersionToken staleToken =
+                    DocumentVersionToken.forSnapshot(documentManager, snapshot);
 
-            // Get incremental compilation service
-            IncrementalCompilationService compilationService =
-                    serviceRouter.getIncrementalCompilationService();
-
-            // Create compilation unit with default configuration
-            CompilerConfiguration config = new CompilerConfiguration();
-            config.setTargetBytecode(CompilerConfiguration.JDK8);
-            CompilationUnit unit = compilationService.createCompilationUnit(config);
-
-            // Compile to SEMANTIC_ANALYSIS phase to get both syntax and type errors
-            CompilationResult result =
-                    compilationService.compileToPhaseWithResult(
-                            unit,
-                            sourceCode,
-                            uri,
-                            IncrementalCompilationService.CompilationPhase.SEMANTIC_ANALYSIS);
-
-            // Convert compilation errors to diagnostics
-            List<Diagnostic> diagnostics = new ArrayList<>();
-            for (CompilationResult.CompilationError error : result.getErrors()) {
-                Diagnostic diagnostic = convertToDiagnostic(error, sourceCode);
-                diagnostics.add(diagnostic);
+            if (!tierOf(uri, sourceCode).allowsSemanticAnalysis()) {
+                logger.debug("Semantic analysis is off for: {}", uri);
+                return;
             }
 
-            // Publish diagnostics
-            PublishDiagnosticsParams params = new PublishDiagnosticsParams();
-            params.setUri(uri);
-            params.setDiagnostics(diagnostics);
+            SyntaxResult syntax = syntaxResults.get(uri);
+
+            List<Diagnostic> diagnostics;
+            if (syntax != null
+                    && syntax.version() == staleToken.getVersion()
+                    && syntax.hasErrors()) {
+                // Groovy stops at the first phase with errors, so semantic analysis
+                // cannot add anything to a document with syntax errors
+                diagnostics = syntax.diagnostics();
+            } else {
+                // Compile to SEMANTIC_ANALYSIS phase to get both syntax and type errors
+                CompilationResult result = compileSemantic(sourceCode, uri, staleToken);
+                // Only the compile itself counts, not resolving the classpath or waiting
+                // for a compile permit
+                AnalysisTierService tierService = analysisTierService;
+                if (tierService != null) {
+                    tierService.recordCompileTime(uri, result.getCompileTimeMillis());
+                }
+                diagnostics = convertToDiagnostics(result, snapshot);
+            }
 
-            client.publishDiagnostics(params);
+            // Never publish diagnostics computed for a superseded version
+            staleToken.throwIfCancellationRequested();
 
-            logger.debug("Published {} diagnostics for: {}", diagnostics.size(), uri);
+            publish(snapshot, diagnostics, client);
 
+        } catch (CancellationException e) {
+            logger.debug("Abandoned diagnostics for stale version of: {}", uri);
         } catch (Exception e) {
             logger.error("Error computing diagnostics for URI: {}", uri, e);
         }
     }
 
+    private AnalysisTier tierOf(String uri, String sourceCode) {
+        AnalysisTierService tierService = analysisTierService;
+        return tierService == null
+                ? AnalysisTier.FULL
+                : tierService.getTier(uri, sourceCode.length());
+    }
+
+    private CompilationResult compileSyntax(
+            String sourceCode, String uri, CancellationToken token) {
+        IncrementalCompilationService compilationService =
+                serviceRouter.getIncrementalCompilationService();
+
+        // The conversion phase resolves no classes, so it never waits for the classpath
+        CompilerConfiguration configuration =
+                serviceRouter.getCompilationContextService().getSyntaxConfiguration();
+        CompilationUnit unit = compilationService.createCompilationUnit(configuration);
+
+        return compilationService.compileToPhaseWithResult(
+                unit, sourceCode, uri, CompilationPhase.CONVERSION, token);
+    }
+
+    private CompilationResult compileSemantic(
+            String sourceCode, String uri, CancellationToken token) {
+        IncrementalCompilationService compilationService =
+                serviceRouter.getIncrementalCompilationService();
+
+        // Compile against the project classpath, shared by all documents
+        CompilationContext context = serviceRouter.getCompilationContextService().getContext();
+        CompilationUnit unit = compilationService.createCompilationUnit(context);
+
+        return compilationService.compileToPhaseWithResult(
+                unit, sourceCode, uri, CompilationPhase.SEMANTIC_ANALYSIS, token);
+    }
+
+    private List<Diagnostic> convertToDiagnostics(
+            CompilationResult result, DocumentSnapshot snapshot) {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        if (result.getErrors().isEmpty()) {
+            return diagnostics;
+        }
+        LineIndex lines = snapshot.getLineIndex();
+        for (CompilationResult.CompilationError error : result.getErrors()) {
+            diagnostics.add(convertToDiagnostic(error, lines));
+        }
+        return diagnostics;
+    }
+
+    private void publish(
+            DocumentSnapshot snapshot, List<Diagnostic> diagnostics, LanguageClient client) {
+        String uri = snapshot.getUri();
+        List<Diagnostic> previous = publishedDiagnostics.put(uri, diagnostics);
+        if (diagnostics.equals(previous)) {
+            logger.debug("Diagnostics unchanged for: {}", uri);
+            return;
+        }
+
+        // Publish diagnostics
+        PublishDiagnosticsParams params = new PublishDiagnosticsParams();
+        params.setUri(uri);
+        params.setDiagnostics(diagnostics);
+        // Lets the client drop diagnostics that arrive after a newer edit
+        params.setVersion(snapshot.getVersion());
+
+        client.publishDiagnostics(params);
+
+        logger.debug("Published {} diagnostics for: {}", diagnostics.size(), uri);
+    }
+
     private Diagnostic convertToDiagnostic(
-            CompilationResult.CompilationError error, String sourceCode) {
+            CompilationResult.CompilationError error, LineIndex lines) {
         Diagnostic diagnostic = new Diagnostic();
 
         // Set range using ErrorRangeCalculator for better accuracy
-        Range range = errorRangeCalculator.calculateRange(error, sourceCode);
+        Range range = errorRangeCalculator.calculateRange(error, lines);
         diagnostic.setRange(range);
 
         // Set message
@@ -187,10 +347,10 @@ public class DiagnosticsHandler {
      */
     public void clearDiagnostics(String uri, LanguageClient client) {
         // Cancel any pending task for this URI
-        ScheduledFuture<?> task = scheduledTasks.remove(uri);
-        if (task != null && !task.isDone()) {
-            task.cancel(false);
-        }
+        syntaxLane.cancel(uri);
+        semanticLane.cancel(uri);
+        syntaxResults.remove(uri);
+        publishedDiagnostics.remove(uri);
 
         // Clear diagnostics by publishing empty list
         PublishDiagnosticsParams params = new PublishDiagnosticsParams();
@@ -200,34 +360,98 @@ public class DiagnosticsHandler {
     }
 
     /**
-     * Shuts down the debounce executor.
+     * Shuts down the debounce executors.
      */
     public void shutdown() {
-        // Cancel all pending tasks
-        scheduledTasks
-                .values()
-                .forEach(
-                        task -> {
-                            if (task != null && !task.isDone()) {
-                                task.cancel(false);
-                            }
-                        });
-        scheduledTasks.clear();
+        syntaxLane.shutdown();
+        semanticLane.shutdown();
+    }
 
-        // Shutdown executor
-        debounceExecutor.shutdown();
-        try {
-            if (!debounceExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+    // Test helper method
+    int getScheduledTasksSize() {
+        return syntaxLane.size() + semanticLane.size();
+    }
+
+    private record SyntaxResult(int version, List<Diagnostic> diagnostics, boolean hasErrors) {}
+
+    /**
+     * A debounced lane with its own scheduler thread, so a slow semantic compile
+     * never delays the syntax lane.
+     */
+    private static final class DebounceLane {
+        private final long delayMs;
+        private final ScheduledExecutorService debounceExecutor;
+
+        // Map to track scheduled tasks for debouncing
+        private final ConcurrentHashMap<String, ScheduledFuture<?>> scheduledTasks =
+                new ConcurrentHashMap<>();
+
+        DebounceLane(String name, long delayMs) {
+            this.delayMs = delayMs;
+            this.debounceExecutor =
+                    Executors.newSingleThreadScheduledExecutor(
+                            r -> {
+                                Thread thread = new Thread(r);
+                                thread.setName("diagnostics-" + name);
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+        }
+
+        void schedule(String uri, Runnable task) {
+            // Cancel any existing scheduled task for this URI
+            cancel(uri);
+
+            // Schedule new task with debounce delay
+            ScheduledFuture<?> newTask =
+                    debounceExecutor.schedule(
+                            () -> {
+                                try {
+                                    task.run();
+                                } finally {
+                                    // タスク完了後にマップから削除
+                                    scheduledTasks.remove(uri);
+                                }
+                            },
+                            delayMs,
+                            TimeUnit.MILLISECONDS);
+
+            scheduledTasks.put(uri, newTask);
+        }
+
+        void cancel(String uri) {
+            ScheduledFuture<?> task = scheduledTasks.remove(uri);
+            if (task != null && !task.isDone()) {
+                task.cancel(false);
+            }
+        }
+
+        void shutdown() {
+            // Cancel all pending tasks
+            scheduledTasks
+                    .values()
+                    .forEach(
+                            task -> {
+                                if (task != null && !task.isDone()) {
+                                    task.cancel(false);
+                                }
+                            });
+            scheduledTasks.clear();
+
+            // Shutdown executor
+            debounceExecutor.shutdown();
+            try {
+                if (!debounceExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    debounceExecutor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
                 debounceExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
             }
-        } catch (InterruptedException e) {
-            debounceExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
         }
-    }
 
-    // Test helper method
-    int getScheduledTasksSize() {
-        return scheduledTasks.size();
+        int size() {
+            return scheduledTasks.size();
+        }
     }
 }
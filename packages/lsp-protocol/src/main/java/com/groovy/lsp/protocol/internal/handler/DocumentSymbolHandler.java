@@ -0,0 +1,130 @@
+package com.groovy.lsp.protocol.internal.handler;
+
+import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.OutlineElement;
+import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.protocol.api.RequestExecutors;
+import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
+import com.groovy.lsp.protocol.internal.document.DocumentVersionToken;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import org.eclipse.lsp4j.DocumentSymbol;
+import org.eclipse.lsp4j.DocumentSymbolParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles document symbol requests for Groovy documents.
+ *
+ * The hierarchy is built from the outline of the document (types and their
+ * fields, properties, constructors and methods), which only needs a
+ * declaration-level parse instead of a full compile.
+ */
+public class DocumentSymbolHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentSymbolHandler.class);
+
+    private final IServiceRouter serviceRouter;
+    private final DocumentManager documentManager;
+    private final RequestExecutor executor;
+
+    public DocumentSymbolHandler(IServiceRouter serviceRouter, DocumentManager documentManager) {
+        this(
+                serviceRouter,
+                documentManager,
+                RequestExecutors.defaults().get(RequestCategory.INTERACTIVE));
+    }
+
+    public DocumentSymbolHandler(
+            IServiceRouter serviceRouter,
+            DocumentManager documentManager,
+            RequestExecutor executor) {
+        this.serviceRouter = serviceRouter;
+        this.documentManager = documentManager;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<List<Either<SymbolInformation, DocumentSymbol>>> handleDocumentSymbol(
+            DocumentSymbolParams params) {
+        return executor.supply(
+                requestToken -> {
+                    String uri = params.getTextDocument().getUri();
+                    try {
+                        DocumentSnapshot snapshot = documentManager.getSnapshot(uri);
+                        if (snapshot == null) {
+                            logger.debug("Document not found in document manager: {}", uri);
+                            return Collections.emptyList();
+                        }
+
+                        ASTService astService = serviceRouter.getAstService();
+                        List<Either<SymbolInformation, DocumentSymbol>> symbols = new ArrayList<>();
+                        for (OutlineElement element :
+                                astService.parseOutline(snapshot.getText(), uri)) {
+                            symbols.add(Either.forRight(toDocumentSymbol(element)));
+                        }
+
+                        // Never answer for a superseded version or a cancelled request
+                        requestToken
+                                .or(DocumentVersionToken.forSnapshot(documentManager, snapshot))
+                                .throwIfCancellationRequested();
+                        return symbols;
+                    } catch (CancellationException e) {
+                        logger.debug(
+                                "Abandoned stale or cancelled document symbol request for URI: {}",
+                                uri);
+                        return Collections.emptyList();
+                    } catch (Exception e) {
+                        logger.error(
+                                "Error processing document symbol request for URI: {}", uri, e);
+                        return Collections.emptyList();
+                    }
+                });
+    }
+
+    private DocumentSymbol toDocumentSymbol(OutlineElement element) {
+        Position start = new Position(element.getStartLine() - 1, element.getStartColumn() - 1);
+        Range range =
+                new Range(
+                        start, new Position(element.getEndLine() - 1, element.getEndColumn() - 1));
+        Range selectionRange =
+                new Range(
+                        new Position(element.getNameLine() - 1, element.getNameColumn() - 1),
+                        new Position(element.getNameLine() - 1, element.getNameEndColumn() - 1));
+
+        List<DocumentSymbol> children = new ArrayList<>();
+        for (OutlineElement child : element.getChildren()) {
+            children.add(toDocumentSymbol(child));
+        }
+
+        DocumentSymbol symbol =
+                new DocumentSymbol(
+                        element.getName(), toSymbolKind(element.getKind()), range, selectionRange);
+        symbol.setDetail(element.getDetail());
+        symbol.setChildren(children);
+        return symbol;
+    }
+
+    private static SymbolKind toSymbolKind(OutlineElement.Kind kind) {
+        return switch (kind) {
+            case CLASS -> SymbolKind.Class;
+            case INTERFACE, TRAIT, ANNOTATION -> SymbolKind.Interface;
+            case ENUM -> SymbolKind.Enum;
+            case ENUM_CONSTANT -> SymbolKind.EnumMember;
+            case FIELD -> SymbolKind.Field;
+            case PROPERTY -> SymbolKind.Property;
+            case CONSTRUCTOR -> SymbolKind.Constructor;
+            case METHOD -> SymbolKind.Method;
+        };
+    }
+}
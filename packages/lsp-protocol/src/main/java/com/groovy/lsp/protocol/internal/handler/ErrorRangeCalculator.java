@@ -1,6 +1,7 @@
 package com.groovy.lsp.protocol.internal.handler;
 
 import com.groovy.lsp.groovy.core.api.CompilationResult.CompilationError;
+import com.groovy.lsp.protocol.api.LineIndex;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.eclipse.lsp4j.Position;
@@ -25,6 +26,18 @@ public class ErrorRangeCalculator {
      * @return the calculated range
      */
     public Range calculateRange(CompilationError error, String sourceCode) {
+        return calculateRange(error, LineIndex.of(sourceCode));
+    }
+
+    /**
+     * Calculates the error range based on the error information and the indexed source
+     * code. Prefer this overload when calculating ranges for several errors.
+     *
+     * @param error the compilation error
+     * @param lines the line index of the source code
+     * @return the calculated range
+     */
+    public Range calculateRange(CompilationError error, LineIndex lines) {
         // LSP uses 0-based indexing
         int startLine = error.getLine() - 1;
         int startColumn = error.getColumn() - 1;
@@ -33,9 +46,8 @@ public class ErrorRangeCalculator {
         String errorToken = extractErrorToken(error.getMessage());
 
         // Get the line content
-        String[] lines = sourceCode.split("\n", -1);
-        if (startLine >= 0 && startLine < lines.length) {
-            String line = lines[startLine];
+        if (startLine >= 0 && startLine < lines.getLineCount()) {
+            String line = lines.getLine(startLine);
 
             // Calculate end column based on the token or context
             int endColumn = calculateEndColumn(line, startColumn, errorToken);
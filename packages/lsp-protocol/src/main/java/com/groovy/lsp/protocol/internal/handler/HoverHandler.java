@@ -1,9 +1,16 @@
 package com.groovy.lsp.protocol.internal.handler;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.groovy.core.api.TypeInferenceService;
 import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.protocol.api.RequestExecutors;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
+import com.groovy.lsp.protocol.internal.document.DocumentVersionToken;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import org.codehaus.groovy.ast.ASTNode;
 import org.codehaus.groovy.ast.AnnotatedNode;
@@ -42,15 +49,27 @@ public class HoverHandler {
 
     private final IServiceRouter serviceRouter;
     private final DocumentManager documentManager;
+    private final RequestExecutor executor;
 
     public HoverHandler(IServiceRouter serviceRouter, DocumentManager documentManager) {
+        this(
+                serviceRouter,
+                documentManager,
+                RequestExecutors.defaults().get(RequestCategory.INTERACTIVE));
+    }
+
+    public HoverHandler(
+            IServiceRouter serviceRouter,
+            DocumentManager documentManager,
+            RequestExecutor executor) {
         this.serviceRouter = serviceRouter;
         this.documentManager = documentManager;
+        this.executor = executor;
     }
 
     public CompletableFuture<Hover> handleHover(HoverParams params) {
-        return CompletableFuture.supplyAsync(
-                () -> {
+        return executor.supply(
+                requestToken -> {
                     try {
                         String uri = params.getTextDocument().getUri();
                         Position position = params.getPosition();
@@ -65,15 +84,20 @@ public class HoverHandler {
                         ASTService astService = serviceRouter.getAstService();
                         TypeInferenceService typeService = serviceRouter.getTypeInferenceService();
 
-                        // Get document content
-                        String sourceCode = documentManager.getDocumentContent(uri);
-                        if (sourceCode == null) {
+                        // Work on one version of the document throughout
+                        DocumentSnapshot snapshot = documentManager.getSnapshot(uri);
+                        if (snapshot == null) {
                             logger.debug("Document not found in document manager: {}", uri);
                             return null;
                         }
+                        String sourceCode = snapshot.getText();
+                        CancellationToken staleToken =
+                                DocumentVersionToken.forSnapshot(documentManager, snapshot);
+                        CancellationToken cancellationToken = requestToken.or(staleToken);
 
                         // Parse the document
-                        ModuleNode moduleNode = astService.parseSource(sourceCode, uri);
+                        ModuleNode moduleNode =
+                                astService.parseSource(sourceCode, uri, cancellationToken);
                         if (moduleNode == null) {
                             logger.debug("Failed to parse module for {}", uri);
                             return null;
@@ -94,7 +118,9 @@ public class HoverHandler {
                         }
 
                         // Generate hover content
-                        String hoverContent = generateHoverContent(node, typeService, moduleNode);
+                        String hoverContent =
+                                generateHoverContent(
+                                        node, typeService, moduleNode, cancellationToken);
                         if (hoverContent == null || hoverContent.isEmpty()) {
                             return null;
                         }
@@ -107,8 +133,15 @@ public class HoverHandler {
                         Hover hover = new Hover();
                         hover.setContents(markupContent);
 
+                        // Never answer for a superseded version or a cancelled request
+                        cancellationToken.throwIfCancellationRequested();
                         return hover;
 
+                    } catch (CancellationException e) {
+                        logger.debug(
+                                "Abandoned stale or cancelled hover request for URI: {}",
+                                params.getTextDocument().getUri());
+                        return null;
                     } catch (Exception e) {
                         logger.error(
                                 "Error processing hover request for URI: {} at position {}:{}",
@@ -122,7 +155,10 @@ public class HoverHandler {
     }
 
     private @Nullable String generateHoverContent(
-            ASTNode node, TypeInferenceService typeService, ModuleNode moduleNode) {
+            ASTNode node,
+            TypeInferenceService typeService,
+            ModuleNode moduleNode,
+            CancellationToken cancellationToken) {
         StringBuilder content = new StringBuilder();
 
         // Check more specific types first before checking interfaces
@@ -139,12 +175,14 @@ public class HoverHandler {
             if (variable != null) {
                 generateVariableHover(variable, content);
             } else {
-                generateExpressionHover(varExpr, content, typeService, moduleNode);
+                generateExpressionHover(
+                        varExpr, content, typeService, moduleNode, cancellationToken);
             }
         } else if (node instanceof Variable variable) {
             generateVariableHover(variable, content);
         } else if (node instanceof Expression expression) {
-            generateExpressionHover(expression, content, typeService, moduleNode);
+            generateExpressionHover(
+                    expression, content, typeService, moduleNode, cancellationToken);
         }
 
         return content.length() > 0 ? content.toString() : null;
@@ -308,9 +346,11 @@ public class HoverHandler {
             Expression expr,
             StringBuilder content,
             TypeInferenceService typeService,
-            ModuleNode moduleNode) {
+            ModuleNode moduleNode,
+            CancellationToken cancellationToken) {
         // Infer type for expression
-        ClassNode inferredType = typeService.inferExpressionType(expr, moduleNode);
+        ClassNode inferredType =
+                typeService.inferExpressionType(expr, moduleNode, cancellationToken);
 
         if (inferredType != null) {
             content.append("```groovy\n");
@@ -0,0 +1,176 @@
+package com.groovy.lsp.protocol.internal.handler;
+
+import com.groovy.lsp.groovy.core.api.OutlineElement;
+import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.LineIndex;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.protocol.api.RequestExecutors;
+import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
+import com.groovy.lsp.protocol.internal.document.DocumentVersionToken;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import org.eclipse.lsp4j.DefinitionParams;
+import org.eclipse.lsp4j.Hover;
+import org.eclipse.lsp4j.HoverParams;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.LocationLink;
+import org.eclipse.lsp4j.MarkupContent;
+import org.eclipse.lsp4j.MarkupKind;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles definition and hover requests from the outline of a document.
+ *
+ * Used for documents that are too large or too slow to compile: the outline
+ * only needs a declaration-level parse, so the answers are limited to the
+ * declarations of the document whose name matches the word under the cursor.
+ */
+public class OutlineNavigationHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutlineNavigationHandler.class);
+
+    private final IServiceRouter serviceRouter;
+    private final DocumentManager documentManager;
+    private final RequestExecutor executor;
+
+    public OutlineNavigationHandler(IServiceRouter serviceRouter, DocumentManager documentManager) {
+        this(
+                serviceRouter,
+                documentManager,
+                RequestExecutors.defaults().get(RequestCategory.INTERACTIVE));
+    }
+
+    public OutlineNavigationHandler(
+            IServiceRouter serviceRouter,
+            DocumentManager documentManager,
+            RequestExecutor executor) {
+        this.serviceRouter = serviceRouter;
+        this.documentManager = documentManager;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>>
+            handleDefinition(DefinitionParams params) {
+        return executor.supply(
+                requestToken -> {
+                    String uri = params.getTextDocument().getUri();
+                    List<Location> locations = new ArrayList<>();
+                    for (OutlineElement element : findDeclarations(uri, params.getPosition())) {
+                        locations.add(new Location(uri, toRange(element)));
+                    }
+                    return Either.forLeft(locations);
+                });
+    }
+
+    public CompletableFuture<Hover> handleHover(HoverParams params) {
+        return executor.supply(
+                requestToken -> {
+                    List<OutlineElement> declarations =
+                            findDeclarations(
+                                    params.getTextDocument().getUri(), params.getPosition());
+                    if (declarations.isEmpty()) {
+                        return null;
+                    }
+                    StringBuilder content = new StringBuilder();
+                    content.append("```groovy\n");
+                    for (OutlineElement element : declarations) {
+                        content.append(signature(element)).append("\n");
+                    }
+                    content.append("```");
+                    MarkupContent markupContent = new MarkupContent();
+                    markupContent.setKind(MarkupKind.MARKDOWN);
+                    markupContent.setValue(content.toString());
+                    return new Hover(markupContent);
+                });
+    }
+
+    private List<OutlineElement> findDeclarations(String uri, Position position) {
+        try {
+            DocumentSnapshot snapshot = documentManager.getSnapshot(uri);
+            if (snapshot == null) {
+                logger.debug("Document not found in document manager: {}", uri);
+                return Collections.emptyList();
+            }
+            LineIndex lines = snapshot.getLineIndex();
+            String word = wordAt(lines, position);
+            if (word == null) {
+                return Collections.emptyList();
+            }
+            List<OutlineElement> declarations = new ArrayList<>();
+            collect(
+                    serviceRouter.getAstService().parseOutline(lines.getText(), uri),
+                    word,
+                    declarations);
+
+            // Never answer for a superseded version
+            DocumentVersionToken.forSnapshot(documentManager, snapshot)
+                    .throwIfCancellationRequested();
+            return declarations;
+        } catch (CancellationException e) {
+            logger.debug("Abandoned stale outline search for URI: {}", uri);
+            return Collections.emptyList();
+        } catch (Exception e) {
+            logger.error("Error searching the outline of URI: {}", uri, e);
+            return Collections.emptyList();
+        }
+    }
+
+    private static void collect(
+            List<OutlineElement> elements, String name, List<OutlineElement> declarations) {
+        for (OutlineElement element : elements) {
+            if (element.getName().equals(name)) {
+                declarations.add(element);
+            }
+            collect(element.getChildren(), name, declarations);
+        }
+    }
+
+    /**
+     * Finds the identifier at a position.
+     */
+    static @Nullable String wordAt(LineIndex lines, Position position) {
+        if (position.getLine() >= lines.getLineCount()) {
+            return null;
+        }
+        String sourceCode = lines.getText();
+        int lineStart = lines.getLineStart(position.getLine());
+        int cursor = lines.offsetAt(position);
+        int start = cursor;
+        while (start > lineStart && Character.isJavaIdentifierPart(sourceCode.charAt(start - 1))) {
+            start--;
+        }
+        int end = cursor;
+        while (end < sourceCode.length()
+                && Character.isJavaIdentifierPart(sourceCode.charAt(end))) {
+            end++;
+        }
+        return start < end ? sourceCode.substring(start, end) : null;
+    }
+
+    private static String signature(OutlineElement element) {
+        String detail = element.getDetail();
+        return switch (element.getKind()) {
+            case METHOD, CONSTRUCTOR -> element.getName() + (detail == null ? "" : detail);
+            case FIELD, PROPERTY -> (detail == null ? "def" : detail) + " " + element.getName();
+            case ENUM_CONSTANT -> element.getName();
+            default -> element.getKind().name().toLowerCase(Locale.ROOT) + " " + element.getName();
+        };
+    }
+
+    private static Range toRange(OutlineElement element) {
+        return new Range(
+                new Position(element.getStartLine() - 1, element.getStartColumn() - 1),
+                new Position(element.getEndLine() - 1, element.getEndColumn() - 1));
+    }
+}
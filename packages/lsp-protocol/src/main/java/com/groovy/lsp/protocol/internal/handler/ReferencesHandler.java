@@ -1,31 +1,38 @@
 package com.groovy.lsp.protocol.internal.handler;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.groovy.core.api.OccurrenceKind;
+import com.groovy.lsp.groovy.core.api.OccurrenceTable;
 import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.protocol.api.RequestExecutors;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
+import com.groovy.lsp.protocol.internal.document.DocumentVersionToken;
 import com.groovy.lsp.protocol.internal.util.LocationUtils;
+import com.groovy.lsp.protocol.internal.util.RequestCancellation;
 import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
 import com.groovy.lsp.shared.workspace.api.dto.SymbolInfo;
 import com.groovy.lsp.shared.workspace.api.dto.SymbolKind;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.codehaus.groovy.ast.ASTNode;
-import org.codehaus.groovy.ast.ClassCodeVisitorSupport;
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.ast.FieldNode;
 import org.codehaus.groovy.ast.MethodNode;
 import org.codehaus.groovy.ast.ModuleNode;
 import org.codehaus.groovy.ast.PropertyNode;
-import org.codehaus.groovy.ast.expr.ClassExpression;
-import org.codehaus.groovy.ast.expr.ConstructorCallExpression;
 import org.codehaus.groovy.ast.expr.MethodCallExpression;
-import org.codehaus.groovy.ast.expr.PropertyExpression;
 import org.codehaus.groovy.ast.expr.VariableExpression;
-import org.codehaus.groovy.control.SourceUnit;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
@@ -50,15 +57,27 @@ public class ReferencesHandler {
 
     private final IServiceRouter serviceRouter;
     private final DocumentManager documentManager;
+    private final RequestExecutor executor;
 
     public ReferencesHandler(IServiceRouter serviceRouter, DocumentManager documentManager) {
+        this(
+                serviceRouter,
+                documentManager,
+                RequestExecutors.defaults().get(RequestCategory.INTERACTIVE));
+    }
+
+    public ReferencesHandler(
+            IServiceRouter serviceRouter,
+            DocumentManager documentManager,
+            RequestExecutor executor) {
         this.serviceRouter = serviceRouter;
         this.documentManager = documentManager;
+        this.executor = executor;
     }
 
     public CompletableFuture<List<? extends Location>> handleReferences(ReferenceParams params) {
-        return CompletableFuture.supplyAsync(
-                () -> {
+        return executor.supply(
+                requestToken -> {
                     try {
                         String uri = params.getTextDocument().getUri();
                         Position position = params.getPosition();
@@ -77,15 +96,20 @@ public class ReferencesHandler {
                         WorkspaceIndexService indexService =
                                 serviceRouter.getWorkspaceIndexService();
 
-                        // Get document content
-                        String sourceCode = documentManager.getDocumentContent(uri);
-                        if (sourceCode == null) {
+                        // Work on one version of the document throughout
+                        DocumentSnapshot snapshot = documentManager.getSnapshot(uri);
+                        if (snapshot == null) {
                             logger.debug("Document not found in document manager: {}", uri);
                             return Collections.emptyList();
                         }
+                        String sourceCode = snapshot.getText();
+                        CancellationToken staleToken =
+                                DocumentVersionToken.forSnapshot(documentManager, snapshot);
+                        CancellationToken cancellationToken = requestToken.or(staleToken);
 
                         // Parse the document
-                        ModuleNode moduleNode = astService.parseSource(sourceCode, uri);
+                        ModuleNode moduleNode =
+                                astService.parseSource(sourceCode, uri, cancellationToken);
                         if (moduleNode == null) {
                             logger.debug("Failed to parse module for {}", uri);
                             return Collections.emptyList();
@@ -109,10 +133,22 @@ public class ReferencesHandler {
                         // Find references
                         List<Location> references =
                                 findReferences(
-                                        node, moduleNode, uri, includeDeclaration, indexService);
+                                        node,
+                                        moduleNode,
+                                        uri,
+                                        includeDeclaration,
+                                        indexService,
+                                        cancellationToken);
 
+                        // Never answer for a superseded version or a cancelled request
+                        cancellationToken.throwIfCancellationRequested();
                         return references;
 
+                    } catch (CancellationException e) {
+                        logger.debug(
+                                "Abandoned stale or cancelled references request for URI: {}",
+                                params.getTextDocument().getUri());
+                        return Collections.emptyList();
                     } catch (Exception e) {
                         logger.error(
                                 "Error processing references request for URI: {} at position {}:{}",
@@ -130,18 +166,28 @@ public class ReferencesHandler {
             ModuleNode moduleNode,
             String currentUri,
             boolean includeDeclaration,
-            WorkspaceIndexService indexService) {
+            WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
 
         List<Location> references = new ArrayList<>();
 
         if (node instanceof VariableExpression variableExpression) {
             references.addAll(
                     findVariableReferences(
-                            variableExpression, moduleNode, currentUri, includeDeclaration));
+                            variableExpression,
+                            moduleNode,
+                            currentUri,
+                            includeDeclaration,
+                            cancellationToken));
         } else if (node instanceof MethodNode methodNode) {
             references.addAll(
                     findMethodReferences(
-                            methodNode, moduleNode, currentUri, includeDeclaration, indexService));
+                            methodNode,
+                            moduleNode,
+                            currentUri,
+                            includeDeclaration,
+                            indexService,
+                            cancellationToken));
         } else if (node instanceof MethodCallExpression methodCallExpression) {
             references.addAll(
                     findMethodCallReferences(
@@ -149,15 +195,26 @@ public class ReferencesHandler {
                             moduleNode,
                             currentUri,
                             includeDeclaration,
-                            indexService));
+                            indexService,
+                            cancellationToken));
         } else if (node instanceof ClassNode classNode) {
             references.addAll(
                     findClassReferences(
-                            classNode, moduleNode, currentUri, includeDeclaration, indexService));
+                            classNode,
+                            moduleNode,
+                            currentUri,
+                            includeDeclaration,
+                            indexService,
+                            cancellationToken));
         } else if (node instanceof FieldNode fieldNode) {
             references.addAll(
                     findFieldReferences(
-                            fieldNode, moduleNode, currentUri, includeDeclaration, indexService));
+                            fieldNode,
+                            moduleNode,
+                            currentUri,
+                            includeDeclaration,
+                            indexService,
+                            cancellationToken));
         } else if (node instanceof PropertyNode propertyNode) {
             references.addAll(
                     findPropertyReferences(
@@ -165,7 +222,8 @@ public class ReferencesHandler {
                             moduleNode,
                             currentUri,
                             includeDeclaration,
-                            indexService));
+                            indexService,
+                            cancellationToken));
         }
 
         return references;
@@ -175,7 +233,8 @@ public class ReferencesHandler {
             VariableExpression varExpr,
             ModuleNode moduleNode,
             String currentUri,
-            boolean includeDeclaration) {
+            boolean includeDeclaration,
+            CancellationToken cancellationToken) {
         // Check includeDeclaration to avoid unused parameter warning
         if (includeDeclaration) {
             // Currently this implementation doesn't distinguish between declaration inclusion
@@ -185,9 +244,12 @@ public class ReferencesHandler {
         String varName = varExpr.getName();
         List<Location> references = new ArrayList<>();
 
-        // Use a visitor to find all references in the current file
-        ReferenceVisitor visitor = new ReferenceVisitor(varName, currentUri, references);
-        moduleNode.getClasses().forEach(classNode -> classNode.visitContents(visitor));
+        // Look up all references in the current file
+        addLocations(
+                OccurrenceTable.of(moduleNode, cancellationToken)
+                        .find(varName, OccurrenceKind.VARIABLE),
+                currentUri,
+                references);
 
         return references;
     }
@@ -197,11 +259,17 @@ public class ReferencesHandler {
             ModuleNode moduleNode,
             String currentUri,
             boolean includeDeclaration,
-            WorkspaceIndexService indexService) {
+            WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
 
         String methodName = method.getName();
         return findMethodReferencesByName(
-                methodName, moduleNode, currentUri, includeDeclaration, indexService);
+                methodName,
+                moduleNode,
+                currentUri,
+                includeDeclaration,
+                indexService,
+                cancellationToken);
     }
 
     private List<Location> findMethodCallReferences(
@@ -209,7 +277,8 @@ public class ReferencesHandler {
             ModuleNode moduleNode,
             String currentUri,
             boolean includeDeclaration,
-            WorkspaceIndexService indexService) {
+            WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
 
         String methodName = methodCall.getMethodAsString();
         if (methodName == null) {
@@ -217,7 +286,12 @@ public class ReferencesHandler {
         }
 
         return findMethodReferencesByName(
-                methodName, moduleNode, currentUri, includeDeclaration, indexService);
+                methodName,
+                moduleNode,
+                currentUri,
+                includeDeclaration,
+                indexService,
+                cancellationToken);
     }
 
     private List<Location> findMethodReferencesByName(
@@ -225,22 +299,27 @@ public class ReferencesHandler {
             ModuleNode moduleNode,
             String currentUri,
             boolean includeDeclaration,
-            WorkspaceIndexService indexService) {
+            WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
 
         List<Location> references = new ArrayList<>();
 
         // Find references in current file
-        MethodReferenceVisitor visitor =
-                new MethodReferenceVisitor(methodName, currentUri, references, includeDeclaration);
-        moduleNode.getClasses().forEach(classNode -> classNode.visitContents(visitor));
+        Set<OccurrenceKind> kinds =
+                includeDeclaration
+                        ? EnumSet.of(OccurrenceKind.METHOD_DECLARATION, OccurrenceKind.METHOD_CALL)
+                        : EnumSet.of(OccurrenceKind.METHOD_CALL);
+        addLocations(
+                OccurrenceTable.of(moduleNode, cancellationToken).find(methodName, kinds),
+                currentUri,
+                references);
 
         // Search in workspace using indexService
         if (indexService != null) {
             try {
                 List<SymbolInfo> symbols =
-                        indexService
-                                .searchSymbols(methodName)
-                                .get()
+                        RequestCancellation.await(
+                                        indexService.searchSymbols(methodName), cancellationToken)
                                 .filter(symbol -> symbol.kind() == SymbolKind.METHOD)
                                 .collect(Collectors.toList());
 
@@ -250,6 +329,8 @@ public class ReferencesHandler {
                         references.add(location);
                     }
                 }
+            } catch (CancellationException e) {
+                throw e;
             } catch (Exception e) {
                 logger.warn(
                         "Error searching workspace index for method references: {}. Falling back to"
@@ -268,7 +349,8 @@ public class ReferencesHandler {
             ModuleNode moduleNode,
             String currentUri,
             boolean includeDeclaration,
-            WorkspaceIndexService indexService) {
+            WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
         // Check includeDeclaration to avoid unused parameter warning
         if (includeDeclaration) {
             // Currently this implementation doesn't distinguish between declaration inclusion
@@ -279,17 +361,18 @@ public class ReferencesHandler {
         List<Location> references = new ArrayList<>();
 
         // Find references in current file
-        ClassReferenceVisitor visitor =
-                new ClassReferenceVisitor(className, currentUri, references);
-        moduleNode.getClasses().forEach(cn -> cn.visitContents(visitor));
+        addLocations(
+                OccurrenceTable.of(moduleNode, cancellationToken)
+                        .find(className, OccurrenceKind.CLASS_REFERENCE),
+                currentUri,
+                references);
 
         // Search in workspace
         if (indexService != null) {
             try {
                 List<SymbolInfo> symbols =
-                        indexService
-                                .searchSymbols(className)
-                                .get()
+                        RequestCancellation.await(
+                                        indexService.searchSymbols(className), cancellationToken)
                                 .filter(
                                         symbol ->
                                                 symbol.kind() == SymbolKind.CLASS
@@ -316,6 +399,8 @@ public class ReferencesHandler {
                         }
                     }
                 }
+            } catch (CancellationException e) {
+                throw e;
             } catch (Exception e) {
                 logger.warn(
                         "Error searching workspace index for class references: {}. Falling back to"
@@ -334,10 +419,16 @@ public class ReferencesHandler {
             ModuleNode moduleNode,
             String currentUri,
             boolean includeDeclaration,
-            WorkspaceIndexService indexService) {
+            WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
 
         return findPropertyOrFieldReferences(
-                field.getName(), moduleNode, currentUri, includeDeclaration, indexService);
+                field.getName(),
+                moduleNode,
+                currentUri,
+                includeDeclaration,
+                indexService,
+                cancellationToken);
     }
 
     private List<Location> findPropertyReferences(
@@ -345,10 +436,16 @@ public class ReferencesHandler {
             ModuleNode moduleNode,
             String currentUri,
             boolean includeDeclaration,
-            WorkspaceIndexService indexService) {
+            WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
 
         return findPropertyOrFieldReferences(
-                property.getName(), moduleNode, currentUri, includeDeclaration, indexService);
+                property.getName(),
+                moduleNode,
+                currentUri,
+                includeDeclaration,
+                indexService,
+                cancellationToken);
     }
 
     private List<Location> findPropertyOrFieldReferences(
@@ -356,7 +453,8 @@ public class ReferencesHandler {
             ModuleNode moduleNode,
             String currentUri,
             boolean includeDeclaration,
-            WorkspaceIndexService indexService) {
+            WorkspaceIndexService indexService,
+            CancellationToken cancellationToken) {
         // Check includeDeclaration to avoid unused parameter warning
         if (includeDeclaration) {
             // Currently this implementation doesn't distinguish between declaration inclusion
@@ -366,17 +464,18 @@ public class ReferencesHandler {
         List<Location> references = new ArrayList<>();
 
         // Find references in current file
-        PropertyReferenceVisitor visitor =
-                new PropertyReferenceVisitor(name, currentUri, references);
-        moduleNode.getClasses().forEach(classNode -> classNode.visitContents(visitor));
+        addLocations(
+                OccurrenceTable.of(moduleNode, cancellationToken)
+                        .find(name, OccurrenceKind.PROPERTY),
+                currentUri,
+                references);
 
         // Search in workspace
         if (indexService != null) {
             try {
                 List<SymbolInfo> symbols =
-                        indexService
-                                .searchSymbols(name)
-                                .get()
+                        RequestCancellation.await(
+                                        indexService.searchSymbols(name), cancellationToken)
                                 .filter(
                                         symbol ->
                                                 symbol.kind() == SymbolKind.FIELD
@@ -389,6 +488,8 @@ public class ReferencesHandler {
                         references.add(location);
                     }
                 }
+            } catch (CancellationException e) {
+                throw e;
             } catch (Exception e) {
                 logger.warn(
                         "Error searching workspace index for property/field references: {}. Falling"
@@ -402,155 +503,12 @@ public class ReferencesHandler {
         return references;
     }
 
-    /**
-     * Visitor to find variable references
-     */
-    private static class ReferenceVisitor extends ClassCodeVisitorSupport {
-        private final String targetName;
-        private final String uri;
-        private final List<Location> references;
-
-        public ReferenceVisitor(String targetName, String uri, List<Location> references) {
-            this.targetName = targetName;
-            this.uri = uri;
-            this.references = references;
-        }
-
-        @Override
-        public void visitVariableExpression(VariableExpression expression) {
-            if (targetName.equals(expression.getName())) {
-                Location location = LocationUtils.createLocation(uri, expression);
-                if (location != null) {
-                    references.add(location);
-                }
+    private void addLocations(List<ASTNode> nodes, String uri, List<Location> references) {
+        for (ASTNode node : nodes) {
+            Location location = LocationUtils.createLocation(uri, node);
+            if (location != null) {
+                references.add(location);
             }
-            super.visitVariableExpression(expression);
-        }
-
-        @Override
-        protected @Nullable SourceUnit getSourceUnit() {
-            return null; // Not needed for our use case
-        }
-    }
-
-    /**
-     * Visitor to find method references
-     */
-    private static class MethodReferenceVisitor extends ClassCodeVisitorSupport {
-        private final String targetName;
-        private final String uri;
-        private final List<Location> references;
-        private final boolean includeDeclaration;
-
-        public MethodReferenceVisitor(
-                String targetName,
-                String uri,
-                List<Location> references,
-                boolean includeDeclaration) {
-            this.targetName = targetName;
-            this.uri = uri;
-            this.references = references;
-            this.includeDeclaration = includeDeclaration;
-        }
-
-        @Override
-        public void visitMethod(MethodNode method) {
-            if (includeDeclaration && targetName.equals(method.getName())) {
-                Location location = LocationUtils.createLocation(uri, method);
-                if (location != null) {
-                    references.add(location);
-                }
-            }
-            super.visitMethod(method);
-        }
-
-        @Override
-        public void visitMethodCallExpression(MethodCallExpression call) {
-            if (targetName.equals(call.getMethodAsString())) {
-                Location location = LocationUtils.createLocation(uri, call);
-                if (location != null) {
-                    references.add(location);
-                }
-            }
-            super.visitMethodCallExpression(call);
-        }
-
-        @Override
-        protected @Nullable SourceUnit getSourceUnit() {
-            return null;
-        }
-    }
-
-    /**
-     * Visitor to find class references
-     */
-    private static class ClassReferenceVisitor extends ClassCodeVisitorSupport {
-        private final String targetName;
-        private final String uri;
-        private final List<Location> references;
-
-        public ClassReferenceVisitor(String targetName, String uri, List<Location> references) {
-            this.targetName = targetName;
-            this.uri = uri;
-            this.references = references;
-        }
-
-        @Override
-        public void visitClassExpression(ClassExpression expression) {
-            if (targetName.equals(expression.getType().getName())) {
-                Location location = LocationUtils.createLocation(uri, expression);
-                if (location != null) {
-                    references.add(location);
-                }
-            }
-            super.visitClassExpression(expression);
-        }
-
-        @Override
-        public void visitConstructorCallExpression(ConstructorCallExpression call) {
-            if (targetName.equals(call.getType().getName())) {
-                Location location = LocationUtils.createLocation(uri, call);
-                if (location != null) {
-                    references.add(location);
-                }
-            }
-            super.visitConstructorCallExpression(call);
-        }
-
-        @Override
-        protected @Nullable SourceUnit getSourceUnit() {
-            return null;
-        }
-    }
-
-    /**
-     * Visitor to find property/field references
-     */
-    private static class PropertyReferenceVisitor extends ClassCodeVisitorSupport {
-        private final String targetName;
-        private final String uri;
-        private final List<Location> references;
-
-        public PropertyReferenceVisitor(String targetName, String uri, List<Location> references) {
-            this.targetName = targetName;
-            this.uri = uri;
-            this.references = references;
-        }
-
-        @Override
-        public void visitPropertyExpression(PropertyExpression expression) {
-            if (targetName.equals(expression.getPropertyAsString())) {
-                Location location = LocationUtils.createLocation(uri, expression);
-                if (location != null) {
-                    references.add(location);
-                }
-            }
-            super.visitPropertyExpression(expression);
-        }
-
-        @Override
-        protected @Nullable SourceUnit getSourceUnit() {
-            return null;
         }
     }
 
@@ -0,0 +1,122 @@
+package com.groovy.lsp.protocol.internal.handler;
+
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.protocol.api.RequestExecutors;
+import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
+import com.groovy.lsp.protocol.internal.document.DocumentVersionToken;
+import com.groovy.lsp.protocol.internal.signature.SignatureHelpEngine;
+import java.util.Collections;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.SignatureHelp;
+import org.eclipse.lsp4j.SignatureHelpParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles signature help requests for Groovy documents.
+ *
+ * The signatures are computed by a {@link SignatureHelpEngine} on a snapshot of the
+ * document; results for a superseded version or a cancelled request are dropped.
+ */
+public class SignatureHelpHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignatureHelpHandler.class);
+
+    private final IServiceRouter serviceRouter;
+    private final DocumentManager documentManager;
+    private final SignatureHelpEngine engine;
+    private final RequestExecutor executor;
+
+    public SignatureHelpHandler(
+            IServiceRouter serviceRouter,
+            DocumentManager documentManager,
+            SignatureHelpEngine engine) {
+        this(
+                serviceRouter,
+                documentManager,
+                engine,
+                RequestExecutors.defaults().get(RequestCategory.INTERACTIVE));
+    }
+
+    public SignatureHelpHandler(
+            IServiceRouter serviceRouter,
+            DocumentManager documentManager,
+            SignatureHelpEngine engine,
+            RequestExecutor executor) {
+        this.serviceRouter = serviceRouter;
+        this.documentManager = documentManager;
+        this.engine = engine;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<SignatureHelp> handleSignatureHelp(SignatureHelpParams params) {
+        return executor.supply(
+                requestToken -> {
+                    try {
+                        String uri = params.getTextDocument().getUri();
+                        Position position = params.getPosition();
+
+                        logger.debug(
+                                "Processing signature help at {}:{}:{}",
+                                uri,
+                                position.getLine(),
+                                position.getCharacter());
+
+                        // Work on one version of the document throughout
+                        DocumentSnapshot snapshot = documentManager.getSnapshot(uri);
+                        if (snapshot == null) {
+                            logger.debug("Document not found in document manager: {}", uri);
+                            return emptySignatureHelp();
+                        }
+                        CancellationToken staleToken =
+                                DocumentVersionToken.forSnapshot(documentManager, snapshot);
+                        CancellationToken cancellationToken = requestToken.or(staleToken);
+
+                        int offset = snapshot.getLineIndex().offsetAt(position);
+                        SignatureHelp signatureHelp =
+                                engine.signatureHelp(
+                                        snapshot.getText(),
+                                        offset,
+                                        uri,
+                                        serviceRouter.getAstService(),
+                                        serviceRouter.getTypeInferenceService(),
+                                        cancellationToken);
+                        if (signatureHelp == null) {
+                            logger.debug("No call found at position in {}", uri);
+                            return emptySignatureHelp();
+                        }
+
+                        logger.debug(
+                                "Found {} signatures for {}",
+                                signatureHelp.getSignatures().size(),
+                                uri);
+                        return signatureHelp;
+
+                    } catch (CancellationException e) {
+                        logger.debug(
+                                "Abandoned stale or cancelled signature help request for URI: {}",
+                                params.getTextDocument().getUri());
+                        return emptySignatureHelp();
+                    } catch (Exception e) {
+                        logger.error(
+                                "Error processing signature help request for URI: {} at position"
+                                        + " {}:{}",
+                                params.getTextDocument().getUri(),
+                                params.getPosition().getLine(),
+                                params.getPosition().getCharacter(),
+                                e);
+                        return emptySignatureHelp();
+                    }
+                });
+    }
+
+    private static SignatureHelp emptySignatureHelp() {
+        return new SignatureHelp(Collections.emptyList(), null, null);
+    }
+}
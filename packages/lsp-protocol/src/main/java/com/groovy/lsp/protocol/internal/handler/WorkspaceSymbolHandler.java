@@ -0,0 +1,187 @@
+package com.groovy.lsp.protocol.internal.handler;
+
+import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
+import com.groovy.lsp.shared.workspace.api.dto.SymbolInfo;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+import org.eclipse.lsp4j.WorkspaceSymbol;
+import org.eclipse.lsp4j.WorkspaceSymbolParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles workspace symbol requests on top of the workspace index.
+ *
+ * Symbols of workspace sources come first, followed by those of dependencies, up to a
+ * maximum number of results. The index answers a query with a single complete result,
+ * so the symbols are returned in the response rather than as partial results. Dependency
+ * symbols point at their class file inside the jar.
+ */
+public class WorkspaceSymbolHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkspaceSymbolHandler.class);
+
+    /** Default maximum number of symbols returned. */
+    public static final int DEFAULT_MAX_RESULTS = 500;
+
+    private static final String JAR_ENTRY_SEPARATOR = "!/";
+
+    private final IServiceRouter serviceRouter;
+    private final int maxResults;
+
+    /**
+     * Creates a handler.
+     *
+     * @param serviceRouter the router to get the workspace index from
+     */
+    public WorkspaceSymbolHandler(IServiceRouter serviceRouter) {
+        this(serviceRouter, DEFAULT_MAX_RESULTS);
+    }
+
+    /**
+     * Creates a handler.
+     *
+     * @param serviceRouter the router to get the workspace index from
+     * @param maxResults the maximum number of symbols returned
+     */
+    public WorkspaceSymbolHandler(IServiceRouter serviceRouter, int maxResults) {
+        this.serviceRouter = serviceRouter;
+        this.maxResults = maxResults;
+    }
+
+    public CompletableFuture<
+                    Either<List<? extends SymbolInformation>, List<? extends WorkspaceSymbol>>>
+            handleSymbol(WorkspaceSymbolParams params) {
+        WorkspaceIndexService indexService = workspaceIndexService();
+        if (indexService == null) {
+            return CompletableFuture.completedFuture(Either.forLeft(Collections.emptyList()));
+        }
+        return indexService
+                .searchSymbols(params.getQuery())
+                .<Either<List<? extends SymbolInformation>, List<? extends WorkspaceSymbol>>>
+                        thenApply(symbols -> Either.forRight(report(symbols, params)))
+                .exceptionally(
+                        e -> {
+                            logger.error(
+                                    "Error searching workspace symbols for query: '{}'",
+                                    params.getQuery(),
+                                    e);
+                            return Either.forRight(Collections.emptyList());
+                        });
+    }
+
+    /**
+     * Converts the symbols, workspace ones first, up to the maximum number of results.
+     */
+    private List<WorkspaceSymbol> report(Stream<SymbolInfo> symbols, WorkspaceSymbolParams params) {
+        List<WorkspaceSymbol> response = new ArrayList<>();
+        List<SymbolInfo> dependencySymbols = new ArrayList<>();
+        boolean capped = false;
+        Iterator<SymbolInfo> iterator = symbols.iterator();
+        while (iterator.hasNext()) {
+            SymbolInfo symbol = iterator.next();
+            if (isDependency(symbol)) {
+                // Kept for after the workspace symbols, up to what is still to be returned
+                if (dependencySymbols.size() < maxResults) {
+                    dependencySymbols.add(symbol);
+                }
+                continue;
+            }
+            if (response.size() == maxResults) {
+                capped = true;
+                break;
+            }
+            response.add(toWorkspaceSymbol(symbol));
+        }
+        for (SymbolInfo symbol : dependencySymbols) {
+            if (response.size() == maxResults) {
+                capped = true;
+                break;
+            }
+            response.add(toWorkspaceSymbol(symbol));
+        }
+
+        logger.debug(
+                "Found {} workspace symbols for query '{}'{}",
+                response.size(),
+                params.getQuery(),
+                capped ? " (capped)" : "");
+        return response;
+    }
+
+    private static WorkspaceSymbol toWorkspaceSymbol(SymbolInfo symbol) {
+        String name = symbol.name();
+        String containerName = null;
+        int lastDot = name.lastIndexOf('.');
+        if (lastDot >= 0) {
+            containerName = name.substring(0, lastDot);
+            name = name.substring(lastDot + 1);
+        }
+
+        String location = symbol.location().toString().replace('\\', '/');
+        int entry = location.indexOf(JAR_ENTRY_SEPARATOR);
+        String uri;
+        if (entry >= 0) {
+            String className = location.substring(entry + JAR_ENTRY_SEPARATOR.length());
+            int lastSlash = className.lastIndexOf('/');
+            if (containerName == null && lastSlash >= 0) {
+                containerName = className.substring(0, lastSlash).replace('/', '.');
+            }
+            uri =
+                    "jar:"
+                            + Path.of(location.substring(0, entry)).toUri()
+                            + JAR_ENTRY_SEPARATOR
+                            + className;
+        } else {
+            uri = symbol.location().toUri().toString();
+        }
+
+        Position start = new Position(symbol.line() - 1, symbol.column() - 1);
+        WorkspaceSymbol workspaceSymbol =
+                new WorkspaceSymbol(
+                        name,
+                        toLspKind(symbol),
+                        Either.forLeft(new Location(uri, new Range(start, start))));
+        workspaceSymbol.setContainerName(containerName);
+        return workspaceSymbol;
+    }
+
+    private static boolean isDependency(SymbolInfo symbol) {
+        return symbol.location().toString().replace('\\', '/').contains(JAR_ENTRY_SEPARATOR);
+    }
+
+    private static SymbolKind toLspKind(SymbolInfo symbol) {
+        return switch (symbol.kind()) {
+            case CLASS, TRAIT -> SymbolKind.Class;
+            case INTERFACE, ANNOTATION -> SymbolKind.Interface;
+            case ENUM -> SymbolKind.Enum;
+            case ENUM_CONSTANT -> SymbolKind.EnumMember;
+            case METHOD, CLOSURE -> SymbolKind.Method;
+            case CONSTRUCTOR -> SymbolKind.Constructor;
+            case FIELD -> SymbolKind.Field;
+            case PROPERTY -> SymbolKind.Property;
+        };
+    }
+
+    private @Nullable WorkspaceIndexService workspaceIndexService() {
+        try {
+            return serviceRouter.getWorkspaceIndexService();
+        } catch (IllegalStateException e) {
+            logger.debug("Workspace index not available, no workspace symbols");
+            return null;
+        }
+    }
+}
@@ -1,12 +1,25 @@
 package com.groovy.lsp.protocol.internal.impl;
 
 import com.google.inject.Inject;
+import com.groovy.lsp.groovy.core.api.AnalysisTier;
+import com.groovy.lsp.groovy.core.api.AnalysisTierService;
 import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.protocol.api.RequestExecutors;
+import com.groovy.lsp.protocol.internal.completion.CompletionEngine;
+import com.groovy.lsp.protocol.internal.completion.CompletionResponses;
+import com.groovy.lsp.protocol.internal.completion.TypeNameIndex;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.handler.CompletionHandler;
 import com.groovy.lsp.protocol.internal.handler.DefinitionHandler;
 import com.groovy.lsp.protocol.internal.handler.DiagnosticsHandler;
+import com.groovy.lsp.protocol.internal.handler.DocumentSymbolHandler;
 import com.groovy.lsp.protocol.internal.handler.HoverHandler;
+import com.groovy.lsp.protocol.internal.handler.OutlineNavigationHandler;
 import com.groovy.lsp.protocol.internal.handler.ReferencesHandler;
+import com.groovy.lsp.protocol.internal.handler.SignatureHelpHandler;
+import com.groovy.lsp.protocol.internal.signature.SignatureHelpEngine;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -65,6 +78,11 @@ public class GroovyTextDocumentService implements TextDocumentService, LanguageC
     private @Nullable IServiceRouter serviceRouter;
     private @Nullable DocumentManager documentManager;
     private @Nullable DiagnosticsHandler diagnosticsHandler;
+    private @Nullable AnalysisTierService analysisTierService;
+    private RequestExecutors requestExecutors = RequestExecutors.defaults();
+    private final TypeNameIndex typeNameIndex = new TypeNameIndex();
+    private final CompletionResponses completionResponses = new CompletionResponses();
+    private final SignatureHelpEngine signatureHelpEngine = new SignatureHelpEngine();
     private final Object diagnosticsHandlerLock = new Object();
 
     @Inject
@@ -79,6 +97,18 @@ public class GroovyTextDocumentService implements TextDocumentService, LanguageC
         initializeDiagnosticsHandler();
     }
 
+    @Inject
+    public void setAnalysisTierService(AnalysisTierService analysisTierService) {
+        this.analysisTierService = analysisTierService;
+        initializeDiagnosticsHandler();
+    }
+
+    @Inject(optional = true)
+    public void setRequestExecutors(RequestExecutors requestExecutors) {
+        this.requestExecutors = requestExecutors;
+        initializeDiagnosticsHandler();
+    }
+
     private void initializeDiagnosticsHandler() {
         synchronized (diagnosticsHandlerLock) {
             if (this.diagnosticsHandler == null
@@ -87,9 +117,35 @@ public class GroovyTextDocumentService implements TextDocumentService, LanguageC
                 this.diagnosticsHandler =
                         new DiagnosticsHandler(this.serviceRouter, this.documentManager);
             }
+            DiagnosticsHandler handler = this.diagnosticsHandler;
+            AnalysisTierService tierService = this.analysisTierService;
+            if (handler != null && tierService != null) {
+                handler.setAnalysisTierService(tierService);
+            }
+            if (handler != null) {
+                handler.setExecutor(requestExecutors.get(RequestCategory.DIAGNOSTICS));
+            }
         }
     }
 
+    /**
+     * Gets the analysis tier of an open document; documents are fully analyzed when no
+     * tier service is configured.
+     */
+    private AnalysisTier tierOf(String uri) {
+        AnalysisTierService tierService = analysisTierService;
+        DocumentManager manager = documentManager;
+        String content = manager == null ? null : manager.getDocumentContent(uri);
+        if (tierService == null || content == null) {
+            return AnalysisTier.FULL;
+        }
+        return tierService.getTier(uri, content.length());
+    }
+
+    private RequestExecutor interactiveExecutor() {
+        return requestExecutors.get(RequestCategory.INTERACTIVE);
+    }
+
     @Override
     public void connect(LanguageClient client) {
         this.client = client;
@@ -107,6 +163,11 @@ public class GroovyTextDocumentService implements TextDocumentService, LanguageC
         if (documentManager != null) {
             documentManager.openDocument(params.getTextDocument());
         }
+        if (serviceRouter != null) {
+            serviceRouter
+                    .getIncrementalCompilationService()
+                    .setSourceOpen(params.getTextDocument().getUri(), true);
+        }
 
         // Trigger diagnostics immediately on open
         if (isDiagnosticsReady()) {
@@ -137,11 +198,9 @@ public class GroovyTextDocumentService implements TextDocumentService, LanguageC
 
         // Update document content
         if (documentManager != null && !params.getContentChanges().isEmpty()) {
-            // For simplicity, assuming full document sync
-            String newContent = params.getContentChanges().get(0).getText();
-            documentManager.updateDocument(
+            documentManager.applyChanges(
                     params.getTextDocument().getUri(),
-                    newContent,
+                    params.getContentChanges(),
                     params.getTextDocument().getVersion());
 
             // Trigger diagnostics with debouncing on change
@@ -182,10 +241,24 @@ public class GroovyTextDocumentService implements TextDocumentService, LanguageC
             }
         }
 
+        signatureHelpEngine.invalidate(params.getTextDocument().getUri());
+
         // Remove document from manager
         if (documentManager != null) {
             documentManager.closeDocument(params.getTextDocument().getUri());
         }
+
+        // Compile times of closed documents no longer lower their tier
+        if (analysisTierService != null) {
+            analysisTierService.forget(params.getTextDocument().getUri());
+        }
+
+        // Cached ASTs of closed documents only keep their declarations
+        if (serviceRouter != null) {
+            serviceRouter
+                    .getIncrementalCompilationService()
+                    .setSourceOpen(params.getTextDocument().getUri(), false);
+        }
     }
 
     @Override
@@ -213,22 +286,72 @@ public class GroovyTextDocumentService implements TextDocumentService, LanguageC
                                 });
             }
         }
+
+        // The project model follows saved content, not every keystroke
+        updateProjectModel(params.getTextDocument().getUri());
+        // Saved files may declare new types
+        typeNameIndex.invalidate();
+    }
+
+    private void updateProjectModel(String uri) {
+        IServiceRouter router = serviceRouter;
+        DocumentManager manager = documentManager;
+        if (router == null || manager == null) {
+            return;
+        }
+        String content = manager.getDocumentContent(uri);
+        if (content == null) {
+            return;
+        }
+        requestExecutors
+                .get(RequestCategory.BULK)
+                .run(() -> router.getProjectModelService().update(uri, content))
+                .exceptionally(
+                        ex -> {
+                            logger.error("Failed to update project model for: {}", uri, ex);
+                            return null;
+                        });
     }
 
     @Override
     public CompletableFuture<Either<List<CompletionItem>, CompletionList>> completion(
             CompletionParams params) {
         logger.debug("Completion requested at: {}", params.getPosition());
-        // TODO: Implement code completion
-        return CompletableFuture.completedFuture(
-                Either.forRight(new CompletionList(false, Collections.emptyList())));
+
+        if (serviceRouter == null) {
+            logger.error("ServiceRouter is not initialized");
+            return CompletableFuture.completedFuture(
+                    Either.forRight(new CompletionList(false, Collections.emptyList())));
+        }
+
+        if (documentManager == null) {
+            logger.error("DocumentManager is not initialized");
+            return CompletableFuture.completedFuture(
+                    Either.forRight(new CompletionList(false, Collections.emptyList())));
+        }
+
+        if (!tierOf(params.getTextDocument().getUri()).allowsSyntaxAnalysis()) {
+            return CompletableFuture.completedFuture(
+                    Either.forRight(new CompletionList(false, Collections.emptyList())));
+        }
+
+        // Type names are read from the index in the background, off the request path
+        CompletionEngine engine =
+                new CompletionEngine(
+                        typeNameIndex,
+                        completionResponses,
+                        requestExecutors.get(RequestCategory.BULK));
+        CompletionHandler handler =
+                new CompletionHandler(
+                        serviceRouter, documentManager, engine, interactiveExecutor());
+        return handler.handleCompletion(params).thenApply(Either::forRight);
     }
 
     @Override
     public CompletableFuture<CompletionItem> resolveCompletionItem(CompletionItem item) {
         logger.debug("Resolving completion item: {}", item.getLabel());
-        // TODO: Implement completion item resolution
-        return CompletableFuture.completedFuture(item);
+        // Details of recent responses are in memory, no need to leave the calling thread
+        return CompletableFuture.completedFuture(completionResponses.resolve(item));
     }
 
     @Override
@@ -245,16 +368,47 @@ public class GroovyTextDocumentService implements TextDocumentService, LanguageC
             return CompletableFuture.completedFuture(null);
         }
 
-        HoverHandler handler = new HoverHandler(serviceRouter, documentManager);
+        AnalysisTier tier = tierOf(params.getTextDocument().getUri());
+        if (!tier.allowsSyntaxAnalysis()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!tier.allowsSemanticAnalysis()) {
+            return new OutlineNavigationHandler(
+                            serviceRouter, documentManager, interactiveExecutor())
+                    .handleHover(params);
+        }
+
+        HoverHandler handler =
+                new HoverHandler(serviceRouter, documentManager, interactiveExecutor());
         return handler.handleHover(params);
     }
 
     @Override
     public CompletableFuture<SignatureHelp> signatureHelp(SignatureHelpParams params) {
         logger.debug("Signature help requested at: {}", params.getPosition());
-        // TODO: Implement signature help
-        return CompletableFuture.completedFuture(
-                new SignatureHelp(Collections.emptyList(), null, null));
+
+        if (serviceRouter == null) {
+            logger.error("ServiceRouter is not initialized");
+            return CompletableFuture.completedFuture(
+                    new SignatureHelp(Collections.emptyList(), null, null));
+        }
+
+        if (documentManager == null) {
+            logger.error("DocumentManager is not initialized");
+            return CompletableFuture.completedFuture(
+                    new SignatureHelp(Collections.emptyList(), null, null));
+        }
+
+        // Overloads are looked up on the inferred type of the receiver
+        if (!tierOf(params.getTextDocument().getUri()).allowsSemanticAnalysis()) {
+            return CompletableFuture.completedFuture(
+                    new SignatureHelp(Collections.emptyList(), null, null));
+        }
+
+        SignatureHelpHandler handler =
+                new SignatureHelpHandler(
+                        serviceRouter, documentManager, signatureHelpEngine, interactiveExecutor());
+        return handler.handleSignatureHelp(params);
     }
 
     @Override
@@ -272,7 +426,18 @@ public class GroovyTextDocumentService implements TextDocumentService, LanguageC
             return CompletableFuture.completedFuture(Either.forLeft(Collections.emptyList()));
         }
 
-        DefinitionHandler handler = new DefinitionHandler(serviceRouter, documentManager);
+        AnalysisTier tier = tierOf(params.getTextDocument().getUri());
+        if (!tier.allowsSyntaxAnalysis()) {
+            return CompletableFuture.completedFuture(Either.forLeft(Collections.emptyList()));
+        }
+        if (!tier.allowsSemanticAnalysis()) {
+            return new OutlineNavigationHandler(
+                            serviceRouter, documentManager, interactiveExecutor())
+                    .handleDefinition(params);
+        }
+
+        DefinitionHandler handler =
+                new DefinitionHandler(serviceRouter, documentManager, interactiveExecutor());
         return handler.handleDefinition(params);
     }
 
@@ -290,7 +455,13 @@ public class GroovyTextDocumentService implements TextDocumentService, LanguageC
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
 
-        ReferencesHandler handler = new ReferencesHandler(serviceRouter, documentManager);
+        // References need resolved ASTs, which lower tiers do not build
+        if (!tierOf(params.getTextDocument().getUri()).allowsSemanticAnalysis()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        ReferencesHandler handler =
+                new ReferencesHandler(serviceRouter, documentManager, interactiveExecutor());
         return handler.handleReferences(params);
     }
 
@@ -306,8 +477,24 @@ public class GroovyTextDocumentService implements TextDocumentService, LanguageC
     public CompletableFuture<List<Either<SymbolInformation, DocumentSymbol>>> documentSymbol(
             DocumentSymbolParams params) {
         logger.debug("Document symbols requested for: {}", params.getTextDocument().getUri());
-        // TODO: Implement document symbols
-        return CompletableFuture.completedFuture(Collections.emptyList());
+
+        if (serviceRouter == null) {
+            logger.error("ServiceRouter is not initialized");
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        if (documentManager == null) {
+            logger.error("DocumentManager is not initialized");
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        if (!tierOf(params.getTextDocument().getUri()).allowsSyntaxAnalysis()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        DocumentSymbolHandler handler =
+                new DocumentSymbolHandler(serviceRouter, documentManager, interactiveExecutor());
+        return handler.handleDocumentSymbol(params);
     }
 
     @Override
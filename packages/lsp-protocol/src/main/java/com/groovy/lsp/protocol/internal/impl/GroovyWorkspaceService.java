@@ -1,7 +1,24 @@
 package com.groovy.lsp.protocol.internal.impl;
 
+import com.google.gson.JsonPrimitive;
+import com.google.inject.Inject;
+import com.groovy.lsp.groovy.core.api.AnalysisTier;
+import com.groovy.lsp.groovy.core.api.AnalysisTierService;
+import com.groovy.lsp.groovy.core.api.CompilationContextService;
+import com.groovy.lsp.groovy.core.api.ProjectModelService;
+import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutors;
+import com.groovy.lsp.protocol.internal.handler.WorkspaceSymbolHandler;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
 import org.eclipse.lsp4j.CreateFilesParams;
 import org.eclipse.lsp4j.DeleteFilesParams;
@@ -9,6 +26,7 @@ import org.eclipse.lsp4j.DidChangeConfigurationParams;
 import org.eclipse.lsp4j.DidChangeWatchedFilesParams;
 import org.eclipse.lsp4j.DidChangeWorkspaceFoldersParams;
 import org.eclipse.lsp4j.ExecuteCommandParams;
+import org.eclipse.lsp4j.FileChangeType;
 import org.eclipse.lsp4j.FileCreate;
 import org.eclipse.lsp4j.FileDelete;
 import org.eclipse.lsp4j.FileEvent;
@@ -35,22 +53,51 @@ import org.slf4j.LoggerFactory;
  */
 public class GroovyWorkspaceService implements WorkspaceService, LanguageClientAware {
 
+    /** Command that overrides the analysis tier of a document: {@code [uri, tier | "auto"]}. */
+    public static final String SET_ANALYSIS_TIER_COMMAND = "groovy.setAnalysisTier";
+
+    /** Command that reports the queue depth and latency of the request executors. */
+    public static final String EXECUTOR_STATS_COMMAND = "groovy.executorStats";
+
     private static final Logger logger = LoggerFactory.getLogger(GroovyWorkspaceService.class);
 
     private @Nullable LanguageClient client;
+    private @Nullable IServiceRouter serviceRouter;
+    private @Nullable AnalysisTierService analysisTierService;
+    private RequestExecutors requestExecutors = RequestExecutors.defaults();
 
     @Override
     public void connect(LanguageClient client) {
         this.client = client;
     }
 
+    @Inject
+    public void setServiceRouter(IServiceRouter serviceRouter) {
+        this.serviceRouter = serviceRouter;
+    }
+
+    @Inject
+    public void setAnalysisTierService(AnalysisTierService analysisTierService) {
+        this.analysisTierService = analysisTierService;
+    }
+
+    @Inject(optional = true)
+    public void setRequestExecutors(RequestExecutors requestExecutors) {
+        this.requestExecutors = requestExecutors;
+    }
+
     @Override
     public CompletableFuture<
                     Either<List<? extends SymbolInformation>, List<? extends WorkspaceSymbol>>>
             symbol(WorkspaceSymbolParams params) {
         logger.debug("Workspace symbols requested for query: '{}'", params.getQuery());
-        // TODO: Implement workspace symbol search
-        return CompletableFuture.completedFuture(Either.forLeft(Collections.emptyList()));
+
+        IServiceRouter router = serviceRouter;
+        if (router == null) {
+            logger.error("ServiceRouter is not initialized");
+            return CompletableFuture.completedFuture(Either.forLeft(Collections.emptyList()));
+        }
+        return new WorkspaceSymbolHandler(router).handleSymbol(params);
     }
 
     @Override
@@ -70,16 +117,139 @@ public class GroovyWorkspaceService implements WorkspaceService, LanguageClientA
         for (FileEvent event : params.getChanges()) {
             logger.debug("  File {} changed: {}", event.getUri(), event.getType());
         }
-        // TODO: Implement watched files change handling
+
+        IServiceRouter router = serviceRouter;
+        if (router == null) {
+            return;
+        }
+        CompilationContextService contextService = router.getCompilationContextService();
+        boolean buildFileChanged =
+                params.getChanges().stream()
+                        .anyMatch(event -> isBuildFile(contextService, event.getUri()));
+        if (buildFileChanged) {
+            // The project classpath may have changed, the context is rebuilt on next use
+            logger.info("Build file changed, invalidating compilation context");
+            contextService.invalidate();
+        }
+        updateProjectModel(router, params.getChanges(), buildFileChanged);
+    }
+
+    /**
+     * Loads the project model from all sources under the workspace root in the background.
+     * Until it is loaded, requests fall back to per-file ASTs.
+     *
+     * @param workspaceRoot the workspace root directory
+     */
+    public void loadProjectModel(Path workspaceRoot) {
+        IServiceRouter router = serviceRouter;
+        if (router == null) {
+            logger.error("ServiceRouter is not initialized");
+            return;
+        }
+        ProjectModelService model = router.getProjectModelService();
+        requestExecutors
+                .get(RequestCategory.BULK)
+                .run(() -> model.load(workspaceRoot))
+                .exceptionally(
+                        ex -> {
+                            logger.error("Failed to load project model from {}", workspaceRoot, ex);
+                            return null;
+                        });
+    }
+
+    /**
+     * Applies changed Groovy sources to the project model in the background. Deleted sources
+     * are also dropped from the compilation cache, together with their stored outlines.
+     */
+    private void updateProjectModel(
+            IServiceRouter router, List<FileEvent> changes, boolean rebuild) {
+        List<FileEvent> sourceChanges =
+                changes.stream().filter(event -> event.getUri().endsWith(".groovy")).toList();
+        if (!rebuild && sourceChanges.isEmpty()) {
+            return;
+        }
+        ProjectModelService model = router.getProjectModelService();
+        requestExecutors
+                .get(RequestCategory.BULK)
+                .run(
+                        () -> {
+                            for (FileEvent event : sourceChanges) {
+                                String uri = event.getUri();
+                                if (event.getType() == FileChangeType.Deleted) {
+                                    model.remove(uri);
+                                    router.getIncrementalCompilationService().clearCache(uri);
+                                    continue;
+                                }
+                                try {
+                                    model.update(uri, Files.readString(Paths.get(URI.create(uri))));
+                                } catch (IOException
+                                        | IllegalArgumentException
+                                        | FileSystemNotFoundException e) {
+                                    logger.debug("Cannot read changed source {}", uri, e);
+                                }
+                            }
+                            if (rebuild) {
+                                model.rebuild();
+                            }
+                        })
+                .exceptionally(
+                        ex -> {
+                            logger.error("Failed to update project model", ex);
+                            return null;
+                        });
+    }
+
+    private static boolean isBuildFile(CompilationContextService contextService, String uri) {
+        try {
+            return contextService.isBuildFile(Paths.get(URI.create(uri)));
+        } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+            logger.debug("Ignoring non-file URI: {}", uri);
+            return false;
+        }
     }
 
     @Override
     public CompletableFuture<Object> executeCommand(ExecuteCommandParams params) {
         logger.debug("Execute command: {}", params.getCommand());
-        // TODO: Implement command execution
+        if (SET_ANALYSIS_TIER_COMMAND.equals(params.getCommand())) {
+            setAnalysisTier(params.getArguments());
+        } else if (EXECUTOR_STATS_COMMAND.equals(params.getCommand())) {
+            return CompletableFuture.completedFuture(requestExecutors.getStats());
+        }
+        // TODO: Implement other commands
         return CompletableFuture.completedFuture(null);
     }
 
+    /**
+     * Overrides the analysis tier of a document. The arguments are the document URI and a
+     * tier name, or {@code auto} to choose the tier from the document again.
+     */
+    private void setAnalysisTier(@Nullable List<Object> arguments) {
+        AnalysisTierService tierService = analysisTierService;
+        if (tierService == null || arguments == null || arguments.size() != 2) {
+            logger.warn("Ignoring {} with arguments {}", SET_ANALYSIS_TIER_COMMAND, arguments);
+            return;
+        }
+        String uri = argumentString(arguments.get(0));
+        String tierName = argumentString(arguments.get(1));
+        if ("auto".equalsIgnoreCase(tierName)) {
+            tierService.setOverride(uri, null);
+            return;
+        }
+        try {
+            tierService.setOverride(uri, AnalysisTier.valueOf(tierName.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown analysis tier: {}", tierName);
+        }
+    }
+
+    private static String argumentString(Object argument) {
+        // Arguments arrive as JSON elements from the client
+        return argument instanceof JsonPrimitive primitive
+                ? primitive.getAsString()
+                : String.valueOf(argument);
+    }
+
     @Override
     public void didChangeWorkspaceFolders(DidChangeWorkspaceFoldersParams params) {
         logger.debug("Workspace folders changed");
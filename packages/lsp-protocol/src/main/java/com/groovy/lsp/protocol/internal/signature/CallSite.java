@@ -0,0 +1,202 @@
+package com.groovy.lsp.protocol.internal.signature;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The call whose arguments are being typed, found by scanning the text around the cursor.
+ *
+ * Arguments do not parse while they are incomplete, so the call is resolved on the
+ * {@linkplain #source() source} with its arguments dropped, e.g. {@code text.substring()}
+ * for {@code text.substring(1, |}. That source stays the same while the arguments are
+ * typed, which lets the resolved call be reused; the active parameter is then counted
+ * from the text alone.
+ *
+ * @param openParen the offset of the opening parenthesis of the call
+ * @param activeParameter the index of the argument the cursor is in
+ * @param source the document text with the arguments of the call removed
+ */
+record CallSite(int openParen, int activeParameter, String source) {
+
+    /** How far back the opening parenthesis is looked for. */
+    private static final int MAX_SCAN_LENGTH = 4096;
+
+    /** Keywords followed by a parenthesis that is not a call. */
+    private static final Set<String> KEYWORDS =
+            Set.of("if", "while", "for", "switch", "catch", "synchronized", "return");
+
+    /**
+     * Finds the call whose argument list contains an offset.
+     *
+     * @param text the document text
+     * @param offset the offset of the cursor
+     * @return the call site, or null if the cursor is not in the arguments of a call
+     */
+    static @Nullable CallSite at(String text, int offset) {
+        int openParen = findOpenParen(text, offset);
+        if (openParen < 0 || !isCall(text, openParen)) {
+            return null;
+        }
+        int activeParameter = countArguments(text, openParen + 1, offset);
+        return new CallSite(openParen, activeParameter, withoutArguments(text, openParen, offset));
+    }
+
+    /**
+     * Scans back to the innermost parenthesis left open before the offset. Blocks and list
+     * literals end the scan, as the cursor is then not in the arguments of a call.
+     */
+    private static int findOpenParen(String text, int offset) {
+        int limit = Math.max(0, offset - MAX_SCAN_LENGTH);
+        int depth = 0;
+        for (int i = offset - 1; i >= limit; i--) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = skipStringBackwards(text, i, limit);
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == ')' || c == ']' || c == '}') {
+                depth++;
+            } else if (c == '(' || c == '[' || c == '{') {
+                if (depth == 0) {
+                    return c == '(' ? i : -1;
+                }
+                depth--;
+            } else if (c == ';' && depth == 0) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isCall(String text, int openParen) {
+        int end = openParen;
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        int start = end;
+        while (start > 0 && Character.isJavaIdentifierPart(text.charAt(start - 1))) {
+            start--;
+        }
+        return start < end
+                && Character.isJavaIdentifierStart(text.charAt(start))
+                && !KEYWORDS.contains(text.substring(start, end));
+    }
+
+    /**
+     * Counts the commas between the parenthesis and the offset that separate arguments.
+     *
+     * @return the index of the current argument
+     */
+    private static int countArguments(String text, int from, int offset) {
+        int depth = 0;
+        int commas = 0;
+        for (int i = from; i < offset; i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = skipString(text, i, offset);
+                if (i < 0) {
+                    // The cursor is in a string argument
+                    break;
+                }
+            } else if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                commas++;
+            }
+        }
+        return commas;
+    }
+
+    /**
+     * Removes the arguments of the call. Without a closing parenthesis, the call and the
+     * brackets left open before it on its line are closed and the rest of the line dropped.
+     */
+    private static String withoutArguments(String text, int openParen, int offset) {
+        int closeParen = findCloseParen(text, offset);
+        if (closeParen >= 0) {
+            return text.substring(0, openParen + 1) + text.substring(closeParen);
+        }
+        int lineStart = text.lastIndexOf('\n', openParen) + 1;
+        int lineEnd = text.indexOf('\n', offset);
+        StringBuilder source = new StringBuilder(text.length());
+        source.append(text, 0, openParen + 1).append(')');
+        Deque<Character> open = new ArrayDeque<>();
+        for (int i = lineStart; i < openParen; i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = skipString(text, i, openParen);
+                if (i < 0) {
+                    break;
+                }
+            } else if (c == '(' || c == '[' || c == '{') {
+                open.push(c);
+            } else if ((c == ')' || c == ']' || c == '}') && !open.isEmpty()) {
+                open.pop();
+            }
+        }
+        for (char c : open) {
+            source.append(c == '(' ? ')' : c == '[' ? ']' : '}');
+        }
+        if (lineEnd >= 0) {
+            source.append(text, lineEnd, text.length());
+        }
+        return source.toString();
+    }
+
+    private static int findCloseParen(String text, int offset) {
+        int depth = 0;
+        for (int i = offset; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = skipString(text, i, text.length());
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                if (depth == 0) {
+                    return c == ')' ? i : -1;
+                }
+                depth--;
+            }
+        }
+        return -1;
+    }
+
+    /** Gets the offset of the closing quote of a string, or -1 if it is not closed. */
+    private static int skipString(String text, int quote, int end) {
+        char delimiter = text.charAt(quote);
+        for (int i = quote + 1; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == delimiter) {
+                return i;
+            } else if (c == '\n') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /** Gets the offset of the opening quote of a string, or -1 if it is not found. */
+    private static int skipStringBackwards(String text, int quote, int limit) {
+        char delimiter = text.charAt(quote);
+        for (int i = quote - 1; i >= limit; i--) {
+            char c = text.charAt(i);
+            if (c == delimiter && (i == 0 || text.charAt(i - 1) != '\\')) {
+                return i;
+            }
+            if (c == '\n') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+}
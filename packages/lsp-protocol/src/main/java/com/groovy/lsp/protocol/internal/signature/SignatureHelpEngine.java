@@ -0,0 +1,221 @@
+package com.groovy.lsp.protocol.internal.signature;
+
+import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.groovy.core.api.MemberTable;
+import com.groovy.lsp.groovy.core.api.TypeInferenceService;
+import com.groovy.lsp.protocol.api.LineIndex;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.ClassExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.StaticMethodCallExpression;
+import org.eclipse.lsp4j.MarkupContent;
+import org.eclipse.lsp4j.MarkupKind;
+import org.eclipse.lsp4j.ParameterInformation;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.SignatureHelp;
+import org.eclipse.lsp4j.SignatureInformation;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Computes the signatures of the method whose arguments are being typed.
+ *
+ * The call is found in the text, then resolved once on the AST of the document with its
+ * arguments dropped: the call expression is looked up in the position index of the module,
+ * the type of its receiver is inferred, and the overloads are taken from the
+ * {@link MemberTable} of that type. The resolved signatures are kept per document for as
+ * long as that source stays the same, so that requests while the arguments are typed only
+ * count commas, without parsing or inferring anything.
+ */
+public final class SignatureHelpEngine {
+
+    /** Number of documents whose last resolved call is kept. */
+    private static final int CACHED_DOCUMENTS = 16;
+
+    /**
+     * The overloads of a call, resolved on a source.
+     *
+     * @param source the document text with the arguments of the call removed
+     * @param signatures the overloads, fewest parameters first
+     * @param parameterCounts the number of parameters of each overload
+     */
+    private record CallTarget(
+            String source, List<SignatureInformation> signatures, List<Integer> parameterCounts) {}
+
+    private final Map<String, CallTarget> targets =
+            new LinkedHashMap<>(CACHED_DOCUMENTS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CallTarget> eldest) {
+                    return size() > CACHED_DOCUMENTS;
+                }
+            };
+
+    /**
+     * Computes the signature help at a position.
+     *
+     * @param text the document text
+     * @param offset the offset of the position in the text
+     * @param uri the document URI, used as the key of the cached AST
+     * @param astService the service to parse the document with
+     * @param typeInferenceService the service to infer the type of the receiver with
+     * @param cancellationToken a token that aborts the request
+     * @return the signature help, or null if the position is not in the arguments of a
+     *     known method
+     * @throws CancellationException if the request is cancelled
+     */
+    public @Nullable SignatureHelp signatureHelp(
+            String text,
+            int offset,
+            String uri,
+            ASTService astService,
+            TypeInferenceService typeInferenceService,
+            CancellationToken cancellationToken) {
+        CallSite callSite = CallSite.at(text, offset);
+        if (callSite == null) {
+            return null;
+        }
+
+        CallTarget target;
+        synchronized (targets) {
+            target = targets.get(uri);
+        }
+        if (target == null || !target.source().equals(callSite.source())) {
+            target = resolve(callSite, uri, astService, typeInferenceService, cancellationToken);
+            synchronized (targets) {
+                targets.put(uri, target);
+            }
+        }
+        if (target.signatures().isEmpty()) {
+            return null;
+        }
+
+        int activeParameter = callSite.activeParameter();
+        return new SignatureHelp(
+                target.signatures(),
+                activeSignature(target.parameterCounts(), activeParameter),
+                activeParameter);
+    }
+
+    /**
+     * Forgets the call resolved in a document.
+     *
+     * @param uri the document URI
+     */
+    public void invalidate(String uri) {
+        synchronized (targets) {
+            targets.remove(uri);
+        }
+    }
+
+    private static CallTarget resolve(
+            CallSite callSite,
+            String uri,
+            ASTService astService,
+            TypeInferenceService typeInferenceService,
+            CancellationToken cancellationToken) {
+        List<MemberTable.Member> overloads =
+                findOverloads(callSite, uri, astService, typeInferenceService, cancellationToken);
+        List<SignatureInformation> signatures = new ArrayList<>(overloads.size());
+        List<Integer> parameterCounts = new ArrayList<>(overloads.size());
+        for (MemberTable.Member overload : overloads) {
+            signatures.add(toSignature(overload));
+            parameterCounts.add(overload.parameterTypes().size());
+        }
+        return new CallTarget(
+                callSite.source(), List.copyOf(signatures), List.copyOf(parameterCounts));
+    }
+
+    private static List<MemberTable.Member> findOverloads(
+            CallSite callSite,
+            String uri,
+            ASTService astService,
+            TypeInferenceService typeInferenceService,
+            CancellationToken cancellationToken) {
+        // The source without the arguments must not replace the document in the AST cache
+        ModuleNode moduleNode =
+                astService.parseTransient(callSite.source(), uri, cancellationToken);
+        if (moduleNode == null) {
+            return Collections.emptyList();
+        }
+        Position position = LineIndex.of(callSite.source()).positionAt(callSite.openParen());
+        int line = position.getLine() + 1;
+        int column = position.getCharacter() + 1;
+        Expression call = astService.findEnclosingCall(moduleNode, line, column);
+
+        if (call instanceof MethodCallExpression methodCall) {
+            String name = methodCall.getMethodAsString();
+            if (name == null) {
+                return Collections.emptyList();
+            }
+            if (methodCall.isImplicitThis()) {
+                ClassNode enclosingClass = enclosingClass(moduleNode, astService, line, column);
+                return enclosingClass != null
+                        ? MemberTable.of(enclosingClass).getMethods(name)
+                        : Collections.emptyList();
+            }
+            Expression receiver = methodCall.getObjectExpression();
+            List<MemberTable.Member> overloads =
+                    typeInferenceService
+                            .inferMemberTable(receiver, moduleNode, cancellationToken)
+                            .getMethods(name);
+            // Only static methods can be called on a class name
+            return receiver instanceof ClassExpression
+                    ? overloads.stream().filter(MemberTable.Member::isStatic).toList()
+                    : overloads;
+        }
+        if (call instanceof StaticMethodCallExpression staticCall) {
+            return MemberTable.of(staticCall.getOwnerType()).getMethods(staticCall.getMethod());
+        }
+        return Collections.emptyList();
+    }
+
+    private static @Nullable ClassNode enclosingClass(
+            ModuleNode moduleNode, ASTService astService, int line, int column) {
+        if (astService.findEnclosingScope(moduleNode, line, column) instanceof MethodNode method) {
+            return method.getDeclaringClass();
+        }
+        // Closures: the innermost class spanning the line, or the script
+        ClassNode enclosingClass = null;
+        for (ClassNode classNode : moduleNode.getClasses()) {
+            boolean spansLine =
+                    classNode.getLineNumber() <= line && classNode.getLastLineNumber() >= line;
+            if (spansLine || (enclosingClass == null && classNode.isScript())) {
+                enclosingClass = classNode;
+            }
+        }
+        return enclosingClass;
+    }
+
+    private static int activeSignature(List<Integer> parameterCounts, int activeParameter) {
+        // The overload with the fewest parameters that takes the current argument
+        for (int i = 0; i < parameterCounts.size(); i++) {
+            if (parameterCounts.get(i) > activeParameter) {
+                return i;
+            }
+        }
+        return activeParameter == 0 ? 0 : parameterCounts.size() - 1;
+    }
+
+    private static SignatureInformation toSignature(MemberTable.Member member) {
+        List<ParameterInformation> parameters = new ArrayList<>(member.parameterTypes().size());
+        for (int i = 0; i < member.parameterTypes().size(); i++) {
+            parameters.add(new ParameterInformation(member.parameterLabel(i)));
+        }
+        SignatureInformation signature = new SignatureInformation(member.signature());
+        signature.setParameters(parameters);
+        String documentation = member.documentation();
+        if (documentation != null) {
+            signature.setDocumentation(new MarkupContent(MarkupKind.MARKDOWN, documentation));
+        }
+        return signature;
+    }
+}
@@ -0,0 +1,53 @@
+package com.groovy.lsp.protocol.internal.util;
+
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Utility class for waiting on futures from request work that may be cancelled.
+ *
+ * Request work gets its cancellation token from
+ * {@link com.groovy.lsp.protocol.api.RequestExecutor#supply}. Futures of other services,
+ * like index searches, know nothing about that token, so the work waits on them here.
+ */
+public final class RequestCancellation {
+
+    /** Interval in which {@link #await} checks the token while waiting. */
+    private static final long POLL_INTERVAL_MS = 20;
+
+    private RequestCancellation() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Waits for a future, checking the token while waiting. Once the token requests
+     * cancellation the future is cancelled and the wait is abandoned.
+     *
+     * @param future the future to wait for
+     * @param cancellationToken the token of the waiting work
+     * @param <T> the result type
+     * @return the result of the future
+     * @throws CancellationException if the token requested cancellation or the future was
+     *     cancelled
+     * @throws ExecutionException if the future completed exceptionally
+     * @throws InterruptedException if the waiting thread was interrupted
+     */
+    public static <T> T await(CompletableFuture<T> future, CancellationToken cancellationToken)
+            throws ExecutionException, InterruptedException {
+        while (true) {
+            if (cancellationToken.isCancellationRequested()) {
+                future.cancel(true);
+                throw new CancellationException("Request was cancelled");
+            }
+            try {
+                return future.get(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Still running, check the token again
+            }
+        }
+    }
+}
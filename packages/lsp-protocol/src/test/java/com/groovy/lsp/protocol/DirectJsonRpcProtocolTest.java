@@ -7,6 +7,7 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.groovy.lsp.groovy.core.api.IncrementalCompilationService;
 import com.groovy.lsp.protocol.api.GroovyLanguageServer;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
@@ -55,6 +56,8 @@ class DirectJsonRpcProtocolTest {
 
         // Create server with mocked dependencies
         IServiceRouter serviceRouter = Mockito.mock(IServiceRouter.class);
+        Mockito.when(serviceRouter.getIncrementalCompilationService())
+                .thenReturn(Mockito.mock(IncrementalCompilationService.class));
         DocumentManager documentManager = new DocumentManager();
 
         GroovyTextDocumentService textDocumentService = new GroovyTextDocumentService();
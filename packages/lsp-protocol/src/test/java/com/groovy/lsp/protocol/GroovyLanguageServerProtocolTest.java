@@ -6,8 +6,11 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CompilationContext;
 import com.groovy.lsp.groovy.core.api.CompilationResult;
+import com.groovy.lsp.groovy.core.api.GroovyCoreFactory;
 import com.groovy.lsp.groovy.core.api.IncrementalCompilationService;
+import com.groovy.lsp.groovy.core.api.ProjectClasspathProvider;
 import com.groovy.lsp.groovy.core.api.TypeInferenceService;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
@@ -19,6 +22,7 @@ import com.groovy.lsp.test.annotations.UnitTest;
 import java.util.concurrent.CompletableFuture;
 import org.codehaus.groovy.ast.ModuleNode;
 import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
 import org.eclipse.lsp4j.CompletionList;
 import org.eclipse.lsp4j.CompletionParams;
 import org.eclipse.lsp4j.DefinitionParams;
@@ -235,12 +239,20 @@ class GroovyLanguageServerProtocolTest extends AbstractProtocolTest {
 
             // Configure mocks
             when(serviceRouter.getIncrementalCompilationService()).thenReturn(compilationService);
+            when(serviceRouter.getCompilationContextService())
+                    .thenReturn(
+                            GroovyCoreFactory.getInstance()
+                                    .createCompilationContextService(
+                                            ProjectClasspathProvider.NONE));
             when(serviceRouter.getAstService()).thenReturn(astService);
             when(serviceRouter.getTypeInferenceService()).thenReturn(typeInferenceService);
 
             // Setup compilation service to return success by default
-            when(compilationService.createCompilationUnit(any())).thenReturn(compilationUnit);
-            when(compilationService.compileToPhaseWithResult(any(), any(), any(), any()))
+            when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                    .thenReturn(compilationUnit);
+            when(compilationService.createCompilationUnit(any(CompilerConfiguration.class)))
+                    .thenReturn(compilationUnit);
+            when(compilationService.compileToPhaseWithResult(any(), any(), any(), any(), any()))
                     .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
 
             // Create text document service with dependencies
@@ -1,16 +1,21 @@
 package com.groovy.lsp.protocol.api;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import com.groovy.lsp.protocol.internal.impl.GroovyTextDocumentService;
 import com.groovy.lsp.protocol.internal.impl.GroovyWorkspaceService;
 import com.groovy.lsp.test.annotations.UnitTest;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import org.eclipse.lsp4j.ClientCapabilities;
 import org.eclipse.lsp4j.CompletionCapabilities;
 import org.eclipse.lsp4j.InitializeParams;
 import org.eclipse.lsp4j.InitializeResult;
+import org.eclipse.lsp4j.InitializedParams;
 import org.eclipse.lsp4j.ServerCapabilities;
 import org.eclipse.lsp4j.TextDocumentClientCapabilities;
 import org.eclipse.lsp4j.TextDocumentSyncKind;
@@ -224,4 +229,26 @@ class GroovyLanguageServerTest {
         assertThat(result1.getCapabilities().getCompletionProvider()).isNotNull();
         assertThat(result2.getCapabilities().getCompletionProvider()).isNotNull();
     }
+
+    @UnitTest
+    void initialized_shouldLoadProjectModelOfWorkspaceRoot() {
+        // given
+        Path root = Paths.get("/workspace");
+        server.setWorkspaceRoot(root);
+
+        // when
+        server.initialized(new InitializedParams());
+
+        // then
+        verify(mockWorkspaceService).loadProjectModel(root);
+    }
+
+    @UnitTest
+    void initialized_shouldNotLoadProjectModelWithoutWorkspaceRoot() {
+        // when
+        server.initialized(new InitializedParams());
+
+        // then
+        verify(mockWorkspaceService, never()).loadProjectModel(any());
+    }
 }
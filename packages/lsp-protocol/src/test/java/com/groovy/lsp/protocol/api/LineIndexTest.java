@@ -0,0 +1,70 @@
+package com.groovy.lsp.protocol.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groovy.lsp.test.annotations.UnitTest;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.PositionEncodingKind;
+
+/**
+ * LineIndexのテストクラス。
+ */
+class LineIndexTest {
+
+    @UnitTest
+    void of_shouldIndexLines() {
+        // when
+        LineIndex lines = LineIndex.of("class A {\n    def x\n}\n");
+
+        // then
+        assertThat(lines.getLineCount()).isEqualTo(4);
+        assertThat(lines.getLine(1)).isEqualTo("    def x");
+        assertThat(lines.getLine(3)).isEmpty();
+        assertThat(lines.getLineStart(2)).isEqualTo(20);
+        assertThat(lines.getLineEnd(0)).isEqualTo(9);
+        assertThat(lines.getEndPosition()).isEqualTo(new Position(3, 0));
+    }
+
+    @UnitTest
+    void offsetAt_shouldClampToLineAndText() {
+        // given
+        LineIndex lines = LineIndex.of("ab\ncd");
+
+        // when / then
+        assertThat(lines.offsetAt(new Position(1, 1))).isEqualTo(4);
+        assertThat(lines.offsetAt(new Position(0, 10))).isEqualTo(2);
+        assertThat(lines.offsetAt(new Position(5, 0))).isEqualTo(5);
+    }
+
+    @UnitTest
+    void positionAt_shouldBeInverseOfOffsetAt() {
+        // given
+        String text = "def a = 1\n\ndef b = 2\nprintln a + b";
+        LineIndex lines = LineIndex.of(text);
+
+        // when / then
+        for (int offset = 0; offset <= text.length(); offset++) {
+            assertThat(lines.offsetAt(lines.positionAt(offset))).isEqualTo(offset);
+        }
+        assertThat(lines.positionAt(11)).isEqualTo(new Position(2, 0));
+    }
+
+    @UnitTest
+    void conversions_shouldRespectPositionEncoding() {
+        // given - 'é' is 2 bytes in UTF-8 and '😀' a surrogate pair of 4 bytes
+        LineIndex lines = LineIndex.of("x\ns = 'é😀!'");
+        int bang = "x\ns = 'é😀".length();
+
+        // when / then
+        assertThat(lines.positionAt(bang)).isEqualTo(new Position(1, 8));
+        assertThat(lines.positionAt(bang, PositionEncodingKind.UTF8))
+                .isEqualTo(new Position(1, 11));
+        assertThat(lines.positionAt(bang, PositionEncodingKind.UTF32))
+                .isEqualTo(new Position(1, 7));
+        assertThat(lines.offsetAt(new Position(1, 11), PositionEncodingKind.UTF8)).isEqualTo(bang);
+        assertThat(lines.offsetAt(new Position(1, 7), PositionEncodingKind.UTF32)).isEqualTo(bang);
+        // inside a multi-byte character
+        assertThat(lines.offsetAt(new Position(1, 6), PositionEncodingKind.UTF8))
+                .isEqualTo(bang - 3);
+    }
+}
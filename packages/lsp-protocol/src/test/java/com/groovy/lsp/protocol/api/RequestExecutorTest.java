@@ -0,0 +1,217 @@
+package com.groovy.lsp.protocol.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+
+/**
+ * RequestExecutorのテストクラス。
+ */
+class RequestExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private @Nullable RequestExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        RequestExecutor started = executor;
+        if (started != null) {
+            started.shutdown();
+        }
+    }
+
+    @UnitTest
+    void supply_shouldCancelTokenWithFuture() throws Exception {
+        // Given
+        RequestExecutor executor = start(RequestCategory.INTERACTIVE, 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch observed = new CountDownLatch(1);
+        CompletableFuture<String> future =
+                executor.supply(
+                        token -> {
+                            started.countDown();
+                            while (!token.isCancellationRequested()) {
+                                Thread.onSpinWait();
+                            }
+                            observed.countDown();
+                            return "done";
+                        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        future.cancel(true);
+
+        // Then
+        assertTrue(observed.await(5, TimeUnit.SECONDS));
+    }
+
+    @UnitTest
+    void supply_shouldRunOnVirtualThreadsWhenRequested() throws Exception {
+        // Given
+        executor = new RequestExecutor(RequestCategory.INTERACTIVE, 4, 4, true);
+
+        // When
+        Thread thread = executor.supply(token -> Thread.currentThread()).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(thread.isVirtual());
+        assertTrue(thread.getName().startsWith("groovy-lsp-interactive-"));
+    }
+
+    @UnitTest
+    void supply_shouldShedOldestQueuedTaskWhenQueueIsFull() throws Exception {
+        // Given
+        RequestExecutor executor = start(RequestCategory.INTERACTIVE, 1, 1);
+        CompletableFuture<Void> running = executor.run(this::awaitRelease);
+        CompletableFuture<String> oldest = executor.supply(token -> "oldest");
+
+        // When
+        CompletableFuture<String> newest = executor.supply(token -> "newest");
+        release.countDown();
+
+        // Then
+        assertTrue(oldest.isCancelled());
+        assertEquals("newest", newest.get(5, TimeUnit.SECONDS));
+        running.get(5, TimeUnit.SECONDS);
+        assertEquals(1, executor.getStats().shedCount());
+    }
+
+    @UnitTest
+    void supply_shouldShedQueuedTaskWithSameKeyWhenQueueIsFull() throws Exception {
+        // Given
+        RequestExecutor executor = start(RequestCategory.DIAGNOSTICS, 1, 2);
+        CompletableFuture<Void> running = executor.run(this::awaitRelease);
+        CompletableFuture<String> other = executor.supply("b.groovy", token -> "other");
+        CompletableFuture<String> older = executor.supply("a.groovy", token -> "older");
+
+        // When
+        CompletableFuture<String> newer = executor.supply("a.groovy", token -> "newer");
+        release.countDown();
+
+        // Then - the run of the other document is kept
+        assertTrue(older.isCancelled());
+        assertEquals("other", other.get(5, TimeUnit.SECONDS));
+        assertEquals("newer", newer.get(5, TimeUnit.SECONDS));
+        running.get(5, TimeUnit.SECONDS);
+        assertEquals(1, executor.getStats().shedCount());
+    }
+
+    @UnitTest
+    void supply_shouldRejectTaskWithoutQueuedSameKeyWhenQueueIsFull() throws Exception {
+        // Given
+        RequestExecutor executor = start(RequestCategory.DIAGNOSTICS, 1, 1);
+        CompletableFuture<Void> running = executor.run(this::awaitRelease);
+        CompletableFuture<String> queued = executor.supply("a.groovy", token -> "queued");
+
+        // When
+        CompletableFuture<String> rejected = executor.supply("b.groovy", token -> "rejected");
+        release.countDown();
+
+        // Then
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        running.get(5, TimeUnit.SECONDS);
+        assertEquals(0, executor.getStats().shedCount());
+    }
+
+    @UnitTest
+    void execute_shouldRejectInsteadOfSheddingQueuedCommands() throws Exception {
+        // Given
+        RequestExecutor executor = start(RequestCategory.INTERACTIVE, 1, 1);
+        CompletableFuture<Void> running = executor.run(this::awaitRelease);
+        CountDownLatch ran = new CountDownLatch(1);
+        executor.execute(ran::countDown);
+
+        // When
+        CompletableFuture<String> newest = executor.supply(token -> "newest");
+        release.countDown();
+
+        // Then - the queued command still runs, the new task is rejected
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> newest.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        running.get(5, TimeUnit.SECONDS);
+        assertEquals(0, executor.getStats().shedCount());
+    }
+
+    @UnitTest
+    void supply_shouldRejectNewTaskWhenBulkQueueIsFull() throws Exception {
+        // Given
+        RequestExecutor executor = start(RequestCategory.BULK, 1, 1);
+        CompletableFuture<Void> running = executor.run(this::awaitRelease);
+        CompletableFuture<String> queued = executor.supply(token -> "queued");
+
+        // When
+        CompletableFuture<String> rejected = executor.supply(token -> "rejected");
+        release.countDown();
+
+        // Then
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        running.get(5, TimeUnit.SECONDS);
+        assertEquals(1, executor.getStats().rejectedCount());
+    }
+
+    @UnitTest
+    void getStats_shouldReportQueueDepthAndCompletedTasks() throws Exception {
+        // Given
+        RequestExecutor executor = start(RequestCategory.DIAGNOSTICS, 1, 4);
+        CompletableFuture<Void> running = executor.run(this::awaitRelease);
+        CompletableFuture<Void> queued = executor.run(() -> {});
+
+        // When
+        RequestExecutor.Stats whileBlocked = executor.getStats();
+        release.countDown();
+        CompletableFuture.allOf(running, queued).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(RequestCategory.DIAGNOSTICS, whileBlocked.category());
+        assertEquals(1, whileBlocked.queueDepth());
+        RequestExecutor.Stats afterwards = awaitCompleted(executor, 2);
+        assertEquals(0, afterwards.queueDepth());
+        assertEquals(2, afterwards.completedCount());
+        assertTrue(afterwards.averageWaitMillis() >= 0);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private RequestExecutor start(RequestCategory category, int threads, int queueCapacity) {
+        RequestExecutor started = new RequestExecutor(category, threads, queueCapacity);
+        executor = started;
+        return started;
+    }
+
+    private static RequestExecutor.Stats awaitCompleted(RequestExecutor executor, long count)
+            throws InterruptedException {
+        // The counter is updated right after the future completes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        RequestExecutor.Stats stats = executor.getStats();
+        while (stats.completedCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            stats = executor.getStats();
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,86 @@
+package com.groovy.lsp.protocol.internal.completion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groovy.lsp.test.annotations.UnitTest;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionItemKind;
+import org.eclipse.lsp4j.CompletionList;
+
+/**
+ * CompletionCollectorのテストクラス。
+ */
+class CompletionCollectorTest {
+
+    @UnitTest
+    void add_shouldIgnoreCandidatesNotMatchingPrefix() {
+        // given
+        CompletionCollector collector = new CompletionCollector("na");
+
+        // when
+        collector.add(
+                "name", CompletionItemKind.Field, "String", CompletionCollector.Source.MEMBER);
+        collector.add("Names", CompletionItemKind.Class, null, CompletionCollector.Source.TYPE);
+        collector.add("age", CompletionItemKind.Field, "int", CompletionCollector.Source.MEMBER);
+
+        // then
+        assertThat(collector.size()).isEqualTo(2);
+    }
+
+    @UnitTest
+    void toCompletionList_shouldRankByCaseThenSourceThenLength() {
+        // given
+        CompletionCollector collector = new CompletionCollector("ma");
+        collector.add("matches", CompletionItemKind.Method, null, CompletionCollector.Source.GDK);
+        collector.add("Map", CompletionItemKind.Interface, null, CompletionCollector.Source.TYPE);
+        collector.add("max", CompletionItemKind.Variable, null, CompletionCollector.Source.SCOPE);
+        collector.add("map", CompletionItemKind.Method, null, CompletionCollector.Source.MEMBER);
+
+        // when
+        CompletionList result = collector.toCompletionList(10, false);
+
+        // then
+        assertThat(result.getItems())
+                .extracting(CompletionItem::getLabel)
+                .containsExactly("max", "map", "matches", "Map");
+        assertThat(result.getItems())
+                .extracting(CompletionItem::getSortText)
+                .containsExactly("00000", "00001", "00002", "00003");
+        assertThat(result.isIncomplete()).isFalse();
+    }
+
+    @UnitTest
+    void add_shouldKeepMoreRelevantSourceOfDuplicate() {
+        // given
+        CompletionCollector collector = new CompletionCollector("");
+
+        // when
+        collector.add("each", CompletionItemKind.Method, "GDK", CompletionCollector.Source.GDK);
+        collector.add("each", CompletionItemKind.Method, "own", CompletionCollector.Source.MEMBER);
+
+        // then
+        CompletionList result = collector.toCompletionList(10, false);
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getDetail()).isEqualTo("own");
+    }
+
+    @UnitTest
+    void toCompletionList_shouldBeIncompleteWhenTruncated() {
+        // given
+        CompletionCollector collector = new CompletionCollector("v");
+        for (int i = 0; i < 5; i++) {
+            collector.add(
+                    "value" + i,
+                    CompletionItemKind.Variable,
+                    null,
+                    CompletionCollector.Source.SCOPE);
+        }
+
+        // when
+        CompletionList result = collector.toCompletionList(3, false);
+
+        // then
+        assertThat(result.getItems()).hasSize(3);
+        assertThat(result.isIncomplete()).isTrue();
+    }
+}
@@ -0,0 +1,67 @@
+package com.groovy.lsp.protocol.internal.completion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.gson.JsonPrimitive;
+import com.groovy.lsp.groovy.core.api.MemberTable;
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.List;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionItemKind;
+import org.eclipse.lsp4j.CompletionList;
+
+/**
+ * CompletionResponsesのテストクラス。
+ */
+class CompletionResponsesTest {
+
+    @UnitTest
+    void resolve_shouldFillInDetailsOfItemSentAsJson() {
+        // given
+        CompletionResponses responses = new CompletionResponses();
+        CompletionCollector collector = new CompletionCollector("subs");
+        MemberTable.of(ClassHelper.STRING_TYPE)
+                .getMembers()
+                .forEach(member -> collector.addMember(member, CompletionCollector.Source.MEMBER));
+        CompletionList result = collector.toCompletionList(10, false, responses);
+        CompletionItem sent = result.getItems().get(0);
+        assertThat(sent.getDetail()).isNull();
+
+        // when
+        CompletionItem received = new CompletionItem(sent.getLabel());
+        received.setData(new JsonPrimitive((String) sent.getData()));
+        CompletionItem resolved = responses.resolve(received);
+
+        // then
+        assertThat(resolved).isSameAs(received);
+        assertThat(resolved.getDetail()).startsWith("String substring(int ");
+        assertThat(resolved.getDocumentation().getRight().getValue())
+                .isEqualTo("Declared in `String`");
+    }
+
+    @UnitTest
+    void resolve_shouldLeaveItemsOfEvictedResponsesAsTheyAre() {
+        // given
+        CompletionResponses responses = new CompletionResponses();
+        CompletionItem first = respond(responses);
+        for (int i = 0; i < 10; i++) {
+            respond(responses);
+        }
+
+        // when
+        CompletionItem resolved = responses.resolve(first);
+
+        // then
+        assertThat(resolved.getDetail()).isNull();
+        assertThat(responses.resolve(new CompletionItem("unknown")).getDetail()).isNull();
+    }
+
+    private static CompletionItem respond(CompletionResponses responses) {
+        CompletionCollector collector = new CompletionCollector("");
+        collector.add(
+                "value", CompletionItemKind.Variable, "int", CompletionCollector.Source.SCOPE);
+        List<CompletionItem> items = collector.toCompletionList(10, false, responses).getItems();
+        return items.get(0);
+    }
+}
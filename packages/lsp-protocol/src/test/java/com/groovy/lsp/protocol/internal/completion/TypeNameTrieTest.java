@@ -0,0 +1,102 @@
+package com.groovy.lsp.protocol.internal.completion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.shared.workspace.api.dto.SymbolKind;
+import com.groovy.lsp.test.annotations.UnitTest;
+
+/**
+ * TypeNameTrieのテストクラス。
+ */
+class TypeNameTrieTest {
+
+    @UnitTest
+    void find_shouldMatchPrefixIgnoringCaseShortestFirst() {
+        // given
+        TypeNameTrie trie = new TypeNameTrie();
+        trie.add(type("java.util.LinkedHashMap"));
+        trie.add(type("java.util.List"));
+        trie.add(type("java.util.LinkedList"));
+        trie.add(type("java.util.Map"));
+
+        // when
+        TypeNameTrie.Match match = trie.find("li", 10, CancellationToken.NONE);
+
+        // then
+        assertThat(match.names())
+                .extracting(TypeNameTrie.TypeName::simpleName)
+                .containsExactly("List", "LinkedList", "LinkedHashMap");
+        assertThat(match.truncated()).isFalse();
+    }
+
+    @UnitTest
+    void find_shouldKeepTypesWithSameSimpleName() {
+        // given
+        TypeNameTrie trie = new TypeNameTrie();
+        trie.add(type("java.util.List"));
+        trie.add(type("java.awt.List"));
+
+        // when
+        TypeNameTrie.Match match = trie.find("List", 10, CancellationToken.NONE);
+
+        // then
+        assertThat(match.names())
+                .extracting(TypeNameTrie.TypeName::qualifiedName)
+                .containsExactlyInAnyOrder("java.util.List", "java.awt.List");
+        assertThat(trie.size()).isEqualTo(2);
+    }
+
+    @UnitTest
+    void find_shouldReportTruncationAtLimit() {
+        // given
+        TypeNameTrie trie = new TypeNameTrie();
+        for (int i = 0; i < 10; i++) {
+            trie.add(type("com.example.Type" + i));
+        }
+
+        // when
+        TypeNameTrie.Match match = trie.find("type", 4, CancellationToken.NONE);
+
+        // then
+        assertThat(match.names()).hasSize(4);
+        assertThat(match.truncated()).isTrue();
+    }
+
+    @UnitTest
+    void find_shouldStopAtDeadline() {
+        // given
+        TypeNameTrie trie = new TypeNameTrie();
+        for (int i = 0; i < 1000; i++) {
+            trie.add(type("com.example.Generated" + i));
+        }
+
+        // when
+        TypeNameTrie.Match match = trie.find("gen", 1000, () -> true);
+
+        // then
+        assertThat(match.names()).hasSizeLessThan(1000);
+        assertThat(match.truncated()).isTrue();
+    }
+
+    @UnitTest
+    void find_shouldReturnNothingForUnknownPrefix() {
+        // given
+        TypeNameTrie trie = new TypeNameTrie();
+        trie.add(type("java.util.List"));
+
+        // when
+        TypeNameTrie.Match match = trie.find("Set", 10, CancellationToken.NONE);
+
+        // then
+        assertThat(match.names()).isEmpty();
+        assertThat(match.truncated()).isFalse();
+    }
+
+    private static TypeNameTrie.TypeName type(String qualifiedName) {
+        return new TypeNameTrie.TypeName(
+                qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1),
+                qualifiedName,
+                SymbolKind.CLASS);
+    }
+}
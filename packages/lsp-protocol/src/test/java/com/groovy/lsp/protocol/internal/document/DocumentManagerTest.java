@@ -2,7 +2,12 @@ package com.groovy.lsp.protocol.internal.document;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.groovy.lsp.protocol.api.LineIndex;
 import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.List;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
 import org.eclipse.lsp4j.TextDocumentItem;
 import org.junit.jupiter.api.BeforeEach;
 
@@ -64,6 +69,98 @@ class DocumentManagerTest {
         assertThat(updatedDoc.getVersion()).isEqualTo(2);
     }
 
+    @UnitTest
+    void applyChanges_shouldApplyRangedChangesInOrder() {
+        // given
+        documentManager.openDocument(
+                new TextDocumentItem(
+                        "file:///test.groovy", "groovy", 1, "class Test {\n    def a\n}\n"));
+
+        // when
+        documentManager.applyChanges(
+                "file:///test.groovy",
+                List.of(
+                        new TextDocumentContentChangeEvent(
+                                new Range(new Position(0, 6), new Position(0, 10)), "Person"),
+                        new TextDocumentContentChangeEvent(
+                                new Range(new Position(1, 8), new Position(1, 9)), "name")),
+                2);
+
+        // then
+        assertThat(documentManager.getDocumentContent("file:///test.groovy"))
+                .isEqualTo("class Person {\n    def name\n}\n");
+        assertThat(documentManager.getDocumentVersion("file:///test.groovy")).isEqualTo(2);
+        assertThat(documentManager.takeChangedRanges("file:///test.groovy"))
+                .containsExactly(new ChangedRange(6, 10, 12), new ChangedRange(23, 24, 27));
+        assertThat(documentManager.takeChangedRanges("file:///test.groovy")).isEmpty();
+    }
+
+    @UnitTest
+    void getLineIndex_shouldBeKeptUntilDocumentChanges() {
+        // given
+        documentManager.openDocument(testDocument);
+
+        // when
+        LineIndex first = documentManager.getLineIndex("file:///test.groovy");
+        LineIndex second = documentManager.getLineIndex("file:///test.groovy");
+        documentManager.updateDocument("file:///test.groovy", "class Test {\n}", 2);
+        LineIndex updated = documentManager.getLineIndex("file:///test.groovy");
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(updated).isNotNull();
+        assertThat(java.util.Objects.requireNonNull(updated).getLineCount()).isEqualTo(2);
+        assertThat(documentManager.getLineIndex("file:///nonexistent.groovy")).isNull();
+    }
+
+    @UnitTest
+    void getSnapshot_shouldNotChangeWithLaterEdits() {
+        // given
+        documentManager.openDocument(testDocument);
+        DocumentSnapshot snapshot = documentManager.getSnapshot("file:///test.groovy");
+
+        // when
+        documentManager.updateDocument("file:///test.groovy", "class UpdatedTest {}", 2);
+
+        // then
+        assertThat(snapshot).isNotNull();
+        java.util.Objects.requireNonNull(snapshot);
+        assertThat(snapshot.getVersion()).isEqualTo(1);
+        assertThat(snapshot.getText()).isEqualTo("class Test {}");
+        DocumentSnapshot current = documentManager.getSnapshot("file:///test.groovy");
+        assertThat(current).isNotNull();
+        java.util.Objects.requireNonNull(current);
+        assertThat(current.getVersion()).isEqualTo(2);
+        assertThat(current.getText()).isEqualTo("class UpdatedTest {}");
+        assertThat(documentManager.getSnapshot("file:///test.groovy")).isSameAs(current);
+    }
+
+    @UnitTest
+    void applyChanges_shouldNotModifyOpenedDocumentItem() {
+        // given
+        documentManager.openDocument(testDocument);
+
+        // when
+        documentManager.updateDocument("file:///test.groovy", "class UpdatedTest {}", 2);
+
+        // then
+        assertThat(testDocument.getText()).isEqualTo("class Test {}");
+        assertThat(testDocument.getVersion()).isEqualTo(1);
+    }
+
+    @UnitTest
+    void getDocumentVersion_shouldTrackUpdatesAndClose() {
+        // given
+        documentManager.openDocument(testDocument);
+
+        // when / then
+        assertThat(documentManager.getDocumentVersion("file:///test.groovy")).isEqualTo(1);
+        documentManager.updateDocument("file:///test.groovy", "class UpdatedTest {}", 2);
+        assertThat(documentManager.getDocumentVersion("file:///test.groovy")).isEqualTo(2);
+        documentManager.closeDocument("file:///test.groovy");
+        assertThat(documentManager.getDocumentVersion("file:///test.groovy")).isEqualTo(-1);
+    }
+
     @UnitTest
     void updateDocument_shouldHandleNonExistentDocument() {
         // when
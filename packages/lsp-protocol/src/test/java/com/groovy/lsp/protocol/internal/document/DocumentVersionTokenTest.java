@@ -0,0 +1,61 @@
+package com.groovy.lsp.protocol.internal.document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.concurrent.CancellationException;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * DocumentVersionTokenのテストクラス。
+ */
+class DocumentVersionTokenTest {
+
+    private static final String URI = "file:///test.groovy";
+
+    private DocumentManager documentManager;
+
+    @BeforeEach
+    void setUp() {
+        documentManager = new DocumentManager();
+        documentManager.openDocument(new TextDocumentItem(URI, "groovy", 3, "class Test {}"));
+    }
+
+    @UnitTest
+    void forCurrentVersion_shouldCaptureCurrentVersion() {
+        // when
+        DocumentVersionToken token = DocumentVersionToken.forCurrentVersion(documentManager, URI);
+
+        // then
+        assertThat(token.getVersion()).isEqualTo(3);
+        assertThat(token.isCancellationRequested()).isFalse();
+    }
+
+    @UnitTest
+    void isCancellationRequested_shouldBeTrueAfterNewerEdit() {
+        // given
+        DocumentVersionToken token = DocumentVersionToken.forCurrentVersion(documentManager, URI);
+
+        // when
+        documentManager.updateDocument(URI, "class Test { String name }", 4);
+
+        // then
+        assertThat(token.isCancellationRequested()).isTrue();
+        assertThatThrownBy(token::throwIfCancellationRequested)
+                .isInstanceOf(CancellationException.class);
+    }
+
+    @UnitTest
+    void isCancellationRequested_shouldBeTrueAfterClose() {
+        // given
+        DocumentVersionToken token = DocumentVersionToken.forCurrentVersion(documentManager, URI);
+
+        // when
+        documentManager.closeDocument(URI);
+
+        // then
+        assertThat(token.isCancellationRequested()).isTrue();
+    }
+}
@@ -0,0 +1,100 @@
+package com.groovy.lsp.protocol.internal.document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.Random;
+
+/**
+ * PieceTableのテストクラス。
+ */
+class PieceTableTest {
+
+    @UnitTest
+    void replace_shouldInsertDeleteAndReplaceText() {
+        // given
+        PieceTable table = new PieceTable("class Test {\n}\n");
+
+        // when
+        table.replace(6, 10, "Person");
+        table.replace(15, 15, "    String name\n");
+        table.replace(0, 0, "@Canonical\n");
+
+        // then
+        assertThat(table.toString()).isEqualTo("@Canonical\nclass Person {\n    String name\n}\n");
+        assertThat(table.length()).isEqualTo(table.toString().length());
+        assertThat(table.lineCount()).isEqualTo(5);
+    }
+
+    @UnitTest
+    void offsetAt_shouldConvertPositionsAcrossPieces() {
+        // given
+        PieceTable table = new PieceTable("def a = 1\ndef b = 2\n");
+        table.replace(10, 10, "def c = 3\n");
+
+        // when / then
+        assertThat(table.offsetAt(0, 4)).isEqualTo(4);
+        assertThat(table.offsetAt(1, 4)).isEqualTo(14);
+        assertThat(table.offsetAt(2, 0)).isEqualTo(20);
+        // past the end of a line or of the text
+        assertThat(table.offsetAt(1, 100)).isEqualTo(19);
+        assertThat(table.offsetAt(10, 0)).isEqualTo(table.length());
+    }
+
+    @UnitTest
+    void replace_shouldMatchStringEditsForRandomEdits() {
+        // given
+        Random random = new Random(42);
+        StringBuilder expected = new StringBuilder("class Random {\n    def field\n}\n");
+        PieceTable table = new PieceTable(expected.toString());
+
+        // when
+        for (int i = 0; i < 5_000; i++) {
+            int start = random.nextInt(expected.length() + 1);
+            int end = Math.min(expected.length(), start + random.nextInt(4));
+            String replacement = random.nextInt(5) == 0 ? "\n" : "x".repeat(random.nextInt(3));
+            expected.replace(start, end, replacement);
+            table.replace(start, end, replacement);
+        }
+
+        // then
+        assertThat(table.toString()).isEqualTo(expected.toString());
+        String text = expected.toString();
+        int lastLineStart = text.lastIndexOf('\n') + 1;
+        assertThat(table.offsetAt(table.lineCount() - 1, 0)).isEqualTo(lastLineStart);
+    }
+
+    @UnitTest
+    void offsetAt_shouldFindEveryLineAfterSplittingPieces() {
+        // given
+        StringBuilder expected = new StringBuilder("def line = 0\n".repeat(1_000));
+        PieceTable table = new PieceTable(expected.toString());
+
+        // when - edits inside the original and the added text split both
+        for (int i = 0; i < 50; i++) {
+            int offset = expected.length() * (i % 7 + 1) / 9;
+            expected.insert(offset, "x\ny");
+            table.replace(offset, offset, "x\ny");
+        }
+
+        // then
+        String text = expected.toString();
+        int lineStart = 0;
+        for (int line = 0; line < table.lineCount(); line++) {
+            assertThat(table.offsetAt(line, 0)).isEqualTo(lineStart);
+            lineStart = text.indexOf('\n', lineStart) + 1;
+        }
+        assertThat(table.lineCount()).isEqualTo(text.split("\n", -1).length);
+    }
+
+    @UnitTest
+    void replace_shouldRejectRangesOutsideText() {
+        // given
+        PieceTable table = new PieceTable("abc");
+
+        // when / then
+        assertThatThrownBy(() -> table.replace(2, 4, "x"))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,280 @@
+package com.groovy.lsp.protocol.internal.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.when;
+
+import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.GroovyCoreFactory;
+import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.protocol.api.RequestExecutors;
+import com.groovy.lsp.protocol.internal.completion.CompletionEngine;
+import com.groovy.lsp.protocol.internal.completion.CompletionResponses;
+import com.groovy.lsp.protocol.internal.completion.TypeNameIndex;
+import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
+import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
+import com.groovy.lsp.shared.workspace.api.dto.SymbolInfo;
+import com.groovy.lsp.shared.workspace.api.dto.SymbolKind;
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionItemKind;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * CompletionHandlerのテストクラス。
+ */
+class CompletionHandlerTest {
+
+    private static final String URI = "file:///Person.groovy";
+
+    /** Covers the first parse, which loads the compiler. */
+    private static final Duration BUDGET = Duration.ofSeconds(30);
+
+    private static final String SOURCE =
+            """
+            class Person {
+                String name
+
+                String greet(String other) {
+                    def greeting = "Hello"
+                    gr
+                    def later = 1
+                }
+
+                void other() {
+                    def hidden = 2
+                }
+            }
+            """;
+
+    @Mock private IServiceRouter serviceRouter;
+
+    @Mock private DocumentManager documentManager;
+
+    @Mock private WorkspaceIndexService workspaceIndexService;
+
+    private final TypeNameIndex typeNameIndex = new TypeNameIndex();
+
+    private final CompletionResponses responses = new CompletionResponses();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ASTService astService = GroovyCoreFactory.getInstance().createASTService();
+        when(serviceRouter.getAstService()).thenReturn(astService);
+        when(serviceRouter.getTypeInferenceService())
+                .thenReturn(GroovyCoreFactory.getInstance().createTypeInferenceService(astService));
+        when(serviceRouter.getWorkspaceIndexService()).thenReturn(workspaceIndexService);
+        when(workspaceIndexService.searchSymbols(""))
+                .thenAnswer(
+                        invocation ->
+                                CompletableFuture.completedFuture(
+                                        Stream.of(
+                                                new SymbolInfo(
+                                                        "com.example.Greeter",
+                                                        SymbolKind.CLASS,
+                                                        Path.of("/src/Greeter.groovy"),
+                                                        1,
+                                                        1),
+                                                new SymbolInfo(
+                                                        "GregorianCalendar",
+                                                        SymbolKind.CLASS,
+                                                        Path.of(
+                                                                "/lib/rt.jar!/java/util/GregorianCalendar.class"),
+                                                        1,
+                                                        1),
+                                                new SymbolInfo(
+                                                        "greetAll",
+                                                        SymbolKind.METHOD,
+                                                        Path.of("/src/Greeter.groovy"),
+                                                        3,
+                                                        5))));
+    }
+
+    @UnitTest
+    void handleCompletion_shouldRankLocalNamesBeforeMembers() throws Exception {
+        // given
+        when(documentManager.getSnapshot(URI)).thenReturn(new DocumentSnapshot(URI, 0, SOURCE));
+
+        // when
+        CompletionList result = handler(BUDGET).handleCompletion(params(5, 10)).get();
+
+        // then
+        assertThat(labels(result)).startsWith("greeting").contains("greet");
+        assertThat(labels(result)).doesNotContain("later", "hidden");
+        assertThat(result.getItems().get(0).getKind()).isEqualTo(CompletionItemKind.Variable);
+        assertThat(result.getItems().get(0).getDetail()).isNull();
+    }
+
+    @UnitTest
+    void handleCompletion_shouldIncludeTypeNamesFromIndex() throws Exception {
+        // given
+        when(documentManager.getSnapshot(URI)).thenReturn(new DocumentSnapshot(URI, 0, SOURCE));
+        typeNameIndex.rebuild(workspaceIndexService);
+
+        // when
+        CompletionList result = handler(BUDGET).handleCompletion(params(5, 10)).get();
+
+        // then
+        assertThat(result.isIncomplete()).isFalse();
+        assertThat(result.getItems())
+                .filteredOn(item -> item.getKind() == CompletionItemKind.Class)
+                .map(responses::resolve)
+                .extracting(CompletionItem::getLabel, CompletionItem::getDetail)
+                .containsExactlyInAnyOrder(
+                        tuple("Greeter", "com.example.Greeter"),
+                        tuple("GregorianCalendar", "java.util.GregorianCalendar"));
+        assertThat(labels(result)).doesNotContain("greetAll");
+    }
+
+    @UnitTest
+    void handleCompletion_shouldBeIncompleteUntilTypeNamesAreIndexed() throws Exception {
+        // given
+        when(documentManager.getSnapshot(URI)).thenReturn(new DocumentSnapshot(URI, 0, SOURCE));
+
+        // when
+        CompletionList result = handler(BUDGET).handleCompletion(params(5, 10)).get();
+
+        // then
+        assertThat(result.isIncomplete()).isTrue();
+        assertThat(labels(result)).contains("greeting");
+    }
+
+    @UnitTest
+    void handleCompletion_shouldBeIncompleteWhenBudgetIsExhausted() throws Exception {
+        // given
+        when(documentManager.getSnapshot(URI)).thenReturn(new DocumentSnapshot(URI, 0, SOURCE));
+        typeNameIndex.rebuild(workspaceIndexService);
+
+        // when
+        CompletionList result = handler(Duration.ZERO).handleCompletion(params(5, 10)).get();
+
+        // then
+        assertThat(result.isIncomplete()).isTrue();
+    }
+
+    @UnitTest
+    void handleCompletion_shouldCompleteGdkMethodsAfterDot() throws Exception {
+        // given
+        String source = "def text = 'a'\ntext.wi";
+        when(documentManager.getSnapshot(URI)).thenReturn(new DocumentSnapshot(URI, 0, source));
+
+        // when
+        CompletionList result = handler(BUDGET).handleCompletion(params(1, 7)).get();
+
+        // then
+        assertThat(labels(result)).contains("with").doesNotContain("while", "text");
+    }
+
+    @UnitTest
+    void handleCompletion_shouldCompleteMembersOfInferredReceiverType() throws Exception {
+        // given
+        String source = "def text = 'a'\ntext.toUpp";
+        when(documentManager.getSnapshot(URI)).thenReturn(new DocumentSnapshot(URI, 0, source));
+
+        // when
+        CompletionList result = handler(BUDGET).handleCompletion(params(1, 10)).get();
+
+        // then
+        assertThat(labels(result)).containsExactly("toUpperCase");
+        CompletionItem item = result.getItems().get(0);
+        assertThat(item.getKind()).isEqualTo(CompletionItemKind.Method);
+        assertThat(item.getDetail()).isNull();
+        assertThat(item.getDocumentation()).isNull();
+    }
+
+    @UnitTest
+    void handleCompletion_shouldCompleteMembersBeforeNextStatement() throws Exception {
+        // given
+        String source = "List<String> names = []\nnames.\nprintln names";
+        when(documentManager.getSnapshot(URI)).thenReturn(new DocumentSnapshot(URI, 0, source));
+
+        // when
+        CompletionList result = handler(BUDGET).handleCompletion(params(1, 6)).get();
+
+        // then
+        assertThat(labels(result)).contains("size", "add", "collect", "each");
+        assertThat(labels(result)).doesNotContain("names", "def");
+    }
+
+    @UnitTest
+    void handleCompletion_shouldCompleteOnlyStaticMembersOfClass() throws Exception {
+        // given
+        String source = "Integer.compa";
+        when(documentManager.getSnapshot(URI)).thenReturn(new DocumentSnapshot(URI, 0, source));
+
+        // when
+        CompletionList result = handler(BUDGET).handleCompletion(params(0, 13)).get();
+
+        // then
+        assertThat(labels(result)).containsExactly("compare", "compareUnsigned");
+    }
+
+    @UnitTest
+    void resolve_shouldAddSignatureAndDocumentationOfMember() throws Exception {
+        // given
+        String source =
+                """
+                class Greeter {
+                    /** Greets someone by name. */
+                    String greet(String other) { "Hi ${other}" }
+                }
+                new Greeter().gr
+                """;
+        when(documentManager.getSnapshot(URI)).thenReturn(new DocumentSnapshot(URI, 0, source));
+        CompletionList result = handler(BUDGET).handleCompletion(params(4, 16)).get();
+
+        // when
+        CompletionItem item = responses.resolve(result.getItems().get(0));
+
+        // then
+        assertThat(item.getLabel()).isEqualTo("greet");
+        assertThat(item.getDetail()).isEqualTo("String greet(String other)");
+        assertThat(item.getDocumentation().getRight().getValue())
+                .isEqualTo("Greets someone by name.\n\nDeclared in `Greeter`");
+    }
+
+    @UnitTest
+    void handleCompletion_shouldReturnEmptyListForUnknownDocument() throws Exception {
+        // when
+        CompletionList result = handler(BUDGET).handleCompletion(params(0, 0)).get();
+
+        // then
+        assertThat(result.isIncomplete()).isFalse();
+        assertThat(result.getItems()).isEmpty();
+    }
+
+    private CompletionHandler handler(Duration budget) {
+        RequestExecutor indexExecutor = RequestExecutors.defaults().get(RequestCategory.BULK);
+        CompletionEngine engine =
+                new CompletionEngine(
+                        typeNameIndex,
+                        responses,
+                        indexExecutor,
+                        CompletionEngine.DEFAULT_MAX_ITEMS,
+                        budget);
+        return new CompletionHandler(serviceRouter, documentManager, engine);
+    }
+
+    private static CompletionParams params(int line, int character) {
+        return new CompletionParams(new TextDocumentIdentifier(URI), new Position(line, character));
+    }
+
+    private static List<String> labels(CompletionList completionList) {
+        return completionList.getItems().stream().map(CompletionItem::getLabel).toList();
+    }
+}
@@ -4,11 +4,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.protocol.internal.util.LocationUtils;
 import com.groovy.lsp.test.annotations.UnitTest;
 import java.util.List;
@@ -109,8 +113,9 @@ class CoverageImproveTest {
         scriptClass.addMethod(runMethod);
         module.addClass(scriptClass);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(module);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(module);
         when(astService.findNodeAtPosition(module, 2, 9)).thenReturn(usageExpr);
 
         // Act
@@ -158,8 +163,9 @@ class CoverageImproveTest {
 
         module.addClass(testClass);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(module);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(module);
         when(astService.findNodeAtPosition(module, 1, 21)).thenReturn(fieldAccess);
 
         // Act
@@ -218,8 +224,9 @@ class CoverageImproveTest {
         scriptClass.addMethod(runMethod);
         module.addClass(scriptClass);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(module);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(module);
         when(astService.findNodeAtPosition(module, 1, 5)).thenReturn(varDecl);
 
         // Act
@@ -271,8 +278,9 @@ class CoverageImproveTest {
         scriptClass.addMethod(runMethod);
         module.addClass(scriptClass);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(module);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(module);
         when(astService.findNodeAtPosition(module, 1, 5)).thenReturn(methodNode);
 
         // Act
@@ -320,8 +328,9 @@ class CoverageImproveTest {
         scriptClass.addMethod(runMethod);
         module.addClass(scriptClass);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(module);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(module);
         when(astService.findNodeAtPosition(module, 1, 7)).thenReturn(myClass);
 
         // Act
@@ -374,8 +383,9 @@ class CoverageImproveTest {
         scriptClass.addMethod(runMethod);
         module.addClass(scriptClass);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(module);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(module);
         when(astService.findNodeAtPosition(module, 1, 23)).thenReturn(nameProperty);
 
         // Act
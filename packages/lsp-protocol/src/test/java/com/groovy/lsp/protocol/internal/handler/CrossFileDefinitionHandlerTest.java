@@ -1,12 +1,16 @@
 package com.groovy.lsp.protocol.internal.handler;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
 import com.groovy.lsp.shared.workspace.api.dto.SymbolInfo;
 import com.groovy.lsp.shared.workspace.api.dto.SymbolKind;
@@ -73,8 +77,10 @@ public class CrossFileDefinitionHandlerTest {
                         new org.codehaus.groovy.ast.expr.ArgumentListExpression());
 
         // Mock AST service
-        when(documentManager.getDocumentContent(currentUri)).thenReturn(sourceCode);
-        when(astService.parseSource(sourceCode, currentUri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(currentUri))
+                .thenReturn(new DocumentSnapshot(currentUri, 0, sourceCode));
+        when(astService.parseSource(eq(sourceCode), eq(currentUri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 41)).thenReturn(methodCall);
 
         // Mock workspace index service
@@ -119,8 +125,10 @@ public class CrossFileDefinitionHandlerTest {
         ClassExpression classExpr = new ClassExpression(utilsType);
 
         // Mock AST service
-        when(documentManager.getDocumentContent(currentUri)).thenReturn(sourceCode);
-        when(astService.parseSource(sourceCode, currentUri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(currentUri))
+                .thenReturn(new DocumentSnapshot(currentUri, 0, sourceCode));
+        when(astService.parseSource(eq(sourceCode), eq(currentUri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 14)).thenReturn(classExpr);
 
         // Mock workspace index service
@@ -164,8 +172,10 @@ public class CrossFileDefinitionHandlerTest {
                         new VariableExpression("Utils"), new ConstantExpression("config"));
 
         // Mock AST service
-        when(documentManager.getDocumentContent(currentUri)).thenReturn(sourceCode);
-        when(astService.parseSource(sourceCode, currentUri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(currentUri))
+                .thenReturn(new DocumentSnapshot(currentUri, 0, sourceCode));
+        when(astService.parseSource(eq(sourceCode), eq(currentUri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 48)).thenReturn(propExpr);
 
         // Mock workspace index service
@@ -212,8 +222,10 @@ public class CrossFileDefinitionHandlerTest {
                         new org.codehaus.groovy.ast.expr.ArgumentListExpression());
 
         // Mock AST service
-        when(documentManager.getDocumentContent(currentUri)).thenReturn(sourceCode);
-        when(astService.parseSource(sourceCode, currentUri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(currentUri))
+                .thenReturn(new DocumentSnapshot(currentUri, 0, sourceCode));
+        when(astService.parseSource(eq(sourceCode), eq(currentUri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 36)).thenReturn(methodCall);
 
         // Mock workspace index service - returns empty stream
@@ -251,8 +263,10 @@ public class CrossFileDefinitionHandlerTest {
                         new org.codehaus.groovy.ast.expr.ArgumentListExpression());
 
         // Mock AST service
-        when(documentManager.getDocumentContent(currentUri)).thenReturn(sourceCode);
-        when(astService.parseSource(sourceCode, currentUri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(currentUri))
+                .thenReturn(new DocumentSnapshot(currentUri, 0, sourceCode));
+        when(astService.parseSource(eq(sourceCode), eq(currentUri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 41)).thenReturn(methodCall);
 
         // Mock workspace index service - throws exception
@@ -1,12 +1,16 @@
 package com.groovy.lsp.protocol.internal.handler;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
 import com.groovy.lsp.shared.workspace.api.dto.SymbolInfo;
 import com.groovy.lsp.shared.workspace.api.dto.SymbolKind;
@@ -76,8 +80,10 @@ public class CrossFileReferencesHandlerTest {
         moduleNode.addClass(utilsClass);
 
         // Mock AST service
-        when(documentManager.getDocumentContent(currentUri)).thenReturn(sourceCode);
-        when(astService.parseSource(sourceCode, currentUri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(currentUri))
+                .thenReturn(new DocumentSnapshot(currentUri, 0, sourceCode));
+        when(astService.parseSource(eq(sourceCode), eq(currentUri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 27)).thenReturn(methodNode);
 
         // Mock workspace index service - return multiple references
@@ -127,8 +133,10 @@ public class CrossFileReferencesHandlerTest {
         moduleNode.addClass(modelClass);
 
         // Mock AST service
-        when(documentManager.getDocumentContent(currentUri)).thenReturn(sourceCode);
-        when(astService.parseSource(sourceCode, currentUri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(currentUri))
+                .thenReturn(new DocumentSnapshot(currentUri, 0, sourceCode));
+        when(astService.parseSource(eq(sourceCode), eq(currentUri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 7)).thenReturn(modelClass);
 
         // Mock workspace index service
@@ -174,8 +182,10 @@ public class CrossFileReferencesHandlerTest {
         moduleNode.addClass(configClass);
 
         // Mock AST service
-        when(documentManager.getDocumentContent(currentUri)).thenReturn(sourceCode);
-        when(astService.parseSource(sourceCode, currentUri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(currentUri))
+                .thenReturn(new DocumentSnapshot(currentUri, 0, sourceCode));
+        when(astService.parseSource(eq(sourceCode), eq(currentUri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 30)).thenReturn(propertyNode);
 
         // Mock workspace index service
@@ -224,8 +234,10 @@ public class CrossFileReferencesHandlerTest {
         moduleNode.addClass(utilsClass);
 
         // Mock AST service
-        when(documentManager.getDocumentContent(currentUri)).thenReturn(sourceCode);
-        when(astService.parseSource(sourceCode, currentUri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(currentUri))
+                .thenReturn(new DocumentSnapshot(currentUri, 0, sourceCode));
+        when(astService.parseSource(eq(sourceCode), eq(currentUri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 20)).thenReturn(methodNode);
 
         // Mock workspace index service - return mixed results
@@ -280,8 +292,10 @@ public class CrossFileReferencesHandlerTest {
         moduleNode.addClass(serviceClass);
 
         // Mock AST service
-        when(documentManager.getDocumentContent(currentUri)).thenReturn(sourceCode);
-        when(astService.parseSource(sourceCode, currentUri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(currentUri))
+                .thenReturn(new DocumentSnapshot(currentUri, 0, sourceCode));
+        when(astService.parseSource(eq(sourceCode), eq(currentUri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 22)).thenReturn(methodNode);
 
         // Mock workspace index service - throws exception
@@ -1,12 +1,16 @@
 package com.groovy.lsp.protocol.internal.handler;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
 import com.groovy.lsp.test.annotations.UnitTest;
 import java.util.List;
@@ -82,7 +86,7 @@ class DefinitionHandlerAdditionalTest {
         DefinitionParams params = createParams(uri, 3, 12);
 
         // Mocking
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // CatchStatementを作成
         Parameter catchParam = new Parameter(ClassHelper.make(Exception.class), "ex");
@@ -111,7 +115,8 @@ class DefinitionHandlerAdditionalTest {
         scriptClass.addMethod(runMethod);
         when(moduleNode.getClasses()).thenReturn(List.of(scriptClass));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 4, 13)).thenReturn(exVar);
 
         // テスト実行
@@ -148,7 +153,7 @@ class DefinitionHandlerAdditionalTest {
         DefinitionParams params = createParams(uri, 4, 16);
 
         // Mocking
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // FieldNodeを作成
         ClassNode myClass = new ClassNode("MyClass", 1, ClassHelper.OBJECT_TYPE);
@@ -167,7 +172,8 @@ class DefinitionHandlerAdditionalTest {
         ModuleNode moduleNode = mock(ModuleNode.class);
         when(moduleNode.getClasses()).thenReturn(List.of(myClass));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 5, 17)).thenReturn(fieldRef);
 
         // テスト実行
@@ -202,7 +208,7 @@ class DefinitionHandlerAdditionalTest {
         DefinitionParams params = createParams(uri, 4, 16);
 
         // Mocking
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // PropertyNodeを作成
         ClassNode myClass = new ClassNode("MyClass", 1, ClassHelper.OBJECT_TYPE);
@@ -223,7 +229,8 @@ class DefinitionHandlerAdditionalTest {
         ModuleNode moduleNode = mock(ModuleNode.class);
         when(moduleNode.getClasses()).thenReturn(List.of(myClass));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 5, 17)).thenReturn(propRef);
 
         // テスト実行
@@ -250,7 +257,7 @@ class DefinitionHandlerAdditionalTest {
         DefinitionParams params = createParams(uri, 1, 12);
 
         // Mocking
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // ForStatementを作成
         Parameter forParam = new Parameter(ClassHelper.STRING_TYPE, "item");
@@ -284,7 +291,8 @@ class DefinitionHandlerAdditionalTest {
         scriptClass.addMethod(runMethod);
         when(moduleNode.getClasses()).thenReturn(List.of(scriptClass));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 2, 13)).thenReturn(itemRef);
 
         // テスト実行
@@ -315,7 +323,7 @@ class DefinitionHandlerAdditionalTest {
         DefinitionParams params = createParams(uri, 1, 8);
 
         // Mocking
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // スクリプトレベルの変数宣言
         VariableExpression varDecl = new VariableExpression("x");
@@ -338,7 +346,8 @@ class DefinitionHandlerAdditionalTest {
         when(moduleNode.getStatementBlock()).thenReturn(statementBlock);
         when(moduleNode.getClasses()).thenReturn(List.of());
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 2, 9)).thenReturn(varRef);
 
         // テスト実行
@@ -364,7 +373,7 @@ class DefinitionHandlerAdditionalTest {
         DefinitionParams params = createParams(uri, 0, 6);
 
         // Mocking
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // ASTノード設定
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -375,7 +384,8 @@ class DefinitionHandlerAdditionalTest {
         VariableExpression varRef = new VariableExpression("test");
         varRef.setAccessedVariable(new DynamicVariable("test", false));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 7)).thenReturn(varRef);
 
         // テスト実行
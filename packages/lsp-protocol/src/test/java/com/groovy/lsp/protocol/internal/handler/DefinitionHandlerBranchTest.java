@@ -2,11 +2,15 @@ package com.groovy.lsp.protocol.internal.handler;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.test.annotations.UnitTest;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -98,8 +102,9 @@ class DefinitionHandlerBranchTest {
 
         moduleNode.addClass(personClass);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 5, 8)).thenReturn(propExpr);
 
         // Act
@@ -145,8 +150,9 @@ class DefinitionHandlerBranchTest {
 
         moduleNode.addClass(myClass);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 2, 13)).thenReturn(classExpr);
 
         // Act
@@ -196,8 +202,9 @@ class DefinitionHandlerBranchTest {
 
         moduleNode.addClass(myClass);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 2, 15)).thenReturn(ctorCall);
 
         // Act
@@ -227,8 +234,9 @@ class DefinitionHandlerBranchTest {
         Position position = new Position(0, 4);
         DefinitionParams params = new DefinitionParams(new TextDocumentIdentifier(uri), position);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenThrow(new RuntimeException("Parse error"));
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenThrow(new RuntimeException("Parse error"));
 
         // Act
         CompletableFuture<
@@ -263,8 +271,9 @@ class DefinitionHandlerBranchTest {
         varExpr.setLineNumber(1);
         varExpr.setColumnNumber(5);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 5)).thenReturn(varExpr);
 
         // Act
@@ -303,8 +312,9 @@ class DefinitionHandlerBranchTest {
         methodCall.setLineNumber(1);
         methodCall.setColumnNumber(16);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 16)).thenReturn(methodCall);
 
         // Act
@@ -344,8 +354,9 @@ class DefinitionHandlerBranchTest {
         propExpr.setLineNumber(1);
         propExpr.setColumnNumber(34);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 34)).thenReturn(propExpr);
 
         // Act
@@ -402,8 +413,9 @@ class DefinitionHandlerBranchTest {
         varExpr.setLineNumber(4);
         varExpr.setColumnNumber(13);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 4, 13)).thenReturn(varExpr);
 
         // Act
@@ -2,12 +2,16 @@ package com.groovy.lsp.protocol.internal.handler;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.test.annotations.PerformanceTest;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -77,8 +81,9 @@ class DefinitionHandlerPerformanceTest {
         when(classNode.getMethods()).thenReturn(List.of(methodNode));
         when(moduleNode.getClasses()).thenReturn(List.of(classNode));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 41)).thenReturn(methodCall);
 
         // Act & Assert - measure time
@@ -144,8 +149,9 @@ class DefinitionHandlerPerformanceTest {
         when(classNode.getMethods()).thenReturn(methods);
         when(moduleNode.getClasses()).thenReturn(List.of(classNode));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 102, 26)).thenReturn(methodCall);
 
         // Act & Assert - measure time
@@ -200,8 +206,9 @@ class DefinitionHandlerPerformanceTest {
         when(variable.getName()).thenReturn("result");
         when(varExpr.getAccessedVariable()).thenReturn(variable);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 4, 9)).thenReturn(varExpr);
         when(moduleNode.getClasses()).thenReturn(List.of());
         when(moduleNode.getStatementBlock()).thenReturn(null);
@@ -2,12 +2,16 @@ package com.groovy.lsp.protocol.internal.handler;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.test.annotations.UnitTest;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -58,7 +62,7 @@ class DefinitionHandlerTest {
         DefinitionParams params =
                 new DefinitionParams(new TextDocumentIdentifier(uri), new Position(0, 0));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(null);
+        when(documentManager.getSnapshot(uri)).thenReturn(null);
 
         // Act
         CompletableFuture<
@@ -82,8 +86,9 @@ class DefinitionHandlerTest {
         DefinitionParams params =
                 new DefinitionParams(new TextDocumentIdentifier(uri), new Position(0, 6));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(null);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(null);
 
         // Act
         CompletableFuture<
@@ -107,8 +112,9 @@ class DefinitionHandlerTest {
         DefinitionParams params =
                 new DefinitionParams(new TextDocumentIdentifier(uri), new Position(0, 6));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 7)).thenReturn(null);
 
         // Act
@@ -133,8 +139,9 @@ class DefinitionHandlerTest {
         DefinitionParams params =
                 new DefinitionParams(new TextDocumentIdentifier(uri), new Position(0, 0));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
 
         // Act
         CompletableFuture<
@@ -158,9 +165,10 @@ class DefinitionHandlerTest {
         DefinitionParams params =
                 new DefinitionParams(new TextDocumentIdentifier(uri), new Position(0, 18));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
         // Parse might succeed but AST might be incomplete
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 19)).thenReturn(null);
 
         // Act
@@ -185,8 +193,9 @@ class DefinitionHandlerTest {
         Position position = new Position(999999, 999999); // Very large position
         DefinitionParams params = new DefinitionParams(new TextDocumentIdentifier(uri), position);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1000000, 1000000)).thenReturn(null);
 
         // Act
@@ -226,8 +235,9 @@ class DefinitionHandlerTest {
         when(classNode.getMethods()).thenReturn(List.of(methodNode));
         when(moduleNode.getClasses()).thenReturn(List.of(classNode));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 41)).thenReturn(methodCall);
 
         // Act
@@ -277,8 +287,9 @@ class DefinitionHandlerTest {
     //     when(workspaceIndexService.searchSymbols("someMethod"))
     //             .thenReturn(CompletableFuture.completedFuture(Stream.of(symbolInfo)));
     //
-    //     when(documentManager.getDocumentContent(uri)).thenReturn(content);
-    //     when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+    //     when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+    //     when(astService.parseSource(eq(content), eq(uri),
+    // any(CancellationToken.class))).thenReturn(moduleNode);
     //     when(astService.findNodeAtPosition(moduleNode, 1, 31)).thenReturn(methodCall);
     //
     //     // Act
@@ -2,11 +2,15 @@ package com.groovy.lsp.protocol.internal.handler;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.test.annotations.UnitTest;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -113,8 +117,9 @@ class DefinitionHandlerVariableTest {
         classNode.addMethod(methodNode);
         moduleNode.addClass(classNode);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 3, 13)).thenReturn(varUsageExpr);
 
         // Act
@@ -180,8 +185,9 @@ class DefinitionHandlerVariableTest {
         classNode.addMethod(methodNode);
         moduleNode.addClass(classNode);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 2, 13)).thenReturn(varUsageExpr);
 
         // Act
@@ -251,8 +257,9 @@ class DefinitionHandlerVariableTest {
         classNode.addMethod(methodNode);
         moduleNode.addClass(classNode);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 5, 17)).thenReturn(varUsageExpr);
 
         // Act
@@ -323,8 +330,9 @@ class DefinitionHandlerVariableTest {
         classNode.addMethod(methodNode);
         moduleNode.addClass(classNode);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 5, 17)).thenReturn(varUsageExpr);
 
         // Act
@@ -392,8 +400,9 @@ class DefinitionHandlerVariableTest {
         classNode.addMethod(methodNode);
         moduleNode.addClass(classNode);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 3, 17)).thenReturn(varUsageExpr);
 
         // Act
@@ -467,8 +476,9 @@ class DefinitionHandlerVariableTest {
         classNode.addMethod(methodNode);
         moduleNode.addClass(classNode);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 5, 17)).thenReturn(varUsageExpr);
 
         // Act
@@ -543,8 +553,9 @@ class DefinitionHandlerVariableTest {
         scriptClass.addMethod(runMethod);
         moduleNode.addClass(scriptClass);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 2, 9)).thenReturn(varUsageExpr);
 
         // Act
@@ -4,24 +4,40 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.groovy.lsp.groovy.core.api.AnalysisTier;
+import com.groovy.lsp.groovy.core.api.AnalysisTierService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.groovy.core.api.CompilationContext;
+import com.groovy.lsp.groovy.core.api.CompilationContextService;
 import com.groovy.lsp.groovy.core.api.CompilationResult;
 import com.groovy.lsp.groovy.core.api.CompilationResult.CompilationError;
+import com.groovy.lsp.groovy.core.api.GroovyCoreFactory;
 import com.groovy.lsp.groovy.core.api.IncrementalCompilationService;
+import com.groovy.lsp.groovy.core.api.ProjectClasspathProvider;
 import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
+import com.groovy.lsp.protocol.internal.document.DocumentVersionToken;
 import com.groovy.lsp.test.annotations.UnitTest;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.codehaus.groovy.ast.ModuleNode;
 import org.codehaus.groovy.control.CompilationUnit;
 import org.codehaus.groovy.control.CompilerConfiguration;
@@ -53,6 +69,13 @@ class DiagnosticsHandlerTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         when(serviceRouter.getIncrementalCompilationService()).thenReturn(compilationService);
+        when(serviceRouter.getCompilationContextService())
+                .thenReturn(
+                        GroovyCoreFactory.getInstance()
+                                .createCompilationContextService(ProjectClasspathProvider.NONE));
+        // The syntax lane compiles without the project classpath
+        when(compilationService.createCompilationUnit(any(CompilerConfiguration.class)))
+                .thenReturn(compilationUnit);
         diagnosticsHandler = new DiagnosticsHandler(serviceRouter, documentManager);
     }
 
@@ -67,17 +90,26 @@ class DiagnosticsHandlerTest {
         String uri = "file:///test.groovy";
         String sourceCode = "def hello() { return 'Hello' }";
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
-        when(compilationService.createCompilationUnit(any(CompilerConfiguration.class)))
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
                 .thenReturn(compilationUnit);
 
         ModuleNode moduleNode = mock(ModuleNode.class);
         CompilationResult result = CompilationResult.success(moduleNode);
+        // Syntax lane (CONVERSION) finds no errors
+        when(compilationService.compileToPhaseWithResult(
+                        eq(compilationUnit),
+                        eq(sourceCode),
+                        eq(uri),
+                        eq(IncrementalCompilationService.CompilationPhase.CONVERSION),
+                        any(CancellationToken.class)))
+                .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
         when(compilationService.compileToPhaseWithResult(
                         eq(compilationUnit),
                         eq(sourceCode),
                         eq(uri),
-                        eq(IncrementalCompilationService.CompilationPhase.SEMANTIC_ANALYSIS)))
+                        eq(IncrementalCompilationService.CompilationPhase.SEMANTIC_ANALYSIS),
+                        any(CancellationToken.class)))
                 .thenReturn(result);
 
         // When
@@ -95,25 +127,174 @@ class DiagnosticsHandlerTest {
         assertTrue(params.getDiagnostics().isEmpty());
     }
 
+    @UnitTest
+    void testHandleDiagnosticsImmediate_FallsBackToDebounceWhenSaturated() throws Exception {
+        // Given - the only thread is busy and the queue holds another document's run
+        RequestExecutor executor = new RequestExecutor(RequestCategory.DIAGNOSTICS, 1, 1);
+        diagnosticsHandler.setExecutor(executor);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.run(
+                () -> {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+        String queuedUri = "file:///queued.groovy";
+        String uri = "file:///restored.groovy";
+        String sourceCode = "def hello() { return 'Hello' }";
+        when(documentManager.getSnapshot(any()))
+                .thenAnswer(
+                        invocation ->
+                                new DocumentSnapshot(invocation.getArgument(0), 0, sourceCode));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.compileToPhaseWithResult(
+                        any(), any(), any(), any(), any(CancellationToken.class)))
+                .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
+        CompletableFuture<Void> queued =
+                diagnosticsHandler.handleDiagnosticsImmediate(queuedUri, languageClient);
+
+        // When
+        diagnosticsHandler.handleDiagnosticsImmediate(uri, languageClient).get(5, TimeUnit.SECONDS);
+
+        // Then - neither run is lost
+        verify(languageClient, timeout(5000))
+                .publishDiagnostics(new PublishDiagnosticsParams(uri, List.of(), 0));
+        release.countDown();
+        queued.get(5, TimeUnit.SECONDS);
+        verify(languageClient)
+                .publishDiagnostics(new PublishDiagnosticsParams(queuedUri, List.of(), 0));
+        executor.shutdown();
+    }
+
+    @UnitTest
+    void testHandleDiagnosticsImmediate_RecordsCompileTimeOfResult() throws Exception {
+        // Given
+        String uri = "file:///test.groovy";
+        String sourceCode = "def hello() { return 'Hello' }";
+        AnalysisTierService tierService = mock(AnalysisTierService.class);
+        when(tierService.getTier(uri, sourceCode.length())).thenReturn(AnalysisTier.FULL);
+        diagnosticsHandler.setAnalysisTierService(tierService);
+
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.compileToPhaseWithResult(
+                        eq(compilationUnit),
+                        eq(sourceCode),
+                        eq(uri),
+                        eq(IncrementalCompilationService.CompilationPhase.CONVERSION),
+                        any(CancellationToken.class)))
+                .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
+        when(compilationService.compileToPhaseWithResult(
+                        eq(compilationUnit),
+                        eq(sourceCode),
+                        eq(uri),
+                        eq(IncrementalCompilationService.CompilationPhase.SEMANTIC_ANALYSIS),
+                        any(CancellationToken.class)))
+                .thenReturn(CompilationResult.success(mock(ModuleNode.class)).withCompileTime(42));
+
+        // When
+        diagnosticsHandler.handleDiagnosticsImmediate(uri, languageClient).get(5, TimeUnit.SECONDS);
+
+        // Then - the time the compile reported, not the time the lane took
+        verify(tierService).recordCompileTime(uri, 42);
+    }
+
+    @UnitTest
+    void testHandleDiagnosticsImmediate_SyntaxOnlyTierSkipsSemanticLane() throws Exception {
+        // Given
+        String uri = "file:///large.groovy";
+        String sourceCode = "def large() { return 'Large' }";
+        AnalysisTierService tierService = mock(AnalysisTierService.class);
+        when(tierService.getTier(uri, sourceCode.length())).thenReturn(AnalysisTier.SYNTAX_ONLY);
+        diagnosticsHandler.setAnalysisTierService(tierService);
+
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.compileToPhaseWithResult(
+                        eq(compilationUnit),
+                        eq(sourceCode),
+                        eq(uri),
+                        eq(IncrementalCompilationService.CompilationPhase.CONVERSION),
+                        any(CancellationToken.class)))
+                .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
+
+        // When
+        diagnosticsHandler.handleDiagnosticsImmediate(uri, languageClient).get(5, TimeUnit.SECONDS);
+
+        // Then
+        verify(languageClient).publishDiagnostics(any(PublishDiagnosticsParams.class));
+        verify(compilationService, never())
+                .compileToPhaseWithResult(
+                        any(CompilationUnit.class),
+                        any(String.class),
+                        any(String.class),
+                        eq(IncrementalCompilationService.CompilationPhase.SEMANTIC_ANALYSIS),
+                        any(CancellationToken.class));
+        verify(tierService, never()).recordCompileTime(any(String.class), anyLong());
+    }
+
+    @UnitTest
+    void testHandleDiagnosticsImmediate_SyntaxLaneDoesNotBuildContext() throws Exception {
+        // Given
+        String uri = "file:///large.groovy";
+        String sourceCode = "def large() { return 'Large' }";
+        AnalysisTierService tierService = mock(AnalysisTierService.class);
+        when(tierService.getTier(uri, sourceCode.length())).thenReturn(AnalysisTier.SYNTAX_ONLY);
+        diagnosticsHandler.setAnalysisTierService(tierService);
+        CompilationContextService contextService = mock(CompilationContextService.class);
+        when(contextService.getSyntaxConfiguration()).thenReturn(new CompilerConfiguration());
+        when(serviceRouter.getCompilationContextService()).thenReturn(contextService);
+
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
+        when(compilationService.compileToPhaseWithResult(
+                        eq(compilationUnit),
+                        eq(sourceCode),
+                        eq(uri),
+                        eq(IncrementalCompilationService.CompilationPhase.CONVERSION),
+                        any(CancellationToken.class)))
+                .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
+
+        // When
+        diagnosticsHandler.handleDiagnosticsImmediate(uri, languageClient).get(5, TimeUnit.SECONDS);
+
+        // Then
+        verify(languageClient).publishDiagnostics(any(PublishDiagnosticsParams.class));
+        verify(contextService, never()).getContext();
+    }
+
     @UnitTest
     void testHandleDiagnosticsImmediate_WithSyntaxError() throws Exception {
         // Given
         String uri = "file:///test.groovy";
         String sourceCode = "def hello( { return 'Hello' }"; // Missing closing parenthesis
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
-        when(compilationService.createCompilationUnit(any(CompilerConfiguration.class)))
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
                 .thenReturn(compilationUnit);
 
         CompilationError error =
                 new CompilationError(
                         "unexpected token: {", 1, 11, uri, CompilationError.ErrorType.SYNTAX);
         CompilationResult result = CompilationResult.failure(Collections.singletonList(error));
+        // Syntax lane (CONVERSION) reports the same errors
+        when(compilationService.compileToPhaseWithResult(
+                        eq(compilationUnit),
+                        eq(sourceCode),
+                        eq(uri),
+                        eq(IncrementalCompilationService.CompilationPhase.CONVERSION),
+                        any(CancellationToken.class)))
+                .thenReturn(result);
         when(compilationService.compileToPhaseWithResult(
                         eq(compilationUnit),
                         eq(sourceCode),
                         eq(uri),
-                        eq(IncrementalCompilationService.CompilationPhase.SEMANTIC_ANALYSIS)))
+                        eq(IncrementalCompilationService.CompilationPhase.SEMANTIC_ANALYSIS),
+                        any(CancellationToken.class)))
                 .thenReturn(result);
 
         // When
@@ -146,8 +327,8 @@ class DiagnosticsHandlerTest {
         String uri = "file:///test.groovy";
         String sourceCode = "def hello( { \n def x = }"; // Multiple syntax errors
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
-        when(compilationService.createCompilationUnit(any(CompilerConfiguration.class)))
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
                 .thenReturn(compilationUnit);
 
         List<CompilationError> errors =
@@ -165,11 +346,20 @@ class DiagnosticsHandlerTest {
                                 uri,
                                 CompilationError.ErrorType.SYNTAX));
         CompilationResult result = CompilationResult.failure(errors);
+        // Syntax lane (CONVERSION) reports the same errors
         when(compilationService.compileToPhaseWithResult(
                         eq(compilationUnit),
                         eq(sourceCode),
                         eq(uri),
-                        eq(IncrementalCompilationService.CompilationPhase.SEMANTIC_ANALYSIS)))
+                        eq(IncrementalCompilationService.CompilationPhase.CONVERSION),
+                        any(CancellationToken.class)))
+                .thenReturn(result);
+        when(compilationService.compileToPhaseWithResult(
+                        eq(compilationUnit),
+                        eq(sourceCode),
+                        eq(uri),
+                        eq(IncrementalCompilationService.CompilationPhase.SEMANTIC_ANALYSIS),
+                        any(CancellationToken.class)))
                 .thenReturn(result);
 
         // When
@@ -193,8 +383,8 @@ class DiagnosticsHandlerTest {
         String uri = "file:///test.groovy";
         String sourceCode = "def hello() { return 'Hello' }";
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
-        when(compilationService.createCompilationUnit(any(CompilerConfiguration.class)))
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
                 .thenReturn(compilationUnit);
 
         CompilationError warning =
@@ -203,11 +393,20 @@ class DiagnosticsHandlerTest {
         ModuleNode moduleNode = mock(ModuleNode.class);
         CompilationResult result =
                 CompilationResult.partial(moduleNode, Collections.singletonList(warning));
+        // Syntax lane (CONVERSION) finds no errors
+        when(compilationService.compileToPhaseWithResult(
+                        eq(compilationUnit),
+                        eq(sourceCode),
+                        eq(uri),
+                        eq(IncrementalCompilationService.CompilationPhase.CONVERSION),
+                        any(CancellationToken.class)))
+                .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
         when(compilationService.compileToPhaseWithResult(
                         eq(compilationUnit),
                         eq(sourceCode),
                         eq(uri),
-                        eq(IncrementalCompilationService.CompilationPhase.SEMANTIC_ANALYSIS)))
+                        eq(IncrementalCompilationService.CompilationPhase.SEMANTIC_ANALYSIS),
+                        any(CancellationToken.class)))
                 .thenReturn(result);
 
         // When
@@ -236,10 +435,10 @@ class DiagnosticsHandlerTest {
         String uri = "file:///test.groovy";
         String sourceCode = "def hello() { return 'Hello' }";
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
-        when(compilationService.createCompilationUnit(any(CompilerConfiguration.class)))
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
                 .thenReturn(compilationUnit);
-        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any()))
+        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any(), any()))
                 .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
 
         // When - call multiple times rapidly
@@ -271,7 +470,7 @@ class DiagnosticsHandlerTest {
     void testHandleDiagnosticsImmediate_DocumentNotFound() throws Exception {
         // Given
         String uri = "file:///test.groovy";
-        when(documentManager.getDocumentContent(uri)).thenReturn(null);
+        when(documentManager.getSnapshot(uri)).thenReturn(null);
 
         // When
         CompletableFuture<Void> future =
@@ -288,10 +487,10 @@ class DiagnosticsHandlerTest {
         String uri = "file:///test.groovy";
         String sourceCode = "def hello() { return 'Hello' }";
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
-        when(compilationService.createCompilationUnit(any(CompilerConfiguration.class)))
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
                 .thenReturn(compilationUnit);
-        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any()))
+        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any(), any()))
                 .thenThrow(new RuntimeException("Compilation failed"));
 
         // When
@@ -325,9 +524,11 @@ class DiagnosticsHandlerTest {
     void testClearDiagnostics_WithPendingTask() throws Exception {
         // Given
         String uri = "file:///test.groovy";
-        when(documentManager.getDocumentContent(uri)).thenReturn("test code");
-        when(compilationService.createCompilationUnit(any())).thenReturn(compilationUnit);
-        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any()))
+        when(documentManager.getSnapshot(uri))
+                .thenReturn(new DocumentSnapshot(uri, 0, "test code"));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any(), any()))
                 .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
 
         // Schedule a debounced task
@@ -345,6 +546,209 @@ class DiagnosticsHandlerTest {
         assertEquals(0, diagnosticsHandler.getScheduledTasksSize());
     }
 
+    @UnitTest
+    void testHandleDiagnostics_DropsResultForSupersededVersion() throws Exception {
+        // Given - the document moves to a newer version while each lane compiles
+        String uri = "file:///test.groovy";
+        AtomicInteger version = new AtomicInteger();
+        when(documentManager.getDocumentVersion(uri))
+                .thenAnswer(invocation -> version.incrementAndGet());
+        when(documentManager.getSnapshot(uri))
+                .thenReturn(new DocumentSnapshot(uri, 0, "def x = 1"));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any(), any()))
+                .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
+
+        // When
+        diagnosticsHandler.handleDiagnosticsImmediate(uri, languageClient).get(5, TimeUnit.SECONDS);
+
+        // Then
+        verify(languageClient, never()).publishDiagnostics(any());
+    }
+
+    @UnitTest
+    void testHandleDiagnostics_AbandonedCompileIsNotPublished() throws Exception {
+        // Given
+        String uri = "file:///test.groovy";
+        when(documentManager.getSnapshot(uri))
+                .thenReturn(new DocumentSnapshot(uri, 0, "def x = 1"));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any(), any()))
+                .thenThrow(new CancellationException("stale"));
+
+        // When
+        diagnosticsHandler.handleDiagnosticsImmediate(uri, languageClient).get(5, TimeUnit.SECONDS);
+
+        // Then
+        verify(languageClient, never()).publishDiagnostics(any());
+    }
+
+    @UnitTest
+    void testHandleDiagnostics_PassesVersionBoundToken() throws Exception {
+        // Given
+        String uri = "file:///test.groovy";
+        when(documentManager.getDocumentVersion(uri)).thenReturn(7);
+        when(documentManager.getSnapshot(uri))
+                .thenReturn(new DocumentSnapshot(uri, 7, "def x = 1"));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        ArgumentCaptor<CancellationToken> tokenCaptor =
+                ArgumentCaptor.forClass(CancellationToken.class);
+        when(compilationService.compileToPhaseWithResult(
+                        any(), any(), any(), any(), tokenCaptor.capture()))
+                .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
+
+        // When
+        diagnosticsHandler.handleDiagnosticsImmediate(uri, languageClient).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(tokenCaptor.getValue() instanceof DocumentVersionToken);
+        assertEquals(7, ((DocumentVersionToken) tokenCaptor.getValue()).getVersion());
+        verify(languageClient).publishDiagnostics(any());
+    }
+
+    @UnitTest
+    void testSyntaxLane_PublishesSyntaxErrorsWithoutSemanticCompile() throws Exception {
+        // Given
+        String uri = "file:///test.groovy";
+        String sourceCode = "def hello( {";
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        CompilationError error =
+                new CompilationError(
+                        "unexpected token: {", 1, 11, uri, CompilationError.ErrorType.SYNTAX);
+        when(compilationService.compileToPhaseWithResult(
+                        any(),
+                        any(),
+                        any(),
+                        eq(IncrementalCompilationService.CompilationPhase.CONVERSION),
+                        any()))
+                .thenReturn(CompilationResult.failure(Collections.singletonList(error)));
+
+        // When
+        diagnosticsHandler.handleDiagnosticsDebounced(uri, languageClient);
+        Thread.sleep(400);
+
+        // Then - published once by the syntax lane, semantic lane reused the result
+        ArgumentCaptor<PublishDiagnosticsParams> captor =
+                ArgumentCaptor.forClass(PublishDiagnosticsParams.class);
+        verify(languageClient, times(1)).publishDiagnostics(captor.capture());
+        assertEquals(1, captor.getValue().getDiagnostics().size());
+        verify(compilationService, never())
+                .compileToPhaseWithResult(
+                        any(),
+                        any(),
+                        any(),
+                        eq(IncrementalCompilationService.CompilationPhase.SEMANTIC_ANALYSIS),
+                        any());
+    }
+
+    @UnitTest
+    void testSyntaxLane_PublishesBeforeSemanticLaneRuns() throws Exception {
+        // Given
+        String uri = "file:///test.groovy";
+        when(documentManager.getSnapshot(uri))
+                .thenReturn(new DocumentSnapshot(uri, 0, "def hello( {"));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        CompilationError error =
+                new CompilationError(
+                        "unexpected token: {", 1, 11, uri, CompilationError.ErrorType.SYNTAX);
+        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any(), any()))
+                .thenReturn(CompilationResult.failure(Collections.singletonList(error)));
+
+        // When - wait past the syntax debounce but not the semantic debounce
+        diagnosticsHandler.handleDiagnosticsDebounced(uri, languageClient);
+        Thread.sleep(150);
+
+        // Then
+        verify(languageClient, times(1)).publishDiagnostics(any());
+        assertEquals(1, diagnosticsHandler.getScheduledTasksSize());
+    }
+
+    @UnitTest
+    void testSemanticLane_PublishesTypeErrorsWhenSyntaxIsClean() throws Exception {
+        // Given
+        String uri = "file:///test.groovy";
+        when(documentManager.getSnapshot(uri))
+                .thenReturn(new DocumentSnapshot(uri, 0, "Strin x = 'a'"));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.compileToPhaseWithResult(
+                        any(),
+                        any(),
+                        any(),
+                        eq(IncrementalCompilationService.CompilationPhase.CONVERSION),
+                        any()))
+                .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
+        CompilationError error =
+                new CompilationError(
+                        "unable to resolve class Strin",
+                        1,
+                        1,
+                        uri,
+                        CompilationError.ErrorType.SEMANTIC);
+        when(compilationService.compileToPhaseWithResult(
+                        any(),
+                        any(),
+                        any(),
+                        eq(IncrementalCompilationService.CompilationPhase.SEMANTIC_ANALYSIS),
+                        any()))
+                .thenReturn(CompilationResult.failure(Collections.singletonList(error)));
+
+        // When
+        diagnosticsHandler.handleDiagnosticsImmediate(uri, languageClient).get(5, TimeUnit.SECONDS);
+
+        // Then - the clean syntax lane does not publish, the semantic lane does
+        ArgumentCaptor<PublishDiagnosticsParams> captor =
+                ArgumentCaptor.forClass(PublishDiagnosticsParams.class);
+        verify(languageClient, times(1)).publishDiagnostics(captor.capture());
+        assertEquals(
+                "unable to resolve class Strin",
+                captor.getValue().getDiagnostics().get(0).getMessage());
+    }
+
+    @UnitTest
+    void testSyntaxLane_ClearsFixedSyntaxErrors() throws Exception {
+        // Given - a syntax error that is fixed in the next version
+        String uri = "file:///test.groovy";
+        when(documentManager.getDocumentVersion(uri)).thenReturn(1, 2);
+        when(documentManager.getSnapshot(uri))
+                .thenReturn(
+                        new DocumentSnapshot(uri, 1, "def hello( {"),
+                        new DocumentSnapshot(uri, 2, "def hello() {}"));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        CompilationError error =
+                new CompilationError(
+                        "unexpected token: {", 1, 11, uri, CompilationError.ErrorType.SYNTAX);
+        when(compilationService.compileToPhaseWithResult(
+                        any(),
+                        any(),
+                        any(),
+                        eq(IncrementalCompilationService.CompilationPhase.CONVERSION),
+                        any()))
+                .thenReturn(
+                        CompilationResult.failure(Collections.singletonList(error)),
+                        CompilationResult.success(mock(ModuleNode.class)));
+
+        // When
+        diagnosticsHandler.handleDiagnosticsDebounced(uri, languageClient);
+        Thread.sleep(150);
+        diagnosticsHandler.handleDiagnosticsDebounced(uri, languageClient);
+        Thread.sleep(150);
+
+        // Then - the second syntax lane run clears the error before the semantic lane runs
+        ArgumentCaptor<PublishDiagnosticsParams> captor =
+                ArgumentCaptor.forClass(PublishDiagnosticsParams.class);
+        verify(languageClient, times(2)).publishDiagnostics(captor.capture());
+        assertEquals(1, captor.getAllValues().get(0).getDiagnostics().size());
+        assertTrue(captor.getAllValues().get(1).getDiagnostics().isEmpty());
+    }
+
     @UnitTest
     void testShutdown_CancelsAllTasks() throws Exception {
         // Given
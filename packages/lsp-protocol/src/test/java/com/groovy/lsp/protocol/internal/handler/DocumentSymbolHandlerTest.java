@@ -0,0 +1,119 @@
+package com.groovy.lsp.protocol.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.GroovyCoreFactory;
+import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.List;
+import org.eclipse.lsp4j.DocumentSymbol;
+import org.eclipse.lsp4j.DocumentSymbolParams;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.junit.jupiter.api.BeforeEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * DocumentSymbolHandlerのテストクラス。
+ */
+class DocumentSymbolHandlerTest {
+
+    private static final String URI = "file:///Person.groovy";
+
+    @Mock private IServiceRouter serviceRouter;
+
+    @Mock private DocumentManager documentManager;
+
+    private DocumentSymbolHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ASTService astService = GroovyCoreFactory.getInstance().createASTService();
+        when(serviceRouter.getAstService()).thenReturn(astService);
+        handler = new DocumentSymbolHandler(serviceRouter, documentManager);
+    }
+
+    @UnitTest
+    void handleDocumentSymbol_shouldReturnClassHierarchy() throws Exception {
+        // Given
+        when(documentManager.getSnapshot(URI))
+                .thenReturn(
+                        new DocumentSnapshot(
+                                URI,
+                                0,
+                                """
+                                class Person {
+                                    String name
+
+                                    String greet(String other) {
+                                        return "Hello ${other}"
+                                    }
+                                }
+                                """));
+
+        // When
+        List<Either<SymbolInformation, DocumentSymbol>> result =
+                handler.handleDocumentSymbol(params()).get();
+
+        // Then
+        assertEquals(1, result.size());
+        DocumentSymbol person = result.get(0).getRight();
+        assertEquals("Person", person.getName());
+        assertEquals(SymbolKind.Class, person.getKind());
+        assertEquals(0, person.getRange().getStart().getLine());
+        assertEquals(6, person.getRange().getEnd().getLine());
+
+        List<DocumentSymbol> members = person.getChildren();
+        assertEquals(2, members.size());
+        assertEquals("name", members.get(0).getName());
+        assertEquals(SymbolKind.Property, members.get(0).getKind());
+        assertEquals("greet", members.get(1).getName());
+        assertEquals(SymbolKind.Method, members.get(1).getKind());
+        assertEquals("(String other): String", members.get(1).getDetail());
+        Range greetName = members.get(1).getSelectionRange();
+        assertEquals(new Position(3, 11), greetName.getStart());
+        assertEquals(new Position(3, 16), greetName.getEnd());
+    }
+
+    @UnitTest
+    void handleDocumentSymbol_shouldReturnEmptyListForUnknownDocument() throws Exception {
+        // Given
+        when(documentManager.getSnapshot(URI)).thenReturn(null);
+
+        // When
+        List<Either<SymbolInformation, DocumentSymbol>> result =
+                handler.handleDocumentSymbol(params()).get();
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+
+    @UnitTest
+    void handleDocumentSymbol_shouldReturnEmptyListForSyntaxErrors() throws Exception {
+        // Given
+        when(documentManager.getSnapshot(URI))
+                .thenReturn(new DocumentSnapshot(URI, 0, "class Broken {"));
+
+        // When
+        List<Either<SymbolInformation, DocumentSymbol>> result =
+                handler.handleDocumentSymbol(params()).get();
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+
+    private static DocumentSymbolParams params() {
+        return new DocumentSymbolParams(new TextDocumentIdentifier(URI));
+    }
+}
@@ -3,13 +3,16 @@ package com.groovy.lsp.protocol.internal.handler;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.groovy.core.api.TypeInferenceService;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.test.annotations.PerformanceTest;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -55,10 +58,11 @@ public class HoverHandlerPerformanceTest {
         String uri = createTestUri();
         String content = createLargeGroovyFile();
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
 
         ModuleNode moduleNode = createMockModuleNode();
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
 
         MethodNode methodNode = createMockMethodNode();
         when(astService.findNodeAtPosition(any(), any(Integer.class), any(Integer.class)))
@@ -84,10 +88,11 @@ public class HoverHandlerPerformanceTest {
         String uri = createTestUri();
         String content = createGroovyFileWithJavadoc();
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
 
         ModuleNode moduleNode = createMockModuleNode();
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
 
         MethodNode methodNode = createMockMethodNodeWithGroovydoc();
         when(astService.findNodeAtPosition(any(), any(Integer.class), any(Integer.class)))
@@ -122,10 +127,11 @@ public class HoverHandlerPerformanceTest {
         String uri = createTestUri();
         String content = createGroovyFileWithComplexTypes();
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
 
         ModuleNode moduleNode = createMockModuleNode();
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
 
         // Create a variable expression that requires type inference
         VariableExpression varExpr = new VariableExpression("complexVar");
@@ -134,7 +140,8 @@ public class HoverHandlerPerformanceTest {
 
         // Mock type inference
         ClassNode inferredType = new ClassNode(java.util.List.class);
-        when(typeInferenceService.inferExpressionType(any(), any())).thenReturn(inferredType);
+        when(typeInferenceService.inferExpressionType(any(), any(), any()))
+                .thenReturn(inferredType);
 
         HoverParams params = createHoverParams(uri, 20, 10);
 
@@ -5,18 +5,24 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.groovy.core.api.TypeInferenceService;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.test.annotations.UnitTest;
 import groovy.lang.groovydoc.Groovydoc;
 import java.lang.reflect.Modifier;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.codehaus.groovy.ast.ASTNode;
 import org.codehaus.groovy.ast.AnnotationNode;
 import org.codehaus.groovy.ast.ClassNode;
@@ -67,7 +73,7 @@ class HoverHandlerTest {
         String sourceCode = "def hello() { return 'Hello' }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 5));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -84,7 +90,8 @@ class HoverHandlerTest {
         methodNode.setColumnNumber(1);
         methodNode.setLastColumnNumber(30);
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(6))).thenReturn(methodNode);
 
         // When
@@ -103,6 +110,68 @@ class HoverHandlerTest {
         assertTrue(content.contains("String"));
     }
 
+    @UnitTest
+    void testHoverDroppedForSupersededVersion() throws Exception {
+        // Given - the document moves to version 2 while the hover for version 1 runs
+        String uri = "file:///test.groovy";
+        String sourceCode = "def hello() { return 'Hello' }";
+        HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 5));
+
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 1, sourceCode));
+        when(documentManager.getDocumentVersion(uri)).thenReturn(2);
+
+        ModuleNode moduleNode = mock(ModuleNode.class);
+        MethodNode methodNode =
+                new MethodNode(
+                        "hello",
+                        1, // public
+                        new ClassNode(String.class),
+                        Parameter.EMPTY_ARRAY,
+                        ClassNode.EMPTY_ARRAY,
+                        new BlockStatement());
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
+        when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(6))).thenReturn(methodNode);
+
+        // When
+        Hover hover = hoverHandler.handleHover(params).get();
+
+        // Then
+        assertNull(hover);
+    }
+
+    @UnitTest
+    void testCancelledHoverAbandonsParsing() throws Exception {
+        // Given - parsing runs until its token requests cancellation
+        String uri = "file:///test.groovy";
+        String sourceCode = "def hello() { return 'Hello' }";
+        HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 5));
+
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
+
+        CountDownLatch parsing = new CountDownLatch(1);
+        CountDownLatch abandoned = new CountDownLatch(1);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenAnswer(
+                        invocation -> {
+                            CancellationToken token = invocation.getArgument(2);
+                            parsing.countDown();
+                            while (!token.isCancellationRequested()) {
+                                Thread.sleep(5);
+                            }
+                            abandoned.countDown();
+                            throw new CancellationException();
+                        });
+        CompletableFuture<Hover> hover = hoverHandler.handleHover(params);
+        assertTrue(parsing.await(5, TimeUnit.SECONDS));
+
+        // When - the client sends $/cancelRequest
+        hover.cancel(true);
+
+        // Then
+        assertTrue(abandoned.await(5, TimeUnit.SECONDS));
+    }
+
     @UnitTest
     void testHoverOnVariable() throws Exception {
         // Given
@@ -110,7 +179,7 @@ class HoverHandlerTest {
         String sourceCode = "String name = 'John'";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 7));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -120,9 +189,11 @@ class HoverHandlerTest {
         varExpr.setColumnNumber(8);
         varExpr.setLastColumnNumber(12);
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(8))).thenReturn(varExpr);
-        when(typeInferenceService.inferExpressionType(varExpr, moduleNode))
+        when(typeInferenceService.inferExpressionType(
+                        eq(varExpr), eq(moduleNode), any(CancellationToken.class)))
                 .thenReturn(new ClassNode(String.class));
 
         // When
@@ -146,7 +217,7 @@ class HoverHandlerTest {
         String sourceCode = "class Test { private String field = 'value' }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 28));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -163,7 +234,8 @@ class HoverHandlerTest {
         fieldNode.setColumnNumber(28);
         fieldNode.setLastColumnNumber(33);
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(29))).thenReturn(fieldNode);
 
         // When
@@ -187,7 +259,7 @@ class HoverHandlerTest {
         String uri = "file:///notfound.groovy";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 0));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(null);
+        when(documentManager.getSnapshot(uri)).thenReturn(null);
 
         // When
         CompletableFuture<Hover> result = hoverHandler.handleHover(params);
@@ -204,8 +276,9 @@ class HoverHandlerTest {
         String sourceCode = "invalid groovy code {{{";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 0));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
-        when(astService.parseSource(sourceCode, uri)).thenReturn(null);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(null);
 
         // When
         CompletableFuture<Hover> result = hoverHandler.handleHover(params);
@@ -222,10 +295,11 @@ class HoverHandlerTest {
         String sourceCode = "def hello() { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(10, 10));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         ModuleNode moduleNode = mock(ModuleNode.class);
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(11), eq(11))).thenReturn(null);
 
         // When
@@ -243,7 +317,7 @@ class HoverHandlerTest {
         String sourceCode = "class Test { String name }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 20));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -259,7 +333,8 @@ class HoverHandlerTest {
                         null);
         propertyNode.setDeclaringClass(declaringClass);
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(21))).thenReturn(propertyNode);
 
         // When
@@ -284,7 +359,7 @@ class HoverHandlerTest {
         String sourceCode = "class TestClass extends Object implements Serializable { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 8));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -301,7 +376,8 @@ class HoverHandlerTest {
         when(classNode.getInterfaces()).thenReturn(new ClassNode[] {interfaceNode});
         when(classNode.getPackageName()).thenReturn("com.example");
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(9))).thenReturn(classNode);
 
         // When
@@ -328,14 +404,15 @@ class HoverHandlerTest {
         String sourceCode = "interface TestInterface { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 12));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
         ClassNode interfaceNode =
                 new ClassNode("TestInterface", Modifier.INTERFACE, new ClassNode(Object.class));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(13)))
                 .thenReturn(interfaceNode);
 
@@ -360,7 +437,7 @@ class HoverHandlerTest {
         String sourceCode = "enum Status { ACTIVE, INACTIVE }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 7));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -372,7 +449,8 @@ class HoverHandlerTest {
                     }
                 };
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(8))).thenReturn(enumNode);
 
         // When
@@ -396,16 +474,18 @@ class HoverHandlerTest {
         String sourceCode = "println('hello')";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 3));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
         MethodCallExpression methodCall = mock(MethodCallExpression.class);
         when(methodCall.getMethodAsString()).thenReturn("println");
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(4))).thenReturn(methodCall);
-        when(typeInferenceService.inferExpressionType(methodCall, moduleNode))
+        when(typeInferenceService.inferExpressionType(
+                        eq(methodCall), eq(moduleNode), any(CancellationToken.class)))
                 .thenReturn(new ClassNode("void", 0, null));
 
         // When
@@ -430,16 +510,18 @@ class HoverHandlerTest {
         String sourceCode = "obj.property";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 6));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
         PropertyExpression propExpr = mock(PropertyExpression.class);
         when(propExpr.getPropertyAsString()).thenReturn("property");
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(7))).thenReturn(propExpr);
-        when(typeInferenceService.inferExpressionType(propExpr, moduleNode))
+        when(typeInferenceService.inferExpressionType(
+                        eq(propExpr), eq(moduleNode), any(CancellationToken.class)))
                 .thenReturn(new ClassNode(String.class));
 
         // When
@@ -464,13 +546,14 @@ class HoverHandlerTest {
         String sourceCode = "def method(String param) { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 18));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
         Parameter parameter = new Parameter(new ClassNode(String.class), "param");
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(19))).thenReturn(parameter);
 
         // When
@@ -495,16 +578,18 @@ class HoverHandlerTest {
         String sourceCode = "def variable = 'value'";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 6));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
         VariableExpression varExpr =
                 new VariableExpression("variable", new ClassNode(Object.class));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(7))).thenReturn(varExpr);
-        when(typeInferenceService.inferExpressionType(varExpr, moduleNode))
+        when(typeInferenceService.inferExpressionType(
+                        eq(varExpr), eq(moduleNode), any(CancellationToken.class)))
                 .thenReturn(new ClassNode(Object.class));
 
         // When
@@ -529,7 +614,7 @@ class HoverHandlerTest {
         String sourceCode = "class Test { static final String CONSTANT = 'value' }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 33));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -542,7 +627,8 @@ class HoverHandlerTest {
                         ownerClass,
                         new ConstantExpression("value"));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(34))).thenReturn(fieldNode);
 
         // When
@@ -569,7 +655,7 @@ class HoverHandlerTest {
         String sourceCode = "class Test { private static String prop }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 35));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -585,7 +671,8 @@ class HoverHandlerTest {
                         null);
         propertyNode.setDeclaringClass(declaringClass);
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(36))).thenReturn(propertyNode);
 
         // When
@@ -612,8 +699,8 @@ class HoverHandlerTest {
         String sourceCode = "def test() { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 5));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
-        when(astService.parseSource(sourceCode, uri))
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
                 .thenThrow(new RuntimeException("Parse error"));
 
         // When
@@ -631,15 +718,18 @@ class HoverHandlerTest {
         String sourceCode = "someExpression";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 5));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
         VariableExpression varExpr = new VariableExpression("someExpression");
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(6))).thenReturn(varExpr);
-        when(typeInferenceService.inferExpressionType(varExpr, moduleNode)).thenReturn(null);
+        when(typeInferenceService.inferExpressionType(
+                        eq(varExpr), eq(moduleNode), any(CancellationToken.class)))
+                .thenReturn(null);
 
         // When
         CompletableFuture<Hover> result = hoverHandler.handleHover(params);
@@ -656,7 +746,7 @@ class HoverHandlerTest {
         String sourceCode = "protected String getValue(int arg1, String arg2) { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 18));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -671,7 +761,8 @@ class HoverHandlerTest {
                         ClassNode.EMPTY_ARRAY,
                         new BlockStatement());
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(19))).thenReturn(methodNode);
 
         // When
@@ -698,7 +789,7 @@ class HoverHandlerTest {
         String sourceCode = "private void method() { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 13));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -711,7 +802,8 @@ class HoverHandlerTest {
                         ClassNode.EMPTY_ARRAY,
                         new BlockStatement());
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(14))).thenReturn(methodNode);
 
         // When
@@ -736,7 +828,7 @@ class HoverHandlerTest {
         String sourceCode = "public static final String utility() { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 27));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -749,7 +841,8 @@ class HoverHandlerTest {
                         ClassNode.EMPTY_ARRAY,
                         new BlockStatement());
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(28))).thenReturn(methodNode);
 
         // When
@@ -776,7 +869,7 @@ class HoverHandlerTest {
         String sourceCode = "class Test { protected int value }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 26));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -785,7 +878,8 @@ class HoverHandlerTest {
                 new FieldNode(
                         "value", Modifier.PROTECTED, new ClassNode(int.class), ownerClass, null);
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(27))).thenReturn(fieldNode);
 
         // When
@@ -811,7 +905,7 @@ class HoverHandlerTest {
         String sourceCode = "class SimpleClass { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 8));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -826,7 +920,8 @@ class HoverHandlerTest {
         when(classNode.getInterfaces()).thenReturn(new ClassNode[0]);
         when(classNode.getPackageName()).thenReturn(null);
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(9))).thenReturn(classNode);
 
         // When
@@ -853,15 +948,18 @@ class HoverHandlerTest {
         String sourceCode = "def nullVar = null";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 6));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
         VariableExpression varExpr = new VariableExpression("nullVar", null);
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(7))).thenReturn(varExpr);
-        when(typeInferenceService.inferExpressionType(varExpr, moduleNode)).thenReturn(null);
+        when(typeInferenceService.inferExpressionType(
+                        eq(varExpr), eq(moduleNode), any(CancellationToken.class)))
+                .thenReturn(null);
 
         // When
         CompletableFuture<Hover> result = hoverHandler.handleHover(params);
@@ -878,13 +976,14 @@ class HoverHandlerTest {
         String sourceCode = "some code";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 3));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST with unrecognized node type
         ModuleNode moduleNode = mock(ModuleNode.class);
         ASTNode unknownNode = mock(ASTNode.class); // Not one of the recognized types
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(4))).thenReturn(unknownNode);
 
         // When
@@ -902,7 +1001,7 @@ class HoverHandlerTest {
         String sourceCode = "class MultiInterface implements Comparable, Serializable { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 8));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -921,7 +1020,8 @@ class HoverHandlerTest {
         when(classNode.getInterfaces()).thenReturn(new ClassNode[] {interface1, interface2});
         when(classNode.getPackageName()).thenReturn("com.example");
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(9))).thenReturn(classNode);
 
         // When
@@ -949,7 +1049,7 @@ class HoverHandlerTest {
         String sourceCode = "@Override @Deprecated def method() { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 26));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -976,7 +1076,8 @@ class HoverHandlerTest {
         when(methodNode.getAnnotations())
                 .thenReturn(java.util.Arrays.asList(annotation1, annotation2));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(27))).thenReturn(methodNode);
 
         // When
@@ -1001,7 +1102,7 @@ class HoverHandlerTest {
         String sourceCode = "abstract String abstractMethod()";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 18));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1017,7 +1118,8 @@ class HoverHandlerTest {
         when(methodNode.getParameters()).thenReturn(Parameter.EMPTY_ARRAY);
         when(methodNode.getAnnotations()).thenReturn(java.util.Collections.emptyList());
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(19))).thenReturn(methodNode);
 
         // When
@@ -1040,7 +1142,7 @@ class HoverHandlerTest {
         String sourceCode = "synthetic method";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 10));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1056,7 +1158,8 @@ class HoverHandlerTest {
         when(methodNode.getParameters()).thenReturn(Parameter.EMPTY_ARRAY);
         when(methodNode.getAnnotations()).thenReturn(java.util.Collections.emptyList());
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(11))).thenReturn(methodNode);
 
         // When
@@ -1079,7 +1182,7 @@ class HoverHandlerTest {
         String sourceCode = "@Inject private String field";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 23));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1103,7 +1206,8 @@ class HoverHandlerTest {
         when(annotation.getClassNode()).thenReturn(injectClass);
         when(fieldNode.getAnnotations()).thenReturn(java.util.Arrays.asList(annotation));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(24))).thenReturn(fieldNode);
 
         // When
@@ -1127,7 +1231,7 @@ class HoverHandlerTest {
         String sourceCode = "enum Status { ACTIVE }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 15));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1145,7 +1249,8 @@ class HoverHandlerTest {
                     }
                 };
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(16))).thenReturn(enumField);
 
         // When
@@ -1169,7 +1274,7 @@ class HoverHandlerTest {
         String sourceCode = "synthetic field";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 12));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1186,7 +1291,8 @@ class HoverHandlerTest {
         when(fieldNode.isSynthetic()).thenReturn(true);
         when(fieldNode.getAnnotations()).thenReturn(java.util.Collections.emptyList());
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(13))).thenReturn(fieldNode);
 
         // When
@@ -1209,7 +1315,7 @@ class HoverHandlerTest {
         String sourceCode = "abstract class AbstractClass { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 18));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1224,7 +1330,8 @@ class HoverHandlerTest {
         when(classNode.getPackageName()).thenReturn(null);
         when(classNode.getAnnotations()).thenReturn(java.util.Collections.emptyList());
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(19))).thenReturn(classNode);
 
         // When
@@ -1247,7 +1354,7 @@ class HoverHandlerTest {
         String sourceCode = "interface TestInterface { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 12));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1262,7 +1369,8 @@ class HoverHandlerTest {
         when(interfaceNode.getPackageName()).thenReturn(null);
         when(interfaceNode.getAnnotations()).thenReturn(java.util.Collections.emptyList());
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(13)))
                 .thenReturn(interfaceNode);
 
@@ -1286,7 +1394,7 @@ class HoverHandlerTest {
         String sourceCode = "enum Status { ACTIVE }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 7));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1301,7 +1409,8 @@ class HoverHandlerTest {
         when(enumNode.getPackageName()).thenReturn(null);
         when(enumNode.getAnnotations()).thenReturn(java.util.Collections.emptyList());
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(8))).thenReturn(enumNode);
 
         // When
@@ -1324,7 +1433,7 @@ class HoverHandlerTest {
         String sourceCode = "String param = 'value'; param";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 26));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1334,7 +1443,8 @@ class HoverHandlerTest {
         when(varExpr.getName()).thenReturn("param");
         when(varExpr.getAccessedVariable()).thenReturn(parameter);
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(27))).thenReturn(varExpr);
 
         // When
@@ -1358,7 +1468,7 @@ class HoverHandlerTest {
         String sourceCode = "def unknown";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 6));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1367,9 +1477,11 @@ class HoverHandlerTest {
         when(varExpr.getName()).thenReturn("unknown");
         when(varExpr.getAccessedVariable()).thenReturn(null);
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(7))).thenReturn(varExpr);
-        when(typeInferenceService.inferExpressionType(varExpr, moduleNode))
+        when(typeInferenceService.inferExpressionType(
+                        eq(varExpr), eq(moduleNode), any(CancellationToken.class)))
                 .thenReturn(new ClassNode(String.class));
 
         // When
@@ -1393,7 +1505,7 @@ class HoverHandlerTest {
         String sourceCode = "def simpleMethod() { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 7));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1409,7 +1521,8 @@ class HoverHandlerTest {
         when(methodNode.getParameters()).thenReturn(Parameter.EMPTY_ARRAY);
         when(methodNode.getAnnotations()).thenReturn(java.util.Collections.emptyList());
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(8))).thenReturn(methodNode);
 
         // When
@@ -1436,7 +1549,7 @@ class HoverHandlerTest {
         String sourceCode = "/** This is a test method */ def testMethod() { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 35));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1455,7 +1568,8 @@ class HoverHandlerTest {
         when(methodNode.getGroovydoc()).thenReturn(groovydoc);
         when(groovydoc.getContent()).thenReturn("This is a test method");
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(36))).thenReturn(methodNode);
 
         // When
@@ -1479,7 +1593,7 @@ class HoverHandlerTest {
         String sourceCode = "class Test { /** Field documentation */ String myField }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 50));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1501,7 +1615,8 @@ class HoverHandlerTest {
         when(fieldNode.getGroovydoc()).thenReturn(groovydoc);
         when(groovydoc.getContent()).thenReturn("Field documentation");
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(51))).thenReturn(fieldNode);
 
         // When
@@ -1525,7 +1640,7 @@ class HoverHandlerTest {
         String sourceCode = "/** Test class documentation */ class TestClass { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 40));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1543,7 +1658,8 @@ class HoverHandlerTest {
         when(classNode.getGroovydoc()).thenReturn(groovydoc);
         when(groovydoc.getContent()).thenReturn("Test class documentation");
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(41))).thenReturn(classNode);
 
         // When
@@ -1567,7 +1683,7 @@ class HoverHandlerTest {
         String sourceCode = "class Test { /** Property documentation */ String name }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 52));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1585,7 +1701,8 @@ class HoverHandlerTest {
         when(propertyNode.getGroovydoc()).thenReturn(groovydoc);
         when(groovydoc.getContent()).thenReturn("Property documentation");
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(53))).thenReturn(propertyNode);
 
         // When
@@ -1609,7 +1726,7 @@ class HoverHandlerTest {
         String sourceCode = "/** Deprecated method */ @Deprecated def oldMethod() { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 42));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1633,7 +1750,8 @@ class HoverHandlerTest {
         when(annotation.getClassNode()).thenReturn(deprecatedClass);
         when(methodNode.getAnnotations()).thenReturn(java.util.Arrays.asList(annotation));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(43))).thenReturn(methodNode);
 
         // When
@@ -1659,7 +1777,7 @@ class HoverHandlerTest {
         String sourceCode = "def noDocMethod() { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 7));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1676,7 +1794,8 @@ class HoverHandlerTest {
         when(methodNode.getAnnotations()).thenReturn(java.util.Collections.emptyList());
         when(methodNode.getGroovydoc()).thenReturn(null);
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(8))).thenReturn(methodNode);
 
         // When
@@ -1700,7 +1819,7 @@ class HoverHandlerTest {
         String sourceCode = "/**/ def emptyDocMethod() { }";
         HoverParams params = new HoverParams(new TextDocumentIdentifier(uri), new Position(0, 15));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Create a mock AST
         ModuleNode moduleNode = mock(ModuleNode.class);
@@ -1719,7 +1838,8 @@ class HoverHandlerTest {
         when(methodNode.getGroovydoc()).thenReturn(groovydoc);
         when(groovydoc.getContent()).thenReturn("");
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(eq(moduleNode), eq(1), eq(16))).thenReturn(methodNode);
 
         // When
@@ -0,0 +1,107 @@
+package com.groovy.lsp.protocol.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.GroovyCoreFactory;
+import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.LineIndex;
+import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.List;
+import org.eclipse.lsp4j.DefinitionParams;
+import org.eclipse.lsp4j.Hover;
+import org.eclipse.lsp4j.HoverParams;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * OutlineNavigationHandlerのテストクラス。
+ */
+class OutlineNavigationHandlerTest {
+
+    private static final String URI = "file:///Greeter.groovy";
+    private static final String SOURCE =
+            """
+            class Greeter {
+                String greet(String name) {
+                    return "Hello " + name
+                }
+
+                void run() {
+                    greet("world")
+                }
+            }
+            """;
+
+    @Mock private IServiceRouter serviceRouter;
+
+    @Mock private DocumentManager documentManager;
+
+    private OutlineNavigationHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ASTService astService = GroovyCoreFactory.getInstance().createASTService();
+        when(serviceRouter.getAstService()).thenReturn(astService);
+        when(documentManager.getSnapshot(URI)).thenReturn(new DocumentSnapshot(URI, 0, SOURCE));
+        handler = new OutlineNavigationHandler(serviceRouter, documentManager);
+    }
+
+    @UnitTest
+    void handleDefinition_shouldFindDeclarationFromOutline() throws Exception {
+        // Given
+        DefinitionParams params =
+                new DefinitionParams(new TextDocumentIdentifier(URI), new Position(6, 10));
+
+        // When
+        List<? extends Location> locations = handler.handleDefinition(params).get().getLeft();
+
+        // Then
+        assertEquals(1, locations.size());
+        assertEquals(URI, locations.get(0).getUri());
+        assertEquals(1, locations.get(0).getRange().getStart().getLine());
+    }
+
+    @UnitTest
+    void handleHover_shouldShowDeclarationSignature() throws Exception {
+        // Given
+        HoverParams params = new HoverParams(new TextDocumentIdentifier(URI), new Position(6, 10));
+
+        // When
+        Hover hover = handler.handleHover(params).get();
+
+        // Then
+        assertNotNull(hover);
+        assertTrue(hover.getContents().getRight().getValue().contains("greet("));
+    }
+
+    @UnitTest
+    void handleHover_shouldReturnNullForUnknownWord() throws Exception {
+        // Given
+        HoverParams params = new HoverParams(new TextDocumentIdentifier(URI), new Position(2, 20));
+
+        // When
+        Hover hover = handler.handleHover(params).get();
+
+        // Then
+        assertNull(hover);
+    }
+
+    @UnitTest
+    void wordAt_shouldReturnIdentifierAroundPosition() {
+        assertEquals(
+                "greet", OutlineNavigationHandler.wordAt(LineIndex.of(SOURCE), new Position(6, 8)));
+        assertNull(OutlineNavigationHandler.wordAt(LineIndex.of(SOURCE), new Position(20, 0)));
+    }
+}
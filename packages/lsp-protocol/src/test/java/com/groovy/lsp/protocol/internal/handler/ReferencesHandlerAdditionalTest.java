@@ -1,12 +1,16 @@
 package com.groovy.lsp.protocol.internal.handler;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
 import com.groovy.lsp.shared.workspace.api.dto.SymbolInfo;
 import com.groovy.lsp.shared.workspace.api.dto.SymbolKind;
@@ -77,7 +81,7 @@ class ReferencesHandlerAdditionalTest {
         // MyInterface の位置
         ReferenceParams params = createParams(uri, 0, 10, true);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Mock AST
         ClassNode interfaceNode =
@@ -96,7 +100,8 @@ class ReferencesHandlerAdditionalTest {
         when(workspaceIndexService.searchSymbols("MyInterface"))
                 .thenReturn(CompletableFuture.completedFuture(Stream.of(interfaceSymbol)));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 11)).thenReturn(interfaceNode);
 
         // Execute
@@ -114,7 +119,7 @@ class ReferencesHandlerAdditionalTest {
 
         ReferenceParams params = createParams(uri, 0, 21, false);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Mock AST
         MethodNode methodNode = mock(MethodNode.class);
@@ -132,7 +137,8 @@ class ReferencesHandlerAdditionalTest {
         when(workspaceIndexService.searchSymbols("myMethod"))
                 .thenReturn(CompletableFuture.completedFuture(Stream.of(symbolWithValidLocation)));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 22)).thenReturn(methodNode);
 
         // Execute
@@ -149,7 +155,7 @@ class ReferencesHandlerAdditionalTest {
 
         ReferenceParams params = createParams(uri, 0, 20, false);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Mock AST
         ClassNode classNode = new ClassNode("com.example.MyClass", 1, ClassHelper.OBJECT_TYPE);
@@ -165,7 +171,8 @@ class ReferencesHandlerAdditionalTest {
         when(workspaceIndexService.searchSymbols("com.example.MyClass"))
                 .thenReturn(CompletableFuture.completedFuture(Stream.of(fqnSymbol)));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 21)).thenReturn(classNode);
 
         // Execute
@@ -191,7 +198,7 @@ class ReferencesHandlerAdditionalTest {
         // name プロパティの位置
         ReferenceParams params = createParams(uri, 1, 11, true);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Mock AST
         PropertyNode propertyNode = mock(PropertyNode.class);
@@ -201,7 +208,8 @@ class ReferencesHandlerAdditionalTest {
         ClassNode personClass = mock(ClassNode.class);
         when(moduleNode.getClasses()).thenReturn(List.of(personClass));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 2, 12)).thenReturn(propertyNode);
 
         // Execute
@@ -222,7 +230,7 @@ class ReferencesHandlerAdditionalTest {
         // MyClass クラスの位置
         ReferenceParams params = createParams(uri, 0, 6, true);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Mock AST
         ClassNode myClass = new ClassNode("MyClass", 1, ClassHelper.OBJECT_TYPE);
@@ -232,7 +240,8 @@ class ReferencesHandlerAdditionalTest {
         ModuleNode moduleNode = mock(ModuleNode.class);
         when(moduleNode.getClasses()).thenReturn(List.of(myClass));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 7)).thenReturn(myClass);
 
         // Execute
@@ -255,7 +264,7 @@ class ReferencesHandlerAdditionalTest {
         // myMethod の定義位置
         ReferenceParams params = createParams(uri, 1, 9, true); // includeDeclaration = true
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Mock AST
         MethodNode methodNode = mock(MethodNode.class);
@@ -265,7 +274,8 @@ class ReferencesHandlerAdditionalTest {
         ClassNode classNode = mock(ClassNode.class);
         when(moduleNode.getClasses()).thenReturn(List.of(classNode));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 2, 10)).thenReturn(methodNode);
 
         // Execute
@@ -283,7 +293,7 @@ class ReferencesHandlerAdditionalTest {
 
         ReferenceParams params = createParams(uri, 0, 21, false);
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(sourceCode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, sourceCode));
 
         // Mock AST
         MethodNode methodNode = mock(MethodNode.class);
@@ -293,7 +303,8 @@ class ReferencesHandlerAdditionalTest {
         ClassNode classNode = mock(ClassNode.class);
         when(moduleNode.getClasses()).thenReturn(List.of(classNode));
 
-        when(astService.parseSource(sourceCode, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(sourceCode), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 22)).thenReturn(methodNode);
 
         // Workspace search mock - 例外をスロー
@@ -2,12 +2,16 @@ package com.groovy.lsp.protocol.internal.handler;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.test.annotations.PerformanceTest;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -79,8 +83,9 @@ class ReferencesHandlerPerformanceTest {
         ClassNode classNode = new ClassNode("Script", 0, null);
         when(moduleNode.getClasses()).thenReturn(List.of(classNode));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 5)).thenReturn(varExpr);
 
         // Act & Assert - measure time
@@ -134,8 +139,9 @@ class ReferencesHandlerPerformanceTest {
         ClassNode classNode = new ClassNode("LargeClass", 0, null);
         when(moduleNode.getClasses()).thenReturn(List.of(classNode));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 2, 9)).thenReturn(methodNode);
 
         // Act & Assert - measure time
@@ -192,8 +198,9 @@ class ReferencesHandlerPerformanceTest {
         ClassNode scriptClass = new ClassNode("Script", 0, null);
         when(moduleNode.getClasses()).thenReturn(List.of(scriptClass));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 7)).thenReturn(classNode);
 
         // Act & Assert - measure time
@@ -254,8 +261,9 @@ class ReferencesHandlerPerformanceTest {
         ClassNode classNode = new ClassNode("Person", 0, null);
         when(moduleNode.getClasses()).thenReturn(List.of(classNode));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 2, 12)).thenReturn(propertyNode);
 
         // Act & Assert - measure time
@@ -2,12 +2,16 @@ package com.groovy.lsp.protocol.internal.handler;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CancellationToken;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.test.annotations.UnitTest;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -65,7 +69,7 @@ class ReferencesHandlerTest {
                         new Position(0, 0),
                         new ReferenceContext(false));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(null);
+        when(documentManager.getSnapshot(uri)).thenReturn(null);
 
         // Act
         CompletableFuture<List<? extends Location>> result = handler.handleReferences(params);
@@ -86,8 +90,9 @@ class ReferencesHandlerTest {
                         new Position(0, 6),
                         new ReferenceContext(false));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(null);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(null);
 
         // Act
         CompletableFuture<List<? extends Location>> result = handler.handleReferences(params);
@@ -108,8 +113,9 @@ class ReferencesHandlerTest {
                         new Position(0, 6),
                         new ReferenceContext(false));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 7)).thenReturn(null);
 
         // Act
@@ -143,8 +149,9 @@ class ReferencesHandlerTest {
         ClassNode classNode = new ClassNode("Script", 0, null);
         when(moduleNode.getClasses()).thenReturn(List.of(classNode));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 5)).thenReturn(varExpr);
 
         // Act
@@ -186,8 +193,9 @@ class ReferencesHandlerTest {
         ClassNode classNode = new ClassNode("Test", 0, null);
         when(moduleNode.getClasses()).thenReturn(List.of(classNode));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 2, 9)).thenReturn(methodNode);
 
         // Act
@@ -223,8 +231,9 @@ class ReferencesHandlerTest {
         ClassNode classNode = new ClassNode("Test", 0, null);
         when(moduleNode.getClasses()).thenReturn(List.of(classNode));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 4, 9)).thenReturn(methodCall);
 
         // Act
@@ -255,8 +264,9 @@ class ReferencesHandlerTest {
 
         when(moduleNode.getClasses()).thenReturn(List.of(classNode));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 7)).thenReturn(classNode);
 
         // Act
@@ -290,8 +300,9 @@ class ReferencesHandlerTest {
         ClassNode classNode = new ClassNode("Test", 0, null);
         when(moduleNode.getClasses()).thenReturn(List.of(classNode));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 2, 12)).thenReturn(fieldNode);
 
         // Act
@@ -313,8 +324,9 @@ class ReferencesHandlerTest {
                         new Position(0, 0),
                         new ReferenceContext(false));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
 
         // Act
         CompletableFuture<List<? extends Location>> result = handler.handleReferences(params);
@@ -335,9 +347,10 @@ class ReferencesHandlerTest {
                         new Position(0, 18),
                         new ReferenceContext(false));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
         // Parse might succeed but AST might be incomplete
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1, 19)).thenReturn(null);
 
         // Act
@@ -358,8 +371,9 @@ class ReferencesHandlerTest {
                 new ReferenceParams(
                         new TextDocumentIdentifier(uri), position, new ReferenceContext(false));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(astService.parseSource(content, uri)).thenReturn(moduleNode);
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(astService.parseSource(eq(content), eq(uri), any(CancellationToken.class)))
+                .thenReturn(moduleNode);
         when(astService.findNodeAtPosition(moduleNode, 1000000, 1000000)).thenReturn(null);
 
         // Act
@@ -380,7 +394,7 @@ class ReferencesHandlerTest {
                         new Position(0, 0),
                         new ReferenceContext(false));
 
-        when(documentManager.getDocumentContent(uri)).thenReturn(null);
+        when(documentManager.getSnapshot(uri)).thenReturn(null);
 
         // Act
         CompletableFuture<List<? extends Location>> result = handler.handleReferences(params);
@@ -0,0 +1,139 @@
+package com.groovy.lsp.protocol.internal.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.GroovyCoreFactory;
+import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
+import com.groovy.lsp.protocol.internal.signature.SignatureHelpEngine;
+import com.groovy.lsp.test.annotations.UnitTest;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.SignatureHelp;
+import org.eclipse.lsp4j.SignatureHelpParams;
+import org.eclipse.lsp4j.SignatureInformation;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * SignatureHelpHandlerのテストクラス。
+ */
+class SignatureHelpHandlerTest {
+
+    private static final String URI = "file:///Greeter.groovy";
+
+    @Mock private IServiceRouter serviceRouter;
+
+    @Mock private DocumentManager documentManager;
+
+    private final SignatureHelpEngine engine = new SignatureHelpEngine();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ASTService astService = GroovyCoreFactory.getInstance().createASTService();
+        when(serviceRouter.getAstService()).thenReturn(astService);
+        when(serviceRouter.getTypeInferenceService())
+                .thenReturn(GroovyCoreFactory.getInstance().createTypeInferenceService(astService));
+    }
+
+    @UnitTest
+    void handleSignatureHelp_shouldListOverloadsOfInferredReceiverType() throws Exception {
+        // given
+        open("def text = 'abc'\ntext.substring(1, ");
+
+        // when
+        SignatureHelp result = handler().handleSignatureHelp(params(1, 18)).get();
+
+        // then
+        assertThat(result.getSignatures())
+                .extracting(signature -> signature.getParameters().size())
+                .containsExactly(1, 2);
+        assertThat(result.getActiveSignature()).isEqualTo(1);
+        assertThat(result.getActiveParameter()).isEqualTo(1);
+    }
+
+    @UnitTest
+    void handleSignatureHelp_shouldReuseResolvedCallWhileTypingArguments() throws Exception {
+        // given
+        open("def text = 'abc'\ntext.substring()");
+        SignatureHelp first = handler().handleSignatureHelp(params(1, 15)).get();
+
+        // when
+        open("def text = 'abc'\ntext.substring(1, )");
+        SignatureHelp second = handler().handleSignatureHelp(params(1, 18)).get();
+
+        // then
+        assertThat(second.getSignatures()).isSameAs(first.getSignatures());
+        assertThat(first.getActiveParameter()).isZero();
+        assertThat(second.getActiveParameter()).isEqualTo(1);
+    }
+
+    @UnitTest
+    void handleSignatureHelp_shouldResolveMethodsOfEnclosingClass() throws Exception {
+        // given
+        open(
+                """
+                class Greeter {
+                    /** Greets someone a number of times. */
+                    String greet(String other, int times) { other * times }
+
+                    void run() {
+                        greet('world',
+                    }
+                }
+                """);
+
+        // when
+        SignatureHelp result = handler().handleSignatureHelp(params(5, 22)).get();
+
+        // then
+        assertThat(result.getSignatures()).hasSize(1);
+        SignatureInformation signature = result.getSignatures().get(0);
+        assertThat(signature.getLabel()).isEqualTo("String greet(String other, int times)");
+        assertThat(signature.getParameters())
+                .extracting(parameter -> parameter.getLabel().getLeft())
+                .containsExactly("String other", "int times");
+        assertThat(signature.getDocumentation().getRight().getValue())
+                .isEqualTo("Greets someone a number of times.");
+        assertThat(result.getActiveParameter()).isEqualTo(1);
+    }
+
+    @UnitTest
+    void handleSignatureHelp_shouldReturnEmptyOutsideOfCall() throws Exception {
+        // given
+        open("def values = [1, ");
+
+        // when
+        SignatureHelp result = handler().handleSignatureHelp(params(0, 17)).get();
+
+        // then
+        assertThat(result.getSignatures()).isEmpty();
+    }
+
+    @UnitTest
+    void handleSignatureHelp_shouldReturnEmptyForUnknownDocument() throws Exception {
+        // when
+        SignatureHelp result = handler().handleSignatureHelp(params(0, 0)).get();
+
+        // then
+        assertThat(result.getSignatures()).isEmpty();
+    }
+
+    private void open(String text) {
+        when(documentManager.getSnapshot(URI)).thenReturn(new DocumentSnapshot(URI, 0, text));
+    }
+
+    private SignatureHelpHandler handler() {
+        return new SignatureHelpHandler(serviceRouter, documentManager, engine);
+    }
+
+    private static SignatureHelpParams params(int line, int character) {
+        return new SignatureHelpParams(
+                new TextDocumentIdentifier(URI), new Position(line, character));
+    }
+}
@@ -0,0 +1,135 @@
+package com.groovy.lsp.protocol.internal.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
+import com.groovy.lsp.shared.workspace.api.dto.SymbolInfo;
+import com.groovy.lsp.shared.workspace.api.dto.SymbolKind;
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.WorkspaceSymbol;
+import org.eclipse.lsp4j.WorkspaceSymbolParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.junit.jupiter.api.BeforeEach;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * WorkspaceSymbolHandlerのテストクラス。
+ */
+class WorkspaceSymbolHandlerTest {
+
+    private static final SymbolInfo DEPENDENCY_TYPE =
+            new SymbolInfo(
+                    "Greeting",
+                    SymbolKind.CLASS,
+                    Path.of("/lib/greetings.jar!/org/greetings/Greeting.class"),
+                    1,
+                    1);
+
+    private static final SymbolInfo WORKSPACE_TYPE =
+            new SymbolInfo(
+                    "com.example.Greeter",
+                    SymbolKind.CLASS,
+                    Path.of("/src/com/example/Greeter.groovy"),
+                    3,
+                    7);
+
+    @Mock private IServiceRouter serviceRouter;
+
+    @Mock private WorkspaceIndexService workspaceIndexService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(serviceRouter.getWorkspaceIndexService()).thenReturn(workspaceIndexService);
+    }
+
+    @UnitTest
+    void handleSymbol_shouldListWorkspaceSymbolsBeforeDependencySymbols() throws Exception {
+        // given
+        index(DEPENDENCY_TYPE, WORKSPACE_TYPE);
+
+        // when
+        List<? extends WorkspaceSymbol> result =
+                new WorkspaceSymbolHandler(serviceRouter)
+                        .handleSymbol(new WorkspaceSymbolParams("Gree"))
+                        .get()
+                        .getRight();
+
+        // then
+        assertThat(result)
+                .extracting(WorkspaceSymbol::getName, WorkspaceSymbol::getContainerName)
+                .containsExactly(
+                        tuple("Greeter", "com.example"), tuple("Greeting", "org.greetings"));
+        WorkspaceSymbol workspaceType = result.get(0);
+        assertThat(workspaceType.getLocation().getLeft().getUri())
+                .isEqualTo(Path.of("/src/com/example/Greeter.groovy").toUri().toString());
+        assertThat(workspaceType.getLocation().getLeft().getRange().getStart().getLine())
+                .isEqualTo(2);
+        assertThat(result.get(1).getLocation().getLeft().getUri())
+                .startsWith("jar:file:")
+                .endsWith("greetings.jar!/org/greetings/Greeting.class");
+    }
+
+    @UnitTest
+    void handleSymbol_shouldReturnSymbolsDespitePartialResultToken() throws Exception {
+        // given
+        index(WORKSPACE_TYPE);
+        WorkspaceSymbolParams params = new WorkspaceSymbolParams("Gree");
+        params.setPartialResultToken(Either.forLeft("symbols"));
+
+        // when
+        List<? extends WorkspaceSymbol> result =
+                new WorkspaceSymbolHandler(serviceRouter).handleSymbol(params).get().getRight();
+
+        // then - the index answers with one complete result, so nothing is streamed
+        assertThat(result).extracting(WorkspaceSymbol::getName).containsExactly("Greeter");
+    }
+
+    @UnitTest
+    void handleSymbol_shouldCapNumberOfResults() throws Exception {
+        // given
+        index(WORKSPACE_TYPE, DEPENDENCY_TYPE);
+
+        // when
+        List<? extends WorkspaceSymbol> result =
+                new WorkspaceSymbolHandler(serviceRouter, 1)
+                        .handleSymbol(new WorkspaceSymbolParams("Gree"))
+                        .get()
+                        .getRight();
+
+        // then
+        assertThat(result).extracting(WorkspaceSymbol::getName).containsExactly("Greeter");
+    }
+
+    @UnitTest
+    void handleSymbol_shouldReturnEmptyListWithoutIndex() throws Exception {
+        // given
+        when(serviceRouter.getWorkspaceIndexService())
+                .thenThrow(new IllegalStateException("not initialized"));
+
+        // when
+        Either<List<? extends SymbolInformation>, List<? extends WorkspaceSymbol>> result =
+                new WorkspaceSymbolHandler(serviceRouter)
+                        .handleSymbol(new WorkspaceSymbolParams("Gree"))
+                        .get();
+
+        // then
+        assertThat(result.isLeft()).isTrue();
+        assertThat(result.getLeft()).isEmpty();
+    }
+
+    private void index(SymbolInfo... symbols) {
+        when(workspaceIndexService.searchSymbols(any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(Stream.of(symbols)));
+    }
+}
@@ -4,21 +4,28 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CompilationContext;
 import com.groovy.lsp.groovy.core.api.CompilationResult;
+import com.groovy.lsp.groovy.core.api.GroovyCoreFactory;
 import com.groovy.lsp.groovy.core.api.IncrementalCompilationService;
+import com.groovy.lsp.groovy.core.api.ProjectClasspathProvider;
+import com.groovy.lsp.groovy.core.api.ProjectModelService;
 import com.groovy.lsp.groovy.core.api.TypeInferenceService;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
+import com.groovy.lsp.protocol.internal.document.DocumentSnapshot;
 import com.groovy.lsp.test.annotations.UnitTest;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.codehaus.groovy.ast.ModuleNode;
 import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.CompilerConfiguration;
 import org.eclipse.lsp4j.CodeAction;
 import org.eclipse.lsp4j.CodeActionContext;
 import org.eclipse.lsp4j.CodeActionParams;
@@ -89,6 +96,7 @@ class GroovyTextDocumentServiceTest {
     @Mock private ASTService astService;
     @Mock private TypeInferenceService typeInferenceService;
     @Mock private CompilationUnit compilationUnit;
+    @Mock private ProjectModelService projectModelService;
 
     @BeforeEach
     void setUp() {
@@ -96,8 +104,13 @@ class GroovyTextDocumentServiceTest {
 
         // Setup service router mocks
         when(serviceRouter.getIncrementalCompilationService()).thenReturn(compilationService);
+        when(serviceRouter.getCompilationContextService())
+                .thenReturn(
+                        GroovyCoreFactory.getInstance()
+                                .createCompilationContextService(ProjectClasspathProvider.NONE));
         when(serviceRouter.getAstService()).thenReturn(astService);
         when(serviceRouter.getTypeInferenceService()).thenReturn(typeInferenceService);
+        when(serviceRouter.getProjectModelService()).thenReturn(projectModelService);
 
         // Inject dependencies
         service.setServiceRouter(serviceRouter);
@@ -112,8 +125,12 @@ class GroovyTextDocumentServiceTest {
         // given
         String uri = "file:///test.groovy";
         when(documentManager.getDocumentContent(uri)).thenReturn("test");
-        when(compilationService.createCompilationUnit(any())).thenReturn(compilationUnit);
-        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any()))
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, "test"));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.createCompilationUnit(any(CompilerConfiguration.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any(), any()))
                 .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
 
         // then - verify by using the client
@@ -146,8 +163,12 @@ class GroovyTextDocumentServiceTest {
         DidOpenTextDocumentParams params = new DidOpenTextDocumentParams(textDocument);
 
         when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(compilationService.createCompilationUnit(any())).thenReturn(compilationUnit);
-        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any()))
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.createCompilationUnit(any(CompilerConfiguration.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any(), any()))
                 .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
 
         // when
@@ -176,8 +197,11 @@ class GroovyTextDocumentServiceTest {
         DidChangeTextDocumentParams params =
                 new DidChangeTextDocumentParams(textDocument, Arrays.asList(change));
 
-        // when/then - should not throw
+        // when
         service.didChange(params);
+
+        // then
+        verify(documentManager).applyChanges("file:///test.groovy", Arrays.asList(change), 2);
     }
 
     @UnitTest
@@ -488,8 +512,13 @@ class GroovyTextDocumentServiceTest {
         service.connect(mockClient);
         String uri = "file:///test.groovy";
         when(documentManager.getDocumentContent(uri)).thenReturn("updated content");
-        when(compilationService.createCompilationUnit(any())).thenReturn(compilationUnit);
-        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any()))
+        when(documentManager.getSnapshot(uri))
+                .thenReturn(new DocumentSnapshot(uri, 0, "updated content"));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.createCompilationUnit(any(CompilerConfiguration.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any(), any()))
                 .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
 
         VersionedTextDocumentIdentifier textDocument = new VersionedTextDocumentIdentifier(uri, 2);
@@ -514,8 +543,13 @@ class GroovyTextDocumentServiceTest {
         service.connect(mockClient);
         String uri = "file:///test.groovy";
         when(documentManager.getDocumentContent(uri)).thenReturn("saved content");
-        when(compilationService.createCompilationUnit(any())).thenReturn(compilationUnit);
-        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any()))
+        when(documentManager.getSnapshot(uri))
+                .thenReturn(new DocumentSnapshot(uri, 0, "saved content"));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.createCompilationUnit(any(CompilerConfiguration.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any(), any()))
                 .thenReturn(CompilationResult.success(mock(ModuleNode.class)));
 
         TextDocumentIdentifier textDocument = new TextDocumentIdentifier(uri);
@@ -531,6 +565,19 @@ class GroovyTextDocumentServiceTest {
         verify(mockClient).publishDiagnostics(any());
     }
 
+    @UnitTest
+    void didSave_shouldUpdateProjectModelWithSavedContent() {
+        // given
+        String uri = "file:///test.groovy";
+        when(documentManager.getDocumentContent(uri)).thenReturn("class Saved {}");
+
+        // when
+        service.didSave(new DidSaveTextDocumentParams(new TextDocumentIdentifier(uri)));
+
+        // then
+        verify(projectModelService, timeout(1000)).update(uri, "class Saved {}");
+    }
+
     @UnitTest
     void hover_shouldHandleNullServiceRouter() throws Exception {
         // given
@@ -617,8 +664,12 @@ class GroovyTextDocumentServiceTest {
         String content = "class Test { }";
 
         when(documentManager.getDocumentContent(uri)).thenReturn(content);
-        when(compilationService.createCompilationUnit(any())).thenReturn(compilationUnit);
-        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any()))
+        when(documentManager.getSnapshot(uri)).thenReturn(new DocumentSnapshot(uri, 0, content));
+        when(compilationService.createCompilationUnit(any(CompilationContext.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.createCompilationUnit(any(CompilerConfiguration.class)))
+                .thenReturn(compilationUnit);
+        when(compilationService.compileToPhaseWithResult(any(), any(), any(), any(), any()))
                 .thenThrow(new RuntimeException("Compilation failed"));
 
         TextDocumentItem textDocument = new TextDocumentItem(uri, "groovy", 1, content);
@@ -1,8 +1,26 @@
 package com.groovy.lsp.protocol.internal.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
-
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.gson.JsonPrimitive;
+import com.groovy.lsp.groovy.core.api.AnalysisTier;
+import com.groovy.lsp.groovy.core.api.AnalysisTierService;
+import com.groovy.lsp.groovy.core.api.CompilationContextService;
+import com.groovy.lsp.groovy.core.api.IncrementalCompilationService;
+import com.groovy.lsp.groovy.core.api.ProjectModelService;
+import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.protocol.api.RequestExecutors;
 import com.groovy.lsp.test.annotations.UnitTest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import org.eclipse.lsp4j.CreateFilesParams;
@@ -27,6 +45,7 @@ import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.services.LanguageClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -39,6 +58,11 @@ class GroovyWorkspaceServiceTest {
     private GroovyWorkspaceService service;
 
     @Mock private LanguageClient mockClient;
+    @Mock private IServiceRouter serviceRouter;
+    @Mock private CompilationContextService compilationContextService;
+    @Mock private ProjectModelService projectModelService;
+    @Mock private IncrementalCompilationService incrementalCompilationService;
+    @Mock private AnalysisTierService analysisTierService;
 
     @BeforeEach
     void setUp() {
@@ -125,6 +149,91 @@ class GroovyWorkspaceServiceTest {
         service.didChangeWatchedFiles(params);
     }
 
+    @UnitTest
+    void didChangeWatchedFiles_shouldInvalidateCompilationContextWhenBuildFileChanges() {
+        // given
+        when(serviceRouter.getCompilationContextService()).thenReturn(compilationContextService);
+        when(serviceRouter.getProjectModelService()).thenReturn(projectModelService);
+        when(compilationContextService.isBuildFile(any())).thenCallRealMethod();
+        service.setServiceRouter(serviceRouter);
+        DidChangeWatchedFilesParams params =
+                new DidChangeWatchedFilesParams(
+                        List.of(
+                                new FileEvent(
+                                        "file:///project/Main.groovy", FileChangeType.Changed),
+                                new FileEvent(
+                                        "file:///project/build.gradle", FileChangeType.Changed)));
+
+        // when
+        service.didChangeWatchedFiles(params);
+
+        // then
+        verify(compilationContextService).invalidate();
+        verify(projectModelService, timeout(1000)).rebuild();
+    }
+
+    @UnitTest
+    void didChangeWatchedFiles_shouldKeepCompilationContextForSourceChanges() {
+        // given
+        when(serviceRouter.getCompilationContextService()).thenReturn(compilationContextService);
+        when(serviceRouter.getProjectModelService()).thenReturn(projectModelService);
+        when(compilationContextService.isBuildFile(any())).thenCallRealMethod();
+        service.setServiceRouter(serviceRouter);
+        DidChangeWatchedFilesParams params =
+                new DidChangeWatchedFilesParams(
+                        List.of(
+                                new FileEvent(
+                                        "file:///project/Main.groovy", FileChangeType.Changed)));
+
+        // when
+        service.didChangeWatchedFiles(params);
+
+        // then
+        verify(compilationContextService, never()).invalidate();
+    }
+
+    @UnitTest
+    void didChangeWatchedFiles_shouldUpdateProjectModel(@TempDir Path tempDir) throws IOException {
+        // given
+        when(serviceRouter.getCompilationContextService()).thenReturn(compilationContextService);
+        when(serviceRouter.getProjectModelService()).thenReturn(projectModelService);
+        when(serviceRouter.getIncrementalCompilationService())
+                .thenReturn(incrementalCompilationService);
+        when(compilationContextService.isBuildFile(any())).thenCallRealMethod();
+        service.setServiceRouter(serviceRouter);
+        Path changed = Files.writeString(tempDir.resolve("Changed.groovy"), "class Changed {}");
+        String changedUri = changed.toUri().toString();
+        String deletedUri = tempDir.resolve("Deleted.groovy").toUri().toString();
+        DidChangeWatchedFilesParams params =
+                new DidChangeWatchedFilesParams(
+                        List.of(
+                                new FileEvent(changedUri, FileChangeType.Changed),
+                                new FileEvent(deletedUri, FileChangeType.Deleted)));
+
+        // when
+        service.didChangeWatchedFiles(params);
+
+        // then
+        verify(projectModelService, timeout(1000)).update(changedUri, "class Changed {}");
+        verify(projectModelService, timeout(1000)).remove(deletedUri);
+        verify(incrementalCompilationService, timeout(1000)).clearCache(deletedUri);
+        verify(incrementalCompilationService, never()).clearCache(changedUri);
+        verify(projectModelService, never()).rebuild();
+    }
+
+    @UnitTest
+    void loadProjectModel_shouldLoadWorkspaceInBackground(@TempDir Path tempDir) {
+        // given
+        when(serviceRouter.getProjectModelService()).thenReturn(projectModelService);
+        service.setServiceRouter(serviceRouter);
+
+        // when
+        service.loadProjectModel(tempDir);
+
+        // then
+        verify(projectModelService, timeout(1000)).load(tempDir);
+    }
+
     @UnitTest
     void executeCommand_shouldExecuteCommand() throws Exception {
         // given
@@ -151,6 +260,51 @@ class GroovyWorkspaceServiceTest {
         assertThat(result).isNull();
     }
 
+    @UnitTest
+    void executeCommand_shouldOverrideAnalysisTier() throws Exception {
+        // given
+        service.setAnalysisTierService(analysisTierService);
+        String uri = "file:///Large.groovy";
+
+        // when
+        service.executeCommand(
+                        new ExecuteCommandParams(
+                                GroovyWorkspaceService.SET_ANALYSIS_TIER_COMMAND,
+                                List.of(new JsonPrimitive(uri), new JsonPrimitive("syntax_only"))))
+                .get();
+        service.executeCommand(
+                        new ExecuteCommandParams(
+                                GroovyWorkspaceService.SET_ANALYSIS_TIER_COMMAND,
+                                List.of(uri, "auto")))
+                .get();
+
+        // then
+        verify(analysisTierService).setOverride(uri, AnalysisTier.SYNTAX_ONLY);
+        verify(analysisTierService).setOverride(uri, null);
+    }
+
+    @UnitTest
+    void executeCommand_shouldReportExecutorStats() throws Exception {
+        // given
+        RequestExecutors executors =
+                new RequestExecutors(
+                        new RequestExecutor(RequestCategory.INTERACTIVE, 1, 1),
+                        new RequestExecutor(RequestCategory.DIAGNOSTICS, 1, 1),
+                        new RequestExecutor(RequestCategory.BULK, 1, 1));
+        service.setRequestExecutors(executors);
+
+        // when
+        Object result =
+                service.executeCommand(
+                                new ExecuteCommandParams(
+                                        GroovyWorkspaceService.EXECUTOR_STATS_COMMAND, List.of()))
+                        .get();
+
+        // then
+        assertThat(result).isEqualTo(executors.getStats());
+        executors.shutdown();
+    }
+
     @UnitTest
     void didChangeWorkspaceFolders_shouldHandleFolderAddition() {
         // given
@@ -0,0 +1,64 @@
+package com.groovy.lsp.protocol.internal.signature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.Objects;
+
+/**
+ * CallSiteのテストクラス。
+ */
+class CallSiteTest {
+
+    @UnitTest
+    void at_shouldCountArgumentsSkippingNestedCallsAndStrings() {
+        // given
+        String text = "foo(bar(1, 2), \"a, b\", ";
+
+        // when
+        CallSite callSite = CallSite.at(text, text.length());
+
+        // then
+        assertThat(callSite).isNotNull();
+        assertThat(Objects.requireNonNull(callSite).openParen()).isEqualTo(3);
+        assertThat(callSite.activeParameter()).isEqualTo(2);
+    }
+
+    @UnitTest
+    void at_shouldDropArgumentsOfClosedCall() {
+        // given
+        String text = "text.substring(1, )\nprintln text";
+
+        // when
+        CallSite first = CallSite.at(text, 15);
+        CallSite second = CallSite.at(text, 18);
+
+        // then
+        assertThat(Objects.requireNonNull(first).activeParameter()).isZero();
+        assertThat(Objects.requireNonNull(second).activeParameter()).isEqualTo(1);
+        assertThat(second.source()).isEqualTo("text.substring()\nprintln text");
+        assertThat(first.source()).isEqualTo(second.source());
+    }
+
+    @UnitTest
+    void at_shouldCloseBracketsLeftOpenOnLineOfUnclosedCall() {
+        // given
+        String text = "println(text.substring(1, \nprintln text";
+
+        // when
+        CallSite callSite = CallSite.at(text, text.indexOf('\n'));
+
+        // then
+        assertThat(Objects.requireNonNull(callSite).source())
+                .isEqualTo("println(text.substring())\nprintln text");
+    }
+
+    @UnitTest
+    void at_shouldReturnNullOutsideOfCallArguments() {
+        // then
+        assertThat(CallSite.at("if (ready", 9)).isNull();
+        assertThat(CallSite.at("list.each { it", 14)).isNull();
+        assertThat(CallSite.at("def values = [1, ", 17)).isNull();
+        assertThat(CallSite.at("foo(1); bar", 11)).isNull();
+    }
+}
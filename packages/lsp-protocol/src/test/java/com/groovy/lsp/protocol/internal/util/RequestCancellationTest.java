@@ -0,0 +1,45 @@
+package com.groovy.lsp.protocol.internal.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.groovy.lsp.groovy.core.api.CancellationToken;
+import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * RequestCancellationのテストクラス。
+ */
+class RequestCancellationTest {
+
+    @UnitTest
+    void await_shouldReturnResultOfCompletedFuture() throws Exception {
+        assertEquals(
+                "result",
+                RequestCancellation.await(
+                        CompletableFuture.completedFuture("result"), CancellationToken.NONE));
+    }
+
+    @UnitTest
+    void await_shouldCancelFutureWhenTokenIsCancelled() {
+        // Given
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        // When
+        CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS)
+                .execute(() -> cancelled.set(true));
+
+        // Then
+        assertThrows(
+                CancellationException.class,
+                () -> RequestCancellation.await(pending, cancelled::get));
+        assertTrue(pending.isCancelled());
+        assertFalse(pending.complete("late"));
+    }
+}
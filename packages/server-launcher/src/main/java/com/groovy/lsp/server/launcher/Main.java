@@ -2,9 +2,11 @@ package com.groovy.lsp.server.launcher;
 
 import static com.groovy.lsp.server.launcher.di.ServerConstants.DEFAULT_SOCKET_HOST;
 import static com.groovy.lsp.server.launcher.di.ServerConstants.DEFAULT_SOCKET_PORT;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.VIRTUAL_THREADS_ENV_KEY;
 
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.groovy.lsp.groovy.core.api.ParserCacheService;
 import com.groovy.lsp.protocol.api.GroovyLanguageServer;
 import com.groovy.lsp.server.launcher.di.ServerModule;
 import java.io.File;
@@ -14,6 +16,7 @@ import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.file.Paths;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -75,6 +78,7 @@ public class Main {
                 logger.info("  Host: {}", mode.host);
                 logger.info("  Port: {}", mode.port);
             }
+            logger.info("  Virtual threads: {}", mode.virtualThreads);
             return;
         }
 
@@ -83,17 +87,25 @@ public class Main {
                 mode.workspaceRoot != null ? mode.workspaceRoot : System.getProperty("user.dir");
         logger.info("Using workspace root: {}", workspaceRoot);
 
+        // Leave clearing the parser caches to ParserCacheService, which clears them by size.
+        // Groovy reads the property on the first parse.
+        if (System.getProperty(ParserCacheService.GROOVY_CACHE_THRESHOLD_PROPERTY) == null) {
+            System.setProperty(ParserCacheService.GROOVY_CACHE_THRESHOLD_PROPERTY, "0");
+        }
+
         // Create Guice injector with workspace root
-        Injector injector = Guice.createInjector(new ServerModule(workspaceRoot));
+        Injector injector =
+                Guice.createInjector(new ServerModule(workspaceRoot, mode.virtualThreads));
         logger.info("Dependency injection container initialized");
 
         // Create the server instance through DI
         GroovyLanguageServer server = injector.getInstance(GroovyLanguageServer.class);
+        server.setWorkspaceRoot(Paths.get(workspaceRoot));
 
         // Launch the server based on the mode
         switch (mode.type) {
-            case STDIO -> launchStdio(server);
-            case SOCKET -> launchSocket(server, mode.host, mode.port);
+            case STDIO -> launchStdio(server, mode.virtualThreads);
+            case SOCKET -> launchSocket(server, mode.host, mode.port, mode.virtualThreads);
             default -> throw new IllegalArgumentException("Unknown launch mode: " + mode.type);
         }
     }
@@ -101,7 +113,8 @@ public class Main {
     /**
      * Launch the server using stdio for communication (default mode).
      */
-    private static void launchStdio(LanguageServer server) throws Exception {
+    private static void launchStdio(LanguageServer server, boolean virtualThreads)
+            throws Exception {
         logger.info("Launching server in stdio mode");
 
         InputStream in = System.in;
@@ -110,7 +123,7 @@ public class Main {
         // Create launcher
         Launcher<LanguageClient> launcher =
                 LSPLauncher.createServerLauncher(
-                        server, in, out, createExecutorService(), wrapper -> wrapper);
+                        server, in, out, createExecutorService(virtualThreads), wrapper -> wrapper);
 
         // Connect the server to the client
         LanguageClient client = launcher.getRemoteProxy();
@@ -128,8 +141,8 @@ public class Main {
     /**
      * Launch the server using socket for communication.
      */
-    private static void launchSocket(LanguageServer server, String host, int port)
-            throws Exception {
+    private static void launchSocket(
+            LanguageServer server, String host, int port, boolean virtualThreads) throws Exception {
         logger.info("Launching server in socket mode on {}:{}", host, port);
 
         ServerSocket serverSocket = null;
@@ -166,7 +179,11 @@ public class Main {
                 // Create launcher
                 Launcher<LanguageClient> launcher =
                         LSPLauncher.createServerLauncher(
-                                server, in, out, createExecutorService(), wrapper -> wrapper);
+                                server,
+                                in,
+                                out,
+                                createExecutorService(virtualThreads),
+                                wrapper -> wrapper);
 
                 // Connect the server to the client
                 LanguageClient client = launcher.getRemoteProxy();
@@ -196,7 +213,11 @@ public class Main {
     /**
      * Create an executor service for the JSON-RPC communication.
      */
-    private static ExecutorService createExecutorService() {
+    private static ExecutorService createExecutorService(boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("groovy-lsp-jsonrpc-", 1).factory());
+        }
         return Executors.newCachedThreadPool(
                 runnable -> {
                     Thread thread = new Thread(runnable, "groovy-lsp-jsonrpc");
@@ -264,6 +285,10 @@ public class Main {
                     throw new HelpRequestedException();
                 // Note: HelpRequestedException is handled in main() method
 
+                case "--virtual-threads":
+                    mode.virtualThreads = true;
+                    break;
+
                 case "--dry-run":
                     mode.dryRun = true;
                     logger.info("Dry run mode enabled - will parse arguments only");
@@ -320,6 +345,8 @@ public class Main {
         System.out.println(
                 "  --workspace, -w <path>    Workspace root directory (default: current"
                         + " directory)");
+        System.out.println(
+                "  --virtual-threads         Run requests and events on virtual threads");
         System.out.println("  --dry-run                 Parse arguments only, don't start server");
         System.out.println("  --help                    Show this help message");
         System.out.println();
@@ -330,6 +357,12 @@ public class Main {
         System.out.println(
                 "  groovy.lsp.workspace.root       Workspace root directory (can be overridden by"
                         + " --workspace)");
+        System.out.println(
+                "  groovy.lsp.virtual.threads      Run on virtual threads (can be enabled by"
+                        + " --virtual-threads)");
+        System.out.println(
+                "  groovy.lsp.compile.permits      Number of concurrent compilations (default:"
+                        + " processors with virtual threads, unlimited otherwise)");
         System.out.println();
         System.out.println("Examples:");
         System.out.println("  groovy-language-server                    # Start in stdio mode");
@@ -349,6 +382,8 @@ public class Main {
         String host = DEFAULT_SOCKET_HOST; // Default host
         int port = DEFAULT_SOCKET_PORT; // Default LSP port
         boolean dryRun = false; // Dry run mode - parse arguments only, don't start server
+        boolean virtualThreads =
+                Boolean.getBoolean(VIRTUAL_THREADS_ENV_KEY); // Requests on virtual threads
 
         @Nullable String workspaceRoot =
                 null; // Workspace root directory (null = use current directory)
@@ -0,0 +1,47 @@
+package com.groovy.lsp.server.launcher.di;
+
+import com.groovy.lsp.groovy.core.api.ProjectClasspathProvider;
+import com.groovy.lsp.workspace.dependency.cache.CachedDependencyResolver;
+import com.groovy.lsp.workspace.dependency.cache.DependencyCache;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Supplies the workspace classpath to the compilation context from the build-system
+ * dependency resolver and the shared dependency cache.
+ *
+ * Class loaders are keyed by the workspace root so that invalidating the project
+ * in the cache also drops its class loader.
+ */
+class DependencyClasspathProvider implements ProjectClasspathProvider {
+
+    private final CachedDependencyResolver dependencyResolver;
+    private final DependencyCache dependencyCache;
+    private final Path workspaceRoot;
+
+    DependencyClasspathProvider(
+            CachedDependencyResolver dependencyResolver,
+            DependencyCache dependencyCache,
+            Path workspaceRoot) {
+        this.dependencyResolver = dependencyResolver;
+        this.dependencyCache = dependencyCache;
+        this.workspaceRoot = workspaceRoot;
+    }
+
+    @Override
+    public List<Path> resolveClasspath() {
+        return dependencyResolver.resolveDependencies();
+    }
+
+    @Override
+    public ClassLoader getClassLoader(List<Path> classpath) {
+        return dependencyCache.getOrCreateClassLoader(
+                workspaceRoot.toString(), new LinkedHashSet<>(classpath));
+    }
+
+    @Override
+    public void invalidate() {
+        dependencyResolver.invalidateCache();
+    }
+}
@@ -15,12 +15,32 @@ public final class ServerConstants {
     /** Core number of threads for the cached thread pool */
     public static final int CORE_THREAD_POOL_SIZE = 10;
 
+    /** Maximum number of tasks queued for the server thread pool */
+    public static final int SERVER_QUEUE_CAPACITY = 1000;
+
     /** Keep-alive time for idle threads in seconds */
     public static final long THREAD_KEEP_ALIVE_TIME = 60L;
 
     /** Default number of threads for scheduled executor */
     public static final int DEFAULT_SCHEDULER_THREADS = 2;
 
+    /** Default number of threads for interactive requests */
+    public static final int DEFAULT_INTERACTIVE_THREADS =
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+    /** Default number of threads for diagnostics runs */
+    public static final int DEFAULT_DIAGNOSTICS_THREADS =
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
+    /** Default number of threads for background work */
+    public static final int DEFAULT_BULK_THREADS = 1;
+
+    /** Default number of concurrent interactive requests on virtual threads */
+    public static final int DEFAULT_VIRTUAL_INTERACTIVE_THREADS = 256;
+
+    /** Default number of concurrent diagnostics runs on virtual threads */
+    public static final int DEFAULT_VIRTUAL_DIAGNOSTICS_THREADS = 64;
+
     /** Timeout for executor shutdown in seconds */
     public static final int EXECUTOR_SHUTDOWN_TIMEOUT_SECONDS = 5;
 
@@ -34,6 +54,9 @@ public final class ServerConstants {
     /** Default workspace root directory */
     public static final String DEFAULT_WORKSPACE_ROOT = ".";
 
+    /** Directory for persisted module outlines, relative to the workspace root */
+    public static final String OUTLINE_CACHE_DIRECTORY = ".groovy-lsp/outlines";
+
     // Environment variable keys
     /** Environment variable for scheduler thread count */
     public static final String SCHEDULER_THREADS_ENV_KEY = "groovy.lsp.scheduler.threads";
@@ -44,10 +67,50 @@ public final class ServerConstants {
     /** Environment variable for max thread pool size */
     public static final String MAX_THREADS_ENV_KEY = "groovy.lsp.server.max.threads";
 
+    /** System property for the number of threads for interactive requests */
+    public static final String INTERACTIVE_THREADS_ENV_KEY = "groovy.lsp.interactive.threads";
+
+    /** System property for the queue capacity for interactive requests */
+    public static final String INTERACTIVE_QUEUE_ENV_KEY = "groovy.lsp.interactive.queue";
+
+    /** System property for the number of threads for diagnostics runs */
+    public static final String DIAGNOSTICS_THREADS_ENV_KEY = "groovy.lsp.diagnostics.threads";
+
+    /** System property for the queue capacity for diagnostics runs */
+    public static final String DIAGNOSTICS_QUEUE_ENV_KEY = "groovy.lsp.diagnostics.queue";
+
+    /** System property for the number of threads for background work */
+    public static final String BULK_THREADS_ENV_KEY = "groovy.lsp.bulk.threads";
+
+    /** System property for the queue capacity for background work */
+    public static final String BULK_QUEUE_ENV_KEY = "groovy.lsp.bulk.queue";
+
+    /** System property enabling virtual threads for requests and events */
+    public static final String VIRTUAL_THREADS_ENV_KEY = "groovy.lsp.virtual.threads";
+
+    /**
+     * System property for the number of concurrent compilations, defaults to the number of
+     * processors on virtual threads and to no limit otherwise
+     */
+    public static final String COMPILE_PERMITS_ENV_KEY = "groovy.lsp.compile.permits";
+
+    /** System property for the document length above which only syntax is analyzed */
+    public static final String SYNTAX_ONLY_LENGTH_ENV_KEY = "groovy.lsp.analysis.syntaxOnlyLength";
+
+    /** System property for the document length above which analysis is disabled */
+    public static final String DISABLED_LENGTH_ENV_KEY = "groovy.lsp.analysis.disabledLength";
+
+    /** System property for the compile time in milliseconds above which only syntax is analyzed */
+    public static final String SLOW_COMPILE_MILLIS_ENV_KEY =
+            "groovy.lsp.analysis.slowCompileMillis";
+
     // Thread name prefixes
     /** Thread name prefix for main executor */
     public static final String SERVER_THREAD_PREFIX = "groovy-lsp-server";
 
+    /** Thread name prefix for event handlers on virtual threads */
+    public static final String EVENT_BUS_THREAD_PREFIX = "groovy-lsp-event-";
+
     /** Thread name prefix for scheduled executor */
     public static final String SCHEDULER_THREAD_PREFIX = "groovy-lsp-scheduler";
 
@@ -1,17 +1,37 @@
 package com.groovy.lsp.server.launcher.di;
 
+import static com.groovy.lsp.server.launcher.di.ServerConstants.BULK_QUEUE_ENV_KEY;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.BULK_THREADS_ENV_KEY;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.COMPILE_PERMITS_ENV_KEY;
 import static com.groovy.lsp.server.launcher.di.ServerConstants.CORE_THREAD_POOL_SIZE;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.DEFAULT_BULK_THREADS;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.DEFAULT_DIAGNOSTICS_THREADS;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.DEFAULT_INTERACTIVE_THREADS;
 import static com.groovy.lsp.server.launcher.di.ServerConstants.DEFAULT_SCHEDULER_THREADS;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.DEFAULT_VIRTUAL_DIAGNOSTICS_THREADS;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.DEFAULT_VIRTUAL_INTERACTIVE_THREADS;
 import static com.groovy.lsp.server.launcher.di.ServerConstants.DEFAULT_WORKSPACE_ROOT;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.DIAGNOSTICS_QUEUE_ENV_KEY;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.DIAGNOSTICS_THREADS_ENV_KEY;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.DISABLED_LENGTH_ENV_KEY;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.EVENT_BUS_THREAD_PREFIX;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.INTERACTIVE_QUEUE_ENV_KEY;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.INTERACTIVE_THREADS_ENV_KEY;
 import static com.groovy.lsp.server.launcher.di.ServerConstants.MAX_THREADS_ENV_KEY;
 import static com.groovy.lsp.server.launcher.di.ServerConstants.MAX_THREAD_POOL_SIZE;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.OUTLINE_CACHE_DIRECTORY;
 import static com.groovy.lsp.server.launcher.di.ServerConstants.SCHEDULER_THREADS_ENV_KEY;
 import static com.groovy.lsp.server.launcher.di.ServerConstants.SCHEDULER_THREAD_PREFIX;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.SERVER_QUEUE_CAPACITY;
 import static com.groovy.lsp.server.launcher.di.ServerConstants.SERVER_THREAD_PREFIX;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.SLOW_COMPILE_MILLIS_ENV_KEY;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.SYNTAX_ONLY_LENGTH_ENV_KEY;
 import static com.groovy.lsp.server.launcher.di.ServerConstants.THREAD_KEEP_ALIVE_TIME;
+import static com.groovy.lsp.server.launcher.di.ServerConstants.VIRTUAL_THREADS_ENV_KEY;
 import static com.groovy.lsp.server.launcher.di.ServerConstants.WORKSPACE_ROOT_ENV_KEY;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.groovy.lsp.codenarc.LintEngine;
@@ -19,12 +39,21 @@ import com.groovy.lsp.codenarc.QuickFixMapper;
 import com.groovy.lsp.codenarc.RuleSetProvider;
 import com.groovy.lsp.formatting.service.FormattingService;
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.AnalysisTierService;
+import com.groovy.lsp.groovy.core.api.CompilationContextService;
+import com.groovy.lsp.groovy.core.api.CompilationPermits;
 import com.groovy.lsp.groovy.core.api.CompilerConfigurationService;
 import com.groovy.lsp.groovy.core.api.GroovyCoreFactory;
 import com.groovy.lsp.groovy.core.api.IncrementalCompilationService;
+import com.groovy.lsp.groovy.core.api.ModuleOutlineCache;
+import com.groovy.lsp.groovy.core.api.ParserCacheService;
+import com.groovy.lsp.groovy.core.api.ProjectModelService;
 import com.groovy.lsp.groovy.core.api.TypeInferenceService;
 import com.groovy.lsp.protocol.api.GroovyLanguageServer;
 import com.groovy.lsp.protocol.api.IServiceRouter;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.protocol.api.RequestExecutors;
 import com.groovy.lsp.protocol.internal.document.DocumentManager;
 import com.groovy.lsp.protocol.internal.impl.GroovyTextDocumentService;
 import com.groovy.lsp.protocol.internal.impl.GroovyWorkspaceService;
@@ -32,9 +61,15 @@ import com.groovy.lsp.shared.event.EventBus;
 import com.groovy.lsp.shared.event.EventBusFactory;
 import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
 import com.groovy.lsp.workspace.api.WorkspaceIndexFactory;
+import com.groovy.lsp.workspace.dependency.MavenAndGradleDependencyResolver;
+import com.groovy.lsp.workspace.dependency.cache.CachedDependencyResolver;
+import com.groovy.lsp.workspace.dependency.cache.DependencyCache;
+import com.groovy.lsp.workspace.dependency.cache.DependencyCacheFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -55,13 +90,25 @@ public class ServerModule extends AbstractModule {
     private static final Logger logger = LoggerFactory.getLogger(ServerModule.class);
 
     private final String workspaceRoot;
+    private final boolean virtualThreads;
 
     public ServerModule() {
         this(System.getProperty(WORKSPACE_ROOT_ENV_KEY, DEFAULT_WORKSPACE_ROOT));
     }
 
     public ServerModule(String workspaceRoot) {
+        this(workspaceRoot, Boolean.getBoolean(VIRTUAL_THREADS_ENV_KEY));
+    }
+
+    /**
+     * Creates the module.
+     *
+     * @param workspaceRoot the workspace root directory
+     * @param virtualThreads whether requests and events run on virtual threads
+     */
+    public ServerModule(String workspaceRoot, boolean virtualThreads) {
         this.workspaceRoot = workspaceRoot;
+        this.virtualThreads = virtualThreads;
     }
 
     @Override
@@ -83,19 +130,45 @@ public class ServerModule extends AbstractModule {
         bind(ServiceRouter.class).in(Singleton.class);
         bind(IServiceRouter.class).to(ServiceRouter.class);
 
+        // Warm up the parser while the client connects, then keep its caches bounded
+        bind(ParserCacheStarter.class).asEagerSingleton();
+
         logger.info("Server module configured");
     }
 
     @Provides
     @Singleton
     EventBus provideEventBus() {
+        if (virtualThreads) {
+            return EventBusFactory.create(
+                    Executors.newThreadPerTaskExecutor(
+                            Thread.ofVirtual().name(EVENT_BUS_THREAD_PREFIX, 1).factory()));
+        }
         return EventBusFactory.create();
     }
 
     @Provides
     @Singleton
-    ASTService provideASTService() {
-        return GroovyCoreFactory.getInstance().createASTService();
+    CompilationPermits provideCompilationPermits() {
+        // Requests on virtual threads mostly wait, the compile permits bound the CPU work
+        CompilationPermits permits =
+                new CompilationPermits(
+                        Integer.getInteger(
+                                COMPILE_PERMITS_ENV_KEY,
+                                virtualThreads ? Runtime.getRuntime().availableProcessors() : 0));
+        if (permits.getMaxConcurrent() > 0) {
+            logger.info("Limiting concurrent compilations to {}", permits.getMaxConcurrent());
+        }
+        return permits;
+    }
+
+    @Provides
+    @Singleton
+    ASTService provideASTService(CompilationPermits permits) {
+        ASTService astService = GroovyCoreFactory.getInstance().createASTService(permits);
+        // Interactive features keep working on code in the middle of an edit
+        astService.setRecoveryEnabled(true);
+        return astService;
     }
 
     @Provides
@@ -112,8 +185,65 @@ public class ServerModule extends AbstractModule {
 
     @Provides
     @Singleton
-    IncrementalCompilationService provideIncrementalCompilationService() {
-        return GroovyCoreFactory.getInstance().createIncrementalCompilationService();
+    IncrementalCompilationService provideIncrementalCompilationService(
+            ModuleOutlineCache outlineCache,
+            @ServerExecutor ExecutorService executor,
+            CompilationPermits permits) {
+        IncrementalCompilationService service =
+                GroovyCoreFactory.getInstance().createIncrementalCompilationService(permits);
+        service.setOutlineCache(outlineCache);
+        // Closed sources are compacted off the request threads
+        service.setCompactionExecutor(executor);
+        return service;
+    }
+
+    @Provides
+    @Singleton
+    ModuleOutlineCache provideModuleOutlineCache(@ServerExecutor ExecutorService executor) {
+        // Outline files are written off the compile threads
+        return GroovyCoreFactory.getInstance()
+                .createModuleOutlineCache(
+                        Paths.get(workspaceRoot).resolve(OUTLINE_CACHE_DIRECTORY), executor);
+    }
+
+    @Provides
+    @Singleton
+    ParserCacheService provideParserCacheService() {
+        return GroovyCoreFactory.getInstance().getParserCacheService();
+    }
+
+    @Provides
+    @Singleton
+    CompilationContextService provideCompilationContextService() {
+        Path root = Paths.get(workspaceRoot);
+        DependencyCache dependencyCache = DependencyCacheFactory.getInstance();
+        CachedDependencyResolver dependencyResolver =
+                new CachedDependencyResolver(
+                        new MavenAndGradleDependencyResolver(root), dependencyCache, root);
+        return GroovyCoreFactory.getInstance()
+                .createCompilationContextService(
+                        new DependencyClasspathProvider(dependencyResolver, dependencyCache, root));
+    }
+
+    @Provides
+    @Singleton
+    AnalysisTierService provideAnalysisTierService() {
+        AnalysisTierService.Thresholds defaults = AnalysisTierService.Thresholds.DEFAULTS;
+        AnalysisTierService.Thresholds thresholds =
+                new AnalysisTierService.Thresholds(
+                        Long.getLong(SYNTAX_ONLY_LENGTH_ENV_KEY, defaults.syntaxOnlyLength()),
+                        Long.getLong(DISABLED_LENGTH_ENV_KEY, defaults.disabledLength()),
+                        Long.getLong(SLOW_COMPILE_MILLIS_ENV_KEY, defaults.slowCompileMillis()));
+        logger.info("Analysis tier thresholds: {}", thresholds);
+        return GroovyCoreFactory.getInstance().createAnalysisTierService(thresholds);
+    }
+
+    @Provides
+    @Singleton
+    ProjectModelService provideProjectModelService(
+            CompilationContextService contextService, CompilationPermits permits) {
+        // Loaded by the language server once the client is initialized
+        return GroovyCoreFactory.getInstance().createProjectModelService(contextService, permits);
     }
 
     @Provides
@@ -150,10 +280,51 @@ public class ServerModule extends AbstractModule {
                 maxThreads,
                 THREAD_KEEP_ALIVE_TIME,
                 TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(),
+                new ArrayBlockingQueue<>(SERVER_QUEUE_CAPACITY),
                 new NamedThreadFactory(SERVER_THREAD_PREFIX));
     }
 
+    @Provides
+    @Singleton
+    RequestExecutors provideRequestExecutors() {
+        RequestExecutors executors =
+                new RequestExecutors(
+                        new RequestExecutor(
+                                RequestCategory.INTERACTIVE,
+                                Integer.getInteger(
+                                        INTERACTIVE_THREADS_ENV_KEY,
+                                        virtualThreads
+                                                ? DEFAULT_VIRTUAL_INTERACTIVE_THREADS
+                                                : DEFAULT_INTERACTIVE_THREADS),
+                                Integer.getInteger(
+                                        INTERACTIVE_QUEUE_ENV_KEY,
+                                        RequestExecutors.DEFAULT_INTERACTIVE_QUEUE_CAPACITY),
+                                virtualThreads),
+                        new RequestExecutor(
+                                RequestCategory.DIAGNOSTICS,
+                                Integer.getInteger(
+                                        DIAGNOSTICS_THREADS_ENV_KEY,
+                                        virtualThreads
+                                                ? DEFAULT_VIRTUAL_DIAGNOSTICS_THREADS
+                                                : DEFAULT_DIAGNOSTICS_THREADS),
+                                Integer.getInteger(
+                                        DIAGNOSTICS_QUEUE_ENV_KEY,
+                                        RequestExecutors.DEFAULT_DIAGNOSTICS_QUEUE_CAPACITY),
+                                virtualThreads),
+                        // Bulk work is CPU-bound, so it keeps platform threads
+                        new RequestExecutor(
+                                RequestCategory.BULK,
+                                Integer.getInteger(BULK_THREADS_ENV_KEY, DEFAULT_BULK_THREADS),
+                                Integer.getInteger(
+                                        BULK_QUEUE_ENV_KEY,
+                                        RequestExecutors.DEFAULT_BULK_QUEUE_CAPACITY)));
+        logger.info(
+                "Request executors on {} threads: {}",
+                virtualThreads ? "virtual" : "platform",
+                executors.getStats());
+        return executors;
+    }
+
     @Provides
     @Singleton
     @ScheduledServerExecutor
@@ -164,6 +335,18 @@ public class ServerModule extends AbstractModule {
                 poolSize, new NamedThreadFactory(SCHEDULER_THREAD_PREFIX));
     }
 
+    /**
+     * Starts the parser cache maintenance when the injector is created.
+     */
+    static class ParserCacheStarter {
+        @Inject
+        ParserCacheStarter(
+                ParserCacheService parserCacheService,
+                @ScheduledServerExecutor ScheduledExecutorService scheduler) {
+            parserCacheService.start(scheduler);
+        }
+    }
+
     /**
      * Custom thread factory for named threads.
      */
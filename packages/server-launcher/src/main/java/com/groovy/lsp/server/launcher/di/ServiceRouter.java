@@ -5,8 +5,10 @@ import com.google.inject.Singleton;
 import com.groovy.lsp.codenarc.LintEngine;
 import com.groovy.lsp.formatting.service.FormattingService;
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CompilationContextService;
 import com.groovy.lsp.groovy.core.api.CompilerConfigurationService;
 import com.groovy.lsp.groovy.core.api.IncrementalCompilationService;
+import com.groovy.lsp.groovy.core.api.ProjectModelService;
 import com.groovy.lsp.groovy.core.api.TypeInferenceService;
 import com.groovy.lsp.protocol.api.IServiceRouter;
 import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
@@ -32,6 +34,8 @@ public class ServiceRouter implements IServiceRouter {
     private final WorkspaceIndexService workspaceIndexService;
     private final FormattingService formattingService;
     private final LintEngine lintEngine;
+    private final CompilationContextService compilationContextService;
+    private final ProjectModelService projectModelService;
 
     @Inject
     public ServiceRouter(
@@ -41,7 +45,9 @@ public class ServiceRouter implements IServiceRouter {
             TypeInferenceService typeInferenceService,
             WorkspaceIndexService workspaceIndexService,
             FormattingService formattingService,
-            LintEngine lintEngine) {
+            LintEngine lintEngine,
+            CompilationContextService compilationContextService,
+            ProjectModelService projectModelService) {
         // Validate all services are non-null
         this.astService = Objects.requireNonNull(astService, "ASTService must not be null");
         this.compilerConfigurationService =
@@ -61,6 +67,11 @@ public class ServiceRouter implements IServiceRouter {
         this.formattingService =
                 Objects.requireNonNull(formattingService, "FormattingService must not be null");
         this.lintEngine = Objects.requireNonNull(lintEngine, "LintEngine must not be null");
+        this.compilationContextService =
+                Objects.requireNonNull(
+                        compilationContextService, "CompilationContextService must not be null");
+        this.projectModelService =
+                Objects.requireNonNull(projectModelService, "ProjectModelService must not be null");
 
         // Validate services are properly initialized
         validateServices();
@@ -159,6 +170,18 @@ public class ServiceRouter implements IServiceRouter {
         return lintEngine;
     }
 
+    /**
+     * Get the compilation context service of the workspace project.
+     *
+     * @return the compilation context service
+     * @throws IllegalStateException if the service is not available
+     */
+    @Override
+    public CompilationContextService getCompilationContextService() {
+        ensureServiceAvailable(compilationContextService, "CompilationContextService");
+        return compilationContextService;
+    }
+
     /**
      * Get the incremental compilation service.
      *
@@ -171,6 +194,18 @@ public class ServiceRouter implements IServiceRouter {
         return incrementalCompilationService;
     }
 
+    /**
+     * Get the semantic model of the workspace project.
+     *
+     * @return the project model service
+     * @throws IllegalStateException if the service is not available
+     */
+    @Override
+    public ProjectModelService getProjectModelService() {
+        ensureServiceAvailable(projectModelService, "ProjectModelService");
+        return projectModelService;
+    }
+
     /**
      * Ensures that a service is available before returning it.
      *
@@ -198,6 +233,8 @@ public class ServiceRouter implements IServiceRouter {
                 && typeInferenceService != null
                 && workspaceIndexService != null
                 && formattingService != null
-                && lintEngine != null;
+                && lintEngine != null
+                && compilationContextService != null
+                && projectModelService != null;
     }
 }
@@ -260,6 +260,19 @@ class MainAdditionalTest {
         assertThat(mode.port).isEqualTo(8080);
     }
 
+    @UnitTest
+    void main_shouldHandleVirtualThreadsFlag() throws Exception {
+        // given
+        String[] args = {"--virtual-threads"};
+
+        // when
+        Main.LaunchMode mode = Main.parseArguments(args);
+
+        // then
+        assertThat(mode.virtualThreads).isTrue();
+        assertThat(mode.type).isEqualTo(Main.LaunchType.STDIO);
+    }
+
     @UnitTest
     void main_shouldNotHangWithDryRun() throws Exception {
         // given
@@ -255,7 +255,7 @@ class MainLaunchTest {
     void testLaunchStdioDirectly() throws Exception {
         // Use reflection to test launchStdio method directly
         Method launchStdioMethod =
-                Main.class.getDeclaredMethod("launchStdio", LanguageServer.class);
+                Main.class.getDeclaredMethod("launchStdio", LanguageServer.class, boolean.class);
         launchStdioMethod.setAccessible(true);
 
         GroovyLanguageServer mockServer = mock(GroovyLanguageServer.class);
@@ -283,7 +283,7 @@ class MainLaunchTest {
                     .thenReturn(mockLauncher);
 
             // Invoke launchStdio
-            assertDoesNotThrow(() -> launchStdioMethod.invoke(null, mockServer));
+            assertDoesNotThrow(() -> launchStdioMethod.invoke(null, mockServer, false));
 
             // Verify server was connected
             verify(mockServer).connect(mockClient);
@@ -297,7 +297,11 @@ class MainLaunchTest {
         // Use reflection to test launchSocket method directly
         Method launchSocketMethod =
                 Main.class.getDeclaredMethod(
-                        "launchSocket", LanguageServer.class, String.class, int.class);
+                        "launchSocket",
+                        LanguageServer.class,
+                        String.class,
+                        int.class,
+                        boolean.class);
         launchSocketMethod.setAccessible(true);
 
         GroovyLanguageServer mockServer = mock(GroovyLanguageServer.class);
@@ -344,7 +348,8 @@ class MainLaunchTest {
                     .thenReturn(mockLauncher);
 
             // Invoke launchSocket
-            assertDoesNotThrow(() -> launchSocketMethod.invoke(null, mockServer, "localhost", 0));
+            assertDoesNotThrow(
+                    () -> launchSocketMethod.invoke(null, mockServer, "localhost", 0, false));
 
             // Verify server was connected
             verify(mockServer).connect(mockClient);
@@ -357,7 +362,11 @@ class MainLaunchTest {
         // Test socket launch with generic bind failure
         Method launchSocketMethod =
                 Main.class.getDeclaredMethod(
-                        "launchSocket", LanguageServer.class, String.class, int.class);
+                        "launchSocket",
+                        LanguageServer.class,
+                        String.class,
+                        int.class,
+                        boolean.class);
         launchSocketMethod.setAccessible(true);
 
         GroovyLanguageServer mockServer = mock(GroovyLanguageServer.class);
@@ -375,7 +384,9 @@ class MainLaunchTest {
             Exception exception =
                     assertThrows(
                             Exception.class,
-                            () -> launchSocketMethod.invoke(null, mockServer, "localhost", 8888));
+                            () ->
+                                    launchSocketMethod.invoke(
+                                            null, mockServer, "localhost", 8888, false));
 
             // The InvocationTargetException wraps the actual IOException
             Throwable cause = exception.getCause();
@@ -421,7 +432,11 @@ class MainLaunchTest {
         // Test that socket resources are properly cleaned up on error
         Method launchSocketMethod =
                 Main.class.getDeclaredMethod(
-                        "launchSocket", LanguageServer.class, String.class, int.class);
+                        "launchSocket",
+                        LanguageServer.class,
+                        String.class,
+                        int.class,
+                        boolean.class);
         launchSocketMethod.setAccessible(true);
 
         GroovyLanguageServer mockServer = mock(GroovyLanguageServer.class);
@@ -441,7 +456,7 @@ class MainLaunchTest {
             // Invoke launchSocket and expect IOException
             assertThrows(
                     Exception.class,
-                    () -> launchSocketMethod.invoke(null, mockServer, "localhost", 7777));
+                    () -> launchSocketMethod.invoke(null, mockServer, "localhost", 7777, false));
 
             // Verify cleanup was attempted
             ServerSocket constructedSocket = serverSocketMock.constructed().get(0);
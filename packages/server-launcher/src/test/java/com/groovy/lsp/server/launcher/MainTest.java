@@ -16,6 +16,7 @@ import java.nio.file.Path;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -379,12 +380,13 @@ class MainTest {
     @UnitTest
     void testCreateExecutorService() throws Exception {
         // Use reflection to test private createExecutorService method
-        Method createExecutorServiceMethod = Main.class.getDeclaredMethod("createExecutorService");
+        Method createExecutorServiceMethod =
+                Main.class.getDeclaredMethod("createExecutorService", boolean.class);
         createExecutorServiceMethod.setAccessible(true);
 
         // Invoke createExecutorService
         ExecutorService executorService =
-                (ExecutorService) createExecutorServiceMethod.invoke(null);
+                (ExecutorService) createExecutorServiceMethod.invoke(null, false);
 
         // Verify executor service is created correctly
         assertThat(executorService).isNotNull();
@@ -405,6 +407,26 @@ class MainTest {
         executorService.shutdown();
     }
 
+    @UnitTest
+    void testCreateVirtualThreadExecutorService() throws Exception {
+        // Use reflection to test private createExecutorService method
+        Method createExecutorServiceMethod =
+                Main.class.getDeclaredMethod("createExecutorService", boolean.class);
+        createExecutorServiceMethod.setAccessible(true);
+
+        // Invoke createExecutorService in virtual thread mode
+        ExecutorService executorService =
+                (ExecutorService) createExecutorServiceMethod.invoke(null, true);
+
+        // Verify tasks run on named virtual threads
+        Thread thread = executorService.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+        assertThat(thread.isVirtual()).isTrue();
+        assertThat(thread.getName()).startsWith("groovy-lsp-jsonrpc-");
+
+        // Cleanup
+        executorService.shutdown();
+    }
+
     @UnitTest
     void testLaunchModeEnum() {
         // Test LaunchType enum values
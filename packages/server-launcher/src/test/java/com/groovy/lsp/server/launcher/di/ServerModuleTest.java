@@ -8,9 +8,13 @@ import com.google.inject.Injector;
 import com.groovy.lsp.codenarc.LintEngine;
 import com.groovy.lsp.formatting.service.FormattingService;
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CompilationPermits;
 import com.groovy.lsp.groovy.core.api.CompilerConfigurationService;
 import com.groovy.lsp.groovy.core.api.TypeInferenceService;
 import com.groovy.lsp.protocol.api.GroovyLanguageServer;
+import com.groovy.lsp.protocol.api.RequestCategory;
+import com.groovy.lsp.protocol.api.RequestExecutor;
+import com.groovy.lsp.protocol.api.RequestExecutors;
 import com.groovy.lsp.shared.event.EventBus;
 import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
 import com.groovy.lsp.test.annotations.UnitTest;
@@ -18,6 +22,7 @@ import java.nio.file.Path;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.lsp4j.services.LanguageServer;
 import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.io.TempDir;
@@ -125,6 +130,70 @@ class ServerModuleTest {
                 .isSameAs(injector.getInstance(LintEngine.class));
     }
 
+    @UnitTest
+    void serverModule_shouldProvideRequestExecutorsForAllCategories() {
+        // given
+        String workspaceRoot =
+                Objects.requireNonNull(tempDir, "tempDir should be initialized by JUnit")
+                        .toString();
+        ServerModule module = new ServerModule(workspaceRoot);
+        Injector injector = Guice.createInjector(module);
+
+        // when
+        RequestExecutors executors = injector.getInstance(RequestExecutors.class);
+
+        // then
+        assertThat(executors).isSameAs(injector.getInstance(RequestExecutors.class));
+        assertThat(executors.getStats())
+                .extracting(RequestExecutor.Stats::category)
+                .containsExactly(RequestCategory.values());
+    }
+
+    @UnitTest
+    void serverModule_shouldRunRequestsOnVirtualThreadsWhenEnabled() throws Exception {
+        // given
+        String workspaceRoot =
+                Objects.requireNonNull(tempDir, "tempDir should be initialized by JUnit")
+                        .toString();
+        ServerModule module = new ServerModule(workspaceRoot, true);
+        Injector injector = Guice.createInjector(module);
+        RequestExecutors executors = injector.getInstance(RequestExecutors.class);
+
+        // when
+        Thread interactive =
+                executors
+                        .get(RequestCategory.INTERACTIVE)
+                        .supply(token -> Thread.currentThread())
+                        .get(5, TimeUnit.SECONDS);
+        Thread bulk =
+                executors
+                        .get(RequestCategory.BULK)
+                        .supply(token -> Thread.currentThread())
+                        .get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(interactive.isVirtual()).isTrue();
+        assertThat(bulk.isVirtual()).isFalse();
+        assertThat(injector.getInstance(CompilationPermits.class).getMaxConcurrent())
+                .isEqualTo(Runtime.getRuntime().availableProcessors());
+    }
+
+    @UnitTest
+    void serverModule_shouldNotLimitCompilationsOnPlatformThreads() {
+        // given
+        String workspaceRoot =
+                Objects.requireNonNull(tempDir, "tempDir should be initialized by JUnit")
+                        .toString();
+        Injector injector = Guice.createInjector(new ServerModule(workspaceRoot, false));
+
+        // when
+        CompilationPermits permits = injector.getInstance(CompilationPermits.class);
+
+        // then
+        assertThat(permits.getMaxConcurrent()).isZero();
+        assertThat(injector.getInstance(CompilationPermits.class)).isSameAs(permits);
+    }
+
     @UnitTest
     void serverModule_shouldProvideExecutorServices() {
         // given
@@ -7,8 +7,10 @@ import static org.mockito.Mockito.mock;
 import com.groovy.lsp.codenarc.LintEngine;
 import com.groovy.lsp.formatting.service.FormattingService;
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.CompilationContextService;
 import com.groovy.lsp.groovy.core.api.CompilerConfigurationService;
 import com.groovy.lsp.groovy.core.api.IncrementalCompilationService;
+import com.groovy.lsp.groovy.core.api.ProjectModelService;
 import com.groovy.lsp.groovy.core.api.TypeInferenceService;
 import com.groovy.lsp.shared.workspace.api.WorkspaceIndexService;
 import com.groovy.lsp.test.annotations.UnitTest;
@@ -27,6 +29,8 @@ class ServiceRouterTest {
     private WorkspaceIndexService workspaceIndexService;
     private FormattingService formattingService;
     private LintEngine lintEngine;
+    private CompilationContextService compilationContextService;
+    private ProjectModelService projectModelService;
 
     @BeforeEach
     void setUp() {
@@ -37,6 +41,8 @@ class ServiceRouterTest {
         workspaceIndexService = mock(WorkspaceIndexService.class);
         formattingService = mock(FormattingService.class);
         lintEngine = mock(LintEngine.class);
+        compilationContextService = mock(CompilationContextService.class);
+        projectModelService = mock(ProjectModelService.class);
     }
 
     @UnitTest
@@ -50,7 +56,9 @@ class ServiceRouterTest {
                         typeInferenceService,
                         workspaceIndexService,
                         formattingService,
-                        lintEngine);
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
 
         // then
         assertThat(router.getAstService()).isSameAs(astService);
@@ -74,7 +82,9 @@ class ServiceRouterTest {
                         TypeInferenceService.class,
                         WorkspaceIndexService.class,
                         FormattingService.class,
-                        LintEngine.class);
+                        LintEngine.class,
+                        CompilationContextService.class,
+                        ProjectModelService.class);
 
         // when/then
         assertThatThrownBy(
@@ -86,7 +96,9 @@ class ServiceRouterTest {
                                         typeInferenceService,
                                         workspaceIndexService,
                                         formattingService,
-                                        lintEngine))
+                                        lintEngine,
+                                        compilationContextService,
+                                        projectModelService))
                 .isInstanceOf(java.lang.reflect.InvocationTargetException.class)
                 .hasCauseInstanceOf(NullPointerException.class)
                 .getCause()
@@ -104,7 +116,9 @@ class ServiceRouterTest {
                         TypeInferenceService.class,
                         WorkspaceIndexService.class,
                         FormattingService.class,
-                        LintEngine.class);
+                        LintEngine.class,
+                        CompilationContextService.class,
+                        ProjectModelService.class);
 
         // when/then
         assertThatThrownBy(
@@ -116,7 +130,9 @@ class ServiceRouterTest {
                                         typeInferenceService,
                                         workspaceIndexService,
                                         formattingService,
-                                        lintEngine))
+                                        lintEngine,
+                                        compilationContextService,
+                                        projectModelService))
                 .isInstanceOf(java.lang.reflect.InvocationTargetException.class)
                 .hasCauseInstanceOf(NullPointerException.class)
                 .getCause()
@@ -134,7 +150,9 @@ class ServiceRouterTest {
                         TypeInferenceService.class,
                         WorkspaceIndexService.class,
                         FormattingService.class,
-                        LintEngine.class);
+                        LintEngine.class,
+                        CompilationContextService.class,
+                        ProjectModelService.class);
 
         // when/then
         assertThatThrownBy(
@@ -146,7 +164,9 @@ class ServiceRouterTest {
                                         typeInferenceService,
                                         workspaceIndexService,
                                         formattingService,
-                                        lintEngine))
+                                        lintEngine,
+                                        compilationContextService,
+                                        projectModelService))
                 .isInstanceOf(java.lang.reflect.InvocationTargetException.class)
                 .hasCauseInstanceOf(NullPointerException.class)
                 .getCause()
@@ -164,7 +184,9 @@ class ServiceRouterTest {
                         TypeInferenceService.class,
                         WorkspaceIndexService.class,
                         FormattingService.class,
-                        LintEngine.class);
+                        LintEngine.class,
+                        CompilationContextService.class,
+                        ProjectModelService.class);
 
         // when/then
         assertThatThrownBy(
@@ -176,7 +198,9 @@ class ServiceRouterTest {
                                         null,
                                         workspaceIndexService,
                                         formattingService,
-                                        lintEngine))
+                                        lintEngine,
+                                        compilationContextService,
+                                        projectModelService))
                 .isInstanceOf(java.lang.reflect.InvocationTargetException.class)
                 .hasCauseInstanceOf(NullPointerException.class)
                 .getCause()
@@ -194,7 +218,9 @@ class ServiceRouterTest {
                         TypeInferenceService.class,
                         WorkspaceIndexService.class,
                         FormattingService.class,
-                        LintEngine.class);
+                        LintEngine.class,
+                        CompilationContextService.class,
+                        ProjectModelService.class);
 
         // when/then
         assertThatThrownBy(
@@ -206,7 +232,9 @@ class ServiceRouterTest {
                                         typeInferenceService,
                                         null,
                                         formattingService,
-                                        lintEngine))
+                                        lintEngine,
+                                        compilationContextService,
+                                        projectModelService))
                 .isInstanceOf(java.lang.reflect.InvocationTargetException.class)
                 .hasCauseInstanceOf(NullPointerException.class)
                 .getCause()
@@ -224,7 +252,9 @@ class ServiceRouterTest {
                         TypeInferenceService.class,
                         WorkspaceIndexService.class,
                         FormattingService.class,
-                        LintEngine.class);
+                        LintEngine.class,
+                        CompilationContextService.class,
+                        ProjectModelService.class);
 
         // when/then
         assertThatThrownBy(
@@ -236,7 +266,9 @@ class ServiceRouterTest {
                                         typeInferenceService,
                                         workspaceIndexService,
                                         null,
-                                        lintEngine))
+                                        lintEngine,
+                                        compilationContextService,
+                                        projectModelService))
                 .isInstanceOf(java.lang.reflect.InvocationTargetException.class)
                 .hasCauseInstanceOf(NullPointerException.class)
                 .getCause()
@@ -254,7 +286,9 @@ class ServiceRouterTest {
                         TypeInferenceService.class,
                         WorkspaceIndexService.class,
                         FormattingService.class,
-                        LintEngine.class);
+                        LintEngine.class,
+                        CompilationContextService.class,
+                        ProjectModelService.class);
 
         // when/then
         assertThatThrownBy(
@@ -266,13 +300,83 @@ class ServiceRouterTest {
                                         typeInferenceService,
                                         workspaceIndexService,
                                         formattingService,
-                                        null))
+                                        null,
+                                        compilationContextService,
+                                        projectModelService))
                 .isInstanceOf(java.lang.reflect.InvocationTargetException.class)
                 .hasCauseInstanceOf(NullPointerException.class)
                 .getCause()
                 .hasMessageContaining("LintEngine must not be null");
     }
 
+    @UnitTest
+    void constructor_shouldThrowExceptionForNullCompilationContextService() throws Exception {
+        // Use reflection to bypass NullAway compile-time checks
+        Constructor<ServiceRouter> constructor =
+                ServiceRouter.class.getConstructor(
+                        ASTService.class,
+                        CompilerConfigurationService.class,
+                        IncrementalCompilationService.class,
+                        TypeInferenceService.class,
+                        WorkspaceIndexService.class,
+                        FormattingService.class,
+                        LintEngine.class,
+                        CompilationContextService.class,
+                        ProjectModelService.class);
+
+        // when/then
+        assertThatThrownBy(
+                        () ->
+                                constructor.newInstance(
+                                        astService,
+                                        compilerConfigurationService,
+                                        incrementalCompilationService,
+                                        typeInferenceService,
+                                        workspaceIndexService,
+                                        formattingService,
+                                        lintEngine,
+                                        null,
+                                        projectModelService))
+                .isInstanceOf(java.lang.reflect.InvocationTargetException.class)
+                .hasCauseInstanceOf(NullPointerException.class)
+                .getCause()
+                .hasMessageContaining("CompilationContextService must not be null");
+    }
+
+    @UnitTest
+    void constructor_shouldThrowExceptionForNullProjectModelService() throws Exception {
+        // Use reflection to bypass NullAway compile-time checks
+        Constructor<ServiceRouter> constructor =
+                ServiceRouter.class.getConstructor(
+                        ASTService.class,
+                        CompilerConfigurationService.class,
+                        IncrementalCompilationService.class,
+                        TypeInferenceService.class,
+                        WorkspaceIndexService.class,
+                        FormattingService.class,
+                        LintEngine.class,
+                        CompilationContextService.class,
+                        ProjectModelService.class);
+
+        // when/then
+        assertThatThrownBy(
+                        () ->
+                                constructor.newInstance(
+                                        astService,
+                                        compilerConfigurationService,
+                                        incrementalCompilationService,
+                                        typeInferenceService,
+                                        workspaceIndexService,
+                                        formattingService,
+                                        lintEngine,
+                                        compilationContextService,
+                                        null))
+                .isInstanceOf(java.lang.reflect.InvocationTargetException.class)
+                .hasCauseInstanceOf(NullPointerException.class)
+                .getCause()
+                .hasMessageContaining("ProjectModelService must not be null");
+    }
+
     @UnitTest
     void areAllServicesAvailable_shouldReturnTrueWhenAllServicesAvailable() {
         // given
@@ -284,7 +388,9 @@ class ServiceRouterTest {
                         typeInferenceService,
                         workspaceIndexService,
                         formattingService,
-                        lintEngine);
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
 
         // when
         boolean result = router.areAllServicesAvailable();
@@ -304,7 +410,9 @@ class ServiceRouterTest {
                         typeInferenceService,
                         workspaceIndexService,
                         formattingService,
-                        lintEngine);
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
 
         // when
         ASTService result = router.getAstService();
@@ -324,7 +432,9 @@ class ServiceRouterTest {
                         typeInferenceService,
                         workspaceIndexService,
                         formattingService,
-                        lintEngine);
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
 
         // when
         CompilerConfigurationService result = router.getCompilerConfigurationService();
@@ -344,7 +454,9 @@ class ServiceRouterTest {
                         typeInferenceService,
                         workspaceIndexService,
                         formattingService,
-                        lintEngine);
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
 
         // when
         IncrementalCompilationService result = router.getIncrementalCompilationService();
@@ -364,7 +476,9 @@ class ServiceRouterTest {
                         typeInferenceService,
                         workspaceIndexService,
                         formattingService,
-                        lintEngine);
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
 
         // when
         TypeInferenceService result = router.getTypeInferenceService();
@@ -384,7 +498,9 @@ class ServiceRouterTest {
                         typeInferenceService,
                         workspaceIndexService,
                         formattingService,
-                        lintEngine);
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
 
         // when
         WorkspaceIndexService result = router.getWorkspaceIndexService();
@@ -404,7 +520,9 @@ class ServiceRouterTest {
                         typeInferenceService,
                         workspaceIndexService,
                         formattingService,
-                        lintEngine);
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
 
         // when
         FormattingService result = router.getFormattingService();
@@ -424,7 +542,9 @@ class ServiceRouterTest {
                         typeInferenceService,
                         workspaceIndexService,
                         formattingService,
-                        lintEngine);
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
 
         // when
         LintEngine result = router.getLintEngine();
@@ -433,6 +553,50 @@ class ServiceRouterTest {
         assertThat(result).isSameAs(lintEngine);
     }
 
+    @UnitTest
+    void getCompilationContextService_shouldReturnService() {
+        // given
+        ServiceRouter router =
+                new ServiceRouter(
+                        astService,
+                        compilerConfigurationService,
+                        incrementalCompilationService,
+                        typeInferenceService,
+                        workspaceIndexService,
+                        formattingService,
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
+
+        // when
+        CompilationContextService result = router.getCompilationContextService();
+
+        // then
+        assertThat(result).isSameAs(compilationContextService);
+    }
+
+    @UnitTest
+    void getProjectModelService_shouldReturnService() {
+        // given
+        ServiceRouter router =
+                new ServiceRouter(
+                        astService,
+                        compilerConfigurationService,
+                        incrementalCompilationService,
+                        typeInferenceService,
+                        workspaceIndexService,
+                        formattingService,
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
+
+        // when
+        ProjectModelService result = router.getProjectModelService();
+
+        // then
+        assertThat(result).isSameAs(projectModelService);
+    }
+
     @UnitTest
     void constructor_shouldCompleteSuccessfullyWithValidServices() {
         // given - All services are valid mocks
@@ -445,7 +609,9 @@ class ServiceRouterTest {
                         typeInferenceService,
                         workspaceIndexService,
                         formattingService,
-                        lintEngine);
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
 
         // then - Constructor completes without throwing, validation passes
         assertThat(router).isNotNull();
@@ -463,7 +629,9 @@ class ServiceRouterTest {
                         typeInferenceService,
                         workspaceIndexService,
                         formattingService,
-                        lintEngine);
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
 
         // Test each service getter's null check
         String[][] serviceTests = {
@@ -473,7 +641,9 @@ class ServiceRouterTest {
             {"typeInferenceService", "TypeInferenceService"},
             {"workspaceIndexService", "WorkspaceIndexService"},
             {"formattingService", "FormattingService"},
-            {"lintEngine", "LintEngine"}
+            {"lintEngine", "LintEngine"},
+            {"compilationContextService", "CompilationContextService"},
+            {"projectModelService", "ProjectModelService"}
         };
 
         for (String[] test : serviceTests) {
@@ -518,6 +688,14 @@ class ServiceRouterTest {
                             assertThatThrownBy(() -> router.getLintEngine())
                                     .isInstanceOf(IllegalStateException.class)
                                     .hasMessage(serviceName + " is not available");
+                    case "compilationContextService" ->
+                            assertThatThrownBy(() -> router.getCompilationContextService())
+                                    .isInstanceOf(IllegalStateException.class)
+                                    .hasMessage(serviceName + " is not available");
+                    case "projectModelService" ->
+                            assertThatThrownBy(() -> router.getProjectModelService())
+                                    .isInstanceOf(IllegalStateException.class)
+                                    .hasMessage(serviceName + " is not available");
                 }
 
                 // Restore original value
@@ -540,7 +718,9 @@ class ServiceRouterTest {
                         typeInferenceService,
                         workspaceIndexService,
                         formattingService,
-                        lintEngine);
+                        lintEngine,
+                        compilationContextService,
+                        projectModelService);
 
         // Test all services are available first
         assertThat(router.areAllServicesAvailable()).isTrue();
@@ -553,7 +733,9 @@ class ServiceRouterTest {
             "typeInferenceService",
             "workspaceIndexService",
             "formattingService",
-            "lintEngine"
+            "lintEngine",
+            "compilationContextService",
+            "projectModelService"
         };
 
         for (String fieldName : fieldNames) {
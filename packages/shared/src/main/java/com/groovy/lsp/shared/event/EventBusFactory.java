@@ -1,6 +1,7 @@
 package com.groovy.lsp.shared.event;
 
 import com.groovy.lsp.shared.internal.event.GuavaEventBus;
+import java.util.concurrent.Executor;
 import org.apiguardian.api.API;
 import org.jmolecules.ddd.annotation.Factory;
 import org.jspecify.annotations.Nullable;
@@ -32,6 +33,17 @@ public final class EventBusFactory {
         return new GuavaEventBus();
     }
 
+    /**
+     * Creates a new EventBus instance that delivers events on the given executor,
+     * for example one starting a virtual thread per event.
+     *
+     * @param executor the executor running the event handlers
+     * @return a new EventBus instance
+     */
+    public static EventBus create(Executor executor) {
+        return new GuavaEventBus(executor);
+    }
+
     /**
      * Gets the singleton EventBus instance for the application.
      * This method is thread-safe and uses double-checked locking.
@@ -6,6 +6,7 @@ import com.groovy.lsp.shared.event.EventBus;
 import com.groovy.lsp.shared.event.EventHandler;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,14 +23,24 @@ public class GuavaEventBus implements EventBus {
     private final Map<EventHandler<?>, EventHandlerAdapter<?>> adapters = new ConcurrentHashMap<>();
 
     public GuavaEventBus() {
+        this(
+                Executors.newCachedThreadPool(
+                        r -> {
+                            Thread thread = new Thread(r, "EventBus-Handler");
+                            thread.setDaemon(true);
+                            return thread;
+                        }));
+    }
+
+    /**
+     * Creates an event bus that delivers events on the given executor.
+     *
+     * @param executor the executor running the event handlers
+     */
+    public GuavaEventBus(Executor executor) {
         this.eventBus =
                 new AsyncEventBus(
-                        Executors.newCachedThreadPool(
-                                r -> {
-                                    Thread thread = new Thread(r, "EventBus-Handler");
-                                    thread.setDaemon(true);
-                                    return thread;
-                                }),
+                        executor,
                         (exception, context) -> {
                             logger.error(
                                     "Error handling event: {} in subscriber: {}",
@@ -3,6 +3,10 @@ package com.groovy.lsp.shared.event;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.groovy.lsp.test.annotations.UnitTest;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * EventBusFactoryのテストクラス。
@@ -21,6 +25,30 @@ class EventBusFactoryTest {
         assertThat(eventBus1).isNotSameAs(eventBus2);
     }
 
+    @UnitTest
+    void create_shouldDeliverEventsOnGivenExecutor() throws InterruptedException {
+        // given
+        EventBus eventBus =
+                EventBusFactory.create(
+                        Executors.newThreadPerTaskExecutor(
+                                Thread.ofVirtual().name("event-", 0).factory()));
+        CountDownLatch delivered = new CountDownLatch(1);
+        AtomicBoolean virtual = new AtomicBoolean();
+        eventBus.subscribe(
+                TestEvent.class,
+                event -> {
+                    virtual.set(Thread.currentThread().isVirtual());
+                    delivered.countDown();
+                });
+
+        // when
+        eventBus.publish(new TestEvent("virtual"));
+
+        // then
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(virtual).isTrue();
+    }
+
     @UnitTest
     void getInstance_shouldReturnSingletonInstance() {
         // when
@@ -61,4 +89,13 @@ class EventBusFactoryTest {
             assertThat(instance).isSameAs(firstInstance);
         }
     }
+
+    /**
+     * テスト用のイベント。
+     */
+    private static class TestEvent extends DomainEvent {
+        TestEvent(String aggregateId) {
+            super(aggregateId);
+        }
+    }
 }
@@ -259,8 +259,10 @@ public class SymbolIndex implements AutoCloseable {
             }
         }
 
-        // Cache results
-        symbolCache.put(query, results);
+        // Cache results, except the listing of every symbol, which addSymbol cannot invalidate
+        if (!query.isEmpty()) {
+            symbolCache.put(query, results);
+        }
 
         return results.stream();
     }
@@ -1,6 +1,7 @@
 package com.groovy.lsp.workspace.internal.parser;
 
 import com.groovy.lsp.groovy.core.api.ASTService;
+import com.groovy.lsp.groovy.core.api.AnalysisTierService;
 import com.groovy.lsp.groovy.core.api.GroovyCoreFactory;
 import com.groovy.lsp.shared.workspace.api.dto.SymbolInfo;
 import java.io.IOException;
@@ -19,7 +20,9 @@ import org.slf4j.LoggerFactory;
  */
 public class GroovyFileParser {
     private static final Logger logger = LoggerFactory.getLogger(GroovyFileParser.class);
-    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB limit
+    // Files the editor would not analyze either are not indexed
+    private static final long MAX_FILE_SIZE =
+            AnalysisTierService.Thresholds.DEFAULTS.disabledLength();
     private final ASTService astService;
 
     public GroovyFileParser() {
@@ -55,7 +58,8 @@ public class GroovyFileParser {
         String fileName = file.getFileName().toString();
 
         try {
-            ModuleNode moduleNode = astService.parseSource(content, fileName);
+            // Symbols only need declarations, so skip resolution and leave the AST uncached
+            ModuleNode moduleNode = astService.parseDeclarations(content, fileName);
 
             if (moduleNode == null) {
                 logger.warn("Failed to parse file: {}", file);
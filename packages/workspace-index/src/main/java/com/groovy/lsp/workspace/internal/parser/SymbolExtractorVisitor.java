@@ -212,18 +212,19 @@ public class SymbolExtractorVisitor extends ClassCodeVisitorSupport {
         // 1. If this interface has associated trait helper classes
         // 2. By the trait annotation markers
 
+        // Check for @groovy.transform.Trait annotation. This comes first because a
+        // declaration-only parse stops before traits are turned into interfaces.
+        if (node.getAnnotations().stream()
+                .anyMatch(ann -> ann.getClassNode().getName().equals("groovy.transform.Trait"))) {
+            return true;
+        }
+
         if (!node.isInterface()) {
             return false;
         }
 
         String className = node.getName();
 
-        // Check for @groovy.transform.Trait annotation
-        if (node.getAnnotations().stream()
-                .anyMatch(ann -> ann.getClassNode().getName().equals("groovy.transform.Trait"))) {
-            return true;
-        }
-
         // Check if this interface has the groovy.lang.Trait marker
         if (Arrays.stream(node.getInterfaces())
                 .anyMatch(iface -> iface.getName().equals("groovy.lang.Trait"))) {
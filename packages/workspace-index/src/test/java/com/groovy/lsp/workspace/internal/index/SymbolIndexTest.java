@@ -239,6 +239,21 @@ class SymbolIndexTest {
         assertThat(results).isNotEmpty(); // 空のクエリはすべてのシンボルにマッチ
     }
 
+    @UnitTest
+    void search_shouldListSymbolsAddedAfterEmptyQuery() {
+        // given
+        Path file = Path.of("/test/Example.groovy");
+        symbolIndex.addSymbol(new SymbolInfo("First", SymbolKind.CLASS, file, 1, 1));
+        assertThat(symbolIndex.search("").collect(Collectors.toList())).hasSize(1);
+
+        // when
+        symbolIndex.addSymbol(new SymbolInfo("Second", SymbolKind.CLASS, file, 5, 1));
+        List<SymbolInfo> results = symbolIndex.search("").collect(Collectors.toList());
+
+        // then
+        assertThat(results).extracting(SymbolInfo::name).contains("First", "Second");
+    }
+
     @UnitTest
     void close_shouldProperlyCleanupResources() throws Exception {
         // given
@@ -70,7 +70,8 @@ class GroovyFileParserAdditionalTest {
 
             mockedFactory.when(GroovyCoreFactory::getInstance).thenReturn(mockFactory);
             when(mockFactory.getASTService()).thenReturn(mockAstService);
-            when(mockAstService.parseSource(anyString(), anyString())).thenReturn(mockModuleNode);
+            when(mockAstService.parseDeclarations(anyString(), anyString()))
+                    .thenReturn(mockModuleNode);
             when(mockModuleNode.getClasses()).thenReturn(Collections.emptyList());
 
             // Create parser with mocked dependencies
@@ -96,7 +97,7 @@ class GroovyFileParserAdditionalTest {
 
             mockedFactory.when(GroovyCoreFactory::getInstance).thenReturn(mockFactory);
             when(mockFactory.getASTService()).thenReturn(mockAstService);
-            when(mockAstService.parseSource(anyString(), anyString()))
+            when(mockAstService.parseDeclarations(anyString(), anyString()))
                     .thenThrow(new RuntimeException("Parsing error"));
 
             // Create parser with mocked dependencies
@@ -123,7 +124,8 @@ class GroovyFileParserAdditionalTest {
 
             mockedFactory.when(GroovyCoreFactory::getInstance).thenReturn(mockFactory);
             when(mockFactory.getASTService()).thenReturn(mockAstService);
-            when(mockAstService.parseSource(anyString(), anyString())).thenReturn(mockModuleNode);
+            when(mockAstService.parseDeclarations(anyString(), anyString()))
+                    .thenReturn(mockModuleNode);
             // Throw exception when getting classes
             when(mockModuleNode.getClasses())
                     .thenThrow(new RuntimeException("Error getting classes"));
@@ -165,7 +167,8 @@ class GroovyFileParserAdditionalTest {
 
             mockedFactory.when(GroovyCoreFactory::getInstance).thenReturn(mockFactory);
             when(mockFactory.getASTService()).thenReturn(mockAstService);
-            when(mockAstService.parseSource(anyString(), anyString())).thenReturn(mockModuleNode);
+            when(mockAstService.parseDeclarations(anyString(), anyString()))
+                    .thenReturn(mockModuleNode);
             when(mockModuleNode.getClasses()).thenReturn(Collections.emptyList());
 
             // Create parser with mocked dependencies